@@ -113,6 +113,10 @@ dependencies {
 
     implementation("com.github.bumptech.glide:glide:4.16.0")
     annotationProcessor("com.github.bumptech.glide:compiler:4.16.0")
+    // RecyclerViewPreloader for the event and admin lists
+    implementation("com.github.bumptech.glide:recyclerview-integration:4.16.0") {
+        isTransitive = false
+    }
     implementation("com.google.firebase:firebase-auth:22.3.0")
     implementation("com.google.android.material:material:1.12.0")
 
@@ -2,13 +2,17 @@ package com.example.ajilore.code;
 
 import android.Manifest; //  ADDED: Import for notification permission
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager; //  ADDED: Import for permission handling
 import android.os.Bundle;
+import android.os.Process;
+import android.os.SystemClock;
 import android.provider.Settings;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
@@ -21,8 +25,13 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.fragment.app.Fragment;
 
+import com.example.ajilore.code.data.FirestoreDocumentStore;
+import com.example.ajilore.code.data.InboxUnreadRepository;
+import com.example.ajilore.code.data.TrackedFirestore;
+import com.example.ajilore.code.services.StartupGate;
 import com.example.ajilore.code.ui.admin.AdminEventsFragment;
 import com.example.ajilore.code.ui.admin.AdminProfilesFragment;
+import com.example.ajilore.code.ui.debug.FirestoreLedgerOverlay;
 import com.example.ajilore.code.ui.events.EventDetailsFragment;
 import com.example.ajilore.code.ui.events.EventsFragment;
 import com.example.ajilore.code.ui.events.GeneralEventsFragment;
@@ -32,21 +41,14 @@ import com.example.ajilore.code.ui.inbox.InboxFragment;
 import com.example.ajilore.code.ui.profile.LoginFragment;
 import com.example.ajilore.code.ui.profile.ProfileFragment;
 import com.example.ajilore.code.utils.AdminAuthManager;
+import com.example.ajilore.code.utils.SessionPrefs;
+import com.example.ajilore.code.utils.StartupTrace;
 import com.google.android.material.badge.BadgeDrawable;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.navigation.NavigationBarView;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
-import com.cloudinary.android.MediaManager;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * MainActivity - The main entry point of the application.
@@ -62,58 +64,65 @@ public class MainActivity extends AppCompatActivity {
     private FirebaseFirestore db;
     private String userId;
 
-    // to clean up listeners
-    private ListenerRegistration registrationsListener;
-    private final List<ListenerRegistration> inboxListeners = new ArrayList<>();
-    // keep per-event unread counts
-    private final Map<String, Integer> unreadPerEvent = new HashMap<>();
+    // to clean up the inbox badge's counter subscription
+    private ListenerRegistration inboxBadgeSubscription;
 
 
 
     private BottomNavigationView bottomNavigationView;
     private boolean isAdmin = false;  // NEW: Track if current user is admin
 
+    // Firestore cost panel; null in release builds
+    private FirestoreLedgerOverlay ledgerOverlay;
+
+    // Ban watchdog on users/{deviceId}, and whether it has seen the profile exist
+    private ListenerRegistration banWatch;
+    private boolean profileSeen;
+
+    // Time to first frame and to the first real screen, from process start
+    private final StartupTrace startupTrace = new StartupTrace(Process.getStartUptimeMillis());
+
     /**
      * Called when the activity is first created.
-     * Initializes Cloudinary, Firestore, navigation, ban checks, and inbox listeners.
+     * Shows the layout, then starts the independent startup work side by side: the
+     * {@link StartupGate} ban and profile reads, the ban watchdog and the inbox badge
+     * listener. Cloudinary is set up by {@link com.example.ajilore.code.images.MediaPipeline}
+     * on the first upload; Maps and Location are created by the screens that use them.
      *
      * @param savedInstanceState previously saved instance state, or {@code null}
      *                           if this is a fresh launch
      */
-
-
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-
-        setupRealtimeBanListener();
+        startupTrace.mark("onCreate", SystemClock.uptimeMillis());
 
         EdgeToEdge.enable(this);
 
-        //Setting up the Cloudinary connection
-        Map<String, Object> config = new HashMap<>();
-        config.put("cloud_name", "dswduwd5v");
-        config.put("api_key","494611986897794");
-        config.put("api_secret","dIx5IJLF94eA5Cqcoo8g90IvaA8");
-        // Prevent reinitialization crash
-        try {
-            MediaManager.init(this, config);
-            Log.d("MainActivity", "MediaManager initialized successfully");
-        } catch (IllegalStateException e) {
-            Log.d("MainActivity", "MediaManager already initialized");
-            // Already initialized, no action needed
-        }
-
         setContentView(R.layout.activity_main);
         bottomNavigationView = findViewById(R.id.menu_bottom_nav);
         bottomNavigationView.setVisibility(View.GONE);
+        traceFirstFrame();
 
         db = FirebaseFirestore.getInstance();
+
+        // Apply window insets
+        ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
+            Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
+            v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
+            return insets;
+        });
+
+        // Setup bottom navigation
+        setupBottomNavigation();
+
         boolean skipLoginForTests = getIntent().getBooleanExtra("skipLoginForTests", false);
 
         if (!skipLoginForTests) {
-            // normal behaviour
-            checkBanStatusAndLogin();
+            // normal behaviour: route from the cached check, or once the ban/profile reads finish
+            if (savedInstanceState == null) {
+                openStartupGate();
+            }
         } else {
             // TEST MODE: pretend user is already clean + logged in
             getSupportFragmentManager()
@@ -123,6 +132,7 @@ public class MainActivity extends AppCompatActivity {
                     .commit();
         }
 
+        setupRealtimeBanListener();
 
         userId = Settings.Secure.getString(
                 getContentResolver(),
@@ -133,35 +143,81 @@ public class MainActivity extends AppCompatActivity {
             startInboxBadgeListener();
         }
 
-        // Apply window insets
-        ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
-            Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
-            v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
-            return insets;
-        });
-
         // Check if current device has admin privileges
         checkAdminStatus();
 
-        // Setup bottom navigation
-        setupBottomNavigation();
+        ledgerOverlay = FirestoreLedgerOverlay.install(this);
 
         // Check if we should navigate to a specific fragment
         handleNavigationIntent();
 
-        if (savedInstanceState == null) {
-            // Intercept startup to check for bans first
-            checkBanStatusAndLogin();
-        }
-        // Load default fragment on startup if (savedInstanceState == null) { getSupportFragmentManager().beginTransaction() .replace(R.id.nav_host_fragment, new OrganizerEventsFragment()) .commit(); //highlight the correct tab in the bottom nav
-        // bottomNavigationView.setSelectedItemId(R.id.generalEventsFragment);  // Test Firebase connection testFirebaseConnection();
-        // Test Firebase connection (unchanged)
+        // Test Firebase connection (debug builds only)
         testFirebaseConnection();
 
         //ADDED: Check and request notification permission
         checkNotificationPermission();
     }
 
+    /**
+     * Records when the first frame is drawn and logs the startup milestones so far.
+     * The origin is the process start, so the {@code onCreate} mark shows how much of
+     * the time was spent before this activity existed.
+     */
+    private void traceFirstFrame() {
+        View decor = getWindow().getDecorView();
+        decor.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                if (!startupTrace.mark("firstFrame", SystemClock.uptimeMillis())) return;
+                Log.i("Startup", startupTrace.summary());
+                ViewTreeObserver.OnDrawListener self = this;
+                // Listeners cannot be removed while the tree is drawing.
+                decor.post(() -> decor.getViewTreeObserver().removeOnDrawListener(self));
+            }
+        });
+    }
+
+    /**
+     * Routes this device to login, events or the ban screen through {@link StartupGate}.
+     * A returning user with a recent cached check is routed at once while the check
+     * refreshes in the background; the route changes only if the refresh disagrees.
+     */
+    private void openStartupGate() {
+        String deviceId = AdminAuthManager.getDeviceId(this);
+        new StartupGate(FirestoreDocumentStore.tracked(db, "MainActivity.startupGate"), new SessionPrefs(this))
+                .open(deviceId, new StartupGate.Listener() {
+                    @Override
+                    public void onRoute(@NonNull StartupGate.Route route, boolean cached) {
+                        if (isFinishing() || isDestroyed()) return;
+                        Log.d("Auth", "Startup route " + route + (cached ? " (cached)" : ""));
+                        switch (route) {
+                            case BANNED:
+                                Log.w("Auth", "Banned device attempted login: " + deviceId);
+                                handleBannedUser();
+                                break;
+                            case HOME:
+                                // Selecting the events tab loads GeneralEventsFragment.
+                                showBottomNav();
+                                break;
+                            default:
+                                loadLoginFragment();
+                                break;
+                        }
+                        if (startupTrace.mark("route", SystemClock.uptimeMillis())) {
+                            Log.i("Startup", startupTrace.summary());
+                            reportFullyDrawn();
+                        }
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        Log.e("Auth", "Failed to check ban status", e);
+                        Toast.makeText(MainActivity.this,
+                                "Connection Error: Verifying account status...", Toast.LENGTH_SHORT).show();
+                    }
+                });
+    }
+
 
     //  ADDED: Method to check and request notification permission for Android 13+
     /**
@@ -470,34 +526,16 @@ public class MainActivity extends AppCompatActivity {
 //    }
 
     /**
-     * Simple Firestore smoke test to confirm connectivity and that
-     * the {@code org_events} collection is reachable.
-     * Logs and toasts the number of events found.
+     * Simple Firestore smoke test, in debuggable builds only, to confirm connectivity and
+     * that the {@code org_events} collection is reachable. Reads a single event rather
+     * than the whole collection.
      */
     private void testFirebaseConnection() {
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) return;
 
-        //Changed it so that it will query the right document
-
-        db.collection("org_events")
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    int count = querySnapshot.size();
-
-                    Log.d("Firebase", " SUCCESS! Connected to Firestore");
-                    Log.d("Firebase", "Found " + count + " events");
-
-                    // Log each event
-                    for (QueryDocumentSnapshot doc : querySnapshot) {
-                        String title = doc.getString("title");
-                        Log.d("Firebase", "Event: " + title);
-                        Log.d("EventsCheck", "Event ID: " +doc.getId());
-                    }
-
-                    Toast.makeText(this,
-                            "Firebase connected! Found " + count + " events",
-                            Toast.LENGTH_LONG).show();
-                })
+        TrackedFirestore.get("MainActivity.testFirebaseConnection", db.collection("org_events").limit(1))
+                .addOnSuccessListener(querySnapshot ->
+                        Log.d("Firebase", " SUCCESS! Connected to Firestore"))
                 .addOnFailureListener(e -> {
                     Log.e("Firebase", " FAILED: " + e.getMessage());
 
@@ -508,105 +546,61 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Starts and maintains snapshot listeners used to update the inbox badge.
-     * Listens to the current user's registrations and, for each event, listens
-     * to unread, non-archived inbox messages to compute the total unread count.
+     * Subscribes the inbox badge to the user's server-maintained count of unread notices
+     * plus the unread broadcasts the shared inbox feed has matched for them.
      */
     private void startInboxBadgeListener() {
         // Clean up previous if any
-        if (registrationsListener != null) {
-            registrationsListener.remove();
-            registrationsListener = null;
+        if (inboxBadgeSubscription != null) {
+            inboxBadgeSubscription.remove();
+            inboxBadgeSubscription = null;
         }
-        for (ListenerRegistration l : inboxListeners) {
-            l.remove();
-        }
-        inboxListeners.clear();
-        unreadPerEvent.clear();
-
-        registrationsListener = db.collection("users")
-                .document(userId)
-                .collection("registrations")
-                .addSnapshotListener((regSnap, e) -> {
-                    if (e != null || regSnap == null) {
-                        return;
-                    }
-
-                    // Which events still exist
-                    Set<String> currentEventIds = new HashSet<>();
-                    for (DocumentSnapshot d : regSnap.getDocuments()) {
-                        currentEventIds.add(d.getId());
-                    }
-
-                    // Remove counts for deleted registrations
-                    unreadPerEvent.keySet().removeIf(id -> !currentEventIds.contains(id));
 
-                    // Clear previous inbox listeners
-                    for (ListenerRegistration l : inboxListeners) {
-                        l.remove();
-                    }
-                    inboxListeners.clear();
-
-                    // Attach a listener to each event's inbox
-                    for (DocumentSnapshot regDoc : regSnap.getDocuments()) {
-                        final String eventId = regDoc.getId();
-
-                        ListenerRegistration inboxListener = regDoc.getReference()
-                                .collection("inbox")
-                                .whereEqualTo("archived", false)
-                                .whereEqualTo("read", false)
-                                .addSnapshotListener((inboxSnap, err) -> {
-                                    if (err != null) return;
-
-                                    int count = (inboxSnap == null) ? 0 : inboxSnap.size();
-                                    unreadPerEvent.put(eventId, count);
-
-                                    int totalUnread = 0;
-                                    for (int c : unreadPerEvent.values()) {
-                                        totalUnread += c;
-                                    }
-
-                                    updateInboxBadge(totalUnread);
-                                });
+        inboxBadgeSubscription = new InboxUnreadRepository(db).listen(userId, new InboxUnreadRepository.UnreadListener() {
+            @Override
+            public void onUnread(int unread) {
+                updateInboxBadge(unread);
+            }
 
-                        inboxListeners.add(inboxListener);
-                    }
-                });
+            @Override
+            public void onError(@NonNull Exception e) {
+                Log.w("MainActivity", "Inbox badge listener failed", e);
+            }
+        });
     }
 
-
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (ledgerOverlay != null) ledgerOverlay.start();
+    }
 
     /**
-     * SECURITY: Checks if the device is banned before allowing login.
-     * This prevents removed organizers from simply creating new accounts.
+     * Stops the ledger overlay and writes the Firestore ledger to logcat, in every build,
+     * so the most expensive callers of a session can be read from a device log.
      */
-    private void checkBanStatusAndLogin() {
-        // 1. Get the device ID
-        String deviceId = com.example.ajilore.code.utils.AdminAuthManager.getDeviceId(this);
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
+    @Override
+    protected void onStop() {
+        if (ledgerOverlay != null) ledgerOverlay.stop();
+        TrackedFirestore.dump("onStop");
+        super.onStop();
+    }
 
-        // 2. Check "banned_users" collection
-        db.collection("banned_users").document(deviceId).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        // CASE 1: USER IS BANNED
-                        Log.w("Auth", "Banned device attempted login: " + deviceId);
-                        handleBannedUser();
-                    } else {
-                        // CASE 2: USER IS CLEAN -> Proceed to normal login
-                        Log.d("Auth", "Device is clean. Proceeding to login.");
-                        loadLoginFragment();
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    // Fail safe: If check fails (network error), block or retry.
-                    // For now, we allow proceed or show error.
-                    Log.e("Auth", "Failed to check ban status", e);
-                    Toast.makeText(this, "Connection Error: Verifying account status...", Toast.LENGTH_SHORT).show();
-                    // Optional: Retry logic here
-                });
+    @Override
+    protected void onDestroy() {
+        if (banWatch != null) {
+            banWatch.remove();
+            banWatch = null;
+        }
+        if (inboxBadgeSubscription != null) {
+            inboxBadgeSubscription.remove();
+            inboxBadgeSubscription = null;
+        }
+        super.onDestroy();
     }
 
+
+
     /**
      * Loads the standard LoginFragment (moved from onCreate).
      */
@@ -635,33 +629,44 @@ public class MainActivity extends AppCompatActivity {
     /**
      * WATCHDOG: Listens for changes to the current user's profile in real-time.
      * If the profile is deleted by an Admin, this detects it instantly.
+     * <p>
+     * {@code banned_users} is read only when a profile this listener saw disappears. A device
+     * that never signed up has no profile on every snapshot; the startup gate covers it.
      */
     private void setupRealtimeBanListener() {
-        String deviceId = com.example.ajilore.code.utils.AdminAuthManager.getDeviceId(this);
-        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        String deviceId = AdminAuthManager.getDeviceId(this);
 
         // Add a listener to the USER document
-        db.collection("users").document(deviceId).addSnapshotListener((snapshot, e) -> {
-            if (e != null) {
-                Log.e("Auth", "Listen failed.", e);
-                return;
-            }
+        banWatch = TrackedFirestore.listen("MainActivity.banWatch",
+                db.collection("users").document(deviceId), (snapshot, e) -> {
+                    if (e != null) {
+                        Log.e("Auth", "Listen failed.", e);
+                        return;
+                    }
+                    if (snapshot == null) return;
 
-            // If snapshot is not null but exists() is false, the document was DELETED.
-            if (snapshot != null && !snapshot.exists()) {
-                Log.w("Auth", "User profile disappeared. Checking for ban...");
-
-                // Double-check the "banned_users" collection to confirm it was a ban
-                db.collection("banned_users").document(deviceId).get()
-                        .addOnSuccessListener(banDoc -> {
-                            if (banDoc.exists()) {
-                                // CONFIRMED: User was banned by Admin
-                                // Run on UI thread to ensure dialog shows up
-                                runOnUiThread(() -> showBanDialog());
-                            }
-                        });
-            }
-        });
+                    if (snapshot.exists()) {
+                        profileSeen = true;
+                        return;
+                    }
+                    if (!profileSeen) return;
+                    profileSeen = false;
+
+                    // The profile was DELETED
+                    Log.w("Auth", "User profile disappeared. Checking for ban...");
+
+                    // Double-check the "banned_users" collection to confirm it was a ban
+                    TrackedFirestore.get("MainActivity.banWatch", db.collection("banned_users").document(deviceId))
+                            .addOnSuccessListener(banDoc -> {
+                                if (banDoc.exists()) {
+                                    // CONFIRMED: User was banned by Admin
+                                    new SessionPrefs(this).save(
+                                            new StartupGate.Session(true, false, System.currentTimeMillis()));
+                                    // Run on UI thread to ensure dialog shows up
+                                    runOnUiThread(() -> showBanDialog());
+                                }
+                            });
+                });
     }
 
     /**
@@ -10,13 +10,18 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.images.Images;
 import com.example.ajilore.code.ui.events.model.Event;
+import com.example.ajilore.code.utils.ListSearch;
+import com.example.ajilore.code.utils.SearchIndex;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -43,9 +48,26 @@ import java.util.List;
  */
 public class AdminEventsAdapter extends RecyclerView.Adapter<AdminEventsAdapter.EventViewHolder> {
 
+    /** Indexes title and location. */
+    static final SearchIndex.Fields<Event> FIELDS = new SearchIndex.Fields<Event>() {
+        @NonNull
+        @Override
+        public String[] text(@NonNull Event item) {
+            return new String[]{item.title, item.location};
+        }
+
+        @Nullable
+        @Override
+        public String facet(@NonNull Event item, @NonNull String facet) {
+            return null;
+        }
+    };
+
     private final Context context;
-    private List<Event> eventList;
-    private final List<Event> eventListFull;
+    private final List<Event> eventList;
+    private final ListSearch<Event> search = new ListSearch<>(FIELDS);
+    private int loadedCount;
+    private String currentQuery = "";
     private final OnEventActionListener listener;
 
     /**
@@ -73,40 +95,87 @@ public class AdminEventsAdapter extends RecyclerView.Adapter<AdminEventsAdapter.
     public AdminEventsAdapter(Context context, OnEventActionListener listener) {
         this.context = context;
         this.eventList = new ArrayList<>();
-        this.eventListFull = new ArrayList<>();
         this.listener = listener;
     }
 
     /**
      * Replaces the adapter's event list with new events and refreshes UI.
+     * The current search query, if any, is applied to the new list.
      * @param events List of events to display.
      */
     public void setEvents(List<Event> events) {
-        this.eventList = new ArrayList<>(events);
-        this.eventListFull.clear();
-        this.eventListFull.addAll(events);
-        notifyDataSetChanged();
+        setEvents(events, null);
+    }
+
+    /**
+     * Like {@link #setEvents(List)}, running {@code onApplied} once the list is showing.
+     * @param events List of events to display.
+     * @param onApplied Called after the list is refreshed; may be null.
+     */
+    public void setEvents(List<Event> events, @Nullable Runnable onApplied) {
+        loadedCount = events.size();
+        search.replaceAll(events);
+        filter(currentQuery, onApplied);
+    }
+
+    /**
+     * Appends the next page of events and refreshes UI, keeping the current search query.
+     * @param events Events from the next page.
+     * @param onApplied Called after the list is refreshed; may be null.
+     */
+    public void addEvents(List<Event> events, @Nullable Runnable onApplied) {
+        loadedCount += events.size();
+        search.addAll(events);
+        filter(currentQuery, onApplied);
+    }
+
+    /**
+     * @return Number of events loaded so far, before filtering.
+     */
+    public int getLoadedCount() {
+        return loadedCount;
     }
 
     /**
-     * Filters the event list by matching query against title, description, or location.
+     * @param position adapter position
+     * @return the row's poster URL, or null if it has none
+     */
+    @Nullable
+    public String posterUrlAt(int position) {
+        String url = eventList.get(position).posterUrl;
+        return url != null && !url.isEmpty() && !url.equals("\"\"") ? url : null;
+    }
+
+    /**
+     * Filters the event list by matching query against title or location.
      * @param query Query string, case-insensitive.
      */
     public void filter(String query) {
-        eventList.clear();
-        if (query.isEmpty()) {
-            eventList.addAll(eventListFull);
-        } else {
-            String lowerCaseQuery = query.toLowerCase();
-            for (Event event : eventListFull) {
-                if (event.title.toLowerCase().contains(lowerCaseQuery) ||
-                        (event.location != null &&
-                                event.location.toLowerCase().contains(lowerCaseQuery))) {
-                    eventList.add(event);
-                }
-            }
-        }
-        notifyDataSetChanged();
+        filter(query, null);
+    }
+
+    /**
+     * Filters like {@link #filter(String)} and runs {@code onApplied} once the filtered
+     * list is showing. Typing is debounced and the search runs in the background.
+     * @param query Query string, case-insensitive.
+     * @param onApplied Called after the list is refreshed; may be null.
+     */
+    public void filter(String query, @Nullable Runnable onApplied) {
+        currentQuery = query != null ? query : "";
+        search.query(currentQuery, Collections.emptyMap(), matches -> {
+            eventList.clear();
+            eventList.addAll(matches);
+            notifyDataSetChanged();
+            if (onApplied != null) onApplied.run();
+        });
+    }
+
+    /**
+     * Drops a search that has not delivered yet. Call from the owning fragment's
+     * {@code onDestroyView}, so a debounced query does not update a list that is gone.
+     */
+    public void cancelSearch() {
+        search.cancel();
     }
 
     /**
@@ -148,11 +217,9 @@ public class AdminEventsAdapter extends RecyclerView.Adapter<AdminEventsAdapter.
         // Load image using Glide - Use posterUrl field
         String posterUrl = event.posterUrl;
         if (posterUrl != null && !posterUrl.isEmpty() && !posterUrl.equals("\"\"")) {
-            Glide.with(context)
-                    .load(posterUrl)
+            Images.thumbnail(Glide.with(context), posterUrl)
                     .placeholder(android.R.drawable.ic_menu_gallery)
                     .error(android.R.drawable.ic_menu_gallery)
-                    .centerCrop()
                     .into(holder.ivEventPoster);
         } else {
             holder.ivEventPoster.setImageResource(android.R.drawable.ic_menu_gallery);
@@ -9,14 +9,19 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.images.Images;
 import com.example.ajilore.code.models.ImageItem;
+import com.example.ajilore.code.utils.ListSearch;
+import com.example.ajilore.code.utils.SearchIndex;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -37,9 +42,26 @@ import java.util.List;
  */
 public class AdminImagesAdapter extends RecyclerView.Adapter<AdminImagesAdapter.ImageViewHolder> {
 
+    /** Indexes the event or user title. */
+    static final SearchIndex.Fields<ImageItem> FIELDS = new SearchIndex.Fields<ImageItem>() {
+        @NonNull
+        @Override
+        public String[] text(@NonNull ImageItem item) {
+            return new String[]{item.title};
+        }
+
+        @Nullable
+        @Override
+        public String facet(@NonNull ImageItem item, @NonNull String facet) {
+            return null;
+        }
+    };
+
     private final Context context;
-    private List<ImageItem> imageList;
-    private final List<ImageItem> imageListFull;  // Store unfiltered list for search
+    private final List<ImageItem> imageList;
+    private final ListSearch<ImageItem> search = new ListSearch<>(FIELDS);
+    private int loadedCount;
+    private String currentQuery = "";
     private final OnImageActionListener listener;
 
     /**
@@ -67,45 +89,86 @@ public class AdminImagesAdapter extends RecyclerView.Adapter<AdminImagesAdapter.
     public AdminImagesAdapter(Context context, OnImageActionListener listener) {
         this.context = context;
         this.imageList = new ArrayList<>();
-        this.imageListFull = new ArrayList<>();
         this.listener = listener;
     }
 
     /**
      * Replaces the adapter's image list with new images and refreshes UI.
+     * The current search query, if any, is applied to the new list.
      * @param images List of images to display.
      */
     public void setImages(List<ImageItem> images) {
-        this.imageList = new ArrayList<>(images);
-        this.imageListFull.clear();
-        this.imageListFull.addAll(images);
-        notifyDataSetChanged();
+        setImages(images, null);
+    }
+
+    /**
+     * Like {@link #setImages(List)}, running {@code onApplied} once the list is showing.
+     * @param images List of images to display.
+     * @param onApplied Called after the list is refreshed; may be null.
+     */
+    public void setImages(List<ImageItem> images, @Nullable Runnable onApplied) {
+        loadedCount = images.size();
+        search.replaceAll(images);
+        filter(currentQuery, onApplied);
+    }
+
+    /**
+     * Appends the next page of images and refreshes UI, keeping the current search query.
+     * @param images Images from the next page.
+     * @param onApplied Called after the list is refreshed; may be null.
+     */
+    public void addImages(List<ImageItem> images, @Nullable Runnable onApplied) {
+        loadedCount += images.size();
+        search.addAll(images);
+        filter(currentQuery, onApplied);
+    }
+
+    /**
+     * @return Number of images loaded so far, before filtering.
+     */
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * @param position adapter position
+     * @return the image URL shown at that position
+     */
+    @Nullable
+    public String imageUrlAt(int position) {
+        return imageList.get(position).imageUrl;
     }
 
     /**
-     * Filters the image list by event title.
-     * Searches through event names to match the query.
-     *
-     * @param query The search query to filter by (case-insensitive)
+     * Filters the image list by matching query against event or user title.
+     * @param query Query string, case-insensitive.
      */
     public void filter(String query) {
-        imageList.clear();
-
-        if (query == null || query.isEmpty()) {
-            // If query is empty, show all images
-            imageList.addAll(imageListFull);
-        } else {
-            // Filter by event title (case-insensitive)
-            String lowerCaseQuery = query.toLowerCase().trim();
-            for (ImageItem imageItem : imageListFull) {
-                if (imageItem.title != null &&
-                        imageItem.title.toLowerCase().contains(lowerCaseQuery)) {
-                    imageList.add(imageItem);
-                }
-            }
-        }
+        filter(query, null);
+    }
 
-        notifyDataSetChanged();
+    /**
+     * Filters like {@link #filter(String)} and runs {@code onApplied} once the filtered
+     * list is showing. Typing is debounced and the search runs in the background.
+     * @param query Query string, case-insensitive.
+     * @param onApplied Called after the list is refreshed; may be null.
+     */
+    public void filter(String query, @Nullable Runnable onApplied) {
+        currentQuery = query != null ? query : "";
+        search.query(currentQuery, Collections.emptyMap(), matches -> {
+            imageList.clear();
+            imageList.addAll(matches);
+            notifyDataSetChanged();
+            if (onApplied != null) onApplied.run();
+        });
+    }
+
+    /**
+     * Drops a search that has not delivered yet. Call from the owning fragment's
+     * {@code onDestroyView}, so a debounced query does not update a list that is gone.
+     */
+    public void cancelSearch() {
+        search.cancel();
     }
 
     /**
@@ -135,12 +198,10 @@ public class AdminImagesAdapter extends RecyclerView.Adapter<AdminImagesAdapter.
         holder.tvImageTitle.setText(imageItem.title);
 
         // Load image using Glide with error handling
-        Glide.with(context)
-                .load(imageItem.imageUrl)
+        Images.thumbnail(Glide.with(context), imageItem.imageUrl)
                 .placeholder(android.R.drawable.ic_menu_gallery)
                 .error(android.R.drawable.ic_menu_report_image)
                 .diskCacheStrategy(DiskCacheStrategy.ALL)
-                .centerCrop()
                 .into(holder.ivImage);
 
         // Click listeners
@@ -6,13 +6,19 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.ajilore.code.R;
 import com.example.ajilore.code.models.NotificationLog;
-import java.text.SimpleDateFormat;
+import com.example.ajilore.code.utils.DateLabels;
+import com.example.ajilore.code.utils.ListSearch;
+import com.example.ajilore.code.utils.SearchIndex;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
 /**
  * RecyclerView adapter responsible for displaying admin notification logs.
@@ -22,21 +28,54 @@ import java.util.Locale;
  *     <li>Displaying timestamp, audience, sender, event info, and message.</li>
  *     <li>Dynamic filtering by search query and audience category
  *         (waiting, selected, chosen, cancelled, all).</li>
- *     <li>Efficient list updates using an internal full copy of logs.</li>
+ *     <li>Searches over a {@link ListSearch} index on a background thread, with typing
+ *         debounced; results are diffed in the background so only changed rows rebind.</li>
  * </ul>
  *
  * <p>Used in: {@link com.example.ajilore.code.ui.admin.AdminNotificationLogsFragment}</p>
  */
-public class AdminLogsAdapter extends RecyclerView.Adapter<AdminLogsAdapter.LogViewHolder> {
+public class AdminLogsAdapter extends ListAdapter<NotificationLog, AdminLogsAdapter.LogViewHolder> {
+
+    /** Logs are write-once, so the log id identifies both the item and its contents. */
+    static final DiffUtil.ItemCallback<NotificationLog> DIFF = new DiffUtil.ItemCallback<NotificationLog>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull NotificationLog a, @NonNull NotificationLog b) {
+            return Objects.equals(a.getLogId(), b.getLogId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull NotificationLog a, @NonNull NotificationLog b) {
+            return Objects.equals(a.getLogId(), b.getLogId())
+                    && Objects.equals(a.getEventTitle(), b.getEventTitle())
+                    && Objects.equals(a.getMessage(), b.getMessage())
+                    && a.getRecipientCount() == b.getRecipientCount();
+        }
+    };
+
+    /** Audience facet ("waiting", "selected", "chosen", "cancelled"). */
+    static final String FACET_AUDIENCE = "audience";
+
+    /** Indexes the message and event id, plus the audience facet. */
+    static final SearchIndex.Fields<NotificationLog> FIELDS = new SearchIndex.Fields<NotificationLog>() {
+        @NonNull
+        @Override
+        public String[] text(@NonNull NotificationLog log) {
+            return new String[]{log.getMessage(), log.getEventId()};
+        }
+
+        @Nullable
+        @Override
+        public String facet(@NonNull NotificationLog log, @NonNull String facet) {
+            return log.getAudience();
+        }
+    };
 
     private Context context;
-    private List<NotificationLog> logs;
-    private List<NotificationLog> logsFull;
+    private final ListSearch<NotificationLog> search = new ListSearch<>(FIELDS, FACET_AUDIENCE);
 
     public AdminLogsAdapter(Context context) {
+        super(DIFF);
         this.context = context;
-        this.logs = new ArrayList<>();
-        this.logsFull = new ArrayList<>();
     }
 
     /**
@@ -53,9 +92,29 @@ public class AdminLogsAdapter extends RecyclerView.Adapter<AdminLogsAdapter.LogV
      * <p>Used in: {@link com.example.ajilore.code.ui.admin.AdminNotificationLogsFragment}</p>
      */
     public void setLogs(List<NotificationLog> logs) {
-        this.logs = new ArrayList<>(logs);
-        this.logsFull = new ArrayList<>(logs);
-        notifyDataSetChanged();
+        setLogs(logs, null);
+    }
+
+    /**
+     * Replaces all logs and runs {@code onApplied} once they are showing.
+     *
+     * @param logs      Logs to display.
+     * @param onApplied Called after the list is committed; may be null.
+     */
+    public void setLogs(List<NotificationLog> logs, @Nullable Runnable onApplied) {
+        search.replaceAll(logs);
+        submitList(new ArrayList<>(logs), onApplied);
+    }
+
+    /**
+     * Appends the next page of logs to the unfiltered data set. The displayed list is not
+     * changed; call {@link #filter(String, String, Runnable)} with the screen's current
+     * search and audience to show the new rows.
+     *
+     * @param logs Logs from the next page.
+     */
+    public void addLogs(List<NotificationLog> logs) {
+        search.addAll(logs);
     }
 
     // Filter by Event ID or Message content
@@ -81,39 +140,30 @@ public class AdminLogsAdapter extends RecyclerView.Adapter<AdminLogsAdapter.LogV
      * @param audienceFilter  The selected audience category.
      */
     public void filter(String text, String audienceFilter) {
-        logs.clear();
-
-        String lowerCaseText = text.toLowerCase();
-
-        for (NotificationLog item : logsFull) {
-            boolean matchesSearch = false;
-            boolean matchesAudience = false;
-
-            // 1. Check search text
-            if (text.isEmpty()) {
-                matchesSearch = true;
-            } else {
-                if ((item.getMessage() != null && item.getMessage().toLowerCase().contains(lowerCaseText)) ||
-                        (item.getEventId() != null && item.getEventId().toLowerCase().contains(lowerCaseText))) {
-                    matchesSearch = true;
-                }
-            }
+        filter(text, audienceFilter, null);
+    }
 
-            // 2. Check audience filter
-            if (audienceFilter.equals("all")) {
-                matchesAudience = true;
-            } else {
-                if (item.getAudience() != null && item.getAudience().equalsIgnoreCase(audienceFilter)) {
-                    matchesAudience = true;
-                }
-            }
+    /**
+     * Filters logs like {@link #filter(String, String)} and runs {@code onApplied} once the
+     * filtered list is showing, e.g. to update an empty state from {@link #getItemCount()}.
+     * Typing is debounced and the search runs in the background.
+     *
+     * @param text           Search text entered by the admin.
+     * @param audienceFilter The selected audience category.
+     * @param onApplied      Called after the filtered list is committed; may be null.
+     */
+    public void filter(String text, String audienceFilter, @Nullable Runnable onApplied) {
+        String audience = "all".equals(audienceFilter) ? null : audienceFilter;
+        search.query(text, Collections.singletonMap(FACET_AUDIENCE, audience),
+                logs -> submitList(logs, onApplied));
+    }
 
-            // 3. Add if BOTH match
-            if (matchesSearch && matchesAudience) {
-                logs.add(item);
-            }
-        }
-        notifyDataSetChanged();
+    /**
+     * Drops a search that has not delivered yet. Call from the owning fragment's
+     * {@code onDestroyView}, so a debounced query does not update a list that is gone.
+     */
+    public void cancelSearch() {
+        search.cancel();
     }
 
     /**
@@ -148,12 +198,11 @@ public class AdminLogsAdapter extends RecyclerView.Adapter<AdminLogsAdapter.LogV
      */
     @Override
     public void onBindViewHolder(@NonNull LogViewHolder holder, int position) {
-        NotificationLog log = logs.get(position);
+        NotificationLog log = getItem(position);
 
         //Format and display timestamp
         if (log.getTimestamp() != null) {
-            SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy • h:mm a", Locale.getDefault());
-            holder.tvDate.setText(sdf.format(log.getTimestamp().toDate()));
+            holder.tvDate.setText(DateLabels.logStamp(log.getTimestamp().toDate().getTime()));
         } else {
             holder.tvDate.setText("Date unknown");
         }
@@ -256,12 +305,6 @@ public class AdminLogsAdapter extends RecyclerView.Adapter<AdminLogsAdapter.LogV
                 break;
         }
     }
-    /**
-     * @return Number of logs currently being displayed.
-     */
-    @Override
-    public int getItemCount() { return logs.size(); }
-
     /**
      * ViewHolder containing all UI references for a single log entry row.
      *
@@ -9,30 +9,73 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.ajilore.code.R;
 import com.example.ajilore.code.models.User;
+import com.example.ajilore.code.utils.ListSearch;
+import com.example.ajilore.code.utils.SearchIndex;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * RecyclerView Adapter for rendering the list of User Profiles in the Admin Dashboard.
  *
  * <p><b>Implements US 03.05.01 (Browse Profiles):</b>
  * Displays a list of users including their avatar, name, and role.
- * Includes search filtering capabilities by name and role filtering (Entrant vs Organizer).</p>
+ * Includes search filtering capabilities by name and role filtering (Entrant vs Organizer).
+ * Searches run against a {@link ListSearch} index on a background thread, and filtered
+ * lists are diffed there too, so typing in the search box only rebinds the rows that
+ * appear or disappear.</p>
  *
  * @author Dinma (Team Quartz)
  * @version 1.2
  */
-public class AdminUsersAdapter extends RecyclerView.Adapter<AdminUsersAdapter.UserViewHolder> {
+public class AdminUsersAdapter extends ListAdapter<User, AdminUsersAdapter.UserViewHolder> {
+
+    /** Same user when the user id matches; contents compare the bound fields. */
+    static final DiffUtil.ItemCallback<User> DIFF = new DiffUtil.ItemCallback<User>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull User a, @NonNull User b) {
+            return Objects.equals(a.getUserId(), b.getUserId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull User a, @NonNull User b) {
+            return Objects.equals(a.getName(), b.getName())
+                    && Objects.equals(a.getRole(), b.getRole())
+                    && Objects.equals(a.getProfileImageUrl(), b.getProfileImageUrl());
+        }
+    };
+
+    /** Role facet: "organizers" for organisers, "entrants" for everyone else. */
+    static final String FACET_ROLE = "role";
+
+    /** Indexes name and email, plus the role facet. */
+    static final SearchIndex.Fields<User> FIELDS = new SearchIndex.Fields<User>() {
+        @NonNull
+        @Override
+        public String[] text(@NonNull User user) {
+            return new String[]{user.getName(), user.getEmail()};
+        }
+
+        @Nullable
+        @Override
+        public String facet(@NonNull User user, @NonNull String facet) {
+            // Note: Firebase stores role as "organiser" (British spelling)
+            return "organiser".equalsIgnoreCase(user.getRole()) ? "organizers" : "entrants";
+        }
+    };
 
     private final Context context;
-    private List<User> userList;        // The currently displayed (filtered) list
-    private final List<User> userListFull; // The complete dataset (unfiltered)
+    private final ListSearch<User> search = new ListSearch<>(FIELDS, FACET_ROLE); // Every loaded user, indexed
     private final OnUserActionListener listener;
 
     /**
@@ -61,23 +104,31 @@ public class AdminUsersAdapter extends RecyclerView.Adapter<AdminUsersAdapter.Us
      * @param listener The listener for user action callbacks
      */
     public AdminUsersAdapter(Context context, OnUserActionListener listener) {
+        super(DIFF);
         this.context = context;
-        this.userList = new ArrayList<>();
-        this.userListFull = new ArrayList<>();
         this.listener = listener;
     }
 
     /**
      * Updates the underlying data set and refreshes the view.
-     * Creates a copy of the data for the 'Full' list to enable client-side filtering.
+     * Re-indexes the data for search.
      *
      * @param users List of User objects to display.
      */
     public void setUsers(List<User> users) {
-        this.userList = new ArrayList<>(users);
-        this.userListFull.clear();
-        this.userListFull.addAll(users);
-        notifyDataSetChanged();
+        search.replaceAll(users);
+        submitList(new ArrayList<>(users));
+    }
+
+    /**
+     * Appends the next page of users to the unfiltered data set. The displayed list is not
+     * changed; call {@link #filter(String, String, Runnable)} with the screen's current
+     * search and role to show the new rows.
+     *
+     * @param users Users from the next page.
+     */
+    public void addUsers(List<User> users) {
+        search.addAll(users);
     }
 
     /**
@@ -86,44 +137,38 @@ public class AdminUsersAdapter extends RecyclerView.Adapter<AdminUsersAdapter.Us
      * @param query      Search string to match against Name or Email (case-insensitive).
      * @param roleFilter Role criteria: "All", "Organizers", or "Entrants".
      */
-
     public void filter(String query, String roleFilter) {
-        userList.clear();
-
-        // Normalize query
-        String lowerCaseQuery = query.toLowerCase();
-
-        for (User user : userListFull) {
-            boolean matchesSearch = false;
-            boolean matchesRole = false;
-
-            // 1. Text Search Logic
-            if (query.isEmpty()) {
-                matchesSearch = true;
-            } else {
-                if ((user.getName() != null && user.getName().toLowerCase().contains(lowerCaseQuery)) ||
-                        (user.getEmail() != null && user.getEmail().toLowerCase().contains(lowerCaseQuery))) {
-                    matchesSearch = true;
-                }
-            }
-
-            // 2. Role Filter Logic
-            // Note: Firebase stores role as "organiser" (British spelling)
-            if (roleFilter.equals("All")) {
-                matchesRole = true;
-            } else if (roleFilter.equals("Organizers") && "organiser".equalsIgnoreCase(user.getRole())) {
-                matchesRole = true;
-            } else if (roleFilter.equals("Entrants") && !"organiser".equalsIgnoreCase(user.getRole())) {
-                matchesRole = true;
-            }
-
-            // 3. Add if BOTH match
-            if (matchesSearch && matchesRole) {
-                userList.add(user);
-            }
+        filter(query, roleFilter, null);
+    }
+
+    /**
+     * Filters the displayed list and runs {@code onApplied} once the new list is showing,
+     * e.g. to update an empty state from {@link #getItemCount()}. Typing is debounced and
+     * the search runs in the background.
+     *
+     * @param query      Search string to match against Name or Email (case-insensitive).
+     * @param roleFilter Role criteria: "All", "Organizers", or "Entrants".
+     * @param onApplied  Called after the filtered list is committed; may be null.
+     */
+    public void filter(String query, String roleFilter, @Nullable Runnable onApplied) {
+        String role = null;
+        if ("Organizers".equals(roleFilter)) {
+            role = "organizers";
+        } else if ("Entrants".equals(roleFilter)) {
+            role = "entrants";
         }
-        notifyDataSetChanged();
+        search.query(query, Collections.singletonMap(FACET_ROLE, role),
+                users -> submitList(users, onApplied));
     }
+
+    /**
+     * Drops a search that has not delivered yet. Call from the owning fragment's
+     * {@code onDestroyView}, so a debounced query does not update a list that is gone.
+     */
+    public void cancelSearch() {
+        search.cancel();
+    }
+
     /**
      * Inflates a view and ViewHolder for a user row.
      * @param parent   Parent ViewGroup
@@ -145,7 +190,7 @@ public class AdminUsersAdapter extends RecyclerView.Adapter<AdminUsersAdapter.Us
      */
     @Override
     public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
-        User user = userList.get(position);
+        User user = getItem(position);
 
         // Bind Name
         holder.tvUserName.setText(user.getName() != null ? user.getName() : "Unknown User");
@@ -184,15 +229,6 @@ public class AdminUsersAdapter extends RecyclerView.Adapter<AdminUsersAdapter.Us
         });
     }
 
-
-    /**
-     * @return The number of filtered users in the adapter.
-     */
-    @Override
-    public int getItemCount() {
-        return userList.size();
-    }
-
     /**
      * ViewHolder pattern to minimize expensive findViewById calls.
      */
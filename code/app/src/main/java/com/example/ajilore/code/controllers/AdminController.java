@@ -1,17 +1,18 @@
 package com.example.ajilore.code.controllers;
 
 import android.util.Log;
-import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.example.ajilore.code.data.ImageIndex;
+import com.example.ajilore.code.data.TrackedFirestore;
 import com.example.ajilore.code.ui.events.model.Event;
 import com.example.ajilore.code.models.User;
-import com.google.android.gms.tasks.OnCompleteListener;
-import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
-import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 
@@ -25,18 +26,20 @@ import java.util.Map;
  *
  * <p>This class acts as the bridge between the Admin UI and the Firebase backend (Firestore and Storage).
  * It implements the logic for browsing, filtering, and removing domain entities (Events, Users, Images)
- * and ensures data consistency (e.g., removing associated images when an event is deleted).</p>
+ * and ensures data consistency (e.g., removing associated images when an event is deleted).
+ * Browse methods return one page at a time ({@code startAfter} + {@code limit}) with a
+ * {@link PageToken} for the next page.</p>
  *
  * <h3>Supported User Stories:</h3>
  * <ul>
- * <li><b>US 03.04.01:</b> Browse Events ({@link #fetchAllEvents})</li>
- * <li><b>US 03.05.01:</b> Browse Profiles ({@link #fetchAllUsers})</li>
- * <li><b>US 03.06.01:</b> Browse Images ({@link #fetchAllImages})</li>
+ * <li><b>US 03.04.01:</b> Browse Events ({@link #fetchEventsPage})</li>
+ * <li><b>US 03.05.01:</b> Browse Profiles ({@link #fetchUsersPage})</li>
+ * <li><b>US 03.06.01:</b> Browse Images ({@link #fetchImagesPage})</li>
  * <li><b>US 03.01.01:</b> Remove Events ({@link #removeEvent})</li>
  * <li><b>US 03.02.01:</b> Remove Profiles ({@link #removeUser})</li>
  * <li><b>US 03.03.01:</b> Remove Images ({@link #removeImage})</li>
  * <li><b>US 03.07.01:</b> Remove Organizers ({@link #removeOrganizer})</li>
- * <li><b>US 03.08.01:</b> Review Notification Logs ({@link #fetchNotificationLogs})</li>
+ * <li><b>US 03.08.01:</b> Review Notification Logs ({@link #fetchNotificationLogsPage})</li>
  * </ul>
  *
  * @author Dinma (Team Quartz)
@@ -52,6 +55,11 @@ public class AdminController {
     private static final String USERS_COLLECTION = "users";
     private static final String LOGS_COLLECTION = "admin_notification_logs";
 
+    /** Documents per page for the admin lists. */
+    public static final int PAGE_SIZE = 25;
+    /** Documents per page for the image grid. */
+    public static final int IMAGE_PAGE_SIZE = 30;
+
     private final FirebaseFirestore db;
     private final FirebaseStorage storage;
 
@@ -94,89 +102,93 @@ public class AdminController {
     }
 
     /**
-     * Fetches all event documents from Firestore.
+     * Fetches one page of event documents, in document id order.
      * User Story: US 03.04.01 - Browse Events
      *
-     * @param callback DataCallback returning list of events or an error.
+     * @param page     token from the previous page, or null for the first page
+     * @param callback PagedDataCallback returning the page of events and the next token, or an error.
      */
-    public void fetchAllEvents(final DataCallback<List<Event>> callback) {
-        Log.d(TAG, "Fetching all events...");
-
-        db.collection(EVENTS_COLLECTION)
-                .get()
-                .addOnCompleteListener(new OnCompleteListener<QuerySnapshot>() {
-                    @Override
-                    public void onComplete(Task<QuerySnapshot> task) {
-                        if (task.isSuccessful() && task.getResult() != null) {
-                            List<Event> events = new ArrayList<>();
-                            for (QueryDocumentSnapshot document : task.getResult()) {
-                                try {
-                                    Event event = document.toObject(Event.class);
-                                    event.id = document.getId();
-                                    events.add(event);
-                                    Log.d(TAG, "Loaded event: " + event.title);
-                                } catch (Exception e) {
-                                    Log.e(TAG, "Error parsing event: " + document.getId(), e);
-                                }
-                            }
-                            callback.onSuccess(events);
-                            Log.d(TAG, "Successfully fetched " + events.size() + " events");
-                        } else {
-                            Exception e = task.getException();
-                            callback.onError(e != null ? e : new Exception("Unknown error"));
-                            Log.e(TAG, "Error fetching events", task.getException());
-                        }
-                    }
-                });
+    public void fetchEventsPage(@Nullable PageToken page, final PagedDataCallback<List<Event>> callback) {
+        Log.d(TAG, "Fetching events page...");
+        Query query = db.collection(EVENTS_COLLECTION).orderBy(FieldPath.documentId());
+        fetchPage("AdminController.fetchEventsPage", query, page, PAGE_SIZE, this::toEvent, callback);
     }
 
     /**
-     * Fetches all user profiles from Firestore and converts to User model.
+     * Fetches one page of user profiles, in document id order, converted to the User model.
      * User Story: US 03.05.01 - Browse Users/Profiles
      *
-     * @param callback DataCallback returning the user list or error.
+     * @param page     token from the previous page, or null for the first page
+     * @param callback PagedDataCallback returning the page of users and the next token, or an error.
      */
-    public void fetchAllUsers(final DataCallback<List<User>> callback) {
-        Log.d(TAG, "Fetching all users...");
-
-        db.collection(USERS_COLLECTION)
-                .get()
-                .addOnCompleteListener(new OnCompleteListener<QuerySnapshot>() {
-                    @Override
-                    public void onComplete(@NonNull Task<QuerySnapshot> task) {
-                        if (task.isSuccessful() && task.getResult() != null) {
-                            List<User> users = new ArrayList<>();
-                            for (QueryDocumentSnapshot document : task.getResult()) {
-                                try {
-                                    // Manually build User from Firestore document
-                                    User user = new User();
-                                    user.setUserId(document.getId());
-                                    user.setName(document.getString("name"));
-                                    user.setEmail(document.getString("email"));
-                                    user.setRole(document.getString("role"));
-
-                                    // Profile picture - use exact Firebase field name
-                                    String profilePic = document.getString("profilepicture");
-                                    if (profilePic != null && !profilePic.isEmpty()) {
-                                        user.setProfileImageUrl(profilePic);
-                                    }
+    public void fetchUsersPage(@Nullable PageToken page, final PagedDataCallback<List<User>> callback) {
+        Log.d(TAG, "Fetching users page...");
+        Query query = db.collection(USERS_COLLECTION).orderBy(FieldPath.documentId());
+        fetchPage("AdminController.fetchUsersPage", query, page, PAGE_SIZE, this::toUser, callback);
+    }
 
-                                    users.add(user);
-                                    Log.d(TAG, "Loaded user: " + user.getName() +
-                                            " (role: " + user.getRole() + ")");
-                                } catch (Exception e) {
-                                    Log.e(TAG, "Error parsing user: " + document.getId(), e);
-                                }
-                            }
-                            callback.onSuccess(users);
-                            Log.d(TAG, "Successfully fetched " + users.size() + " users");
-                        } else {
-                            Exception e = task.getException();
-                            callback.onError(e != null ? e : new Exception("Unknown error"));
-                            Log.e(TAG, "Error fetching users", task.getException());
-                        }
+    /**
+     * Runs one page of {@code ordered} after the token's cursor and maps each document with
+     * {@code parser} (documents it returns null for are skipped). The next token is null once
+     * a page comes back short. The read is recorded in the Firestore ledger under {@code tag}.
+     */
+    private <T> void fetchPage(String tag,
+                               Query ordered,
+                               @Nullable PageToken page,
+                               int pageSize,
+                               DocumentParser<T> parser,
+                               final PagedDataCallback<List<T>> callback) {
+        Query query = ordered.limit(pageSize);
+        if (page != null) {
+            query = ordered.startAfter(page.cursor).limit(pageSize);
+        }
+        TrackedFirestore.get(tag, query).addOnCompleteListener(task -> {
+            if (task.isSuccessful() && task.getResult() != null) {
+                List<DocumentSnapshot> docs = task.getResult().getDocuments();
+                List<T> items = new ArrayList<>(docs.size());
+                for (DocumentSnapshot document : docs) {
+                    try {
+                        T item = parser.parse(document);
+                        if (item != null) items.add(item);
+                    } catch (Exception e) {
+                        Log.e(TAG, "Error parsing document: " + document.getId(), e);
                     }
-                });
+                }
+                PageToken next = docs.size() < pageSize
+                        ? null
+                        : new PageToken(docs.get(docs.size() - 1));
+                Log.d(TAG, "Fetched page of " + items.size() + (next == null ? " (last page)" : ""));
+                callback.onPage(items, next);
+            } else {
+                Exception e = task.getException();
+                callback.onError(e != null ? e : new Exception("Unknown error"));
+                Log.e(TAG, "Error fetching page", task.getException());
+            }
+        });
+    }
+
+    /** Builds an Event from its document. */
+    private Event toEvent(DocumentSnapshot document) {
+        Event event = document.toObject(Event.class);
+        if (event == null) return null;
+        event.id = document.getId();
+        return event;
+    }
+
+    /** Manually builds a User from its Firestore document. */
+    private User toUser(DocumentSnapshot document) {
+        User user = new User();
+        user.setUserId(document.getId());
+        user.setName(document.getString("name"));
+        user.setEmail(document.getString("email"));
+        user.setRole(document.getString("role"));
+
+        // Profile picture - use exact Firebase field name
+        String profilePic = document.getString("profilepicture");
+        if (profilePic != null && !profilePic.isEmpty()) {
+            user.setProfileImageUrl(profilePic);
+        }
+        return user;
     }
 
     /**
@@ -432,129 +444,53 @@ public class AdminController {
     }
 
     /**
-     * Fetches all images (event posters AND profile pictures) from Firestore.
+     * Fetches one page of images from the {@code images} index, newest upload first.
      * User Story: US 03.06.01 - Browse Images
      *
-     * @param callback DataCallback returning list of ImageItems or an error.
+     * <p>Reads only the index ({@link ImageIndex}); events and users are not touched.</p>
+     *
+     * @param page     token from the previous page, or null for the first page
+     * @param callback PagedDataCallback returning the page of ImageItems and the next token, or an error.
      */
-    public void fetchAllImages(final DataCallback<List<com.example.ajilore.code.models.ImageItem>> callback) {
-        Log.d(TAG, "Fetching all images...");
-
-        final List<com.example.ajilore.code.models.ImageItem> allImages = new ArrayList<>();
-
-        // First, fetch event posters
-        db.collection(EVENTS_COLLECTION)
-                .get()
-                .addOnCompleteListener(new OnCompleteListener<QuerySnapshot>() {
-                    @Override
-                    public void onComplete(@NonNull Task<QuerySnapshot> task) {
-                        if (task.isSuccessful() && task.getResult() != null) {
-                            // Add event posters
-                            for (QueryDocumentSnapshot document : task.getResult()) {
-                                try {
-                                    com.example.ajilore.code.ui.events.model.Event event =
-                                            document.toObject(com.example.ajilore.code.ui.events.model.Event.class);
-                                    event.id = document.getId();
-
-                                    // Only add if event has a posterUrl
-                                    if (event.posterUrl != null &&
-                                            !event.posterUrl.isEmpty() &&
-                                            !event.posterUrl.equals("\"\"")) {
-
-                                        long uploadTime = event.createdAt != null ?
-                                                event.createdAt.toDate().getTime() :
-                                                System.currentTimeMillis();
-
-                                        com.example.ajilore.code.models.ImageItem imageItem =
-                                                new com.example.ajilore.code.models.ImageItem(
-                                                        event.posterUrl,
-                                                        event.id,
-                                                        "Event: " + event.title,
-                                                        uploadTime
-                                                );
-                                        imageItem.type = "event";
-                                        allImages.add(imageItem);
-                                        Log.d(TAG, "Loaded event poster: " + event.title);
-                                    }
-                                } catch (Exception e) {
-                                    Log.e(TAG, "Error parsing event for image: " + document.getId(), e);
-                                }
-                            }
-
-                            // Now fetch profile pictures
-                            fetchProfilePictures(allImages, callback);
-
-                        } else {
-                            Exception e = task.getException();
-                            callback.onError(e != null ? e : new Exception("Unknown error"));
-                            Log.e(TAG, "Error fetching event images", task.getException());
-                        }
-                    }
-                });
+    public void fetchImagesPage(@Nullable PageToken page,
+                                final PagedDataCallback<List<com.example.ajilore.code.models.ImageItem>> callback) {
+        Log.d(TAG, "Fetching images page...");
+        Query query = db.collection(ImageIndex.COLLECTION)
+                .orderBy(ImageIndex.FIELD_UPLOADED_AT, Query.Direction.DESCENDING);
+        fetchPage("AdminController.fetchImagesPage", query, page, IMAGE_PAGE_SIZE, this::toImageItem, callback);
     }
 
-    /**
-     * Helper method to fetch profile pictures and combine with event images.
-     * CRITICAL: Uses "profilepicture" field name to match your Firebase!
-     */
-    private void fetchProfilePictures(final List<com.example.ajilore.code.models.ImageItem> eventImages,
-                                      final DataCallback<List<com.example.ajilore.code.models.ImageItem>> callback) {
-        db.collection(USERS_COLLECTION)
-                .get()
-                .addOnCompleteListener(new OnCompleteListener<QuerySnapshot>() {
-                    @Override
-                    public void onComplete(@NonNull Task<QuerySnapshot> task) {
-                        if (task.isSuccessful() && task.getResult() != null) {
-                            // Add profile pictures
-                            for (QueryDocumentSnapshot document : task.getResult()) {
-                                try {
-                                    // CRITICAL: Use "profilepicture" to match your Firebase field name
-                                    String profileImageUrl = document.getString("profilepicture");
-                                    String userName = document.getString("name");
-
-                                    // Only add if user has a profile picture
-                                    if (profileImageUrl != null &&
-                                            !profileImageUrl.isEmpty() &&
-                                            !profileImageUrl.equals("\"\"")) {
-
-                                        long uploadTime = System.currentTimeMillis();
-                                        if (document.contains("createdAt")) {
-                                            try {
-                                                uploadTime = document.getLong("createdAt");
-                                            } catch (Exception e) {
-                                                // Use current time if createdAt is not a long
-                                            }
-                                        }
-
-                                        com.example.ajilore.code.models.ImageItem imageItem =
-                                                new com.example.ajilore.code.models.ImageItem(
-                                                        profileImageUrl,
-                                                        document.getId(),
-                                                        "Profile: " + (userName != null ? userName : "User"),
-                                                        uploadTime
-                                                );
-                                        imageItem.type = "profile";
-                                        eventImages.add(imageItem);
-                                        Log.d(TAG, "Loaded profile picture: " + userName);
-                                    }
-                                } catch (Exception e) {
-                                    Log.e(TAG, "Error parsing user for profile image: " + document.getId(), e);
-                                }
-                            }
-
-                            callback.onSuccess(eventImages);
-                            Log.d(TAG, "Successfully fetched " + eventImages.size() + " images total");
-                        } else {
-                            // If profile fetch fails, still return event images
-                            callback.onSuccess(eventImages);
-                            Log.w(TAG, "Error fetching profile images, returning event images only");
-                        }
-                    }
-                });
+    /** Builds an ImageItem from an {@code images} index entry, or null if it has no URL. */
+    private com.example.ajilore.code.models.ImageItem toImageItem(DocumentSnapshot document) {
+        String url = document.getString(ImageIndex.FIELD_URL);
+        String ownerId = document.getString(ImageIndex.FIELD_OWNER);
+        if (url == null || url.isEmpty() || ownerId == null) {
+            return null;
+        }
+        String type = ImageIndex.TYPE_PROFILE.equals(document.getString(ImageIndex.FIELD_TYPE))
+                ? ImageIndex.TYPE_PROFILE
+                : ImageIndex.TYPE_EVENT;
+        String name = document.getString(ImageIndex.FIELD_TITLE);
+        com.google.firebase.Timestamp uploadedAt = document.getTimestamp(ImageIndex.FIELD_UPLOADED_AT);
+        Long bytes = document.getLong(ImageIndex.FIELD_BYTES);
+
+        com.example.ajilore.code.models.ImageItem imageItem =
+                new com.example.ajilore.code.models.ImageItem(
+                        url,
+                        ownerId,
+                        ImageIndex.TYPE_PROFILE.equals(type)
+                                ? "Profile: " + (name != null && !name.isEmpty() ? name : "User")
+                                : "Event: " + (name != null ? name : ""),
+                        uploadedAt != null ? uploadedAt.toDate().getTime() : 0L
+                );
+        imageItem.type = type;
+        imageItem.bytes = bytes != null ? bytes : 0L;
+        return imageItem;
     }
 
     /**
-     * Removes an image (event poster OR profile picture) from Storage and Firestore.
+     * Removes an image (event poster OR profile picture) from Storage and Firestore,
+     * including its {@code images} index entry.
      * User Story: US 03.03.01 - Remove Images
      *
      * @param imageItem  The ImageItem containing the image URL, ID, and type
@@ -572,7 +508,7 @@ public class AdminController {
         String collection;
         String field;
 
-        if ("profile".equals(imageItem.type)) {
+        if (ImageIndex.TYPE_PROFILE.equals(imageItem.type)) {
             // Profile picture - Use "profilepicture" to match Firebase
             collection = USERS_COLLECTION;
             field = "profilepicture";
@@ -584,9 +520,12 @@ public class AdminController {
             Log.d(TAG, "Removing event poster for event: " + imageItem.eventId);
         }
 
-        // Update the document to remove the image URL
-        db.collection(collection).document(imageItem.eventId)
-                .update(field, null)
+        // Clear the image URL and drop the index entry together
+        com.google.firebase.firestore.WriteBatch batch = db.batch();
+        batch.update(db.collection(collection).document(imageItem.eventId), field, null);
+        batch.delete(db.collection(ImageIndex.COLLECTION)
+                .document(ImageIndex.docId(imageItem.type, imageItem.eventId)));
+        batch.commit()
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "Image removed from " + collection + ": " + imageItem.eventId);
                     // Log admin action
@@ -615,35 +554,25 @@ public class AdminController {
 
 
     /**
-     * Fetches notification logs for administrative review.
+     * Fetches one page of notification logs for administrative review.
      *
      * <p><b>Implements US 03.08.01:</b> Queries the `admin_notification_logs` collection,
      * ordered by timestamp descending (newest first).</p>
      *
-     * @param callback Callback returning a list of {@link com.example.ajilore.code.models.NotificationLog} objects.
+     * @param page     token from the previous page, or null for the first page
+     * @param callback Callback returning a page of {@link com.example.ajilore.code.models.NotificationLog} objects.
      */
-    public void fetchNotificationLogs(final DataCallback<List<com.example.ajilore.code.models.NotificationLog>> callback) {
-        db.collection(LOGS_COLLECTION)
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .get()
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful() && task.getResult() != null) {
-                        List<com.example.ajilore.code.models.NotificationLog> logs = new ArrayList<>();
-                        for (QueryDocumentSnapshot doc : task.getResult()) {
-                            try {
-                                com.example.ajilore.code.models.NotificationLog log =
-                                        doc.toObject(com.example.ajilore.code.models.NotificationLog.class);
-                                log.setLogId(doc.getId());
-                                logs.add(log);
-                            } catch (Exception e) {
-                                Log.w(TAG, "Skipping malformed log entry: " + doc.getId());
-                            }
-                        }
-                        callback.onSuccess(logs);
-                    } else {
-                        callback.onError(task.getException());
-                    }
-                });
+    public void fetchNotificationLogsPage(@Nullable PageToken page,
+                                          final PagedDataCallback<List<com.example.ajilore.code.models.NotificationLog>> callback) {
+        Query query = db.collection(LOGS_COLLECTION)
+                .orderBy("timestamp", Query.Direction.DESCENDING);
+        fetchPage("AdminController.fetchNotificationLogsPage", query, page, PAGE_SIZE, doc -> {
+            com.example.ajilore.code.models.NotificationLog log =
+                    doc.toObject(com.example.ajilore.code.models.NotificationLog.class);
+            if (log == null) return null;
+            log.setLogId(doc.getId());
+            return log;
+        }, callback);
     }
 
     /**
@@ -680,6 +609,43 @@ public class AdminController {
         void onError(Exception e);
     }
 
+    /**
+     * Callback for paged data retrieval.
+     * @param <T> The type of data expected (e.g., List&lt;Event&gt;).
+     */
+    public interface PagedDataCallback<T> {
+        /**
+         * Called with one page of results.
+         * @param data The page returned from Firestore.
+         * @param next Token for the following page, or null when this was the last page.
+         */
+        void onPage(T data, @Nullable PageToken next);
+
+        /**
+         * Called if the page fetch fails for any reason.
+         * @param e The error or exception thrown.
+         */
+        void onError(Exception e);
+    }
+
+    /**
+     * Opaque position in a paged admin listing: the last document of the previous page.
+     * Pass it back unchanged to fetch the next page.
+     */
+    public static final class PageToken {
+        final DocumentSnapshot cursor;
+
+        PageToken(DocumentSnapshot cursor) {
+            this.cursor = cursor;
+        }
+    }
+
+    /** Maps one document to an item, or null to skip it. */
+    private interface DocumentParser<T> {
+        @Nullable
+        T parse(DocumentSnapshot document);
+    }
+
     /**
      * Generic callback interface for void operations (Create/Update/Delete).
      */
@@ -0,0 +1,329 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broadcast
+ *
+ * Purpose: An organizer message to a whole audience of an event, stored once as
+ * {@code org_events/{eventId}/broadcasts/{id}} with {@code delivery == "pull"} and resolved
+ * per reader when the inbox is shown, instead of being copied into every entrant's inbox.
+ *
+ * <ul>
+ *   <li><b>Audience</b>: matched when the inbox is read. A reader sees a broadcast if
+ *       their waiting-list entry for the event is in its audience ({@link #reaches}) and
+ *       has been since before the message was sent ({@link Membership#sinceMillis}), so
+ *       entrants who join or change status later do not receive earlier messages. Nothing
+ *       is written per recipient when a message is sent.</li>
+ *   <li><b>Per-user state</b>: read / archived flags live in a sparse overlay,
+ *       {@code users/{uid}/broadcast_state/{broadcastId}}, written only when the reader
+ *       touches the broadcast. No document means unread and not archived.</li>
+ * </ul>
+ *
+ * Pattern: Immutable value object plus the plain-Java rules {@link InboxFeed} uses, with no
+ * Firebase types so the audience and overlay rules are unit tested on the JVM.
+ */
+public final class Broadcast {
+
+    /** Field marking how a broadcasts document is delivered. */
+    public static final String FIELD_DELIVERY = "delivery";
+    /** {@link #FIELD_DELIVERY} value for broadcasts resolved at read time. */
+    public static final String DELIVERY_PULL = "pull";
+    /** Subcollection of {@code users/{uid}} holding per-broadcast read / archived flags. */
+    public static final String STATE_COLLECTION = "broadcast_state";
+    /** Largest {@code whereIn} list Firestore accepts, so the most events per broadcasts query. */
+    public static final int MAX_EVENTS_PER_QUERY = 30;
+
+    /** Full document path, {@code org_events/{eventId}/broadcasts/{id}}. */
+    @NonNull
+    public final String path;
+    @NonNull
+    public final String id;
+    @NonNull
+    public final String eventId;
+    /** "waiting", "chosen", "selected" or "cancelled". */
+    @NonNull
+    public final String audience;
+    @Nullable
+    public final String message;
+    /** Creation time in milliseconds, or 0 while the server timestamp is pending. */
+    public final long createdAtMillis;
+
+    public Broadcast(@NonNull String path,
+                     @NonNull String id,
+                     @NonNull String eventId,
+                     @Nullable String audience,
+                     @Nullable String message,
+                     long createdAtMillis) {
+        this.path = path;
+        this.id = id;
+        this.eventId = eventId;
+        this.audience = audience != null ? audience : "";
+        this.message = message;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    /**
+     * The reader's waiting-list entry for one event, as far as audience matching needs it.
+     */
+    public static final class Membership {
+        /**
+         * Entry fields stamped when the entry moves into a new audience: joining, being
+         * drawn and answering the invite.
+         */
+        public static final String[] SINCE_FIELDS = {"joinedAt", "selectedAt", "responseAt"};
+
+        @Nullable
+        public final String status;
+        @Nullable
+        public final String responded;
+        /** When the entry reached its current status (latest {@link #SINCE_FIELDS}), in ms; 0 if unknown. */
+        public final long sinceMillis;
+
+        public Membership(@Nullable String status, @Nullable String responded, long sinceMillis) {
+            this.status = status;
+            this.responded = responded;
+            this.sinceMillis = sinceMillis;
+        }
+    }
+
+    /**
+     * The reader's flags for one broadcast, from the overlay.
+     */
+    public static final class State {
+        /** State of a broadcast with no overlay document. */
+        public static final State NONE = new State(false, false);
+
+        public final boolean read;
+        public final boolean archived;
+
+        public State(boolean read, boolean archived) {
+            this.read = read;
+            this.archived = archived;
+        }
+
+        /** @return a copy marked read */
+        @NonNull
+        public State withRead() {
+            return new State(true, archived);
+        }
+
+        /** @return a copy marked archived or not */
+        @NonNull
+        public State withArchived(boolean archived) {
+            return new State(read, archived);
+        }
+
+        /**
+         * @param data overlay document data; may be null
+         * @return parsed flags; missing fields are false
+         */
+        @NonNull
+        public static State fromMap(@Nullable Map<String, Object> data) {
+            if (data == null) return NONE;
+            return new State(Boolean.TRUE.equals(data.get("read")), Boolean.TRUE.equals(data.get("archived")));
+        }
+    }
+
+    /**
+     * Whether an entrant with this status is in a broadcast audience.
+     * <ul>
+     *   <li>"waiting": status == waiting</li>
+     *   <li>"chosen": status == chosen AND responded != accepted/declined</li>
+     *   <li>"selected": (chosen + accepted) OR status == selected</li>
+     *   <li>"cancelled": (chosen + declined) OR status == cancelled</li>
+     * </ul>
+     *
+     * @param audience  broadcast audience
+     * @param status    entry status (waiting | chosen | selected | cancelled)
+     * @param responded entry response (pending | accepted | declined | null)
+     * @return true if the entrant should get the message
+     */
+    public static boolean reaches(@Nullable String audience, @Nullable String status, @Nullable String responded) {
+        if (audience == null) return false;
+        switch (audience) {
+            case "waiting":
+                return "waiting".equals(status);
+            case "chosen":
+                // Invite message to people chosen but not yet accepted/declined
+                return "chosen".equals(status)
+                        && !"accepted".equals(responded)
+                        && !"declined".equals(responded);
+            case "selected":
+                return ("chosen".equals(status) && "accepted".equals(responded))
+                        || "selected".equals(status);
+            case "cancelled":
+                return ("chosen".equals(status) && "declined".equals(responded))
+                        || "cancelled".equals(status);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param membership the reader's entry for this broadcast's event; may be null
+     * @return true if the reader is in the audience and has been since before the broadcast
+     *         was sent
+     */
+    public boolean reaches(@Nullable Membership membership) {
+        if (membership == null || !reaches(audience, membership.status, membership.responded)) return false;
+        // A broadcast still pending its server timestamp was sent just now; an entry
+        // without any stamp predates them and is matched on status alone.
+        return createdAtMillis == 0 || membership.sinceMillis == 0 || createdAtMillis >= membership.sinceMillis;
+    }
+
+    /**
+     * @param audience broadcast audience
+     * @return the inbox item type shown for it
+     */
+    @NonNull
+    public static String typeFor(@NonNull String audience) {
+        switch (audience) {
+            case "chosen":
+                return "invite";
+            case "selected":
+                return "selected_notice";
+            case "cancelled":
+                return "cancelled_notice";
+            default:
+                return "broadcast";
+        }
+    }
+
+    /**
+     * Builds the broadcasts document for a pull-delivered message.
+     *
+     * @param eventId       event the message is about
+     * @param eventTitle    event title shown with the message
+     * @param message       message body
+     * @param includePoster whether the UI should show a poster
+     * @param linkUrl       optional link
+     * @param audience      "waiting", "chosen", "selected" or "cancelled"
+     * @return field values, with {@code createdAt} set to {@link DocumentStore#SERVER_TIMESTAMP}
+     */
+    @NonNull
+    public static Map<String, Object> payload(@NonNull String eventId,
+                                              @NonNull String eventTitle,
+                                              @NonNull String message,
+                                              boolean includePoster,
+                                              @Nullable String linkUrl,
+                                              @NonNull String audience) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("audience", audience);
+        data.put("type", typeFor(audience));
+        data.put("eventId", eventId);
+        data.put("eventTitle", eventTitle);
+        data.put("message", message);
+        data.put("includePoster", includePoster);
+        data.put("linkUrl", linkUrl);
+        data.put(FIELD_DELIVERY, DELIVERY_PULL);
+        data.put("createdAt", DocumentStore.SERVER_TIMESTAMP);
+        return data;
+    }
+
+    /**
+     * @param uid         reader
+     * @param broadcastId broadcast document id
+     * @return path of the reader's overlay document for that broadcast
+     */
+    @NonNull
+    public static String statePath(@NonNull String uid, @NonNull String broadcastId) {
+        return "users/" + uid + "/" + STATE_COLLECTION + "/" + broadcastId;
+    }
+
+    /**
+     * @param eventId event the broadcast belongs to (kept so the overlay can be cleaned up per event)
+     * @param flag    "read" or "archived"
+     * @param value   new flag value
+     * @return fields to merge into the overlay document
+     */
+    @NonNull
+    public static Map<String, Object> stateFields(@NonNull String eventId, @NonNull String flag, boolean value) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("eventId", eventId);
+        data.put(flag, value);
+        return data;
+    }
+
+    /**
+     * @return this broadcast as an inbox item, unread and not archived until the reader's
+     *         overlay is applied ({@link #withStates})
+     */
+    @NonNull
+    public InboxEntry toEntry() {
+        return new InboxEntry(path, id, eventId, message, typeFor(audience), false, false, createdAtMillis);
+    }
+
+    /**
+     * Applies the reader's overlay to the broadcast items among {@code entries}; personal
+     * notices keep their own flags.
+     *
+     * @param entries inbox items
+     * @param states  overlay flags by broadcast id
+     * @return the items with overlay flags applied, in the same order
+     */
+    @NonNull
+    public static List<InboxEntry> withStates(@NonNull Collection<InboxEntry> entries,
+                                              @NonNull Map<String, State> states) {
+        List<InboxEntry> out = new ArrayList<>(entries.size());
+        for (InboxEntry e : entries) {
+            State state = e.isBroadcast() ? states.get(e.docId) : null;
+            out.add(state != null ? e.withRead(state.read).withArchived(state.archived) : e);
+        }
+        return out;
+    }
+
+    /**
+     * Picks the broadcast items that reach the reader and applies their overlay. A
+     * broadcast the reader already has overlay flags for is kept even if their status has
+     * moved on since, so a message they read or archived does not disappear.
+     *
+     * @param entries     broadcast items, as from {@link #toEntry}
+     * @param broadcasts  the broadcasts behind them, by {@link #path}
+     * @param memberships the reader's waiting-list entries by event id
+     * @param states      overlay flags by broadcast id
+     * @return the items the reader sees, in the same order
+     */
+    @NonNull
+    public static List<InboxEntry> resolve(@NonNull Collection<InboxEntry> entries,
+                                           @NonNull Map<String, Broadcast> broadcasts,
+                                           @NonNull Map<String, Membership> memberships,
+                                           @NonNull Map<String, State> states) {
+        List<InboxEntry> seen = new ArrayList<>();
+        for (InboxEntry e : entries) {
+            Broadcast b = broadcasts.get(e.path);
+            if (states.containsKey(e.docId) || (b != null && b.reaches(memberships.get(b.eventId)))) {
+                seen.add(e);
+            }
+        }
+        return withStates(seen, states);
+    }
+
+    /**
+     * Splits event ids into groups small enough for one {@code whereIn} query each.
+     *
+     * @param eventIds the reader's events
+     * @return groups of at most {@link #MAX_EVENTS_PER_QUERY} ids, in order
+     */
+    @NonNull
+    public static List<List<String>> chunks(@NonNull Collection<String> eventIds) {
+        List<List<String>> out = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        for (String id : eventIds) {
+            current.add(id);
+            if (current.size() == MAX_EVENTS_PER_QUERY) {
+                out.add(current);
+                current = new ArrayList<>();
+            }
+        }
+        if (!current.isEmpty()) out.add(current);
+        return out;
+    }
+}
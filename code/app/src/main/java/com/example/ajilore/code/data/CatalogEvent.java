@@ -0,0 +1,98 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+
+/**
+ * CatalogEvent
+ *
+ * Purpose: The fields of one {@code org_events} document that the event lists show,
+ * as kept in the on-device {@link EventCatalog}. Times are epoch milliseconds, with 0
+ * meaning "not set".
+ *
+ * Pattern: Immutable value object with value equality, so a re-downloaded but unchanged
+ * event compares equal and the catalog can keep the instance it already has.
+ */
+public final class CatalogEvent {
+
+    @NonNull
+    public final String id;
+    @Nullable
+    public final String title;
+    @Nullable
+    public final String location;
+    /** Event category, stored as {@code type} in Firestore. */
+    @Nullable
+    public final String type;
+    /** Stored status ("open", "closed", "flagged", ...). */
+    @Nullable
+    public final String status;
+    @Nullable
+    public final String posterUrl;
+    /** Capacity as entered (number or text), or null. */
+    @Nullable
+    public final String capacity;
+    public final long startsAt;
+    public final long regOpens;
+    public final long regCloses;
+    public final long createdAt;
+    /** Server time of the last change, used as the sync high-water mark. */
+    public final long updatedAt;
+
+    public CatalogEvent(@NonNull String id,
+                        @Nullable String title,
+                        @Nullable String location,
+                        @Nullable String type,
+                        @Nullable String status,
+                        @Nullable String posterUrl,
+                        @Nullable String capacity,
+                        long startsAt,
+                        long regOpens,
+                        long regCloses,
+                        long createdAt,
+                        long updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.location = location;
+        this.type = type;
+        this.status = status;
+        this.posterUrl = posterUrl;
+        this.capacity = capacity;
+        this.startsAt = startsAt;
+        this.regOpens = regOpens;
+        this.regCloses = regCloses;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /** @return true when an admin has flagged the event */
+    public boolean isFlagged() {
+        return "flagged".equals(status);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CatalogEvent)) return false;
+        CatalogEvent e = (CatalogEvent) o;
+        return startsAt == e.startsAt
+                && regOpens == e.regOpens
+                && regCloses == e.regCloses
+                && createdAt == e.createdAt
+                && updatedAt == e.updatedAt
+                && id.equals(e.id)
+                && Objects.equals(title, e.title)
+                && Objects.equals(location, e.location)
+                && Objects.equals(type, e.type)
+                && Objects.equals(status, e.status)
+                && Objects.equals(posterUrl, e.posterUrl)
+                && Objects.equals(capacity, e.capacity);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, updatedAt, status);
+    }
+}
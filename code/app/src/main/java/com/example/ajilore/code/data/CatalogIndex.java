@@ -0,0 +1,135 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CatalogIndex
+ *
+ * Purpose: The in-memory side of {@link EventCatalog}: every known event by id, the
+ * {@code updatedAt} high-water mark for the next delta query, and the rules for folding a
+ * delta in. An unchanged event keeps its existing instance, so screens that memoize rows
+ * by instance only re-map events that really changed.
+ *
+ * Pattern: Plain Java, thread-safe through {@code synchronized}, so the merge rules are
+ * unit tested on the JVM while the catalog applies deltas on its background thread.
+ */
+public final class CatalogIndex {
+
+    /** Feed order: by start time, events without a date last, then by id. */
+    public static final Comparator<CatalogEvent> BY_STARTS_AT = (a, b) -> {
+        if ((a.startsAt == 0) != (b.startsAt == 0)) return a.startsAt == 0 ? 1 : -1;
+        int c = Long.compare(a.startsAt, b.startsAt);
+        return c != 0 ? c : a.id.compareTo(b.id);
+    };
+
+    /** Organizer order: newest created first, then by id. */
+    public static final Comparator<CatalogEvent> BY_CREATED_DESC = (a, b) -> {
+        int c = Long.compare(b.createdAt, a.createdAt);
+        return c != 0 ? c : a.id.compareTo(b.id);
+    };
+
+    /**
+     * What actually changed when a delta was applied.
+     */
+    public static final class Delta {
+        /** New or changed events. */
+        @NonNull
+        public final List<CatalogEvent> upserted;
+        /** Ids of events that were present and are now gone. */
+        @NonNull
+        public final List<String> deleted;
+
+        Delta(@NonNull List<CatalogEvent> upserted, @NonNull List<String> deleted) {
+            this.upserted = Collections.unmodifiableList(upserted);
+            this.deleted = Collections.unmodifiableList(deleted);
+        }
+
+        /** @return true when the delta changed nothing */
+        public boolean isEmpty() {
+            return upserted.isEmpty() && deleted.isEmpty();
+        }
+    }
+
+    private final Map<String, CatalogEvent> byId = new HashMap<>();
+    private long highWater;
+    @Nullable
+    private List<CatalogEvent> sorted;
+
+    /**
+     * Replaces the contents with events read from local storage.
+     *
+     * @param events    stored events
+     * @param highWater stored high-water mark
+     */
+    public synchronized void load(@NonNull Collection<CatalogEvent> events, long highWater) {
+        byId.clear();
+        for (CatalogEvent e : events) byId.put(e.id, e);
+        this.highWater = highWater;
+        sorted = null;
+    }
+
+    /**
+     * Folds server changes in and advances the high-water mark.
+     *
+     * @param upserts   events added or modified on the server
+     * @param deletions ids of events deleted on the server
+     * @return what changed locally; empty if everything was already known
+     */
+    @NonNull
+    public synchronized Delta apply(@NonNull Collection<CatalogEvent> upserts,
+                                    @NonNull Collection<String> deletions) {
+        List<CatalogEvent> upserted = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (CatalogEvent e : upserts) {
+            highWater = Math.max(highWater, e.updatedAt);
+            if (!e.equals(byId.get(e.id))) {
+                byId.put(e.id, e);
+                upserted.add(e);
+            }
+        }
+        for (String id : deletions) {
+            if (byId.remove(id) != null) deleted.add(id);
+        }
+        if (!upserted.isEmpty() || !deleted.isEmpty()) sorted = null;
+        return new Delta(upserted, deleted);
+    }
+
+    /** @return the newest {@code updatedAt} seen, or 0 before the first sync */
+    public synchronized long highWater() {
+        return highWater;
+    }
+
+    /** @return number of known events */
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * @param id event id
+     * @return the known event, or null
+     */
+    @Nullable
+    public synchronized CatalogEvent get(@NonNull String id) {
+        return byId.get(id);
+    }
+
+    /** @return every known event in {@link #BY_STARTS_AT} order; immutable */
+    @NonNull
+    public synchronized List<CatalogEvent> events() {
+        if (sorted == null) {
+            List<CatalogEvent> out = new ArrayList<>(byId.values());
+            Collections.sort(out, BY_STARTS_AT);
+            sorted = Collections.unmodifiableList(out);
+        }
+        return sorted;
+    }
+}
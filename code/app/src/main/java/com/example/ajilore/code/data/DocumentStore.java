@@ -0,0 +1,328 @@
+package com.example.ajilore.code.data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DocumentStore
+ *
+ * Purpose: A small, Android-free view of the Firestore operations our services need
+ * (single reads, reads by id, collection listings, equality and range queries, collection
+ * listeners, id generation, batched writes and transactions).
+ * Services written against this interface can run on the device through
+ * {@link FirestoreDocumentStore} and in plain JVM unit tests against an in-memory fake.
+ *
+ * Paths are slash-separated Firestore paths, e.g. {@code "org_events/abc/waiting_list"}
+ * for a collection or {@code "org_events/abc/waiting_list/uid1"} for a document.
+ */
+public interface DocumentStore {
+
+    /**
+     * Placeholder for {@code FieldValue.serverTimestamp()}. Implementations replace it
+     * with the server time when a write is committed.
+     */
+    Object SERVER_TIMESTAMP = new Object() {
+        @Override
+        public String toString() {
+            return "SERVER_TIMESTAMP";
+        }
+    };
+
+    /** Firestore limit on values in one {@code whereIn} query. */
+    int MAX_IN_IDS = 30;
+
+    /**
+     * Placeholder for {@code FieldValue.increment(by)}: adds {@code by} to the stored
+     * number (treated as 0 when missing) when a write is committed.
+     *
+     * @param by amount to add; negative to subtract
+     * @return a value to put in a SET or MERGE write
+     */
+    static Increment increment(long by) {
+        return new Increment(by);
+    }
+
+    /**
+     * Field value produced by {@link #increment(long)}.
+     */
+    final class Increment {
+        /** Amount added to the stored number. */
+        public final long by;
+
+        private Increment(long by) {
+            this.by = by;
+        }
+
+        @Override
+        public String toString() {
+            return "INCREMENT(" + by + ")";
+        }
+    }
+
+    /**
+     * Async result callback, mirroring the success/error split used across the app.
+     *
+     * @param <T> result type
+     */
+    interface ResultCallback<T> {
+        /** @param result the loaded value (may be null where documented) */
+        void onSuccess(T result);
+
+        /** @param e the error that occurred */
+        void onError(Exception e);
+    }
+
+    /**
+     * Receives every snapshot of a collection from {@link #listen}.
+     */
+    interface SnapshotListener {
+        /**
+         * @param docs    every document now in the collection
+         * @param changed documents in this snapshot read from the server (added, modified
+         *                or removed); 0 for a snapshot served from the local cache
+         */
+        void onSnapshot(List<Doc> docs, int changed);
+
+        /** @param e the listen error; no further snapshots follow */
+        void onError(Exception e);
+    }
+
+    /**
+     * Reads and writes of one {@link #runTransaction} attempt. Every read must come before
+     * the first write, as in Firestore.
+     */
+    interface Transaction {
+        /**
+         * @param docPath full document path
+         * @return the document, or null if it does not exist
+         * @throws Exception if the read fails; the transaction fails with it
+         */
+        Doc get(String docPath) throws Exception;
+
+        /** Overwrites the document at {@code docPath}. */
+        void set(String docPath, Map<String, Object> data);
+
+        /** Merges {@code data} into the document at {@code docPath}, creating it if needed. */
+        void merge(String docPath, Map<String, Object> data);
+
+        /** Deletes the document at {@code docPath}. */
+        void delete(String docPath);
+    }
+
+    /**
+     * Body of a transaction. It may run more than once when documents it read change
+     * before it commits, so it must not have side effects outside the {@link Transaction}.
+     *
+     * @param <T> result type
+     */
+    interface TransactionBody<T> {
+        /**
+         * @param tx reads and writes of this attempt
+         * @return the transaction's result
+         * @throws Exception to abort the transaction without writing
+         */
+        T apply(Transaction tx) throws Exception;
+    }
+
+    /**
+     * A live {@link #listen} registration.
+     */
+    interface Subscription {
+        /** Stops the updates. Safe to call more than once. */
+        void remove();
+    }
+
+    /**
+     * Immutable snapshot of one document.
+     */
+    final class Doc {
+        /** Document id (last path segment). */
+        public final String id;
+        /** Full document path, or null when the store did not report it. */
+        public final String path;
+        /** Field values; never null. */
+        public final Map<String, Object> data;
+
+        /**
+         * @param id   document id
+         * @param data field values (copied)
+         */
+        public Doc(String id, Map<String, Object> data) {
+            this(id, null, data);
+        }
+
+        /**
+         * @param id   document id
+         * @param path full document path
+         * @param data field values (copied)
+         */
+        public Doc(String id, String path, Map<String, Object> data) {
+            this.id = id;
+            this.path = path;
+            this.data = data == null
+                    ? Collections.<String, Object>emptyMap()
+                    : Collections.unmodifiableMap(new HashMap<>(data));
+        }
+
+        /** @return the field as a String, or null if missing or not a String */
+        public String getString(String field) {
+            Object v = data.get(field);
+            return v instanceof String ? (String) v : null;
+        }
+
+        /** @return the field as a Long, or null if missing or not a number */
+        public Long getLong(String field) {
+            Object v = data.get(field);
+            return v instanceof Number ? ((Number) v).longValue() : null;
+        }
+
+        /** @return the field as a Double, or null if missing or not a number */
+        public Double getDouble(String field) {
+            Object v = data.get(field);
+            return v instanceof Number ? ((Number) v).doubleValue() : null;
+        }
+    }
+
+    /**
+     * One operation inside a batched commit.
+     */
+    final class Write {
+        /** Kind of write. */
+        public enum Kind { SET, MERGE, UPDATE, DELETE }
+
+        /** Kind of write. */
+        public final Kind kind;
+        /** Full document path. */
+        public final String path;
+        /** Field values for SET/MERGE/UPDATE; null for DELETE. */
+        public final Map<String, Object> data;
+
+        private Write(Kind kind, String path, Map<String, Object> data) {
+            this.kind = kind;
+            this.path = path;
+            this.data = data;
+        }
+
+        /** Overwrites the document at {@code path}. */
+        public static Write set(String path, Map<String, Object> data) {
+            return new Write(Kind.SET, path, data);
+        }
+
+        /** Merges {@code data} into the document at {@code path}, creating it if needed. */
+        public static Write merge(String path, Map<String, Object> data) {
+            return new Write(Kind.MERGE, path, data);
+        }
+
+        /**
+         * Changes fields of the existing document at {@code path}. Unlike {@link #merge} it
+         * never recreates a deleted document: the whole commit fails instead.
+         */
+        public static Write update(String path, Map<String, Object> data) {
+            return new Write(Kind.UPDATE, path, data);
+        }
+
+        /** Deletes the document at {@code path}. */
+        public static Write delete(String path) {
+            return new Write(Kind.DELETE, path, null);
+        }
+    }
+
+    /**
+     * Reads one document.
+     *
+     * @param docPath full document path
+     * @param cb      receives the document, or null if it does not exist
+     */
+    void get(String docPath, ResultCallback<Doc> cb);
+
+    /**
+     * Reads every document in a collection whose {@code field} equals {@code value}.
+     *
+     * @param collectionPath full collection path
+     * @param field          field to compare
+     * @param value          value to match
+     * @param cb             receives the matching documents (possibly empty)
+     */
+    void queryEquals(String collectionPath, String field, Object value, ResultCallback<List<Doc>> cb);
+
+    /**
+     * Reads every document in a collection whose string {@code field} lies between
+     * {@code start} and {@code end}, both inclusive
+     * ({@code orderBy(field).startAt(start).endAt(end)}).
+     *
+     * @param collectionPath full collection path
+     * @param field          string field to range over
+     * @param start          lowest value to include
+     * @param end            highest value to include
+     * @param cb             receives the matching documents in {@code field} order (possibly empty)
+     */
+    void queryRange(String collectionPath, String field, String start, String end, ResultCallback<List<Doc>> cb);
+
+    /**
+     * Reads every document directly inside a collection.
+     *
+     * @param collectionPath full collection path
+     * @param cb             receives the documents (possibly empty)
+     */
+    void list(String collectionPath, ResultCallback<List<Doc>> cb);
+
+    /**
+     * Reads every document, in any collection named {@code collectionId}, whose
+     * {@code field} equals {@code value} ({@code collectionGroup(...).whereEqualTo(...)}).
+     * Returned documents carry their {@link Doc#path}.
+     *
+     * @param collectionId last segment of the collections to search, e.g. {@code "waiting_list"}
+     * @param field        field to compare
+     * @param value        value to match
+     * @param cb           receives the matching documents (possibly empty)
+     */
+    void queryGroupEquals(String collectionId, String field, Object value, ResultCallback<List<Doc>> cb);
+
+    /**
+     * Reads the documents with the given ids from one collection in a single query
+     * ({@code whereIn(documentId, ids)}).
+     *
+     * @param collectionPath full collection path
+     * @param ids            document ids, at most {@link #MAX_IN_IDS}
+     * @param cb             receives the documents that exist, in no particular order
+     */
+    void getAll(String collectionPath, List<String> ids, ResultCallback<List<Doc>> cb);
+
+    /**
+     * Listens to every document directly inside a collection. The listener gets the
+     * current documents right away and the whole collection again after each change.
+     *
+     * @param collectionPath full collection path
+     * @param listener       receives snapshots until the subscription is removed
+     * @return the registration to remove when the caller goes away
+     */
+    Subscription listen(String collectionPath, SnapshotListener listener);
+
+    /**
+     * Generates a new random document id for {@code collectionPath} without writing anything.
+     *
+     * @param collectionPath full collection path
+     * @return a fresh document id
+     */
+    String newId(String collectionPath);
+
+    /**
+     * Atomically commits up to 500 writes as one batch.
+     *
+     * @param writes writes to apply
+     * @param cb     success (null result) or error; on error nothing was written
+     */
+    void commit(List<Write> writes, ResultCallback<Void> cb);
+
+    /**
+     * Runs {@code body} in a transaction: its reads see one consistent state and its
+     * writes land only if none of the documents it read changed in the meantime.
+     *
+     * @param body transaction body
+     * @param cb   the body's result, or the error that aborted it; on error nothing was written
+     * @param <T>  result type
+     */
+    <T> void runTransaction(TransactionBody<T> body, ResultCallback<T> cb);
+}
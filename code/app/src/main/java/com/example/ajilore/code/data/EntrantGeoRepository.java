@@ -0,0 +1,197 @@
+package com.example.ajilore.code.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.ajilore.code.utils.GeoHash;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EntrantGeoRepository
+ *
+ * Purpose: Regional questions about an event's waiting list ("who joined within 5 km of
+ * the venue", "entrants per neighbourhood") without downloading the whole list.
+ *
+ * <ul>
+ *   <li>{@link #inBox} and {@link #near} turn the region into geohash prefix ranges
+ *       ({@link GeoHash#ranges}), run one {@code orderBy("geohash")} range query per range
+ *       and keep only the entries actually inside the region.</li>
+ *   <li>{@link #fetchDensity} reads the per-cell counts in
+ *       {@code org_events/{eventId}/stats/geo}, kept up to date by the
+ *       {@code onWaitingListWrite} Cloud Function.</li>
+ * </ul>
+ *
+ * Entries joined without a location, or before {@code geohash} was written, are not
+ * found or counted.
+ *
+ * Pattern: Repository over {@link DocumentStore}, so the region queries run against the
+ * in-memory fake in unit tests.
+ */
+public class EntrantGeoRepository {
+
+    private static final String TAG = "EntrantGeoRepository";
+
+    /** Sorts after every geohash character, so {@code prefix + END} ends a prefix range. */
+    private static final String END = "\uf8ff";
+
+    private final DocumentStore store;
+
+    /**
+     * @param db Firestore instance
+     */
+    public EntrantGeoRepository(@NonNull FirebaseFirestore db) {
+        this(FirestoreDocumentStore.tracked(db, TAG));
+    }
+
+    /**
+     * @param store document store to read from
+     */
+    public EntrantGeoRepository(@NonNull DocumentStore store) {
+        this.store = store;
+    }
+
+    /** @return path of the geo stats document for an event */
+    @NonNull
+    public static String geoPath(@NonNull String eventId) {
+        return "org_events/" + eventId + "/stats/geo";
+    }
+
+    /**
+     * Reads an event's entrant counts per geohash cell once.
+     *
+     * @param eventId event document ID
+     * @param cb      receives the density, {@link GeoDensity#EMPTY} if the document does
+     *                not exist yet, or an error
+     */
+    public void fetchDensity(@NonNull String eventId, @NonNull DocumentStore.ResultCallback<GeoDensity> cb) {
+        store.get(geoPath(eventId), new DocumentStore.ResultCallback<DocumentStore.Doc>() {
+            @Override
+            public void onSuccess(DocumentStore.Doc doc) {
+                cb.onSuccess(doc != null ? GeoDensity.fromMap(doc.data) : GeoDensity.EMPTY);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Waiting-list entries inside a box.
+     *
+     * @param eventId event document ID
+     * @param south   southern edge, degrees
+     * @param west    western edge, degrees; greater than {@code east} across the antimeridian
+     * @param north   northern edge, degrees
+     * @param east    eastern edge, degrees
+     * @param cb      receives the matching entries or an error
+     */
+    public void inBox(@NonNull String eventId,
+                      double south, double west, double north, double east,
+                      @NonNull DocumentStore.ResultCallback<List<DocumentStore.Doc>> cb) {
+        boolean wraps = west > east;
+        query(eventId, GeoHash.ranges(south, west, north, east), (lat, lng) ->
+                lat >= south && lat <= north
+                        && (wraps ? (lng >= west || lng <= east) : (lng >= west && lng <= east)), cb);
+    }
+
+    /**
+     * Waiting-list entries within a distance of a point.
+     *
+     * @param eventId event document ID
+     * @param lat     center latitude, degrees
+     * @param lng     center longitude, degrees
+     * @param radiusM radius in meters
+     * @param cb      receives the matching entries, nearest first, or an error
+     */
+    public void near(@NonNull String eventId, double lat, double lng, double radiusM,
+                     @NonNull DocumentStore.ResultCallback<List<DocumentStore.Doc>> cb) {
+        query(eventId, GeoHash.rangesNear(lat, lng, radiusM),
+                (eLat, eLng) -> GeoHash.distanceMeters(lat, lng, eLat, eLng) <= radiusM,
+                new DocumentStore.ResultCallback<List<DocumentStore.Doc>>() {
+                    @Override
+                    public void onSuccess(List<DocumentStore.Doc> docs) {
+                        docs.sort((a, b) -> Double.compare(distance(a), distance(b)));
+                        cb.onSuccess(docs);
+                    }
+
+                    private double distance(DocumentStore.Doc doc) {
+                        return GeoHash.distanceMeters(lat, lng, doc.getDouble("latitude"), doc.getDouble("longitude"));
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        cb.onError(e);
+                    }
+                });
+    }
+
+    /** Exact region test applied to each entry the prefix queries return. */
+    private interface Region {
+        boolean contains(double lat, double lng);
+    }
+
+    /**
+     * Runs one range query per prefix range, all at once, and reports the entries inside
+     * the region once every query has returned.
+     */
+    private void query(@NonNull String eventId,
+                       @NonNull List<GeoHash.Range> ranges,
+                       @NonNull Region region,
+                       @NonNull DocumentStore.ResultCallback<List<DocumentStore.Doc>> cb) {
+        if (ranges.isEmpty()) {
+            cb.onSuccess(new ArrayList<>());
+            return;
+        }
+        String list = "org_events/" + eventId + "/waiting_list";
+        List<List<DocumentStore.Doc>> results = new ArrayList<>(Collections.nCopies(ranges.size(), null));
+        final int[] pending = {ranges.size()};
+        final Exception[] failure = new Exception[1];
+        Runnable done = () -> {
+            if (--pending[0] > 0) return;
+            if (failure[0] != null) {
+                Log.e(TAG, "Geo query failed for " + eventId + " over " + ranges, failure[0]);
+                cb.onError(failure[0]);
+                return;
+            }
+            // Ranges of different precision can overlap after an antimeridian split.
+            Map<String, DocumentStore.Doc> matches = new LinkedHashMap<>();
+            for (List<DocumentStore.Doc> result : results) {
+                for (DocumentStore.Doc doc : result) {
+                    Double lat = doc.getDouble("latitude");
+                    Double lng = doc.getDouble("longitude");
+                    if (lat != null && lng != null && region.contains(lat, lng)) {
+                        matches.put(doc.id, doc);
+                    }
+                }
+            }
+            cb.onSuccess(new ArrayList<>(matches.values()));
+        };
+        for (int i = 0; i < ranges.size(); i++) {
+            final int index = i;
+            GeoHash.Range range = ranges.get(i);
+            store.queryRange(list, "geohash", range.start, range.end + END,
+                    new DocumentStore.ResultCallback<List<DocumentStore.Doc>>() {
+                        @Override
+                        public void onSuccess(List<DocumentStore.Doc> docs) {
+                            results.set(index, docs);
+                            done.run();
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            failure[0] = e;
+                            done.run();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package com.example.ajilore.code.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.utils.BackgroundExecutors;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * EventCatalog
+ *
+ * Purpose: On-device copy of {@code org_events} shared by the event lists, so opening a
+ * feed renders from local storage immediately and only changed events are downloaded.
+ *
+ * <ul>
+ *   <li><b>Storage</b>: a SQLite table with indexes on {@code startsAt}, {@code type} and
+ *       {@code status}, plus the sync high-water marks. Loaded once per process into a
+ *       {@link CatalogIndex}.</li>
+ *   <li><b>Delta sync</b>: the {@code onEventWrite} Cloud Function stamps {@code updatedAt}
+ *       on every event write. The catalog listens to
+ *       {@code org_events where updatedAt >= highWater} only, and to
+ *       {@code org_events_tombstones where deletedAt >= mark} for events deleted while the
+ *       app was closed. The very first sync reads the collection once, and so does a
+ *       catalog that has not heard from the tombstones for {@link #RESYNC_AFTER_MILLIS},
+ *       since the {@code pruneEventTombstones} Cloud Function drops them after 30 days.</li>
+ *   <li><b>Stale-while-revalidate</b>: subscribers get the stored events right away, then
+ *       an update whenever a delta changes something. On a device that never synced they
+ *       get nothing until the first full read is in, so lists keep their spinner rather
+ *       than showing "no events".</li>
+ * </ul>
+ *
+ * Filtered feeds go to Firestore instead, through
+ * {@link #subscribe(EventFilterQuery, Listener)}, and read only the matching events.
+ *
+ * Pattern: Process-wide repository like {@link InboxFeed}: the Firestore listeners are
+ * attached for the first subscriber and removed with the last, while the loaded events
+ * stay in memory. Disk work runs on one background thread; callbacks run on the main
+ * thread.
+ */
+public class EventCatalog {
+
+    private static final String TAG = "EventCatalog";
+
+    /** Collection the Cloud Function writes a document to when an event is deleted. */
+    public static final String TOMBSTONES = "org_events_tombstones";
+
+    /**
+     * A catalog that has not seen the tombstones for this long reads every event again, as
+     * deletions it missed may have been pruned. Shorter than the 30 days the Cloud Function
+     * keeps tombstones.
+     */
+    static final long RESYNC_AFTER_MILLIS = 28L * 24 * 60 * 60 * 1000;
+
+    /**
+     * Receives the catalog whenever it changes.
+     */
+    public interface Listener {
+        /** @param events the events in {@link CatalogIndex#BY_STARTS_AT} order */
+        void onCatalog(@NonNull List<CatalogEvent> events);
+
+        /** @param e sync error; the stored events stay available */
+        void onError(@NonNull Exception e);
+    }
+
+    private static EventCatalog shared;
+
+    private final FirebaseFirestore db;
+    private final CatalogDb local;
+    private final CatalogIndex index = new CatalogIndex();
+    private final ExecutorService io = BackgroundExecutors.serial("event-catalog");
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private boolean loaded;
+    /** The stored events came from a completed sync, so an empty catalog means no events. */
+    private boolean synced;
+    /** Bumped by {@link #stop()} so a start that is still reading the disk does not attach. */
+    private int generation;
+    private ListenerRegistration eventsLive;
+    private ListenerRegistration tombstonesLive;
+
+    EventCatalog(@NonNull FirebaseFirestore db, @NonNull Context context) {
+        this.db = db;
+        this.local = new CatalogDb(context.getApplicationContext());
+    }
+
+    /**
+     * @param context any context; the application context is kept
+     * @return the process-wide catalog
+     */
+    @NonNull
+    public static synchronized EventCatalog shared(@NonNull Context context) {
+        if (shared == null) shared = new EventCatalog(FirebaseFirestore.getInstance(), context);
+        return shared;
+    }
+
+    /**
+     * Subscribes to the catalog. A subscriber added after the stored events were loaded gets
+     * them right away.
+     *
+     * @param listener receives updates until the registration is removed
+     * @return registration to remove in {@code onDestroyView}
+     */
+    @NonNull
+    public ListenerRegistration subscribe(@NonNull Listener listener) {
+        listeners.add(listener);
+        if (synced) listener.onCatalog(index.events());
+        if (listeners.size() == 1) start();
+        return () -> {
+            if (listeners.remove(listener) && listeners.isEmpty()) stop();
+        };
+    }
+
+    /**
+     * Subscribes to the events matching a filter, read from Firestore with indexed
+     * constraints rather than from the stored catalog. Events that match a stored one are
+     * delivered as the stored instance, so memoized rows are reused.
+     *
+     * @param filter   non-empty filter
+     * @param listener receives the matching events until the registration is removed
+     * @return registration to remove when the filter changes or the view goes away
+     */
+    @NonNull
+    public ListenerRegistration subscribe(@NonNull EventFilterQuery filter, @NonNull Listener listener) {
+        Query q = db.collection("org_events");
+        if (filter.typeKeys != null) {
+            q = q.whereIn(EventFilterQuery.FIELD_TYPE_KEY, filter.typeKeys);
+        }
+        if (filter.startsFrom != null) {
+            q = q.whereGreaterThanOrEqualTo("startsAt", new Timestamp(filter.startsFrom));
+        }
+        if (filter.startsTo != null) {
+            q = q.whereLessThanOrEqualTo("startsAt", new Timestamp(filter.startsTo));
+        }
+        if (filter.regClosesFrom != null) {
+            q = q.whereGreaterThanOrEqualTo("regCloses", new Timestamp(filter.regClosesFrom));
+        }
+        if (filter.regClosesBefore != null) {
+            q = q.whereLessThan("regCloses", new Timestamp(filter.regClosesBefore));
+        }
+        return TrackedFirestore.listen("EventCatalog.subscribe(filter)", q, (snap, e) -> {
+            if (e != null) {
+                Log.e(TAG, "Filtered events failed", e);
+                listener.onError(e);
+                return;
+            }
+            if (snap == null) return;
+            List<CatalogEvent> out = new ArrayList<>(snap.size());
+            for (DocumentSnapshot d : snap.getDocuments()) {
+                CatalogEvent event = toEvent(d);
+                CatalogEvent stored = index.get(event.id);
+                if (event.equals(stored)) event = stored;
+                if (filter.matchesResidual(event)) out.add(event);
+            }
+            Collections.sort(out, CatalogIndex.BY_STARTS_AT);
+            listener.onCatalog(out);
+        });
+    }
+
+    /**
+     * @param eventId event id
+     * @return the stored event, or null if it is unknown or not loaded yet
+     */
+    @Nullable
+    public CatalogEvent peek(@NonNull String eventId) {
+        return index.get(eventId);
+    }
+
+    private void start() {
+        final int gen = generation;
+        io.execute(() -> {
+            if (!loaded) local.loadInto(index);
+            final long eventsMark = local.readMark(CatalogDb.MARK_EVENTS);
+            final long tombstonesMark = local.readMark(CatalogDb.MARK_TOMBSTONES);
+            final long syncedMark = local.readMark(CatalogDb.MARK_SYNCED);
+            main.post(() -> {
+                if (!loaded) {
+                    loaded = true;
+                    if (eventsMark >= 0) {
+                        synced = true;
+                        publish();
+                    }
+                }
+                if (gen != generation || listeners.isEmpty()) return;
+                boolean stale = System.currentTimeMillis() - syncedMark > RESYNC_AFTER_MILLIS;
+                if (eventsMark < 0 || stale) {
+                    fullSync(gen, tombstonesMark);
+                } else {
+                    attach(eventsMark, Math.max(0, tombstonesMark));
+                }
+            });
+        });
+    }
+
+    private void stop() {
+        generation++;
+        if (eventsLive != null) {
+            eventsLive.remove();
+            eventsLive = null;
+        }
+        if (tombstonesLive != null) {
+            tombstonesLive.remove();
+            tombstonesLive = null;
+        }
+    }
+
+    /**
+     * First run, or a catalog too stale for the tombstones: reads every event once, drops
+     * stored events that are gone, then switches to delta listening.
+     */
+    private void fullSync(int gen, long tombstonesMark) {
+        TrackedFirestore.get("EventCatalog.fullSync", db.collection("org_events"))
+                .addOnSuccessListener(snap -> {
+                    List<CatalogEvent> all = new ArrayList<>(snap.size());
+                    Set<String> ids = new HashSet<>();
+                    for (DocumentSnapshot d : snap.getDocuments()) {
+                        all.add(toEvent(d));
+                        ids.add(d.getId());
+                    }
+                    List<String> gone = new ArrayList<>();
+                    for (CatalogEvent stored : index.events()) {
+                        if (!ids.contains(stored.id)) gone.add(stored.id);
+                    }
+                    apply(all, gone, -1, () -> {
+                        if (!synced) {
+                            synced = true;
+                            publish();
+                        }
+                        if (gen == generation && !listeners.isEmpty()) {
+                            attach(index.highWater(), Math.max(0, tombstonesMark));
+                        }
+                    });
+                })
+                .addOnFailureListener(this::fail);
+    }
+
+    private void attach(long eventsMark, long tombstonesMark) {
+        eventsLive = TrackedFirestore.listen("EventCatalog.eventsDelta", db.collection("org_events")
+                .whereGreaterThanOrEqualTo("updatedAt", timestamp(eventsMark)), (snap, e) -> {
+                    if (e != null) {
+                        fail(e);
+                        return;
+                    }
+                    if (snap != null) onEventsDelta(snap);
+                });
+        tombstonesLive = TrackedFirestore.listen("EventCatalog.tombstones", db.collection(TOMBSTONES)
+                .whereGreaterThanOrEqualTo("deletedAt", timestamp(tombstonesMark)), (snap, e) -> {
+                    if (e != null) {
+                        fail(e);
+                        return;
+                    }
+                    if (snap == null) return;
+                    List<String> ids = new ArrayList<>();
+                    long mark = tombstonesMark;
+                    for (DocumentSnapshot d : snap.getDocuments()) {
+                        ids.add(d.getId());
+                        mark = Math.max(mark, millis(d.getTimestamp("deletedAt")));
+                    }
+                    // Only a server answer proves no deletion was missed up to now.
+                    apply(Collections.emptyList(), ids,
+                            snap.getMetadata().isFromCache() ? -1 : mark, null);
+                });
+    }
+
+    private void onEventsDelta(@NonNull QuerySnapshot snap) {
+        List<CatalogEvent> upserts = new ArrayList<>();
+        List<String> deletions = new ArrayList<>();
+        for (DocumentChange dc : snap.getDocumentChanges()) {
+            if (dc.getType() == DocumentChange.Type.REMOVED) {
+                // updatedAt only moves forward, so leaving this query means the event was deleted.
+                deletions.add(dc.getDocument().getId());
+            } else {
+                upserts.add(toEvent(dc.getDocument()));
+            }
+        }
+        if (!upserts.isEmpty() || !deletions.isEmpty()) apply(upserts, deletions, -1, null);
+    }
+
+    /**
+     * Folds a delta into memory and storage on the background thread, then publishes if
+     * anything changed and runs {@code then} on the main thread.
+     */
+    private void apply(@NonNull List<CatalogEvent> upserts,
+                       @NonNull List<String> deletions,
+                       long tombstonesMark,
+                       @Nullable Runnable then) {
+        io.execute(() -> {
+            long before = index.highWater();
+            CatalogIndex.Delta delta = index.apply(upserts, deletions);
+            boolean firstSync = local.readMark(CatalogDb.MARK_EVENTS) < 0;
+            if (!delta.isEmpty() || index.highWater() != before || firstSync || tombstonesMark >= 0) {
+                local.write(delta, index.highWater(), tombstonesMark);
+            }
+            main.post(() -> {
+                if (!delta.isEmpty()) publish();
+                if (then != null) then.run();
+            });
+        });
+    }
+
+    private void publish() {
+        List<CatalogEvent> events = index.events();
+        for (Listener l : new ArrayList<>(listeners)) l.onCatalog(events);
+    }
+
+    private void fail(@NonNull Exception e) {
+        Log.e(TAG, "Catalog sync failed", e);
+        for (Listener l : new ArrayList<>(listeners)) l.onError(e);
+    }
+
+    @NonNull
+    private static CatalogEvent toEvent(@NonNull DocumentSnapshot d) {
+        Object capacity = d.get("capacity");
+        String capacityText = null;
+        if (capacity instanceof Number) {
+            capacityText = String.valueOf(((Number) capacity).longValue());
+        } else if (capacity instanceof String) {
+            capacityText = (String) capacity;
+        }
+        return new CatalogEvent(
+                d.getId(),
+                d.getString("title"),
+                d.getString("location"),
+                d.getString("type"),
+                d.getString("status"),
+                d.getString("posterUrl"),
+                capacityText,
+                millis(d.getTimestamp("startsAt")),
+                millis(d.getTimestamp("regOpens")),
+                millis(d.getTimestamp("regCloses")),
+                millis(d.getTimestamp("createdAt")),
+                millis(d.getTimestamp("updatedAt")));
+    }
+
+    private static long millis(@Nullable Timestamp ts) {
+        return ts != null ? ts.toDate().getTime() : 0;
+    }
+
+    @NonNull
+    private static Timestamp timestamp(long millis) {
+        return new Timestamp(millis / 1000, (int) (millis % 1000) * 1_000_000);
+    }
+
+    /**
+     * SQLite storage for the catalog. Only used from the catalog's background thread.
+     */
+    static final class CatalogDb extends SQLiteOpenHelper {
+
+        private static final String NAME = "event_catalog.db";
+        private static final int VERSION = 1;
+
+        static final String MARK_EVENTS = "events";
+        static final String MARK_TOMBSTONES = "tombstones";
+        /** Device time the tombstones were last read from the server. */
+        static final String MARK_SYNCED = "synced";
+
+        private static final String[] COLUMNS = {
+                "id", "title", "location", "type", "status", "posterUrl", "capacity",
+                "startsAt", "regOpens", "regCloses", "createdAt", "updatedAt"};
+
+        CatalogDb(@NonNull Context context) {
+            super(context, NAME, null, VERSION);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE events ("
+                    + "id TEXT PRIMARY KEY, title TEXT, location TEXT, type TEXT, status TEXT, "
+                    + "posterUrl TEXT, capacity TEXT, startsAt INTEGER, regOpens INTEGER, "
+                    + "regCloses INTEGER, createdAt INTEGER, updatedAt INTEGER)");
+            db.execSQL("CREATE INDEX events_startsAt ON events(startsAt)");
+            db.execSQL("CREATE INDEX events_type ON events(type)");
+            db.execSQL("CREATE INDEX events_status ON events(status)");
+            db.execSQL("CREATE TABLE sync_marks (name TEXT PRIMARY KEY, millis INTEGER)");
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            // A cache: start over and let the next sync refill it.
+            db.execSQL("DROP TABLE IF EXISTS events");
+            db.execSQL("DROP TABLE IF EXISTS sync_marks");
+            onCreate(db);
+        }
+
+        void loadInto(@NonNull CatalogIndex index) {
+            List<CatalogEvent> events = new ArrayList<>();
+            try (Cursor c = getReadableDatabase().query("events", COLUMNS,
+                    null, null, null, null, "startsAt")) {
+                while (c.moveToNext()) {
+                    events.add(new CatalogEvent(c.getString(0), c.getString(1), c.getString(2),
+                            c.getString(3), c.getString(4), c.getString(5), c.getString(6),
+                            c.getLong(7), c.getLong(8), c.getLong(9), c.getLong(10), c.getLong(11)));
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Could not read the stored catalog", e);
+            }
+            index.load(events, Math.max(0, readMark(MARK_EVENTS)));
+        }
+
+        /** @return the stored mark, or -1 if none was written yet */
+        long readMark(@NonNull String name) {
+            try (Cursor c = getReadableDatabase().query("sync_marks", new String[]{"millis"},
+                    "name = ?", new String[]{name}, null, null, null)) {
+                return c.moveToFirst() ? c.getLong(0) : -1;
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Could not read sync mark " + name, e);
+                return -1;
+            }
+        }
+
+        void write(@NonNull CatalogIndex.Delta delta, long eventsMark, long tombstonesMark) {
+            SQLiteDatabase w = getWritableDatabase();
+            w.beginTransaction();
+            try {
+                for (CatalogEvent e : delta.upserted) {
+                    w.insertWithOnConflict("events", null, toValues(e), SQLiteDatabase.CONFLICT_REPLACE);
+                }
+                for (String id : delta.deleted) {
+                    w.delete("events", "id = ?", new String[]{id});
+                }
+                writeMark(w, MARK_EVENTS, eventsMark);
+                if (tombstonesMark >= 0) {
+                    writeMark(w, MARK_TOMBSTONES, tombstonesMark);
+                    writeMark(w, MARK_SYNCED, System.currentTimeMillis());
+                }
+                w.setTransactionSuccessful();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Could not store catalog changes", e);
+            } finally {
+                w.endTransaction();
+            }
+        }
+
+        private static void writeMark(@NonNull SQLiteDatabase w, @NonNull String name, long millis) {
+            ContentValues v = new ContentValues();
+            v.put("name", name);
+            v.put("millis", millis);
+            w.insertWithOnConflict("sync_marks", null, v, SQLiteDatabase.CONFLICT_REPLACE);
+        }
+
+        @NonNull
+        private static ContentValues toValues(@NonNull CatalogEvent e) {
+            ContentValues v = new ContentValues();
+            v.put("id", e.id);
+            v.put("title", e.title);
+            v.put("location", e.location);
+            v.put("type", e.type);
+            v.put("status", e.status);
+            v.put("posterUrl", e.posterUrl);
+            v.put("capacity", e.capacity);
+            v.put("startsAt", e.startsAt);
+            v.put("regOpens", e.regOpens);
+            v.put("regCloses", e.regCloses);
+            v.put("createdAt", e.createdAt);
+            v.put("updatedAt", e.updatedAt);
+            return v;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * EventFilterQuery
+ *
+ * Purpose: Turns the event filter dialog's criteria into the Firestore constraints
+ * {@link EventCatalog#subscribe(EventFilterQuery, EventCatalog.Listener)} sends, so a
+ * filtered feed downloads only matching events.
+ *
+ * <ul>
+ *   <li><b>Categories</b>: {@code whereIn} on {@code typeKey}, the lower-cased {@code type}.</li>
+ *   <li><b>Date range</b>: range on {@code startsAt}. The dialog already gives day bounds.</li>
+ *   <li><b>Closed</b>: {@code regCloses < now}.</li>
+ *   <li><b>Open</b>: {@code regCloses >= now} on the server; {@code regOpens <= now} is checked
+ *       on the device by {@link #matchesResidual(CatalogEvent)}.</li>
+ * </ul>
+ *
+ * Pattern: Plain Java value built once per apply. A query uses at most two range fields
+ * ({@code startsAt}, {@code regCloses}), so the composite indexes in
+ * {@code firestore.indexes.json} cover every combination.
+ */
+public final class EventFilterQuery {
+
+    /** Lower-cased copy of {@code type}, written with the event and by {@code onEventWrite}. */
+    public static final String FIELD_TYPE_KEY = "typeKey";
+
+    public static final String AVAILABILITY_OPEN = "open";
+    public static final String AVAILABILITY_CLOSED = "closed";
+
+    /** Type keys for {@code whereIn}, sorted, or null for any type. */
+    @Nullable
+    public final List<String> typeKeys;
+    /** Inclusive lower bound on {@code startsAt}, or null. */
+    @Nullable
+    public final Date startsFrom;
+    /** Inclusive upper bound on {@code startsAt}, or null. */
+    @Nullable
+    public final Date startsTo;
+    /** Inclusive lower bound on {@code regCloses}, or null. */
+    @Nullable
+    public final Date regClosesFrom;
+    /** Exclusive upper bound on {@code regCloses}, or null. */
+    @Nullable
+    public final Date regClosesBefore;
+    /** Device-side bound: {@code regOpens} must not be after this, or null. */
+    @Nullable
+    private final Date regOpensUntil;
+
+    private EventFilterQuery(@Nullable List<String> typeKeys,
+                             @Nullable Date startsFrom,
+                             @Nullable Date startsTo,
+                             @Nullable Date regClosesFrom,
+                             @Nullable Date regClosesBefore,
+                             @Nullable Date regOpensUntil) {
+        this.typeKeys = typeKeys;
+        this.startsFrom = startsFrom;
+        this.startsTo = startsTo;
+        this.regClosesFrom = regClosesFrom;
+        this.regClosesBefore = regClosesBefore;
+        this.regOpensUntil = regOpensUntil;
+    }
+
+    /**
+     * @param startDate    first day (already at 00:00), or null
+     * @param endDate      last day (already at 23:59:59.999), or null
+     * @param categories   selected categories in any case; empty or null for all
+     * @param availability {@link #AVAILABILITY_OPEN}, {@link #AVAILABILITY_CLOSED} or null
+     * @param nowMillis    current time, fixed for the life of the query
+     * @return the query plan
+     */
+    @NonNull
+    public static EventFilterQuery of(@Nullable Date startDate,
+                                      @Nullable Date endDate,
+                                      @Nullable Collection<String> categories,
+                                      @Nullable String availability,
+                                      long nowMillis) {
+        List<String> keys = null;
+        if (categories != null && !categories.isEmpty()) {
+            TreeSet<String> sorted = new TreeSet<>();
+            for (String c : categories) {
+                String key = typeKey(c);
+                if (key != null) sorted.add(key);
+            }
+            if (!sorted.isEmpty()) keys = Collections.unmodifiableList(new ArrayList<>(sorted));
+        }
+        Date now = new Date(nowMillis);
+        Date closesFrom = null;
+        Date closesBefore = null;
+        Date opensUntil = null;
+        if (AVAILABILITY_OPEN.equals(availability)) {
+            closesFrom = now;
+            opensUntil = now;
+        } else if (AVAILABILITY_CLOSED.equals(availability)) {
+            closesBefore = now;
+        }
+        return new EventFilterQuery(keys, copy(startDate), copy(endDate), closesFrom, closesBefore, opensUntil);
+    }
+
+    /**
+     * @param type event type as entered, e.g. "Party"
+     * @return the value stored in {@link #FIELD_TYPE_KEY}, or null for a blank type
+     */
+    @Nullable
+    public static String typeKey(@Nullable String type) {
+        if (type == null) return null;
+        String key = type.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+
+    /** @return true when nothing is filtered and the full catalog should be shown */
+    public boolean isEmpty() {
+        return typeKeys == null && startsFrom == null && startsTo == null
+                && regClosesFrom == null && regClosesBefore == null;
+    }
+
+    /**
+     * Applies the predicates Firestore is not asked to evaluate.
+     *
+     * @param event an event returned by the server query
+     * @return true if it belongs in the filtered feed
+     */
+    public boolean matchesResidual(@NonNull CatalogEvent event) {
+        return regOpensUntil == null || event.regOpens <= regOpensUntil.getTime();
+    }
+
+    @Nullable
+    private static Date copy(@Nullable Date d) {
+        return d != null ? new Date(d.getTime()) : null;
+    }
+}
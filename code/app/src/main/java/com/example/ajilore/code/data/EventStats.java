@@ -0,0 +1,111 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * EventStats
+ *
+ * Purpose: Immutable waiting-list counts for one event, as stored in the
+ * {@code org_events/{eventId}/stats/waiting_list} document that the
+ * {@code onWaitingListWrite} Cloud Function maintains.
+ *
+ * <ul>
+ *   <li>{@link #total}: every waiting_list entry.</li>
+ *   <li>{@link #active}: entries that are not cancelled and have not declined
+ *       (what the details screen shows against capacity).</li>
+ *   <li>{@link #waiting} / {@link #chosen}: entries by {@code status}.</li>
+ *   <li>{@link #accepted} / {@link #declined}: entries by {@code responded}.</li>
+ * </ul>
+ */
+public final class EventStats {
+
+    /** Stats for an event with no entrants. */
+    public static final EventStats EMPTY = new EventStats(0, 0, 0, 0, 0, 0);
+
+    public final long total;
+    public final long active;
+    public final long waiting;
+    public final long chosen;
+    public final long accepted;
+    public final long declined;
+
+    public EventStats(long total, long active, long waiting, long chosen, long accepted, long declined) {
+        this.total = total;
+        this.active = active;
+        this.waiting = waiting;
+        this.chosen = chosen;
+        this.accepted = accepted;
+        this.declined = declined;
+    }
+
+    /**
+     * Entries that have neither accepted nor declined (waiting or invited), matching the
+     * "Pending" figure on the waiting list screen.
+     */
+    public long pending() {
+        return Math.max(0, total - accepted - declined);
+    }
+
+    /**
+     * Number of entrants a broadcast to {@code audience} reaches (see
+     * {@link Broadcast#reaches}), from the counts alone: "waiting" and "chosen" by status,
+     * "selected" by accepted responses, and "cancelled" as every inactive entry.
+     *
+     * @param audience "waiting", "chosen", "selected" or "cancelled"
+     * @return audience size, or 0 for an unknown audience
+     */
+    public long audienceSize(@NonNull String audience) {
+        switch (audience) {
+            case "waiting":
+                return waiting;
+            case "chosen":
+                return chosen;
+            case "selected":
+                return accepted;
+            case "cancelled":
+                return Math.max(0, total - active);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * @param capacity event capacity, or 0 for unlimited
+     * @return true when the active count has reached a set capacity
+     */
+    public boolean isFull(int capacity) {
+        return capacity > 0 && active >= capacity;
+    }
+
+    /**
+     * Reads a stats document's fields. Missing or non-numeric fields count as 0.
+     *
+     * @param data stats document data
+     * @return parsed stats
+     */
+    @NonNull
+    public static EventStats fromMap(@Nullable Map<String, Object> data) {
+        if (data == null) return EMPTY;
+        return new EventStats(
+                longOf(data.get("total")),
+                longOf(data.get("active")),
+                longOf(data.get("waiting")),
+                longOf(data.get("chosen")),
+                longOf(data.get("accepted")),
+                longOf(data.get("declined")));
+    }
+
+    private static long longOf(@Nullable Object value) {
+        return value instanceof Number ? Math.max(0, ((Number) value).longValue()) : 0;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "EventStats{total=" + total + ", active=" + active + ", waiting=" + waiting
+                + ", chosen=" + chosen + ", accepted=" + accepted + ", declined=" + declined + "}";
+    }
+}
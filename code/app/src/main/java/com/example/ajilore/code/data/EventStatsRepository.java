@@ -0,0 +1,149 @@
+package com.example.ajilore.code.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.functions.FirebaseFunctions;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * EventStatsRepository
+ *
+ * Purpose: Single place to read waiting-list counts (total, active, waiting, chosen,
+ * accepted, declined) without downloading the waiting list.
+ *
+ * <ul>
+ *   <li>Primary source: the stats document {@code org_events/{eventId}/stats/waiting_list},
+ *       written when the event is created and kept up to date by the
+ *       {@code onWaitingListWrite} Cloud Function. Listening to it costs one read per
+ *       change, whatever the size of the list.</li>
+ *   <li>Fallback: an event created before that document existed has none yet. The
+ *       {@code recountWaitingListStats} function then counts the list once on the server
+ *       and creates it, so every later read is the single document again.</li>
+ * </ul>
+ *
+ * Pattern: Repository over {@link FirebaseFirestore}; callers get {@link EventStats} values
+ * and never see where they came from.
+ */
+public class EventStatsRepository {
+
+    private static final String TAG = "EventStatsRepository";
+
+    /**
+     * Receives stats updates from {@link #listen}.
+     */
+    public interface StatsListener {
+        /** @param stats latest counts for the event */
+        void onStats(@NonNull EventStats stats);
+
+        /** @param e read or listen error */
+        void onError(@NonNull Exception e);
+    }
+
+    private final FirebaseFirestore db;
+    private final FirebaseFunctions functions;
+
+    /**
+     * @param db Firestore instance
+     */
+    public EventStatsRepository(@NonNull FirebaseFirestore db) {
+        this.db = db;
+        this.functions = FirebaseFunctions.getInstance();
+    }
+
+    /** @return the stats document for an event */
+    @NonNull
+    public DocumentReference statsDoc(@NonNull String eventId) {
+        return db.collection("org_events").document(eventId)
+                .collection("stats").document("waiting_list");
+    }
+
+    /**
+     * Listens to an event's counts. The listener fires once with the current counts and
+     * again whenever they change.
+     *
+     * @param eventId  event document ID
+     * @param listener receives stats or errors
+     * @return registration to remove in {@code onDestroyView}
+     */
+    @NonNull
+    public ListenerRegistration listen(@NonNull String eventId, @NonNull StatsListener listener) {
+        final boolean[] removed = {false};
+        final boolean[] recounting = {false};
+        ListenerRegistration inner = TrackedFirestore.listen("EventStatsRepository.listen", statsDoc(eventId), (snap, e) -> {
+            if (removed[0]) return;
+            if (e != null) {
+                listener.onError(e);
+                return;
+            }
+            if (snap != null && snap.exists()) {
+                listener.onStats(EventStats.fromMap(snap.getData()));
+                return;
+            }
+            // The recount creates the document, which this listener then receives.
+            if (recounting[0]) return;
+            recounting[0] = true;
+            recount(eventId, new DocumentStore.ResultCallback<EventStats>() {
+                @Override
+                public void onSuccess(EventStats stats) {
+                    if (!removed[0]) listener.onStats(stats);
+                }
+
+                @Override
+                public void onError(Exception err) {
+                    if (!removed[0]) listener.onError(err);
+                }
+            });
+        });
+        return () -> {
+            removed[0] = true;
+            inner.remove();
+        };
+    }
+
+    /**
+     * Reads an event's counts once.
+     *
+     * @param eventId event document ID
+     * @param cb      receives stats or an error
+     */
+    public void fetch(@NonNull String eventId, @NonNull DocumentStore.ResultCallback<EventStats> cb) {
+        TrackedFirestore.get("EventStatsRepository.fetch", statsDoc(eventId))
+                .addOnSuccessListener(snap -> {
+                    if (snap.exists()) {
+                        cb.onSuccess(EventStats.fromMap(snap.getData()));
+                    } else {
+                        recount(eventId, cb);
+                    }
+                })
+                .addOnFailureListener(cb::onError);
+    }
+
+    /**
+     * Has the server count the waiting list once and create the stats document, using the
+     * same rules as {@code onWaitingListWrite}.
+     *
+     * @param eventId event document ID
+     * @param cb      receives stats or an error
+     */
+    public void recount(@NonNull String eventId, @NonNull DocumentStore.ResultCallback<EventStats> cb) {
+        functions.getHttpsCallable("recountWaitingListStats")
+                .call(Collections.singletonMap("eventId", eventId))
+                .addOnSuccessListener(result -> {
+                    Object data = result.getData();
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> counts = data instanceof Map ? (Map<String, Object>) data : null;
+                    cb.onSuccess(EventStats.fromMap(counts));
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Recount failed for " + eventId, e);
+                    cb.onError(e);
+                });
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FirestoreDocumentStore
+ *
+ * Purpose: The production {@link DocumentStore}, backed by a {@link FirebaseFirestore} instance.
+ * Translates {@link DocumentStore#SERVER_TIMESTAMP} into {@link FieldValue#serverTimestamp()}
+ * and {@link DocumentStore#increment(long)} into {@link FieldValue#increment(long)}.
+ */
+public class FirestoreDocumentStore implements DocumentStore {
+
+    private final FirebaseFirestore db;
+
+    /**
+     * @param db Firestore instance to read from and write to
+     */
+    public FirestoreDocumentStore(@NonNull FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * A store whose calls are recorded in {@link FirestoreLedger#shared()} under {@code tag}.
+     *
+     * @param db  Firestore instance
+     * @param tag caller, e.g. {@code "EventNotifier.notifyAudience"}
+     */
+    @NonNull
+    public static DocumentStore tracked(@NonNull FirebaseFirestore db, @NonNull String tag) {
+        return new InstrumentedDocumentStore(new FirestoreDocumentStore(db), tag);
+    }
+
+    /** @return the wrapped Firestore instance */
+    @NonNull
+    public FirebaseFirestore getFirestore() {
+        return db;
+    }
+
+    @Override
+    public void get(String docPath, ResultCallback<Doc> cb) {
+        db.document(docPath).get()
+                .addOnSuccessListener(snap -> cb.onSuccess(snap.exists() ? toDoc(snap) : null))
+                .addOnFailureListener(cb::onError);
+    }
+
+    @Override
+    public void queryEquals(String collectionPath, String field, Object value, ResultCallback<List<Doc>> cb) {
+        db.collection(collectionPath)
+                .whereEqualTo(field, value)
+                .get()
+                .addOnSuccessListener(snaps -> {
+                    List<Doc> out = new ArrayList<>(snaps.size());
+                    for (DocumentSnapshot d : snaps.getDocuments()) {
+                        out.add(toDoc(d));
+                    }
+                    cb.onSuccess(out);
+                })
+                .addOnFailureListener(cb::onError);
+    }
+
+    @Override
+    public void queryRange(String collectionPath, String field, String start, String end,
+                           ResultCallback<List<Doc>> cb) {
+        db.collection(collectionPath)
+                .orderBy(field)
+                .startAt(start)
+                .endAt(end)
+                .get()
+                .addOnSuccessListener(snaps -> cb.onSuccess(toDocs(snaps)))
+                .addOnFailureListener(cb::onError);
+    }
+
+    @Override
+    public void list(String collectionPath, ResultCallback<List<Doc>> cb) {
+        db.collection(collectionPath)
+                .get()
+                .addOnSuccessListener(snaps -> cb.onSuccess(toDocs(snaps)))
+                .addOnFailureListener(cb::onError);
+    }
+
+    @Override
+    public void queryGroupEquals(String collectionId, String field, Object value, ResultCallback<List<Doc>> cb) {
+        db.collectionGroup(collectionId)
+                .whereEqualTo(field, value)
+                .get()
+                .addOnSuccessListener(snaps -> cb.onSuccess(toDocs(snaps)))
+                .addOnFailureListener(cb::onError);
+    }
+
+    @Override
+    public void getAll(String collectionPath, List<String> ids, ResultCallback<List<Doc>> cb) {
+        if (ids.isEmpty()) {
+            cb.onSuccess(new ArrayList<>());
+            return;
+        }
+        db.collection(collectionPath)
+                .whereIn(FieldPath.documentId(), ids)
+                .get()
+                .addOnSuccessListener(snaps -> {
+                    List<Doc> out = new ArrayList<>(snaps.size());
+                    for (DocumentSnapshot d : snaps.getDocuments()) {
+                        out.add(toDoc(d));
+                    }
+                    cb.onSuccess(out);
+                })
+                .addOnFailureListener(cb::onError);
+    }
+
+    @Override
+    public Subscription listen(String collectionPath, SnapshotListener listener) {
+        ListenerRegistration reg = db.collection(collectionPath).addSnapshotListener((snaps, e) -> {
+            if (e != null) {
+                listener.onError(e);
+                return;
+            }
+            if (snaps == null) return;
+            int changed = snaps.getMetadata().isFromCache() ? 0 : snaps.getDocumentChanges().size();
+            listener.onSnapshot(toDocs(snaps), changed);
+        });
+        return reg::remove;
+    }
+
+    @Override
+    public String newId(String collectionPath) {
+        return db.collection(collectionPath).document().getId();
+    }
+
+    @Override
+    public void commit(List<Write> writes, ResultCallback<Void> cb) {
+        WriteBatch batch = db.batch();
+        for (Write w : writes) {
+            DocumentReference ref = db.document(w.path);
+            switch (w.kind) {
+                case SET:
+                    batch.set(ref, resolve(w.data));
+                    break;
+                case MERGE:
+                    batch.set(ref, resolve(w.data), SetOptions.merge());
+                    break;
+                case UPDATE:
+                    batch.update(ref, resolve(w.data));
+                    break;
+                case DELETE:
+                    batch.delete(ref);
+                    break;
+            }
+        }
+        batch.commit()
+                .addOnSuccessListener(v -> cb.onSuccess(null))
+                .addOnFailureListener(cb::onError);
+    }
+
+    @Override
+    public <T> void runTransaction(TransactionBody<T> body, ResultCallback<T> cb) {
+        db.runTransaction((com.google.firebase.firestore.Transaction tx) -> {
+            try {
+                return body.apply(new Transaction() {
+                    @Override
+                    public Doc get(String docPath) throws Exception {
+                        DocumentSnapshot snap = tx.get(db.document(docPath));
+                        return snap.exists() ? toDoc(snap) : null;
+                    }
+
+                    @Override
+                    public void set(String docPath, Map<String, Object> data) {
+                        tx.set(db.document(docPath), resolve(data));
+                    }
+
+                    @Override
+                    public void merge(String docPath, Map<String, Object> data) {
+                        tx.set(db.document(docPath), resolve(data), SetOptions.merge());
+                    }
+
+                    @Override
+                    public void delete(String docPath) {
+                        tx.delete(db.document(docPath));
+                    }
+                });
+            } catch (FirebaseFirestoreException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new FirebaseFirestoreException(String.valueOf(e.getMessage()),
+                        FirebaseFirestoreException.Code.ABORTED, e);
+            }
+        }).addOnSuccessListener(cb::onSuccess)
+                .addOnFailureListener(cb::onError);
+    }
+
+    /** Converts a Firestore snapshot into an immutable {@link Doc}. */
+    static Doc toDoc(@NonNull DocumentSnapshot snap) {
+        return new Doc(snap.getId(), snap.getReference().getPath(), snap.getData());
+    }
+
+    /** Converts every document of a query result. */
+    static List<Doc> toDocs(@NonNull QuerySnapshot snaps) {
+        List<Doc> out = new ArrayList<>(snaps.size());
+        for (DocumentSnapshot d : snaps.getDocuments()) {
+            out.add(toDoc(d));
+        }
+        return out;
+    }
+
+    /** Replaces store placeholders with their Firestore field values. */
+    static Map<String, Object> resolve(Map<String, Object> data) {
+        Map<String, Object> out = new HashMap<>(data.size());
+        for (Map.Entry<String, Object> e : data.entrySet()) {
+            Object v = e.getValue();
+            if (v == SERVER_TIMESTAMP) {
+                v = FieldValue.serverTimestamp();
+            } else if (v instanceof Increment) {
+                v = FieldValue.increment(((Increment) v).by);
+            }
+            out.put(e.getKey(), v);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FirestoreLedger
+ *
+ * Purpose: Counts what each caller costs in Firestore. Every entry is keyed by a caller
+ * tag such as {@code "EventCatalog.fullSync"} or {@code "EventNotifier.notifyAudience"}
+ * and holds billed document reads, written documents, batch commits, open listeners and
+ * round-trip latency. {@link #snapshot} ranks the callers by cost for the debug overlay,
+ * and {@link #toJson} is the dump written to logcat.
+ *
+ * Reads follow Firestore billing: a query costs one read per document returned and at
+ * least one; a listener costs one read per changed document from the server and nothing
+ * for cache-only snapshots.
+ *
+ * Pattern: Plain Java, thread-safe through {@code synchronized}, so it can be unit tested.
+ * {@link TrackedFirestore} and {@link InstrumentedDocumentStore} feed the shared instance.
+ */
+public final class FirestoreLedger {
+
+    /** Upper bounds, in ms, of the latency buckets; the last bucket is open-ended. */
+    private static final long[] BUCKET_MS = {
+            5, 10, 20, 35, 50, 75, 100, 150, 200, 300, 500, 750,
+            1000, 1500, 2000, 3000, 5000, 10000, 30000};
+    /** Reported for latencies beyond the last bucket. */
+    private static final long OVERFLOW_MS = 60000;
+
+    private static final FirestoreLedger SHARED = new FirestoreLedger();
+
+    /** Immutable totals for one caller. */
+    public static final class Stats {
+        @NonNull
+        public final String tag;
+        /** Completed get, query and commit calls. */
+        public final long calls;
+        public final long reads;
+        public final long writes;
+        public final long commits;
+        /** Listeners open right now. */
+        public final long listeners;
+        /** Listeners ever opened. */
+        public final long listenersOpened;
+        /** Listener snapshots received, from the server or the cache. */
+        public final long snapshots;
+        public final long errors;
+        /**
+         * Latency percentiles over completed calls, ms: the upper bound of the bucket the
+         * percentile falls in, or 60000 beyond 30 s.
+         */
+        public final long p50Ms;
+        public final long p90Ms;
+        public final long p99Ms;
+
+        Stats(@NonNull String tag, long calls, long reads, long writes, long commits, long listeners,
+              long listenersOpened, long snapshots, long errors, long p50Ms, long p90Ms, long p99Ms) {
+            this.tag = tag;
+            this.calls = calls;
+            this.reads = reads;
+            this.writes = writes;
+            this.commits = commits;
+            this.listeners = listeners;
+            this.listenersOpened = listenersOpened;
+            this.snapshots = snapshots;
+            this.errors = errors;
+            this.p50Ms = p50Ms;
+            this.p90Ms = p90Ms;
+            this.p99Ms = p99Ms;
+        }
+
+        /** @return billed operations: reads plus written documents */
+        public long cost() {
+            return reads + writes;
+        }
+    }
+
+    private static final class Entry {
+        long calls;
+        long reads;
+        long writes;
+        long commits;
+        long listeners;
+        long listenersOpened;
+        long snapshots;
+        long errors;
+        final long[] latency = new long[BUCKET_MS.length + 1];
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /** @return the ledger every tracked Firestore call in the app records into */
+    @NonNull
+    public static FirestoreLedger shared() {
+        return SHARED;
+    }
+
+    /**
+     * A finished get or query.
+     *
+     * @param tag       caller
+     * @param documents documents returned; billed as at least one read
+     * @param latencyMs round trip
+     */
+    public synchronized void recordRead(@NonNull String tag, int documents, long latencyMs) {
+        Entry e = entry(tag);
+        e.calls++;
+        e.reads += Math.max(1, documents);
+        e.latency[bucket(latencyMs)]++;
+    }
+
+    /**
+     * A committed write or batch.
+     *
+     * @param tag       caller
+     * @param documents documents written
+     * @param latencyMs round trip
+     */
+    public synchronized void recordCommit(@NonNull String tag, int documents, long latencyMs) {
+        Entry e = entry(tag);
+        e.calls++;
+        e.commits++;
+        e.writes += documents;
+        e.latency[bucket(latencyMs)]++;
+    }
+
+    /**
+     * A committed transaction: one round trip that read and wrote.
+     *
+     * @param tag       caller
+     * @param reads     documents read by the last attempt; billed as at least one read
+     * @param writes    documents written
+     * @param latencyMs time until it committed, retries included
+     */
+    public synchronized void recordTransaction(@NonNull String tag, int reads, int writes, long latencyMs) {
+        Entry e = entry(tag);
+        e.calls++;
+        e.reads += Math.max(1, reads);
+        if (writes > 0) {
+            e.commits++;
+            e.writes += writes;
+        }
+        e.latency[bucket(latencyMs)]++;
+    }
+
+    /**
+     * A failed call or listener.
+     *
+     * @param tag       caller
+     * @param latencyMs time until the failure, or a negative value when not a round trip
+     */
+    public synchronized void recordError(@NonNull String tag, long latencyMs) {
+        Entry e = entry(tag);
+        e.errors++;
+        if (latencyMs >= 0) {
+            e.calls++;
+            e.latency[bucket(latencyMs)]++;
+        }
+    }
+
+    /** @param tag caller that attached a snapshot listener */
+    public synchronized void listenerOpened(@NonNull String tag) {
+        Entry e = entry(tag);
+        e.listeners++;
+        e.listenersOpened++;
+    }
+
+    /** @param tag caller that removed a snapshot listener */
+    public synchronized void listenerClosed(@NonNull String tag) {
+        Entry e = entry(tag);
+        e.listeners = Math.max(0, e.listeners - 1);
+    }
+
+    /**
+     * A snapshot delivered to a listener.
+     *
+     * @param tag       caller
+     * @param changed   documents added, modified or removed in this snapshot
+     * @param fromCache true when the snapshot came from the local cache only
+     */
+    public synchronized void recordSnapshot(@NonNull String tag, int changed, boolean fromCache) {
+        Entry e = entry(tag);
+        e.snapshots++;
+        if (!fromCache) e.reads += changed;
+    }
+
+    /** @return every caller's totals, most expensive first */
+    @NonNull
+    public synchronized List<Stats> snapshot() {
+        List<Stats> out = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Entry> me : entries.entrySet()) {
+            Entry e = me.getValue();
+            out.add(new Stats(me.getKey(), e.calls, e.reads, e.writes, e.commits, e.listeners,
+                    e.listenersOpened, e.snapshots, e.errors,
+                    percentile(e.latency, 0.50), percentile(e.latency, 0.90), percentile(e.latency, 0.99)));
+        }
+        Collections.sort(out, (a, b) -> {
+            int byCost = Long.compare(b.cost(), a.cost());
+            return byCost != 0 ? byCost : a.tag.compareTo(b.tag);
+        });
+        return out;
+    }
+
+    /**
+     * @return {@link #snapshot} as a JSON document:
+     * {@code {"callers":[{"tag":...,"reads":...,"latencyMs":{"p50":...}},...]}}
+     */
+    @NonNull
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{\"callers\":[");
+        boolean first = true;
+        for (Stats s : snapshot()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append("{\"tag\":").append(quote(s.tag))
+                    .append(",\"calls\":").append(s.calls)
+                    .append(",\"reads\":").append(s.reads)
+                    .append(",\"writes\":").append(s.writes)
+                    .append(",\"commits\":").append(s.commits)
+                    .append(",\"listeners\":").append(s.listeners)
+                    .append(",\"listenersOpened\":").append(s.listenersOpened)
+                    .append(",\"snapshots\":").append(s.snapshots)
+                    .append(",\"errors\":").append(s.errors)
+                    .append(",\"latencyMs\":{\"p50\":").append(s.p50Ms)
+                    .append(",\"p90\":").append(s.p90Ms)
+                    .append(",\"p99\":").append(s.p99Ms)
+                    .append("}}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    /** Forgets every total, e.g. to measure one screen on its own. Open listeners stay counted. */
+    public synchronized void reset() {
+        Map<String, Long> open = new HashMap<>();
+        for (Map.Entry<String, Entry> me : entries.entrySet()) {
+            if (me.getValue().listeners > 0) open.put(me.getKey(), me.getValue().listeners);
+        }
+        entries.clear();
+        for (Map.Entry<String, Long> me : open.entrySet()) entry(me.getKey()).listeners = me.getValue();
+    }
+
+    @NonNull
+    private Entry entry(String tag) {
+        Entry e = entries.get(tag);
+        if (e == null) {
+            e = new Entry();
+            entries.put(tag, e);
+        }
+        return e;
+    }
+
+    private static int bucket(long latencyMs) {
+        for (int i = 0; i < BUCKET_MS.length; i++) {
+            if (latencyMs <= BUCKET_MS[i]) return i;
+        }
+        return BUCKET_MS.length;
+    }
+
+    /** @return upper bound of the bucket holding the {@code q} quantile, or 0 without samples */
+    private static long percentile(long[] counts, double q) {
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return i < BUCKET_MS.length ? BUCKET_MS[i] : OVERFLOW_MS;
+        }
+        return OVERFLOW_MS;
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
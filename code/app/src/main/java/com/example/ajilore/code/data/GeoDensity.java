@@ -0,0 +1,69 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * GeoDensity
+ *
+ * Purpose: Immutable count of an event's located entrants per geohash cell, as stored in
+ * the {@code org_events/{eventId}/stats/geo} document that the
+ * {@code onWaitingListWrite} Cloud Function maintains. A map can draw density from
+ * this one document instead of downloading every entrant.
+ *
+ * <ul>
+ *   <li>{@link #precision}: length of the geohash cell keys (6, about 1.2 km x 0.6 km).</li>
+ *   <li>{@link #total}: entrants counted, i.e. those with a {@code geohash}.</li>
+ *   <li>{@link #cells}: entrants per cell; cells with none are left out.</li>
+ * </ul>
+ */
+public final class GeoDensity {
+
+    /** Density for an event with no located entrants. */
+    public static final GeoDensity EMPTY = new GeoDensity(0, 0, Collections.emptyMap());
+
+    public final int precision;
+    public final long total;
+    @NonNull
+    public final Map<String, Long> cells;
+
+    public GeoDensity(int precision, long total, @NonNull Map<String, Long> cells) {
+        this.precision = precision;
+        this.total = total;
+        this.cells = Collections.unmodifiableMap(new TreeMap<>(cells));
+    }
+
+    /**
+     * Reads a geo stats document's fields. Cells that are not positive numbers are dropped.
+     *
+     * @param data geo stats document data
+     * @return parsed density
+     */
+    @NonNull
+    public static GeoDensity fromMap(@Nullable Map<String, Object> data) {
+        if (data == null) return EMPTY;
+        Map<String, Long> cells = new TreeMap<>();
+        Object raw = data.get("cells");
+        if (raw instanceof Map) {
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) raw).entrySet()) {
+                long count = longOf(e.getValue());
+                if (e.getKey() instanceof String && count > 0) cells.put((String) e.getKey(), count);
+            }
+        }
+        return new GeoDensity((int) longOf(data.get("precision")), longOf(data.get("total")), cells);
+    }
+
+    private static long longOf(@Nullable Object value) {
+        return value instanceof Number ? Math.max(0, ((Number) value).longValue()) : 0;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "GeoDensity{precision=" + precision + ", total=" + total + ", cells=" + cells.size() + "}";
+    }
+}
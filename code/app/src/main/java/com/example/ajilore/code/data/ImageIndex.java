@@ -0,0 +1,147 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ImageIndex
+ *
+ * Purpose: The {@code images} collection, one document per uploaded image (event poster
+ * or profile picture), so the admin gallery can page through images by upload time
+ * without reading {@code org_events} or {@code users}.
+ *
+ * <ul>
+ *   <li>Document id is {@code {type}_{ownerId}}: an owner has at most one image of each
+ *       type, so a new upload replaces the old entry.</li>
+ *   <li>Written by the upload paths (poster and profile picture), which know the real
+ *       byte size and set {@code uploadedAt} to the server time of the upload.</li>
+ *   <li>Removed by {@code AdminController.removeImage}. The {@code syncEventImage} and
+ *       {@code syncProfileImage} Cloud Functions drop entries whose owner was deleted or
+ *       whose image was cleared, and keep {@code title} in step with renames.</li>
+ * </ul>
+ *
+ * Pattern: Android-free helper over {@link DocumentStore}, like the services, so the
+ * entry layout is unit tested on the JVM.
+ */
+public final class ImageIndex {
+
+    /** Collection holding the index. */
+    public static final String COLLECTION = "images";
+
+    /** Type of an event poster. */
+    public static final String TYPE_EVENT = "event";
+    /** Type of a profile picture. */
+    public static final String TYPE_PROFILE = "profile";
+
+    public static final String FIELD_URL = "url";
+    public static final String FIELD_OWNER = "ownerId";
+    public static final String FIELD_TYPE = "type";
+    public static final String FIELD_TITLE = "title";
+    public static final String FIELD_BYTES = "bytes";
+    public static final String FIELD_UPLOADED_AT = "uploadedAt";
+
+    private final DocumentStore store;
+
+    /**
+     * @param store document store the index is written through
+     */
+    public ImageIndex(@NonNull DocumentStore store) {
+        this.store = store;
+    }
+
+    /**
+     * @param type    {@link #TYPE_EVENT} or {@link #TYPE_PROFILE}
+     * @param ownerId event id or user id
+     * @return the index document id for that owner's image
+     */
+    @NonNull
+    public static String docId(@NonNull String type, @NonNull String ownerId) {
+        return type + "_" + ownerId;
+    }
+
+    /**
+     * @param type    {@link #TYPE_EVENT} or {@link #TYPE_PROFILE}
+     * @param ownerId event id or user id
+     * @return full path of the index document
+     */
+    @NonNull
+    public static String path(@NonNull String type, @NonNull String ownerId) {
+        return COLLECTION + "/" + docId(type, ownerId);
+    }
+
+    /**
+     * Builds an index entry for a fresh upload.
+     *
+     * @param type    {@link #TYPE_EVENT} or {@link #TYPE_PROFILE}
+     * @param ownerId event id or user id
+     * @param title   event title or user name shown under the image; may be null
+     * @param url     image URL
+     * @param bytes   uploaded size in bytes, or 0 when unknown (e.g. an external avatar URL)
+     * @return field values, with {@code uploadedAt} set to {@link DocumentStore#SERVER_TIMESTAMP}
+     */
+    @NonNull
+    public static Map<String, Object> entry(@NonNull String type,
+                                            @NonNull String ownerId,
+                                            @Nullable String title,
+                                            @NonNull String url,
+                                            long bytes) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_URL, url);
+        data.put(FIELD_OWNER, ownerId);
+        data.put(FIELD_TYPE, type);
+        data.put(FIELD_TITLE, title != null ? title : "");
+        data.put(FIELD_BYTES, Math.max(0L, bytes));
+        data.put(FIELD_UPLOADED_AT, DocumentStore.SERVER_TIMESTAMP);
+        return data;
+    }
+
+    /**
+     * Records an uploaded image, replacing any previous entry for the same owner and type.
+     *
+     * @param type    {@link #TYPE_EVENT} or {@link #TYPE_PROFILE}
+     * @param ownerId event id or user id
+     * @param title   event title or user name; may be null
+     * @param url     image URL
+     * @param bytes   uploaded size in bytes, or 0 when unknown
+     * @param cb      optional completion callback
+     */
+    public void record(@NonNull String type,
+                       @NonNull String ownerId,
+                       @Nullable String title,
+                       @NonNull String url,
+                       long bytes,
+                       @Nullable DocumentStore.ResultCallback<Void> cb) {
+        commit(DocumentStore.Write.set(path(type, ownerId), entry(type, ownerId, title, url, bytes)), cb);
+    }
+
+    /**
+     * Removes the entry for an owner's image, if there is one.
+     *
+     * @param type    {@link #TYPE_EVENT} or {@link #TYPE_PROFILE}
+     * @param ownerId event id or user id
+     * @param cb      optional completion callback
+     */
+    public void remove(@NonNull String type,
+                       @NonNull String ownerId,
+                       @Nullable DocumentStore.ResultCallback<Void> cb) {
+        commit(DocumentStore.Write.delete(path(type, ownerId)), cb);
+    }
+
+    private void commit(DocumentStore.Write write, @Nullable DocumentStore.ResultCallback<Void> cb) {
+        store.commit(Collections.singletonList(write), new DocumentStore.ResultCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                if (cb != null) cb.onSuccess(null);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (cb != null) cb.onError(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InboxEntry
+ *
+ * Purpose: One inbox notification as seen by {@link InboxFeed} (a personal notice or a
+ * pulled {@link Broadcast}), plus the plain-Java rules the feed relies on: how a user's
+ * copy of a notification is stamped so one collection-group query can find it, how the
+ * live first page and older pages are merged, and which items count as unread (the rule the
+ * functions behind {@link InboxUnreadRepository} apply).
+ *
+ * Pattern: Immutable value object; no Firebase types so the merge rules are unit tested
+ * on the JVM.
+ */
+public final class InboxEntry {
+
+    /**
+     * Field set on {@code users/{uid}/registrations/{eventId}/inbox/{id}} documents so
+     * {@code collectionGroup("inbox").whereEqualTo(RECIPIENT_FIELD, uid)} returns exactly
+     * that user's copies (and not the {@code org_events/.../waiting_list/{uid}/inbox} ones).
+     */
+    public static final String RECIPIENT_FIELD = "recipientId";
+
+    /** Field of the unread counter document holding the count. */
+    public static final String UNREAD_FIELD = "unread";
+
+    /** Full document path; unique across every registration's inbox. */
+    @NonNull
+    public final String path;
+    @NonNull
+    public final String docId;
+    @NonNull
+    public final String eventId;
+    @Nullable
+    public final String message;
+    @NonNull
+    public final String type;
+    public final boolean read;
+    public final boolean archived;
+    /** Creation time in milliseconds, or 0 while the server timestamp is pending. */
+    public final long createdAtMillis;
+
+    public InboxEntry(@NonNull String path,
+                      @NonNull String docId,
+                      @NonNull String eventId,
+                      @Nullable String message,
+                      @Nullable String type,
+                      boolean read,
+                      boolean archived,
+                      long createdAtMillis) {
+        this.path = path;
+        this.docId = docId;
+        this.eventId = eventId;
+        this.message = message;
+        this.type = type != null ? type : "general";
+        this.read = read;
+        this.archived = archived;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    /**
+     * @return true for an event {@link Broadcast} resolved at read time, whose read and
+     *         archived flags live in the reader's overlay rather than on {@link #path}
+     */
+    public boolean isBroadcast() {
+        return path.contains("/broadcasts/");
+    }
+
+    /** @return a copy marked read */
+    @NonNull
+    public InboxEntry withRead(boolean read) {
+        return new InboxEntry(path, docId, eventId, message, type, read, archived, createdAtMillis);
+    }
+
+    /** @return a copy marked archived or not */
+    @NonNull
+    public InboxEntry withArchived(boolean archived) {
+        return new InboxEntry(path, docId, eventId, message, type, read, archived, createdAtMillis);
+    }
+
+    /**
+     * Returns the payload to write under {@code users/{uid}/registrations/...}: a copy of
+     * {@code inbox} with {@link #RECIPIENT_FIELD} set. The event-side copy keeps the
+     * original map.
+     *
+     * @param inbox shared inbox payload
+     * @param uid   recipient
+     * @return a new map for that recipient's copy
+     */
+    @NonNull
+    public static Map<String, Object> forRecipient(@NonNull Map<String, Object> inbox, @NonNull String uid) {
+        Map<String, Object> copy = new HashMap<>(inbox);
+        copy.put(RECIPIENT_FIELD, uid);
+        return copy;
+    }
+
+    /**
+     * @param uid recipient
+     * @return path of the user's unread personal-notice counter, kept by the
+     *         {@code onUserInboxWrite} function
+     */
+    @NonNull
+    public static String unreadCounterPath(@NonNull String uid) {
+        return "users/" + uid + "/counters/inbox";
+    }
+
+    /**
+     * Merges the live first page with pages loaded by paging. The live page wins for any
+     * document present in both (it has the newer read/archived state), and the result is
+     * ordered newest first, with pending timestamps on top.
+     *
+     * @param live  items from the live listener
+     * @param older items from {@code startAfter} pages
+     * @return merged, immutable list
+     */
+    @NonNull
+    public static List<InboxEntry> merge(@NonNull Collection<InboxEntry> live,
+                                         @NonNull Collection<InboxEntry> older) {
+        Map<String, InboxEntry> byPath = new LinkedHashMap<>();
+        for (InboxEntry e : older) byPath.put(e.path, e);
+        for (InboxEntry e : live) byPath.put(e.path, e);
+
+        List<InboxEntry> out = new ArrayList<>(byPath.values());
+        Collections.sort(out, (a, b) -> Long.compare(sortKey(b), sortKey(a)));
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * Finds entries that left a full live window because newer items pushed them out, as
+     * opposed to being deleted. A limit query reports both as removals; an entry older than
+     * everything still in the window must have been pushed past its end, so it still exists
+     * and belongs with the older pages.
+     *
+     * @param previous   the live window before the snapshot
+     * @param current    the live window after the snapshot
+     * @param windowFull whether {@code current} holds a full page
+     * @return entries to keep as older items
+     */
+    @NonNull
+    public static List<InboxEntry> spilled(@NonNull List<InboxEntry> previous,
+                                           @NonNull List<InboxEntry> current,
+                                           boolean windowFull) {
+        if (!windowFull || current.isEmpty()) return Collections.emptyList();
+        Map<String, InboxEntry> now = new HashMap<>();
+        long oldest = Long.MAX_VALUE;
+        for (InboxEntry e : current) {
+            now.put(e.path, e);
+            oldest = Math.min(oldest, sortKey(e));
+        }
+        List<InboxEntry> out = new ArrayList<>();
+        for (InboxEntry e : previous) {
+            if (!now.containsKey(e.path) && sortKey(e) <= oldest) out.add(e);
+        }
+        return out;
+    }
+
+    /**
+     * @param entries inbox items
+     * @return number of items that are neither read nor archived
+     */
+    public static int unreadCount(@NonNull Collection<InboxEntry> entries) {
+        int n = 0;
+        for (InboxEntry e : entries) {
+            if (!e.read && !e.archived) n++;
+        }
+        return n;
+    }
+
+    static long sortKey(InboxEntry e) {
+        return e.createdAtMillis == 0 ? Long.MAX_VALUE : e.createdAtMillis;
+    }
+}
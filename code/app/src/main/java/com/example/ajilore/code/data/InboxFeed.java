@@ -0,0 +1,537 @@
+package com.example.ajilore.code.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.utils.BatchFanOut;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * InboxFeed
+ *
+ * Purpose: The user's inbox across every registration, read with one
+ * {@code collectionGroup("inbox")} query instead of one listener per
+ * {@code users/{uid}/registrations/{eventId}/inbox} subcollection.
+ *
+ * <ul>
+ *   <li><b>Live first page</b>: one snapshot listener on the newest {@link #PAGE_SIZE} items
+ *       ({@code recipientId == uid}, {@code orderBy(createdAt desc)}, {@code limit}).</li>
+ *   <li><b>Older pages</b>: {@link #loadOlder} reads the next page once with a
+ *       {@code startAfter} cursor. Items pushed out of the live page by newer ones are kept.</li>
+ *   <li><b>Event broadcasts</b>: organizer messages to a whole audience are stored once per
+ *       event ({@link Broadcast}) and matched to the user here. The feed listens to the
+ *       user's waiting-list entries ({@code collectionGroup("waiting_list")},
+ *       {@code userId == uid}) and pages the pull broadcasts of those events like the inbox
+ *       (one {@code collectionGroup("broadcasts")} query per
+ *       {@link Broadcast#MAX_EVENTS_PER_QUERY} events, newest {@link #PAGE_SIZE} live plus
+ *       older pages). Only broadcasts whose audience the user was in when they were sent
+ *       are shown ({@link Broadcast#resolve}), with the user's sparse read / archived
+ *       overlay applied. All sources are shown as one list down to the
+ *       {@link InboxPages#horizon}, and {@link #loadOlder} pages whichever sources limit
+ *       it.</li>
+ *   <li><b>Shared</b>: every inbox screen subscribes to the same instance
+ *       ({@link #shared}); the Firestore listeners are attached for the first subscriber
+ *       and removed with the last. The bottom-nav badge subscribes too: it adds
+ *       {@link #unreadBroadcasts} to the server-kept count of unread personal notices
+ *       ({@link InboxUnreadRepository}).</li>
+ * </ul>
+ *
+ * Pattern: Process-wide repository over {@link FirebaseFirestore}. All callbacks run on the
+ * main thread, like the Firestore listeners behind them.
+ */
+public class InboxFeed {
+
+    private static final String TAG = "InboxFeed";
+
+    /** Items in the live page and in each older page. */
+    public static final int PAGE_SIZE = 50;
+
+    /**
+     * Receives the merged inbox whenever it changes.
+     */
+    public interface Listener {
+        /**
+         * @param entries  every loaded item, newest first
+         * @param hasOlder whether {@link #loadOlder} may return more items
+         */
+        void onInbox(@NonNull List<InboxEntry> entries, boolean hasOlder);
+
+        /** @param e listener or paging error */
+        void onError(@NonNull Exception e);
+    }
+
+    private static InboxFeed shared;
+
+    private final FirebaseFirestore db;
+    private final String uid;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private ListenerRegistration live;
+    private ListenerRegistration membershipsLive;
+    private ListenerRegistration statesLive;
+    /** Personal notices. */
+    private final InboxPages<DocumentSnapshot> notices = new InboxPages<>();
+    /** Broadcasts of the user's events, one source per group of events. */
+    private final List<BroadcastSource> broadcastSources = new ArrayList<>();
+    /** {@link #notices} followed by the pages of every broadcast source. */
+    private final List<InboxPages<DocumentSnapshot>> sources = new ArrayList<>();
+    private boolean loadingOlder;
+    private List<InboxEntry> merged = Collections.emptyList();
+    private int unreadBroadcasts;
+
+    /** The user's waiting-list entries by event id. */
+    private Map<String, Broadcast.Membership> memberships = Collections.emptyMap();
+    /** Every loaded broadcast by path, matched against {@link #memberships} on publish. */
+    private final Map<String, Broadcast> loadedBroadcasts = new HashMap<>();
+    /** Read / archived overlay by broadcast id. */
+    private final Map<String, Broadcast.State> states = new HashMap<>();
+
+    /**
+     * The pull broadcasts of one group of the user's events: a live first page plus older
+     * pages.
+     */
+    private static final class BroadcastSource {
+        final List<String> eventIds;
+        final InboxPages<DocumentSnapshot> pages = new InboxPages<>();
+        ListenerRegistration live;
+
+        BroadcastSource(@NonNull List<String> eventIds) {
+            this.eventIds = eventIds;
+        }
+    }
+
+    /**
+     * @param db  Firestore instance
+     * @param uid recipient (device id)
+     */
+    public InboxFeed(@NonNull FirebaseFirestore db, @NonNull String uid) {
+        this.db = db;
+        this.uid = uid;
+        sources.add(notices);
+    }
+
+    /**
+     * Returns the process-wide feed for {@code uid}, replacing the previous one if the
+     * user changed.
+     *
+     * @param db  Firestore instance
+     * @param uid recipient (device id)
+     * @return the shared feed
+     */
+    @NonNull
+    public static synchronized InboxFeed shared(@NonNull FirebaseFirestore db, @NonNull String uid) {
+        if (shared == null || !shared.uid.equals(uid)) {
+            if (shared != null) shared.stop();
+            shared = new InboxFeed(db, uid);
+        }
+        return shared;
+    }
+
+    private Query query() {
+        return db.collectionGroup("inbox")
+                .whereEqualTo(InboxEntry.RECIPIENT_FIELD, uid)
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+    }
+
+    private Query broadcastQuery(@NonNull List<String> eventIds) {
+        return db.collectionGroup("broadcasts")
+                .whereEqualTo(Broadcast.FIELD_DELIVERY, Broadcast.DELIVERY_PULL)
+                .whereIn("eventId", eventIds)
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+    }
+
+    /**
+     * Subscribes to the inbox. A subscriber added after the first snapshot gets the current
+     * items right away.
+     *
+     * @param listener receives updates until the registration is removed
+     * @return registration to remove in {@code onDestroyView} / {@code onDestroy}
+     */
+    @NonNull
+    public ListenerRegistration subscribe(@NonNull Listener listener) {
+        listeners.add(listener);
+        if (live == null) {
+            start();
+        } else if (notices.isLoaded()) {
+            listener.onInbox(merged, hasOlder());
+        }
+        return () -> {
+            if (listeners.remove(listener) && listeners.isEmpty()) stop();
+        };
+    }
+
+    /** @return the latest merged items, newest first */
+    @NonNull
+    public List<InboxEntry> current() {
+        return merged;
+    }
+
+    /**
+     * @return unread, non-archived broadcasts among those loaded that reach the user; the
+     *         newest {@link #PAGE_SIZE} of each broadcasts query are always loaded
+     */
+    public int unreadBroadcasts() {
+        return unreadBroadcasts;
+    }
+
+    /** @return whether another older page may exist */
+    public boolean hasOlder() {
+        for (InboxPages<DocumentSnapshot> pages : sources) {
+            if (pages.hasMore()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads the next page of whichever sources limit the shown list (notices, broadcasts or
+     * several, in parallel) and publishes the merged result. Does nothing while a page is
+     * already loading or when there is nothing older.
+     *
+     * @param cb optional; receives the number of items read
+     */
+    public void loadOlder(@Nullable DocumentStore.ResultCallback<Integer> cb) {
+        List<InboxPages<DocumentSnapshot>> due = loadingOlder
+                ? Collections.<InboxPages<DocumentSnapshot>>emptyList()
+                : InboxPages.toPage(sources);
+        if (due.isEmpty()) {
+            if (cb != null) cb.onSuccess(0);
+            return;
+        }
+        loadingOlder = true;
+        final int[] pending = {due.size()};
+        final int[] read = {0};
+        final Exception[] failure = new Exception[1];
+        Runnable done = () -> {
+            if (--pending[0] > 0) return;
+            loadingOlder = false;
+            publish();
+            if (cb == null) return;
+            if (failure[0] != null) {
+                cb.onError(failure[0]);
+            } else {
+                cb.onSuccess(read[0]);
+            }
+        };
+        for (InboxPages<DocumentSnapshot> pages : due) {
+            boolean isNotices = pages == notices;
+            Query page = queryFor(pages).startAfter(pages.nextCursor()).limit(PAGE_SIZE);
+            TrackedFirestore.get(isNotices ? "InboxFeed.loadOlder" : "InboxFeed.loadOlderBroadcasts", page)
+                    .addOnSuccessListener(snap -> {
+                        pages.onOlder(toEntries(snap, isNotices), snap.getDocuments(), PAGE_SIZE);
+                        read[0] += snap.size();
+                        done.run();
+                    })
+                    .addOnFailureListener(e -> {
+                        Log.e(TAG, "Failed to load older inbox items", e);
+                        failure[0] = e;
+                        done.run();
+                    });
+        }
+    }
+
+    /**
+     * Replaces one loaded item with a locally changed copy (e.g. after archiving it), so
+     * items from older pages, which have no live listener, reflect the change too.
+     *
+     * @param entry updated item
+     */
+    public void updateLocal(@NonNull InboxEntry entry) {
+        for (InboxPages<DocumentSnapshot> pages : sources) pages.update(entry);
+        publish();
+    }
+
+    /**
+     * Marks items read: updates them locally right away and writes {@code read = true} in
+     * batches, to the notice's own document or to the broadcast overlay. Notices are
+     * updated rather than merged so one deleted meanwhile is not recreated.
+     *
+     * @param entries items to mark
+     */
+    public void markRead(@NonNull Collection<InboxEntry> entries) {
+        Set<String> paths = new LinkedHashSet<>();
+        List<InboxEntry> toWrite = new ArrayList<>();
+        for (InboxEntry e : entries) {
+            if (e.read || !paths.add(e.path)) continue;
+            toWrite.add(e);
+            if (e.isBroadcast()) states.put(e.docId, stateOf(e.docId).withRead());
+        }
+        if (toWrite.isEmpty()) return;
+
+        notices.markRead(paths);
+        publish();
+
+        Map<String, Object> read = new HashMap<>();
+        read.put("read", true);
+        DocumentStore store = FirestoreDocumentStore.tracked(db, "InboxFeed.markRead");
+        new BatchFanOut<InboxEntry>(store, (out, e) -> out.add(e.isBroadcast()
+                ? DocumentStore.Write.merge(Broadcast.statePath(uid, e.docId),
+                        Broadcast.stateFields(e.eventId, "read", true))
+                : DocumentStore.Write.update(e.path, read)))
+                .run(toWrite, (done, failed, lastError) -> {
+                    if (failed > 0) Log.w(TAG, "Could not mark " + failed + " inbox items read", lastError);
+                });
+    }
+
+    /**
+     * Archives or restores a pulled broadcast for this user only, by writing its overlay
+     * document. Personal notices are archived on their own documents.
+     *
+     * @param entry a {@link InboxEntry#isBroadcast() broadcast} item
+     * @param archived new archived flag
+     * @param cb    optional completion callback
+     */
+    public void setBroadcastArchived(@NonNull InboxEntry entry,
+                                     boolean archived,
+                                     @Nullable DocumentStore.ResultCallback<Void> cb) {
+        states.put(entry.docId, stateOf(entry.docId).withArchived(archived));
+        publish();
+        DocumentStore store = FirestoreDocumentStore.tracked(db, "InboxFeed.setBroadcastArchived");
+        store.commit(Collections.singletonList(DocumentStore.Write.merge(
+                        Broadcast.statePath(uid, entry.docId),
+                        Broadcast.stateFields(entry.eventId, "archived", archived))),
+                new DocumentStore.ResultCallback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                        if (cb != null) cb.onSuccess(null);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Could not update broadcast " + entry.docId, e);
+                        if (cb != null) cb.onError(e);
+                    }
+                });
+    }
+
+    private void start() {
+        live = TrackedFirestore.listen("InboxFeed.live", query().limit(PAGE_SIZE), (snap, e) -> {
+            if (e != null) {
+                fail("Inbox listener failed", e);
+                return;
+            }
+            if (snap != null) onLive(snap);
+        });
+        membershipsLive = TrackedFirestore.listen("InboxFeed.memberships", db.collectionGroup("waiting_list")
+                .whereEqualTo("userId", uid), (snap, e) -> {
+                    if (e != null) {
+                        fail("Waiting-list listener failed", e);
+                        return;
+                    }
+                    if (snap != null) onMemberships(snap);
+                });
+        statesLive = TrackedFirestore.listen("InboxFeed.broadcastStates",
+                db.collection("users").document(uid).collection(Broadcast.STATE_COLLECTION), (snap, e) -> {
+                    if (e != null) {
+                        fail("Broadcast state listener failed", e);
+                        return;
+                    }
+                    if (snap == null) return;
+                    states.clear();
+                    for (DocumentSnapshot d : snap.getDocuments()) {
+                        states.put(d.getId(), Broadcast.State.fromMap(d.getData()));
+                    }
+                    publish();
+                });
+    }
+
+    /**
+     * Keeps the user's memberships and, when the set of events changes, re-attaches the
+     * broadcast listeners for the new set.
+     */
+    private void onMemberships(@NonNull QuerySnapshot snap) {
+        Map<String, Broadcast.Membership> next = new HashMap<>();
+        for (DocumentSnapshot d : snap.getDocuments()) {
+            DocumentReference event = d.getReference().getParent().getParent();
+            if (event == null) continue;
+            next.put(event.getId(), new Broadcast.Membership(d.getString("status"), d.getString("responded"),
+                    sinceMillis(d)));
+        }
+        boolean eventsChanged = !next.keySet().equals(memberships.keySet());
+        memberships = next;
+        if (eventsChanged) {
+            List<String> eventIds = new ArrayList<>(next.keySet());
+            Collections.sort(eventIds);
+            listenToBroadcasts(eventIds);
+        }
+        publish();
+    }
+
+    private void listenToBroadcasts(@NonNull List<String> eventIds) {
+        removeBroadcastSources();
+        for (List<String> chunk : Broadcast.chunks(eventIds)) {
+            BroadcastSource source = new BroadcastSource(chunk);
+            source.live = TrackedFirestore.listen("InboxFeed.broadcasts", broadcastQuery(chunk).limit(PAGE_SIZE),
+                    (snap, e) -> {
+                        if (e != null) {
+                            fail("Broadcast listener failed", e);
+                            return;
+                        }
+                        if (snap == null) return;
+                        source.pages.onLive(toEntries(snap, false), snap.getDocuments(), PAGE_SIZE);
+                        publish();
+                    });
+            broadcastSources.add(source);
+            sources.add(source.pages);
+        }
+    }
+
+    private void removeBroadcastSources() {
+        for (BroadcastSource source : broadcastSources) {
+            source.live.remove();
+            sources.remove(source.pages);
+        }
+        broadcastSources.clear();
+        loadedBroadcasts.clear();
+    }
+
+    @NonNull
+    private Query queryFor(@NonNull InboxPages<DocumentSnapshot> pages) {
+        for (BroadcastSource source : broadcastSources) {
+            if (source.pages == pages) return broadcastQuery(source.eventIds);
+        }
+        return query();
+    }
+
+    private void fail(@NonNull String what, @NonNull Exception e) {
+        Log.e(TAG, what, e);
+        for (Listener l : new ArrayList<>(listeners)) l.onError(e);
+    }
+
+    @NonNull
+    private Broadcast.State stateOf(@NonNull String broadcastId) {
+        Broadcast.State state = states.get(broadcastId);
+        return state != null ? state : Broadcast.State.NONE;
+    }
+
+    private void stop() {
+        if (live != null) {
+            live.remove();
+            live = null;
+        }
+        if (membershipsLive != null) {
+            membershipsLive.remove();
+            membershipsLive = null;
+        }
+        if (statesLive != null) {
+            statesLive.remove();
+            statesLive = null;
+        }
+        removeBroadcastSources();
+        memberships = Collections.emptyMap();
+        unreadBroadcasts = 0;
+        states.clear();
+        notices.clear();
+        loadingOlder = false;
+        merged = Collections.emptyList();
+    }
+
+    private void onLive(@NonNull QuerySnapshot snap) {
+        notices.onLive(toEntries(snap, true), snap.getDocuments(), PAGE_SIZE);
+        publish();
+    }
+
+    /**
+     * Publishes notices and the broadcasts that reach the user as one list, cut at the
+     * horizon so no source shows items older than ones another has not read yet.
+     */
+    private void publish() {
+        List<InboxEntry> pulled = new ArrayList<>();
+        for (BroadcastSource source : broadcastSources) pulled.addAll(source.pages.entries());
+        List<InboxEntry> reached = Broadcast.resolve(pulled, loadedBroadcasts, memberships, states);
+        unreadBroadcasts = InboxEntry.unreadCount(reached);
+        List<InboxEntry> all = new ArrayList<>(notices.entries());
+        all.addAll(reached);
+        merged = InboxPages.visible(InboxEntry.merge(all, Collections.<InboxEntry>emptyList()),
+                InboxPages.horizon(sources));
+        boolean more = hasOlder();
+        for (Listener l : new ArrayList<>(listeners)) l.onInbox(merged, more);
+    }
+
+    @NonNull
+    private List<InboxEntry> toEntries(@NonNull QuerySnapshot snap, boolean isNotices) {
+        List<InboxEntry> out = new ArrayList<>(snap.size());
+        for (DocumentSnapshot d : snap.getDocuments()) {
+            if (isNotices) {
+                out.add(toEntry(d));
+                continue;
+            }
+            Broadcast b = toBroadcast(d);
+            loadedBroadcasts.put(b.path, b);
+            out.add(b.toEntry());
+        }
+        return out;
+    }
+
+    /**
+     * @return the latest of the entry's {@link Broadcast.Membership#SINCE_FIELDS}, with a
+     *         pending server timestamp estimated as now, or 0 if the entry has none
+     */
+    private static long sinceMillis(@NonNull DocumentSnapshot d) {
+        long since = 0;
+        for (String field : Broadcast.Membership.SINCE_FIELDS) {
+            Timestamp ts = d.getTimestamp(field, DocumentSnapshot.ServerTimestampBehavior.ESTIMATE);
+            if (ts != null) since = Math.max(since, ts.toDate().getTime());
+        }
+        return since;
+    }
+
+    /**
+     * Reads one inbox document. The event id comes from the path
+     * ({@code users/{uid}/registrations/{eventId}/inbox/{id}}) because not every writer
+     * stores it as a field.
+     */
+    @NonNull
+    private static InboxEntry toEntry(@NonNull DocumentSnapshot d) {
+        String eventId = d.getString("eventId");
+        if (eventId == null || eventId.isEmpty()) {
+            eventId = d.getReference().getParent().getParent() != null
+                    ? d.getReference().getParent().getParent().getId()
+                    : "";
+        }
+        Timestamp ts = d.getTimestamp("createdAt");
+        return new InboxEntry(
+                d.getReference().getPath(),
+                d.getId(),
+                eventId,
+                d.getString("message"),
+                d.getString("type"),
+                Boolean.TRUE.equals(d.getBoolean("read")),
+                Boolean.TRUE.equals(d.getBoolean("archived")),
+                ts != null ? ts.toDate().getTime() : 0);
+    }
+
+    @NonNull
+    private static Broadcast toBroadcast(@NonNull DocumentSnapshot d) {
+        String eventId = d.getString("eventId");
+        if (eventId == null || eventId.isEmpty()) {
+            eventId = d.getReference().getParent().getParent() != null
+                    ? d.getReference().getParent().getParent().getId()
+                    : "";
+        }
+        Timestamp ts = d.getTimestamp("createdAt");
+        return new Broadcast(
+                d.getReference().getPath(),
+                d.getId(),
+                eventId,
+                d.getString("audience"),
+                d.getString("message"),
+                ts != null ? ts.toDate().getTime() : 0);
+    }
+}
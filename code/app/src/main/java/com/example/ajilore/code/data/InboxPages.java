@@ -0,0 +1,202 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * InboxPages
+ *
+ * Purpose: The loaded items of one newest-first inbox source (personal notices or
+ * broadcasts): a live first page plus older pages read with a {@code startAfter} cursor.
+ * {@link InboxFeed} keeps one per source and shows them as one list, cut at the
+ * {@link #horizon}: the newest "oldest loaded item" among sources that may still have more.
+ * Below it one source could be missing items that belong between the ones already shown,
+ * so those wait until {@link #toPage} sources have read their next page.
+ *
+ * Pattern: Plain Java like {@link InboxEntry}, so the paging rules are unit tested on the
+ * JVM; the cursor type is whatever the query pages with ({@code DocumentSnapshot} in the app).
+ *
+ * @param <C> page cursor type
+ */
+public final class InboxPages<C> {
+
+    private List<InboxEntry> live = Collections.emptyList();
+    private Map<String, C> liveCursors = new HashMap<>();
+    private final Map<String, InboxEntry> older = new LinkedHashMap<>();
+    /** Cursor for the next older page: the oldest document held outside the live page. */
+    private C olderCursor;
+    private long olderCursorMillis = Long.MAX_VALUE;
+    private C liveOldest;
+    private boolean liveFull;
+    private boolean exhausted;
+    private boolean loaded;
+
+    /**
+     * Replaces the live first page. Items pushed out of a full page by newer ones are kept
+     * with the older pages.
+     *
+     * @param entries  the live page, newest first
+     * @param cursors  one cursor per entry, in the same order
+     * @param pageSize the live query's limit
+     */
+    public void onLive(@NonNull List<InboxEntry> entries, @NonNull List<C> cursors, int pageSize) {
+        boolean full = entries.size() >= pageSize;
+        for (InboxEntry gone : InboxEntry.spilled(live, entries, full)) {
+            keepOlder(gone, liveCursors.get(gone.path));
+        }
+        Map<String, C> next = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) next.put(entries.get(i).path, cursors.get(i));
+        // Anything now in the live page is fresher there.
+        older.keySet().removeAll(next.keySet());
+
+        live = new ArrayList<>(entries);
+        liveCursors = next;
+        liveOldest = cursors.isEmpty() ? null : cursors.get(cursors.size() - 1);
+        liveFull = full;
+        loaded = true;
+    }
+
+    /**
+     * Adds one older page read from {@link #nextCursor()}.
+     *
+     * @param entries  the page, newest first
+     * @param cursors  one cursor per entry, in the same order
+     * @param pageSize the page query's limit; a shorter page means there is nothing older
+     */
+    public void onOlder(@NonNull List<InboxEntry> entries, @NonNull List<C> cursors, int pageSize) {
+        for (int i = 0; i < entries.size(); i++) keepOlder(entries.get(i), cursors.get(i));
+        if (entries.size() < pageSize) exhausted = true;
+    }
+
+    /** @return whether the live page has been received */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** @return whether an older page may return more items */
+    public boolean hasMore() {
+        return !exhausted && (liveFull || !older.isEmpty());
+    }
+
+    /** @return where the next older page starts, or null if there is nothing to page from */
+    @Nullable
+    public C nextCursor() {
+        return olderCursor != null ? olderCursor : liveOldest;
+    }
+
+    /** @return every loaded item, newest first */
+    @NonNull
+    public List<InboxEntry> entries() {
+        return InboxEntry.merge(live, older.values());
+    }
+
+    /**
+     * Replaces one loaded item with a locally changed copy.
+     *
+     * @param entry updated item; ignored if not loaded here
+     */
+    public void update(@NonNull InboxEntry entry) {
+        if (older.containsKey(entry.path)) older.put(entry.path, entry);
+        List<InboxEntry> patched = new ArrayList<>(live);
+        for (int i = 0; i < patched.size(); i++) {
+            if (patched.get(i).path.equals(entry.path)) patched.set(i, entry);
+        }
+        live = patched;
+    }
+
+    /**
+     * Marks loaded items read locally.
+     *
+     * @param paths document paths of the items to mark
+     */
+    public void markRead(@NonNull Set<String> paths) {
+        for (String path : paths) {
+            InboxEntry e = older.get(path);
+            if (e != null) older.put(path, e.withRead(true));
+        }
+        List<InboxEntry> patched = new ArrayList<>(live.size());
+        for (InboxEntry e : live) {
+            patched.add(paths.contains(e.path) ? e.withRead(true) : e);
+        }
+        live = patched;
+    }
+
+    /** Forgets everything, e.g. when the feed stops. */
+    public void clear() {
+        live = Collections.emptyList();
+        liveCursors = new HashMap<>();
+        older.clear();
+        olderCursor = null;
+        olderCursorMillis = Long.MAX_VALUE;
+        liveOldest = null;
+        liveFull = false;
+        exhausted = false;
+        loaded = false;
+    }
+
+    /**
+     * @param sources every source shown together
+     * @return creation time (ms) of the oldest item that can be shown, or
+     *         {@link Long#MIN_VALUE} once no source has more
+     */
+    public static long horizon(@NonNull Collection<? extends InboxPages<?>> sources) {
+        long horizon = Long.MIN_VALUE;
+        for (InboxPages<?> s : sources) {
+            if (s.hasMore()) horizon = Math.max(horizon, s.oldestMillis());
+        }
+        return horizon;
+    }
+
+    /**
+     * @param entries merged items, newest first
+     * @param horizon result of {@link #horizon}
+     * @return the items at or above the horizon
+     */
+    @NonNull
+    public static List<InboxEntry> visible(@NonNull List<InboxEntry> entries, long horizon) {
+        if (horizon == Long.MIN_VALUE) return entries;
+        List<InboxEntry> out = new ArrayList<>(entries.size());
+        for (InboxEntry e : entries) {
+            if (InboxEntry.sortKey(e) >= horizon) out.add(e);
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    /**
+     * @param sources every source shown together
+     * @return the sources whose next page lowers the horizon; empty when nothing is older
+     */
+    @NonNull
+    public static <C> List<InboxPages<C>> toPage(@NonNull Collection<InboxPages<C>> sources) {
+        long horizon = horizon(sources);
+        List<InboxPages<C>> out = new ArrayList<>();
+        for (InboxPages<C> s : sources) {
+            if (s.hasMore() && s.nextCursor() != null && s.oldestMillis() == horizon) out.add(s);
+        }
+        return out;
+    }
+
+    private long oldestMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (InboxEntry e : live) oldest = Math.min(oldest, InboxEntry.sortKey(e));
+        for (InboxEntry e : older.values()) oldest = Math.min(oldest, InboxEntry.sortKey(e));
+        return oldest;
+    }
+
+    private void keepOlder(@NonNull InboxEntry entry, @Nullable C cursor) {
+        older.put(entry.path, entry);
+        if (cursor != null && entry.createdAtMillis != 0 && entry.createdAtMillis <= olderCursorMillis) {
+            olderCursor = cursor;
+            olderCursorMillis = entry.createdAtMillis;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.ajilore.code.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.functions.FirebaseFunctions;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InboxUnreadRepository
+ *
+ * Purpose: The number of unread, non-archived inbox items of a user, for the bottom-nav
+ * badge, without paging through the personal notices.
+ *
+ * <ul>
+ *   <li>Personal notices: the counter document {@link InboxEntry#unreadCounterPath}, kept up
+ *       to date by the {@code onUserInboxWrite} function as notices are written, read,
+ *       archived or deleted. Listening to it costs one read per change, however long the
+ *       inbox is.</li>
+ *   <li>Fallback: a user whose counter does not exist yet has the
+ *       {@code recountInboxUnread} function count their notices once on the server and
+ *       create it. The function only changes existing counters, so nothing is counted
+ *       twice.</li>
+ *   <li>Broadcasts: their audience is matched on the device, so they are not in the
+ *       counter. The badge adds {@link InboxFeed#unreadBroadcasts} from the shared feed,
+ *       which the inbox screen reuses.</li>
+ * </ul>
+ *
+ * Pattern: Repository over {@link FirebaseFirestore}, like {@link EventStatsRepository}.
+ */
+public class InboxUnreadRepository {
+
+    private static final String TAG = "InboxUnreadRepository";
+
+    /**
+     * Receives the unread count from {@link #listen}.
+     */
+    public interface UnreadListener {
+        /** @param unread unread, non-archived inbox items */
+        void onUnread(int unread);
+
+        /** @param e listen or recount error */
+        void onError(@NonNull Exception e);
+    }
+
+    private final FirebaseFirestore db;
+    private final FirebaseFunctions functions;
+
+    /**
+     * @param db Firestore instance
+     */
+    public InboxUnreadRepository(@NonNull FirebaseFirestore db) {
+        this.db = db;
+        this.functions = FirebaseFunctions.getInstance();
+    }
+
+    /**
+     * Listens to a user's unread count. The listener fires once the notice count is known
+     * and again whenever the notices or the matched broadcasts change.
+     *
+     * @param uid      recipient (device id)
+     * @param listener receives the count or errors
+     * @return registration to remove in {@code onDestroy}
+     */
+    @NonNull
+    public ListenerRegistration listen(@NonNull String uid, @NonNull UnreadListener listener) {
+        final boolean[] removed = {false};
+        final boolean[] recounting = {false};
+        // Unread notices, -1 until the counter or the recount reports them.
+        final int[] notices = {-1};
+        final int[] last = {-1};
+        InboxFeed feed = InboxFeed.shared(db, uid);
+        Runnable publish = () -> {
+            if (removed[0] || notices[0] < 0) return;
+            int unread = notices[0] + feed.unreadBroadcasts();
+            if (unread == last[0]) return;
+            last[0] = unread;
+            listener.onUnread(unread);
+        };
+        ListenerRegistration inner = TrackedFirestore.listen("InboxUnreadRepository.listen",
+                db.document(InboxEntry.unreadCounterPath(uid)), (snap, e) -> {
+                    if (removed[0]) return;
+                    if (e != null) {
+                        listener.onError(e);
+                        return;
+                    }
+                    if (snap != null && snap.exists()) {
+                        Long unread = snap.getLong(InboxEntry.UNREAD_FIELD);
+                        notices[0] = unread != null ? (int) Math.max(0, unread) : 0;
+                        publish.run();
+                        return;
+                    }
+                    // The recount creates the document, which this listener then receives.
+                    if (recounting[0]) return;
+                    recounting[0] = true;
+                    recount(uid, new DocumentStore.ResultCallback<Integer>() {
+                        @Override
+                        public void onSuccess(Integer unread) {
+                            notices[0] = unread;
+                            publish.run();
+                        }
+
+                        @Override
+                        public void onError(Exception err) {
+                            if (!removed[0]) listener.onError(err);
+                        }
+                    });
+                });
+        ListenerRegistration broadcasts = feed.subscribe(new InboxFeed.Listener() {
+            @Override
+            public void onInbox(@NonNull List<InboxEntry> entries, boolean hasOlder) {
+                publish.run();
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (!removed[0]) listener.onError(e);
+            }
+        });
+        return () -> {
+            removed[0] = true;
+            inner.remove();
+            broadcasts.remove();
+        };
+    }
+
+    /**
+     * Has the server count the user's unread personal notices once and create the counter,
+     * using the same rules as the function that maintains it. The function only counts for
+     * a signed-in caller, so this signs in anonymously first if needed.
+     *
+     * @param uid recipient (device id)
+     * @param cb  receives the count or an error
+     */
+    public void recount(@NonNull String uid, @NonNull DocumentStore.ResultCallback<Integer> cb) {
+        FirebaseAuth auth = FirebaseAuth.getInstance();
+        Task<?> signedIn = auth.getCurrentUser() != null ? Tasks.forResult(null) : auth.signInAnonymously();
+        signedIn.continueWithTask(t -> functions.getHttpsCallable("recountInboxUnread")
+                        .call(Collections.singletonMap("userId", uid)))
+                .addOnSuccessListener(result -> {
+                    Object data = result.getData();
+                    Object unread = data instanceof Map ? ((Map<?, ?>) data).get(InboxEntry.UNREAD_FIELD) : null;
+                    cb.onSuccess(unread instanceof Number ? ((Number) unread).intValue() : 0);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Unread recount failed for " + uid, e);
+                    cb.onError(e);
+                });
+    }
+}
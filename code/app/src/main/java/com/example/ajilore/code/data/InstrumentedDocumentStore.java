@@ -0,0 +1,211 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * InstrumentedDocumentStore
+ *
+ * Purpose: A {@link DocumentStore} that records every call it forwards in a
+ * {@link FirestoreLedger} under one caller tag: documents read, documents written,
+ * commits, open listeners, errors and round-trip time. Services written against
+ * {@link DocumentStore} are measured without changes; the screen that creates the store
+ * picks the tag.
+ *
+ * Pattern: Decorator. {@link FirestoreDocumentStore#tracked} builds the production
+ * instance; tests wrap {@code InMemoryDocumentStore} with a fake clock.
+ */
+public class InstrumentedDocumentStore implements DocumentStore {
+
+    private final DocumentStore delegate;
+    private final String tag;
+    private final FirestoreLedger ledger;
+    private final LongSupplier clockMs;
+
+    /**
+     * @param delegate store the calls go to
+     * @param tag      caller the calls are recorded under
+     */
+    public InstrumentedDocumentStore(@NonNull DocumentStore delegate, @NonNull String tag) {
+        this(delegate, tag, FirestoreLedger.shared(), () -> System.nanoTime() / 1_000_000L);
+    }
+
+    /**
+     * @param delegate store the calls go to
+     * @param tag      caller the calls are recorded under
+     * @param ledger   ledger to record into
+     * @param clockMs  monotonic time source in milliseconds
+     */
+    public InstrumentedDocumentStore(@NonNull DocumentStore delegate,
+                                     @NonNull String tag,
+                                     @NonNull FirestoreLedger ledger,
+                                     @NonNull LongSupplier clockMs) {
+        this.delegate = delegate;
+        this.tag = tag;
+        this.ledger = ledger;
+        this.clockMs = clockMs;
+    }
+
+    @Override
+    public void get(String docPath, ResultCallback<Doc> cb) {
+        long start = clockMs.getAsLong();
+        delegate.get(docPath, new ResultCallback<Doc>() {
+            @Override
+            public void onSuccess(Doc result) {
+                ledger.recordRead(tag, 1, clockMs.getAsLong() - start);
+                cb.onSuccess(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                ledger.recordError(tag, clockMs.getAsLong() - start);
+                cb.onError(e);
+            }
+        });
+    }
+
+    @Override
+    public void queryEquals(String collectionPath, String field, Object value, ResultCallback<List<Doc>> cb) {
+        delegate.queryEquals(collectionPath, field, value, reads(cb));
+    }
+
+    @Override
+    public void queryRange(String collectionPath, String field, String start, String end,
+                           ResultCallback<List<Doc>> cb) {
+        delegate.queryRange(collectionPath, field, start, end, reads(cb));
+    }
+
+    @Override
+    public void list(String collectionPath, ResultCallback<List<Doc>> cb) {
+        delegate.list(collectionPath, reads(cb));
+    }
+
+    @Override
+    public void queryGroupEquals(String collectionId, String field, Object value, ResultCallback<List<Doc>> cb) {
+        delegate.queryGroupEquals(collectionId, field, value, reads(cb));
+    }
+
+    @Override
+    public void getAll(String collectionPath, List<String> ids, ResultCallback<List<Doc>> cb) {
+        delegate.getAll(collectionPath, ids, reads(cb));
+    }
+
+    @Override
+    public Subscription listen(String collectionPath, SnapshotListener listener) {
+        ledger.listenerOpened(tag);
+        Subscription inner = delegate.listen(collectionPath, new SnapshotListener() {
+            @Override
+            public void onSnapshot(List<Doc> docs, int changed) {
+                ledger.recordSnapshot(tag, changed, false);
+                listener.onSnapshot(docs, changed);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                ledger.recordError(tag, -1);
+                listener.onError(e);
+            }
+        });
+        final boolean[] removed = {false};
+        return () -> {
+            if (removed[0]) return;
+            removed[0] = true;
+            inner.remove();
+            ledger.listenerClosed(tag);
+        };
+    }
+
+    @Override
+    public String newId(String collectionPath) {
+        return delegate.newId(collectionPath);
+    }
+
+    @Override
+    public void commit(List<Write> writes, ResultCallback<Void> cb) {
+        long start = clockMs.getAsLong();
+        int count = writes.size();
+        delegate.commit(writes, new ResultCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                ledger.recordCommit(tag, count, clockMs.getAsLong() - start);
+                cb.onSuccess(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                ledger.recordError(tag, clockMs.getAsLong() - start);
+                cb.onError(e);
+            }
+        });
+    }
+
+    @Override
+    public <T> void runTransaction(TransactionBody<T> body, ResultCallback<T> cb) {
+        long start = clockMs.getAsLong();
+        // Reset per attempt: only the attempt that committed is billed.
+        final int[] reads = {0};
+        final int[] writes = {0};
+        delegate.runTransaction(tx -> {
+            reads[0] = 0;
+            writes[0] = 0;
+            return body.apply(new Transaction() {
+                @Override
+                public Doc get(String docPath) throws Exception {
+                    reads[0]++;
+                    return tx.get(docPath);
+                }
+
+                @Override
+                public void set(String docPath, Map<String, Object> data) {
+                    writes[0]++;
+                    tx.set(docPath, data);
+                }
+
+                @Override
+                public void merge(String docPath, Map<String, Object> data) {
+                    writes[0]++;
+                    tx.merge(docPath, data);
+                }
+
+                @Override
+                public void delete(String docPath) {
+                    writes[0]++;
+                    tx.delete(docPath);
+                }
+            });
+        }, new ResultCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                ledger.recordTransaction(tag, reads[0], writes[0], clockMs.getAsLong() - start);
+                cb.onSuccess(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                ledger.recordError(tag, clockMs.getAsLong() - start);
+                cb.onError(e);
+            }
+        });
+    }
+
+    /** Wraps a query callback so the result size and round trip are recorded first. */
+    private ResultCallback<List<Doc>> reads(ResultCallback<List<Doc>> cb) {
+        long start = clockMs.getAsLong();
+        return new ResultCallback<List<Doc>>() {
+            @Override
+            public void onSuccess(List<Doc> result) {
+                ledger.recordRead(tag, result != null ? result.size() : 0, clockMs.getAsLong() - start);
+                cb.onSuccess(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                ledger.recordError(tag, clockMs.getAsLong() - start);
+                cb.onError(e);
+            }
+        };
+    }
+}
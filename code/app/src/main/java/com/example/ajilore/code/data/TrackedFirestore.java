@@ -0,0 +1,178 @@
+package com.example.ajilore.code.data;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+/**
+ * TrackedFirestore
+ *
+ * Purpose: Records direct Firestore calls in {@link FirestoreLedger#shared()} for code
+ * that works with {@link Query} and {@link DocumentReference} rather than a
+ * {@link DocumentStore}. Each helper takes the caller tag and returns what the plain
+ * call would, so a call site changes from {@code query.get()} to
+ * {@code TrackedFirestore.get("AdminController.fetchImagesPage", query)} and nothing else.
+ *
+ * <ul>
+ *   <li>{@code get} and {@link #commit} record documents and round-trip time when the
+ *       task completes.</li>
+ *   <li>{@code listen} counts the listener as open until its registration is removed,
+ *       and bills each server snapshot by its changed documents.</li>
+ *   <li>{@link #dump} writes the ledger as JSON to logcat.</li>
+ * </ul>
+ *
+ * Pattern: Static helpers, like {@code FirebaseFirestore.getInstance()} call sites expect.
+ */
+public final class TrackedFirestore {
+
+    private static final String TAG = "FirestoreLedger";
+
+    /** Logcat truncates long lines, so the dump is split into chunks of this size. */
+    private static final int LOG_CHUNK = 3000;
+
+    private TrackedFirestore() {
+    }
+
+    /**
+     * Runs a query once and records it.
+     *
+     * @param tag   caller
+     * @param query query to run
+     * @return the query task
+     */
+    @NonNull
+    public static Task<QuerySnapshot> get(@NonNull String tag, @NonNull Query query) {
+        long start = SystemClock.elapsedRealtime();
+        return query.get().addOnCompleteListener(task -> {
+            long latency = SystemClock.elapsedRealtime() - start;
+            if (task.isSuccessful() && task.getResult() != null) {
+                FirestoreLedger.shared().recordRead(tag, task.getResult().size(), latency);
+            } else {
+                FirestoreLedger.shared().recordError(tag, latency);
+            }
+        });
+    }
+
+    /**
+     * Reads a document once and records it.
+     *
+     * @param tag caller
+     * @param ref document to read
+     * @return the read task
+     */
+    @NonNull
+    public static Task<DocumentSnapshot> get(@NonNull String tag, @NonNull DocumentReference ref) {
+        long start = SystemClock.elapsedRealtime();
+        return ref.get().addOnCompleteListener(task -> {
+            long latency = SystemClock.elapsedRealtime() - start;
+            if (task.isSuccessful()) {
+                FirestoreLedger.shared().recordRead(tag, 1, latency);
+            } else {
+                FirestoreLedger.shared().recordError(tag, latency);
+            }
+        });
+    }
+
+    /**
+     * Commits a batch and records it.
+     *
+     * @param tag       caller
+     * @param batch     batch to commit
+     * @param documents documents the batch writes
+     * @return the commit task
+     */
+    @NonNull
+    public static Task<Void> commit(@NonNull String tag, @NonNull WriteBatch batch, int documents) {
+        long start = SystemClock.elapsedRealtime();
+        return batch.commit().addOnCompleteListener(task -> {
+            long latency = SystemClock.elapsedRealtime() - start;
+            if (task.isSuccessful()) {
+                FirestoreLedger.shared().recordCommit(tag, documents, latency);
+            } else {
+                FirestoreLedger.shared().recordError(tag, latency);
+            }
+        });
+    }
+
+    /**
+     * Attaches a query listener and records it until the registration is removed.
+     *
+     * @param tag      caller
+     * @param query    query to listen to
+     * @param listener receives the snapshots
+     * @return registration that also closes the ledger entry
+     */
+    @NonNull
+    public static ListenerRegistration listen(@NonNull String tag,
+                                              @NonNull Query query,
+                                              @NonNull EventListener<QuerySnapshot> listener) {
+        ListenerRegistration inner = query.addSnapshotListener((snap, e) -> {
+            if (e != null) {
+                FirestoreLedger.shared().recordError(tag, -1);
+            } else if (snap != null) {
+                FirestoreLedger.shared().recordSnapshot(tag, snap.getDocumentChanges().size(),
+                        snap.getMetadata().isFromCache());
+            }
+            listener.onEvent(snap, e);
+        });
+        return opened(tag, inner);
+    }
+
+    /**
+     * Attaches a document listener and records it until the registration is removed.
+     *
+     * @param tag      caller
+     * @param ref      document to listen to
+     * @param listener receives the snapshots
+     * @return registration that also closes the ledger entry
+     */
+    @NonNull
+    public static ListenerRegistration listen(@NonNull String tag,
+                                              @NonNull DocumentReference ref,
+                                              @NonNull EventListener<DocumentSnapshot> listener) {
+        ListenerRegistration inner = ref.addSnapshotListener((snap, e) -> {
+            if (e != null) {
+                FirestoreLedger.shared().recordError(tag, -1);
+            } else if (snap != null) {
+                FirestoreLedger.shared().recordSnapshot(tag, 1, snap.getMetadata().isFromCache());
+            }
+            listener.onEvent(snap, e);
+        });
+        return opened(tag, inner);
+    }
+
+    /**
+     * Writes the ledger to logcat as JSON, most expensive caller first.
+     *
+     * @param reason why the dump was taken, e.g. {@code "onStop"}
+     */
+    public static void dump(@NonNull String reason) {
+        String json = FirestoreLedger.shared().toJson();
+        Log.i(TAG, "Ledger (" + reason + ", " + json.length() + " chars)");
+        for (int i = 0; i < json.length(); i += LOG_CHUNK) {
+            Log.i(TAG, json.substring(i, Math.min(json.length(), i + LOG_CHUNK)));
+        }
+    }
+
+    @NonNull
+    private static ListenerRegistration opened(@NonNull String tag, @NonNull ListenerRegistration inner) {
+        FirestoreLedger.shared().listenerOpened(tag);
+        final boolean[] removed = {false};
+        return () -> {
+            if (removed[0]) return;
+            removed[0] = true;
+            inner.remove();
+            FirestoreLedger.shared().listenerClosed(tag);
+        };
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.ajilore.code.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * UserProfileResolver
+ *
+ * Purpose: Turns entrant uids into display names and profile pictures without one
+ * {@code users/{uid}} read per row.
+ *
+ * <ul>
+ *   <li><b>LRU cache with TTL</b>: resolved profiles are kept for {@link #DEFAULT_TTL_MILLIS}
+ *       (at most {@link #DEFAULT_MAX_ENTRIES}), so a list that re-renders after one entrant
+ *       changes reads nothing for the others.</li>
+ *   <li><b>Batched fetches</b>: uids that miss the cache are read with
+ *       {@code whereIn(documentId, ...)} queries of up to {@link DocumentStore#MAX_IN_IDS} ids.</li>
+ *   <li><b>Request coalescing</b>: a uid already being fetched is not fetched again; every
+ *       caller waiting on it is answered from the same result.</li>
+ * </ul>
+ *
+ * Users without a profile document resolve to a {@link Profile} with no name, so callers
+ * fall back to the uid. Fetch errors resolve the same way but are not cached.
+ *
+ * Pattern: One shared instance per process ({@link #shared}); plain Java over
+ * {@link DocumentStore} so it is unit tested on the JVM.
+ */
+public class UserProfileResolver {
+
+    /** Profiles older than this are fetched again. */
+    public static final long DEFAULT_TTL_MILLIS = 10 * 60 * 1000L;
+
+    /** Maximum number of cached profiles. */
+    public static final int DEFAULT_MAX_ENTRIES = 2000;
+
+    private static final String USERS = "users";
+
+    private static UserProfileResolver shared;
+
+    /**
+     * Name and photo for one user.
+     */
+    public static final class Profile {
+        @NonNull
+        public final String uid;
+        @Nullable
+        public final String name;
+        @Nullable
+        public final String photoUrl;
+
+        public Profile(@NonNull String uid, @Nullable String name, @Nullable String photoUrl) {
+            this.uid = uid;
+            this.name = name;
+            this.photoUrl = photoUrl;
+        }
+
+        /** @return the name, or the uid when the user has no name */
+        @NonNull
+        public String displayName() {
+            return name == null || name.isEmpty() ? uid : name;
+        }
+    }
+
+    /**
+     * Receives resolved profiles.
+     */
+    public interface ProfilesCallback {
+        /**
+         * Called once, with an entry for every requested uid.
+         *
+         * @param profiles profiles keyed by uid
+         */
+        void onResolved(@NonNull Map<String, Profile> profiles);
+    }
+
+    /**
+     * Told when a profile is dropped with {@link #invalidate}, so screens that keep
+     * profiles of their own can resolve it again.
+     */
+    public interface InvalidationListener {
+        /** @param uid user whose profile changed */
+        void onInvalidated(@NonNull String uid);
+    }
+
+    /** One {@link #resolve} call waiting for its uncached uids. */
+    private static final class Request {
+        final Map<String, Profile> out;
+        final ProfilesCallback cb;
+        int remaining;
+
+        Request(Map<String, Profile> out, int remaining, ProfilesCallback cb) {
+            this.out = out;
+            this.remaining = remaining;
+            this.cb = cb;
+        }
+    }
+
+    private static final class Entry {
+        final Profile profile;
+        final long fetchedAt;
+
+        Entry(Profile profile, long fetchedAt) {
+            this.profile = profile;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private final DocumentStore store;
+    private final LongSupplier clock;
+    private final long ttlMillis;
+    private final Map<String, Entry> cache;
+    private final Map<String, List<Request>> inFlight = new HashMap<>();
+    private final List<InvalidationListener> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param store store to read {@code users} documents from
+     */
+    public UserProfileResolver(@NonNull DocumentStore store) {
+        this(store, System::currentTimeMillis, DEFAULT_TTL_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param store      store to read {@code users} documents from
+     * @param clock      time source in milliseconds
+     * @param ttlMillis  how long a cached profile stays valid
+     * @param maxEntries cache size; the least recently used profile is evicted first
+     */
+    public UserProfileResolver(@NonNull DocumentStore store,
+                               @NonNull LongSupplier clock,
+                               long ttlMillis,
+                               int maxEntries) {
+        this.store = store;
+        this.clock = clock;
+        this.ttlMillis = ttlMillis;
+        this.cache = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the process-wide resolver, creating it on first use.
+     *
+     * @param store store used if the resolver does not exist yet
+     * @return the shared resolver
+     */
+    @NonNull
+    public static synchronized UserProfileResolver shared(@NonNull DocumentStore store) {
+        if (shared == null) {
+            shared = new UserProfileResolver(store);
+        }
+        return shared;
+    }
+
+    /**
+     * @param uid user id
+     * @return the cached, unexpired profile, or null
+     */
+    @Nullable
+    public synchronized Profile peek(@NonNull String uid) {
+        Entry e = cache.get(uid);
+        if (e == null) return null;
+        if (clock.getAsLong() - e.fetchedAt >= ttlMillis) {
+            cache.remove(uid);
+            return null;
+        }
+        return e.profile;
+    }
+
+    /**
+     * Drops a cached profile, e.g. after the user edits their own name or picture.
+     *
+     * @param uid user id
+     */
+    public void invalidate(@NonNull String uid) {
+        synchronized (this) {
+            cache.remove(uid);
+        }
+        for (InvalidationListener l : invalidationListeners) l.onInvalidated(uid);
+    }
+
+    /**
+     * @param listener told about every later {@link #invalidate}
+     * @return registration to remove when the listener goes away
+     */
+    @NonNull
+    public DocumentStore.Subscription addInvalidationListener(@NonNull InvalidationListener listener) {
+        invalidationListeners.add(listener);
+        return () -> invalidationListeners.remove(listener);
+    }
+
+    /** @return number of cached profiles (expired ones included) */
+    @VisibleForTesting
+    synchronized int cachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Resolves profiles for {@code uids}. Cached profiles are returned without a read;
+     * the rest are fetched in batches, sharing any fetch already in progress.
+     *
+     * @param uids user ids (duplicates are ignored)
+     * @param cb   called once with a profile for every uid
+     */
+    public void resolve(@NonNull Collection<String> uids, @NonNull ProfilesCallback cb) {
+        Set<String> unique = new LinkedHashSet<>(uids);
+        Map<String, Profile> out = new HashMap<>(unique.size() * 2);
+        List<String> toFetch = new ArrayList<>();
+
+        synchronized (this) {
+            List<String> missing = new ArrayList<>();
+            for (String uid : unique) {
+                Profile p = peek(uid);
+                if (p != null) {
+                    out.put(uid, p);
+                } else {
+                    missing.add(uid);
+                }
+            }
+            if (!missing.isEmpty()) {
+                Request request = new Request(out, missing.size(), cb);
+                for (String uid : missing) {
+                    List<Request> waiters = inFlight.get(uid);
+                    if (waiters == null) {
+                        waiters = new ArrayList<>();
+                        inFlight.put(uid, waiters);
+                        toFetch.add(uid);
+                    }
+                    waiters.add(request);
+                }
+                out = null; // delivered by the request once every uid arrives
+            }
+        }
+
+        if (out != null) {
+            cb.onResolved(out);
+            return;
+        }
+        for (int i = 0; i < toFetch.size(); i += DocumentStore.MAX_IN_IDS) {
+            fetch(toFetch.subList(i, Math.min(toFetch.size(), i + DocumentStore.MAX_IN_IDS)));
+        }
+    }
+
+    /** Reads one group of at most {@link DocumentStore#MAX_IN_IDS} users. */
+    private void fetch(@NonNull List<String> group) {
+        List<String> ids = new ArrayList<>(group);
+        store.getAll(USERS, ids, new DocumentStore.ResultCallback<List<DocumentStore.Doc>>() {
+            @Override
+            public void onSuccess(List<DocumentStore.Doc> docs) {
+                Map<String, DocumentStore.Doc> byId = new HashMap<>();
+                for (DocumentStore.Doc d : docs) byId.put(d.id, d);
+
+                long now = clock.getAsLong();
+                for (String uid : ids) {
+                    DocumentStore.Doc d = byId.get(uid);
+                    Profile p = d == null
+                            ? new Profile(uid, null, null)
+                            : new Profile(uid, d.getString("name"), d.getString("profilepicture"));
+                    synchronized (UserProfileResolver.this) {
+                        cache.put(uid, new Entry(p, now));
+                    }
+                    complete(uid, p);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                for (String uid : ids) {
+                    complete(uid, new Profile(uid, null, null));
+                }
+            }
+        });
+    }
+
+    /** Hands a fetched profile to every request waiting on it. */
+    private void complete(@NonNull String uid, @NonNull Profile profile) {
+        List<Request> done = new ArrayList<>();
+        synchronized (this) {
+            List<Request> waiters = inFlight.remove(uid);
+            if (waiters == null) return;
+            for (Request r : waiters) {
+                r.out.put(uid, profile);
+                if (--r.remaining == 0) done.add(r);
+            }
+        }
+        for (Request r : done) {
+            r.cb.onResolved(r.out);
+        }
+    }
+}
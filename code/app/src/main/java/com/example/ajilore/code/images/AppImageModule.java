@@ -0,0 +1,63 @@
+package com.example.ajilore.code.images;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+
+import java.io.InputStream;
+
+/**
+ * AppImageModule
+ *
+ * Purpose: App-wide Glide configuration. Sets the memory and disk cache budgets and
+ * registers {@link CloudinaryUrlLoader}, so posters and avatars are downloaded at the size
+ * they are shown.
+ *
+ * Pattern: Glide's annotation processor (already in the build) finds this class and
+ * applies it the first time {@code Glide.with(...)} is called. Existing call sites keep
+ * using {@code Glide}; no generated API is needed.
+ */
+@GlideModule
+public final class AppImageModule extends AppGlideModule {
+
+    /** Posters are re-shown across the events, history and admin tabs; keep 3 screens of them. */
+    private static final float MEMORY_CACHE_SCREENS = 3;
+    private static final float BITMAP_POOL_SCREENS = 2;
+    /** Sized thumbnails are small, so this holds thousands of them. */
+    private static final long DISK_CACHE_BYTES = 100L * 1024 * 1024;
+    private static final String DISK_CACHE_DIR = "images";
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator sizes = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(MEMORY_CACHE_SCREENS)
+                .setBitmapPoolScreens(BITMAP_POOL_SCREENS)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(sizes.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(sizes.getBitmapPoolSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_DIR, DISK_CACHE_BYTES));
+        builder.setLogLevel(Log.ERROR);
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.prepend(String.class, InputStream.class, new CloudinaryUrlLoader.Factory());
+    }
+
+    /** All configuration is here; skip scanning the manifest for old-style modules. */
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
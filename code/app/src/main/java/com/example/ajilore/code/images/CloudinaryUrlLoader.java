@@ -0,0 +1,61 @@
+package com.example.ajilore.code.images;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.Option;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.load.model.stream.BaseGlideUrlLoader;
+import com.bumptech.glide.request.target.Target;
+
+import java.io.InputStream;
+
+/**
+ * CloudinaryUrlLoader
+ *
+ * Purpose: Lets every {@code Glide...load(url)} of a Cloudinary URL fetch an image sized
+ * for the view it is going into. Glide passes the target's pixel size to
+ * {@link #getUrl}, which asks Cloudinary for that size via {@link CloudinaryUrls}.
+ *
+ * Pattern: Registered ahead of Glide's own String loader by {@link AppImageModule}, and
+ * only {@link #handles} Cloudinary URLs. The sized URL becomes the disk cache key, so each
+ * size is cached on its own. Requests built by {@link Images#thumbnail} set {@link #CROP}
+ * and get a server-side crop; all others get a fit-inside resize.
+ */
+public final class CloudinaryUrlLoader extends BaseGlideUrlLoader<String> {
+
+    /** True when the view center-crops, so Cloudinary may crop to the exact size. */
+    public static final Option<Boolean> CROP =
+            Option.memory("com.example.ajilore.code.images.CloudinaryUrlLoader.CROP", false);
+
+    private CloudinaryUrlLoader(@NonNull ModelLoader<GlideUrl, InputStream> urlLoader) {
+        super(urlLoader);
+    }
+
+    @Override
+    public boolean handles(@NonNull String model) {
+        return CloudinaryUrls.isCloudinary(model);
+    }
+
+    @Override
+    protected String getUrl(String model, int width, int height, Options options) {
+        if (width == Target.SIZE_ORIGINAL || height == Target.SIZE_ORIGINAL) return model;
+        return CloudinaryUrls.sized(model, width, height, Boolean.TRUE.equals(options.get(CROP)));
+    }
+
+    /** Builds the loader on top of Glide's {@link GlideUrl} network loader. */
+    public static final class Factory implements ModelLoaderFactory<String, InputStream> {
+        @NonNull
+        @Override
+        public ModelLoader<String, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new CloudinaryUrlLoader(multiFactory.build(GlideUrl.class, InputStream.class));
+        }
+
+        @Override
+        public void teardown() {
+        }
+    }
+}
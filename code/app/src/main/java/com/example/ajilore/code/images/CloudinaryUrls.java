@@ -0,0 +1,79 @@
+package com.example.ajilore.code.images;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.regex.Pattern;
+
+/**
+ * CloudinaryUrls
+ *
+ * Purpose: Rewrites Cloudinary delivery URLs so the CDN resizes and re-encodes an image
+ * before it is downloaded. A 64dp thumbnail then fetches a few kilobytes instead of the
+ * full original poster.
+ *
+ * Pattern: Plain Java, so it can be unit tested on the JVM. {@link CloudinaryUrlLoader}
+ * calls it with the pixel size Glide is loading for. Any other URL is returned unchanged.
+ */
+public final class CloudinaryUrls {
+
+    private static final String HOST = "res.cloudinary.com/";
+    private static final String UPLOAD = "/image/upload/";
+    /** Cloudinary transformation parameter names, e.g. "w" in "w_200". */
+    private static final String PARAM =
+            "(?:a|ac|af|ar|b|bo|br|c|co|cs|d|dl|dn|dpr|du|e|eo|f|fl|fn|fps|g|h|if|ki|l|o|p|pg|q|r"
+                    + "|so|sp|t|u|vc|vs|w|x|y|z)_[^/,]+";
+    /**
+     * One transformation component, e.g. "c_fill,w_200,h_200". Only known parameter names
+     * count, so a folder such as "ev_posters" in a URL without a version is left alone.
+     */
+    private static final Pattern TRANSFORMATION = Pattern.compile(PARAM + "(?:," + PARAM + ")*");
+
+    private CloudinaryUrls() {
+    }
+
+    /**
+     * @param url any image URL, or null
+     * @return true if it is a Cloudinary image delivery URL this class can rewrite
+     */
+    public static boolean isCloudinary(@Nullable String url) {
+        return url != null
+                && (url.startsWith("https://") || url.startsWith("http://"))
+                && url.contains(HOST)
+                && url.contains(UPLOAD);
+    }
+
+    /**
+     * Adds a resize and automatic format/quality step to a Cloudinary URL. The step goes
+     * after any transformations already in the URL, so it applies to their result.
+     *
+     * @param url    image URL
+     * @param width  target width in pixels; 0 or less to leave the width free
+     * @param height target height in pixels; 0 or less to leave the height free
+     * @param crop   true to fill and crop to exactly {@code width} x {@code height} (for
+     *               center-cropped views); false to fit inside that box without cropping
+     * @return the rewritten URL, or {@code url} unchanged if it is not a Cloudinary URL
+     *         or no size was given
+     */
+    @NonNull
+    public static String sized(@NonNull String url, int width, int height, boolean crop) {
+        if (!isCloudinary(url) || (width <= 0 && height <= 0)) return url;
+
+        StringBuilder step = new StringBuilder(crop && width > 0 && height > 0 ? "c_fill,g_auto" : "c_limit");
+        if (width > 0) step.append(",w_").append(width);
+        if (height > 0) step.append(",h_").append(height);
+        step.append(",f_auto,q_auto");
+
+        int start = url.indexOf(UPLOAD) + UPLOAD.length();
+        int insertAt = start;
+        while (true) {
+            int end = url.indexOf('/', insertAt);
+            if (end < 0) break;
+            String segment = url.substring(insertAt, end);
+            if (segment.contentEquals(step)) return url; // already sized for this target
+            if (!TRANSFORMATION.matcher(segment).matches()) break;
+            insertAt = end + 1;
+        }
+        return url.substring(0, insertAt) + step + '/' + url.substring(insertAt);
+    }
+}
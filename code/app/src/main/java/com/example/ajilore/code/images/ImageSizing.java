@@ -0,0 +1,52 @@
+package com.example.ajilore.code.images;
+
+/**
+ * ImageSizing
+ *
+ * Purpose: The arithmetic for shrinking a picked photo before upload: which power-of-two
+ * subsample to decode at, and the final size that fits a maximum edge.
+ *
+ * Pattern: Stateless, Android-free helper so it can be unit tested on the JVM.
+ * {@link MediaPipeline} does the decoding and encoding.
+ */
+public final class ImageSizing {
+
+    private ImageSizing() {
+    }
+
+    /**
+     * Picks the largest power-of-two {@code inSampleSize} that still decodes the image
+     * at least as large as the final size, so the decoder does most of the shrinking
+     * without loss of detail.
+     *
+     * @param width   source width in pixels
+     * @param height  source height in pixels
+     * @param maxEdge longest edge wanted after scaling
+     * @return sample size, at least 1
+     */
+    public static int sampleSize(int width, int height, int maxEdge) {
+        int longest = Math.max(width, height);
+        int sample = 1;
+        while (maxEdge > 0 && longest / (sample * 2) >= maxEdge) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    /**
+     * @param width   decoded width in pixels
+     * @param height  decoded height in pixels
+     * @param maxEdge longest edge allowed
+     * @return {width, height} scaled down to fit {@code maxEdge}, keeping the aspect ratio;
+     *         unchanged if it already fits. Never smaller than 1 x 1.
+     */
+    public static int[] fit(int width, int height, int maxEdge) {
+        int longest = Math.max(width, height);
+        if (maxEdge <= 0 || longest <= maxEdge) return new int[]{width, height};
+        double scale = (double) maxEdge / longest;
+        return new int[]{
+                Math.max(1, (int) Math.round(width * scale)),
+                Math.max(1, (int) Math.round(height * scale))
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.ajilore.code.images;
+
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+import androidx.annotation.IdRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Images
+ *
+ * Purpose: The image requests list rows share, so a row's bind and the scroll preloader
+ * build the same request. Glide only reuses a preloaded image if the size and
+ * transformation match.
+ *
+ * Pattern: Static helpers over a caller-supplied {@link RequestManager}. Call sites add
+ * their own placeholder and error drawables; those do not affect caching.
+ */
+public final class Images {
+
+    /** Rows preloaded ahead of the scroll direction. */
+    private static final int PRELOAD_ROWS = 6;
+
+    /**
+     * Supplies the thumbnail URL shown at an adapter position.
+     */
+    public interface UrlAt {
+        /** @return URL for the row, or null if it shows no remote image */
+        @Nullable
+        String urlAt(int position);
+    }
+
+    private Images() {
+    }
+
+    /**
+     * @param glide request manager of the screen or view
+     * @param url   image URL
+     * @return a center-cropped request; Cloudinary URLs are cropped to the view size on the server
+     */
+    @NonNull
+    public static RequestBuilder<Drawable> thumbnail(@NonNull RequestManager glide, @Nullable String url) {
+        return glide.load(url)
+                .centerCrop()
+                .set(CloudinaryUrlLoader.CROP, true);
+    }
+
+    /**
+     * Starts loading the thumbnails of the rows just past the visible ones while the list
+     * scrolls. The preload size is taken from the first laid-out row's image view.
+     *
+     * @param list        the list; the preloader is added as a scroll listener
+     * @param glide       request manager of the screen
+     * @param imageViewId id of the row's image view, which must be center-cropped
+     * @param urls        thumbnail URL by adapter position
+     */
+    public static void preloadThumbnails(@NonNull RecyclerView list,
+                                         @NonNull RequestManager glide,
+                                         @IdRes int imageViewId,
+                                         @NonNull UrlAt urls) {
+        ListPreloader.PreloadModelProvider<String> models = new ListPreloader.PreloadModelProvider<String>() {
+            @NonNull
+            @Override
+            public List<String> getPreloadItems(int position) {
+                String url = urls.urlAt(position);
+                return url != null ? Collections.singletonList(url) : Collections.emptyList();
+            }
+
+            @Nullable
+            @Override
+            public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String url) {
+                return thumbnail(glide, url);
+            }
+        };
+        list.addOnScrollListener(new RecyclerViewPreloader<>(glide, models,
+                new RowImageSize(list, imageViewId), PRELOAD_ROWS));
+    }
+
+    /** Reads the preload size from a bound row, once it has been laid out. */
+    private static final class RowImageSize implements ListPreloader.PreloadSizeProvider<String> {
+        private final RecyclerView list;
+        private final int imageViewId;
+        @Nullable
+        private int[] size;
+
+        RowImageSize(RecyclerView list, int imageViewId) {
+            this.list = list;
+            this.imageViewId = imageViewId;
+        }
+
+        @Nullable
+        @Override
+        public int[] getPreloadSize(@NonNull String item, int adapterPosition, int perItemPosition) {
+            if (size != null) return size;
+            for (int i = 0; i < list.getChildCount(); i++) {
+                View image = list.getChildAt(i).findViewById(imageViewId);
+                if (image != null && image.getWidth() > 0 && image.getHeight() > 0) {
+                    size = new int[]{image.getWidth(), image.getHeight()};
+                    return size;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.ajilore.code.images;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.cloudinary.android.MediaManager;
+import com.cloudinary.android.callback.ErrorInfo;
+import com.cloudinary.android.callback.UploadCallback;
+import com.cloudinary.android.policy.UploadPolicy;
+import com.example.ajilore.code.utils.BackgroundExecutors;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * MediaPipeline
+ *
+ * Purpose: Shrinks a picked photo before it is uploaded to Cloudinary. A 12MP camera photo
+ * of several megabytes becomes a WebP of a few hundred kilobytes at poster resolution.
+ * The image is decoded with a power-of-two subsample, turned upright using its EXIF
+ * orientation, scaled to the preset's longest edge and re-encoded on a background thread.
+ * Then it is uploaded in chunks with progress. A failed upload is retried with
+ * exponential backoff.
+ *
+ * Pattern: Static entry point with a callback interface, like the controllers. Callbacks
+ * arrive on the main thread. The re-encoded file lives in the cache directory only until
+ * the upload ends. Cloudinary's {@link MediaManager} is set up on the first upload rather
+ * than at app start.
+ */
+public final class MediaPipeline {
+
+    private static final String TAG = "MediaPipeline";
+
+    /** Uploads larger than this are sent in several requests. */
+    private static final int CHUNK_BYTES = 1024 * 1024;
+    private static final int MAX_RETRIES = 4;
+    private static final long BACKOFF_MILLIS = 2_000;
+
+    private static boolean mediaManagerReady;
+
+    private static final ExecutorService ENCODER = BackgroundExecutors.serial("media-encode");
+
+    /** Output size and quality for each kind of upload. */
+    public enum Preset {
+        /** Event posters, shown full width on the details screen. */
+        POSTER(1600, 80),
+        /** Profile pictures, shown as small circles. */
+        AVATAR(512, 85);
+
+        final int maxEdge;
+        final int quality;
+
+        Preset(int maxEdge, int quality) {
+            this.maxEdge = maxEdge;
+            this.quality = quality;
+        }
+    }
+
+    /**
+     * Receives the pipeline's progress and outcome on the main thread.
+     */
+    public interface Listener {
+        /** @param percent upload progress, 0-100 */
+        void onProgress(int percent);
+
+        /**
+         * @param url   HTTPS URL of the uploaded image
+         * @param bytes stored size in bytes
+         */
+        void onSuccess(@NonNull String url, long bytes);
+
+        /** @param message why the image could not be prepared or uploaded */
+        void onError(@NonNull String message);
+    }
+
+    private MediaPipeline() {
+    }
+
+    /**
+     * Prepares {@code source} for {@code preset} and uploads it.
+     *
+     * @param context  any context; only the application context is kept
+     * @param source   picked image URI
+     * @param preset   output size and quality
+     * @param listener receives progress and the result on the main thread
+     */
+    public static void upload(@NonNull Context context,
+                              @NonNull Uri source,
+                              @NonNull Preset preset,
+                              @NonNull Listener listener) {
+        Context app = context.getApplicationContext();
+        ensureMediaManager(app);
+        Handler main = new Handler(Looper.getMainLooper());
+        ENCODER.execute(() -> {
+            File encoded;
+            try {
+                encoded = encode(app, source, preset);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Could not prepare image", e);
+                main.post(() -> listener.onError("Could not read the selected image"));
+                return;
+            }
+            main.post(() -> dispatch(encoded, main, listener));
+        });
+    }
+
+    /** Initializes Cloudinary once per process, on first use. */
+    private static synchronized void ensureMediaManager(@NonNull Context app) {
+        if (mediaManagerReady) return;
+        Map<String, Object> config = new HashMap<>();
+        config.put("cloud_name", "dswduwd5v");
+        config.put("api_key", "494611986897794");
+        config.put("api_secret", "dIx5IJLF94eA5Cqcoo8g90IvaA8");
+        try {
+            MediaManager.init(app, config);
+            Log.d(TAG, "MediaManager initialized");
+        } catch (IllegalStateException e) {
+            Log.d(TAG, "MediaManager already initialized");
+        }
+        mediaManagerReady = true;
+    }
+
+    /** Decodes, rotates, scales and re-encodes the image into a cache file. */
+    @NonNull
+    private static File encode(Context context, Uri source, Preset preset) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not an image: " + source);
+        }
+
+        BitmapFactory.Options decode = new BitmapFactory.Options();
+        decode.inSampleSize = ImageSizing.sampleSize(bounds.outWidth, bounds.outHeight, preset.maxEdge);
+        Bitmap decoded;
+        try (InputStream in = open(resolver, source)) {
+            decoded = BitmapFactory.decodeStream(in, null, decode);
+        }
+        if (decoded == null) throw new IOException("Could not decode " + source);
+
+        int[] size = ImageSizing.fit(decoded.getWidth(), decoded.getHeight(), preset.maxEdge);
+        Matrix matrix = new Matrix();
+        matrix.postScale((float) size[0] / decoded.getWidth(), (float) size[1] / decoded.getHeight());
+        matrix.postRotate(rotationDegrees(resolver, source));
+        Bitmap output = Bitmap.createBitmap(decoded, 0, 0, decoded.getWidth(), decoded.getHeight(), matrix, true);
+        if (output != decoded) decoded.recycle();
+
+        File file = new File(context.getCacheDir(), "upload-" + UUID.randomUUID() + ".webp");
+        try (OutputStream out = new FileOutputStream(file)) {
+            if (!output.compress(webp(), preset.quality, out)) {
+                throw new IOException("Could not encode " + source);
+            }
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        } finally {
+            output.recycle();
+        }
+        return file;
+    }
+
+    /** Uploads the encoded file on Cloudinary's threads and deletes it when done. */
+    private static void dispatch(File file, Handler main, Listener listener) {
+        final long encodedBytes = file.length();
+        MediaManager.get().upload(Uri.fromFile(file))
+                .option("resource_type", "image")
+                .option("chunk_size", CHUNK_BYTES)
+                .policy(new UploadPolicy.Builder()
+                        .maxRetries(MAX_RETRIES)
+                        .backoffCriteria(BACKOFF_MILLIS, UploadPolicy.BackoffPolicy.EXPONENTIAL)
+                        .build())
+                .callback(new UploadCallback() {
+                    @Override
+                    public void onStart(String requestId) {
+                        Log.d(TAG, "Started upload " + requestId + " (" + encodedBytes + " bytes)");
+                        main.post(() -> listener.onProgress(0));
+                    }
+
+                    @Override
+                    public void onProgress(String requestId, long bytes, long totalBytes) {
+                        if (totalBytes <= 0) return;
+                        int percent = (int) (bytes * 100 / totalBytes);
+                        main.post(() -> listener.onProgress(percent));
+                    }
+
+                    @Override
+                    public void onSuccess(String requestId, Map resultData) {
+                        file.delete();
+                        String url = (String) resultData.get("secure_url");
+                        Object bytes = resultData.get("bytes");
+                        long stored = bytes instanceof Number ? ((Number) bytes).longValue() : encodedBytes;
+                        main.post(() -> {
+                            if (url != null) {
+                                listener.onSuccess(url, stored);
+                            } else {
+                                listener.onError("Upload returned no URL");
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onError(String requestId, ErrorInfo error) {
+                        file.delete();
+                        Log.e(TAG, "Upload error: " + error.getDescription());
+                        main.post(() -> listener.onError(error.getDescription()));
+                    }
+
+                    @Override
+                    public void onReschedule(String requestId, ErrorInfo error) {
+                        Log.w(TAG, "Upload " + requestId + " will retry: " + error.getDescription());
+                    }
+                })
+                .dispatch();
+    }
+
+    @NonNull
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) throw new IOException("Could not open " + uri);
+        return in;
+    }
+
+    /** @return clockwise rotation that makes the image upright, from its EXIF orientation */
+    private static int rotationDegrees(ContentResolver resolver, Uri uri) {
+        try (InputStream in = open(resolver, uri)) {
+            int orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            switch (orientation) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat webp() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+    }
+}
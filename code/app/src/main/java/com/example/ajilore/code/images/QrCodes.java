@@ -0,0 +1,100 @@
+package com.example.ajilore.code.images;
+
+import androidx.annotation.NonNull;
+
+/**
+ * QrCodes
+ *
+ * Purpose: Turns a QR code's module grid into output without going pixel by pixel. A
+ * bitmap is filled one scaled pixel row at a time. An SVG draws each run of dark modules
+ * as one rectangle, so a print-size code is a few kilobytes at any size. Also names the
+ * cache files rendered codes are kept in.
+ *
+ * Pattern: Stateless, Android-free helper so it can be unit tested on the JVM.
+ * {@link QrRenderer} adapts ZXing's {@code BitMatrix} to {@link Modules}.
+ */
+public final class QrCodes {
+
+    /**
+     * A square grid of QR modules, quiet zone included.
+     */
+    public interface Modules {
+        /** @return modules per side */
+        int size();
+
+        /** @return true if the module at column {@code x}, row {@code y} is dark */
+        boolean isDark(int x, int y);
+    }
+
+    private QrCodes() {
+    }
+
+    /**
+     * @param modules modules per side
+     * @param sizePx  largest side wanted, in pixels
+     * @return whole pixels per module, so every module has the same size; at least 1
+     */
+    public static int scale(int modules, int sizePx) {
+        return modules <= 0 ? 1 : Math.max(1, sizePx / modules);
+    }
+
+    /**
+     * Fills one pixel row of a code drawn at {@code scale} pixels per module.
+     *
+     * @param grid  the code
+     * @param y     module row
+     * @param scale pixels per module
+     * @param dark  color of dark modules
+     * @param light color of light modules
+     * @param out   receives {@code grid.size() * scale} colors
+     */
+    public static void fillRow(@NonNull Modules grid, int y, int scale, int dark, int light, @NonNull int[] out) {
+        int n = grid.size();
+        for (int x = 0; x < n; x++) {
+            int color = grid.isDark(x, y) ? dark : light;
+            int from = x * scale;
+            for (int i = 0; i < scale; i++) out[from + i] = color;
+        }
+    }
+
+    /**
+     * @param grid the code
+     * @return a standalone SVG document, one user unit per module, that scales to any print size
+     */
+    @NonNull
+    public static String svg(@NonNull Modules grid) {
+        int n = grid.size();
+        StringBuilder sb = new StringBuilder(64 + n * n);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ").append(n).append(' ').append(n)
+                .append("\" shape-rendering=\"crispEdges\">\n")
+                .append("<rect width=\"").append(n).append("\" height=\"").append(n).append("\" fill=\"#fff\"/>\n")
+                .append("<path fill=\"#000\" d=\"");
+        for (int y = 0; y < n; y++) {
+            int x = 0;
+            while (x < n) {
+                if (!grid.isDark(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < n && grid.isDark(x, y)) x++;
+                sb.append('M').append(start).append(' ').append(y)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+        return sb.append("\"/>\n</svg>\n").toString();
+    }
+
+    /**
+     * @param eventId event the code is for
+     * @param content encoded text, e.g. the deep link
+     * @param sizePx  rendered size, or 0 for a vector file
+     * @return cache file name without extension; changes whenever any input changes
+     */
+    @NonNull
+    public static String cacheName(@NonNull String eventId, @NonNull String content, int sizePx) {
+        String safeId = eventId.replaceAll("[^A-Za-z0-9_-]", "_");
+        return "event_" + safeId + "_" + sizePx + "_" + Integer.toHexString(content.hashCode());
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.ajilore.code.images;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.example.ajilore.code.utils.BackgroundExecutors;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * QrRenderer
+ *
+ * Purpose: Renders event QR codes off the main thread and keeps them in the cache
+ * directory, keyed by event, encoded link and size. Reopening a QR screen decodes a small
+ * PNG instead of encoding and drawing the code again. Bitmaps are {@code RGB_565} at a
+ * whole number of pixels per module. Print exports are SVG, so no large bitmap is needed.
+ *
+ * Pattern: Static entry points with a callback interface; results arrive on the main
+ * thread. Files go under {@code cache/qr/}, which the app's FileProvider already shares,
+ * so they can be shared or copied without re-encoding.
+ */
+public final class QrRenderer {
+
+    /** Cache subdirectory, shared through the FileProvider as {@code shared_qr}. */
+    public static final String CACHE_DIR = "qr";
+
+    private static final int QUIET_ZONE_MODULES = 4;
+
+    private static final ExecutorService WORKER = BackgroundExecutors.serial("qr-render");
+
+    /**
+     * Receives a rendered code on the main thread.
+     *
+     * @param <T> result type
+     */
+    public interface Callback<T> {
+        void onSuccess(@NonNull T result);
+
+        void onError(@NonNull Exception e);
+    }
+
+    /** A rendered code and the PNG file it is stored in. */
+    public static final class Rendered {
+        @NonNull
+        public final Bitmap bitmap;
+        @NonNull
+        public final File png;
+
+        Rendered(@NonNull Bitmap bitmap, @NonNull File png) {
+            this.bitmap = bitmap;
+            this.png = png;
+        }
+    }
+
+    private QrRenderer() {
+    }
+
+    /**
+     * Loads the cached PNG for this code and size, or renders and caches it.
+     *
+     * @param context  any context
+     * @param eventId  event the code is for
+     * @param content  text to encode
+     * @param sizePx   largest side wanted; the result is a whole multiple of the module count
+     * @param callback receives the bitmap and its PNG file
+     */
+    public static void render(@NonNull Context context,
+                              @NonNull String eventId,
+                              @NonNull String content,
+                              int sizePx,
+                              @NonNull Callback<Rendered> callback) {
+        File dir = new File(context.getCacheDir(), CACHE_DIR);
+        Handler main = new Handler(Looper.getMainLooper());
+        WORKER.execute(() -> {
+            try {
+                File png = new File(dir, QrCodes.cacheName(eventId, content, sizePx) + ".png");
+                Bitmap bitmap = png.isFile() ? decode(png) : null;
+                if (bitmap == null) {
+                    bitmap = draw(encode(content), sizePx);
+                    writePng(dir, png, bitmap);
+                }
+                Rendered rendered = new Rendered(bitmap, png);
+                main.post(() -> callback.onSuccess(rendered));
+            } catch (WriterException | IOException | RuntimeException e) {
+                main.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Writes the code as a print-ready SVG, or reuses the one already written.
+     *
+     * @param context  any context
+     * @param eventId  event the code is for
+     * @param content  text to encode
+     * @param callback receives the SVG file
+     */
+    public static void exportSvg(@NonNull Context context,
+                                 @NonNull String eventId,
+                                 @NonNull String content,
+                                 @NonNull Callback<File> callback) {
+        File dir = new File(context.getCacheDir(), CACHE_DIR);
+        Handler main = new Handler(Looper.getMainLooper());
+        WORKER.execute(() -> {
+            try {
+                File svg = new File(dir, QrCodes.cacheName(eventId, content, 0) + ".svg");
+                if (!svg.isFile()) {
+                    ensureDir(dir);
+                    File tmp = new File(dir, svg.getName() + ".tmp");
+                    try (Writer out = new OutputStreamWriter(new FileOutputStream(tmp), Charset.forName("UTF-8"))) {
+                        out.write(QrCodes.svg(encode(content)));
+                    }
+                    if (!tmp.renameTo(svg)) throw new IOException("Could not write " + svg);
+                }
+                main.post(() -> callback.onSuccess(svg));
+            } catch (WriterException | IOException | RuntimeException e) {
+                main.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    /** Encodes at one pixel per module, so the matrix is the module grid itself. */
+    @NonNull
+    private static QrCodes.Modules encode(String content) throws WriterException {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.MARGIN, QUIET_ZONE_MODULES);
+        BitMatrix matrix = new QRCodeWriter().encode(content, BarcodeFormat.QR_CODE, 0, 0, hints);
+        return new QrCodes.Modules() {
+            @Override
+            public int size() {
+                return matrix.getWidth();
+            }
+
+            @Override
+            public boolean isDark(int x, int y) {
+                return matrix.get(x, y);
+            }
+        };
+    }
+
+    @NonNull
+    private static Bitmap draw(QrCodes.Modules grid, int sizePx) {
+        int scale = QrCodes.scale(grid.size(), sizePx);
+        int side = grid.size() * scale;
+        Bitmap bitmap = Bitmap.createBitmap(side, side, Bitmap.Config.RGB_565);
+        int[] row = new int[side];
+        for (int y = 0; y < grid.size(); y++) {
+            QrCodes.fillRow(grid, y, scale, Color.BLACK, Color.WHITE, row);
+            for (int i = 0; i < scale; i++) {
+                bitmap.setPixels(row, 0, side, 0, y * scale + i, side, 1);
+            }
+        }
+        return bitmap;
+    }
+
+    private static Bitmap decode(File png) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = Bitmap.Config.RGB_565;
+        return BitmapFactory.decodeFile(png.getPath(), options);
+    }
+
+    /** Writes through a temporary file so a half-written PNG is never mistaken for a cached one. */
+    private static void writePng(File dir, File png, Bitmap bitmap) throws IOException {
+        ensureDir(dir);
+        File tmp = new File(dir, png.getName() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            // PNG is lossless; the quality argument is ignored.
+            if (!bitmap.compress(Bitmap.CompressFormat.PNG, 0, out)) {
+                throw new IOException("Could not encode " + png);
+            }
+        }
+        if (!tmp.renameTo(png)) throw new IOException("Could not write " + png);
+    }
+
+    private static void ensureDir(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Could not create " + dir);
+    }
+}
@@ -18,7 +18,7 @@ public class ImageItem {
     /** The URL of the image */
     public String imageUrl;
 
-    /** The ID of the associated event (if event poster) */
+    /** The ID of the associated event (if event poster) or user (if profile picture) */
     public String eventId;
 
     /** The title/name of the associated event or user */
@@ -30,6 +30,9 @@ public class ImageItem {
     /** Upload timestamp in milliseconds */
     public long uploadedAt;
 
+    /** Uploaded size in bytes, or 0 if unknown */
+    public long bytes;
+
     /**
      * Empty constructor required for Firestore
      */
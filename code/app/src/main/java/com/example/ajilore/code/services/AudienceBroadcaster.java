@@ -0,0 +1,173 @@
+package com.example.ajilore.code.services;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.data.Broadcast;
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.EventStats;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AudienceBroadcaster
+ *
+ * Purpose: Sends one organizer message to a whole audience bucket of an event. The
+ * broadcast is pulled by each entrant's inbox, so the cost does not grow with the audience:
+ * <ol>
+ *   <li>Reads the event's stats document for the recipient count and the event document
+ *       for its organizer, both at once.</li>
+ *   <li>Commits the broadcast record and the admin audit log in ONE batch. Each
+ *       entrant's inbox matches the record against their own waiting-list entry when it is
+ *       read ({@link Broadcast#reaches}), so nothing is written per recipient.</li>
+ * </ol>
+ * Either read may fail without stopping the message; the count is then 0 and the sender
+ * "organizer", as before.
+ *
+ * Pattern: Service over {@link DocumentStore}, like {@link LotteryService}; the stats read
+ * is passed in as a {@link StatsSource} because its fallback needs Firestore aggregations.
+ */
+public class AudienceBroadcaster {
+
+    /**
+     * Reads an event's waiting list counts.
+     */
+    public interface StatsSource {
+        /**
+         * @param eventId event document ID
+         * @param cb      receives stats or an error
+         */
+        void fetch(@NonNull String eventId, @NonNull DocumentStore.ResultCallback<EventStats> cb);
+    }
+
+    /**
+     * Callback for a broadcast.
+     */
+    public interface Callback {
+        /**
+         * Called once the broadcast and its audit log are written.
+         *
+         * @param recipients  audience size from the event's stats
+         * @param broadcastId ID of the document under org_events/{eventId}/broadcasts
+         */
+        void onSent(int recipients, @NonNull String broadcastId);
+
+        /**
+         * Called if the broadcast could not be written.
+         *
+         * @param e the error that occurred
+         */
+        void onError(@NonNull Exception e);
+    }
+
+    private final DocumentStore store;
+    private final StatsSource stats;
+
+    /**
+     * @param store store to read from and write to
+     * @param stats source of the audience size
+     */
+    public AudienceBroadcaster(@NonNull DocumentStore store, @NonNull StatsSource stats) {
+        this.store = store;
+        this.stats = stats;
+    }
+
+    /**
+     * Broadcasts a message to everyone in {@code audience}.
+     *
+     * @param eventId       event document ID
+     * @param eventTitle    title shown with the message
+     * @param message       message body
+     * @param includePoster whether the UI should show a poster
+     * @param linkUrl       optional link
+     * @param audience      "waiting", "chosen", "selected" or "cancelled"
+     * @param cb            completion callback
+     */
+    public void send(@NonNull String eventId,
+                     @NonNull String eventTitle,
+                     @NonNull String message,
+                     boolean includePoster,
+                     @Nullable String linkUrl,
+                     @NonNull String audience,
+                     @NonNull Callback cb) {
+        final int[] pending = {2};
+        final int[] recipients = {0};
+        final String[] senderId = {"organizer"};
+
+        Runnable done = () -> {
+            if (--pending[0] > 0) return;
+            write(eventId, eventTitle, message, includePoster, linkUrl, audience,
+                    recipients[0], senderId[0], cb);
+        };
+
+        // Both reads run together; either may fail without stopping the message.
+        stats.fetch(eventId, new DocumentStore.ResultCallback<EventStats>() {
+            @Override
+            public void onSuccess(EventStats result) {
+                recipients[0] = (int) result.audienceSize(audience);
+                done.run();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                done.run();
+            }
+        });
+        store.get("org_events/" + eventId, new DocumentStore.ResultCallback<DocumentStore.Doc>() {
+            @Override
+            public void onSuccess(DocumentStore.Doc event) {
+                String organizer = event != null ? event.getString("createdByUid") : null;
+                if (organizer != null) senderId[0] = organizer;
+                done.run();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                done.run();
+            }
+        });
+    }
+
+    private void write(@NonNull String eventId,
+                       @NonNull String eventTitle,
+                       @NonNull String message,
+                       boolean includePoster,
+                       @Nullable String linkUrl,
+                       @NonNull String audience,
+                       int recipients,
+                       @NonNull String senderId,
+                       @NonNull Callback cb) {
+        String broadcasts = "org_events/" + eventId + "/broadcasts";
+        String broadcastId = store.newId(broadcasts);
+        Map<String, Object> payload = Broadcast.payload(eventId, eventTitle, message,
+                includePoster, linkUrl, audience);
+
+        Map<String, Object> log = new HashMap<>();
+        log.put("eventId", eventId);
+        log.put("eventTitle", eventTitle);
+        log.put("message", message);
+        log.put("audience", audience);
+        log.put("recipientCount", recipients);
+        log.put("type", "broadcast");
+        log.put("senderId", senderId);
+        log.put("timestamp", DocumentStore.SERVER_TIMESTAMP);
+
+        String logId = store.newId("admin_notification_logs");
+        store.commit(Arrays.asList(
+                DocumentStore.Write.set(broadcasts + "/" + broadcastId, payload),
+                DocumentStore.Write.set("admin_notification_logs/" + logId, log)
+        ), new DocumentStore.ResultCallback<Void>() {
+            @Override
+            public void onSuccess(Void ignored) {
+                cb.onSent(recipients, broadcastId);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+    }
+}
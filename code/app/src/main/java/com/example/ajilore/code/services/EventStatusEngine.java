@@ -0,0 +1,227 @@
+package com.example.ajilore.code.services;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.data.CatalogEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * EventStatusEngine
+ *
+ * Purpose: Keeps event statuses current by visiting each event only when its status can
+ * next change, instead of re-evaluating the whole catalog.
+ *
+ * <ul>
+ *   <li>Each tracked event is queued at its next transition instant, computed from
+ *       {@code regOpens} and {@code regCloses} ({@link #nextTransition}).</li>
+ *   <li>{@link #advance} pops only the events that are due, reports the ones whose
+ *       status flipped and queues each at its following transition.</li>
+ * </ul>
+ *
+ * The engine only drives what the lists show; the stored {@code status} is written by the
+ * Cloud Functions' {@code nextStatusAt} queue over {@code org_events}. Its rules match:
+ * "closed" after {@code regCloses}, "open" otherwise. The lists also show "Upcoming"
+ * before {@code regOpens}, so that is a transition here but not on the server.
+ * {@code startsAt} changes neither, so it is not a transition.
+ *
+ * Pattern: Plain Java over a {@link LongSupplier} clock, so it runs against a fake clock
+ * in unit tests. Not thread-safe; call it from one thread.
+ */
+public final class EventStatusEngine {
+
+    /** Returned by {@link #nextTransition} and {@link #nextDueAt} when nothing will change. */
+    public static final long NONE = Long.MAX_VALUE;
+
+    /** An event whose status changed at its transition. */
+    public static final class Flip {
+        @NonNull
+        public final String eventId;
+        /** Status to store, "open" or "closed". */
+        @NonNull
+        public final String status;
+        /** True when the stored status differs from the one last tracked. */
+        public final boolean statusChanged;
+        /** Label the lists show now: "Upcoming", "Open" or "Closed". */
+        @NonNull
+        public final String label;
+
+        Flip(@NonNull String eventId, @NonNull String status, boolean statusChanged, @NonNull String label) {
+            this.eventId = eventId;
+            this.status = status;
+            this.statusChanged = statusChanged;
+            this.label = label;
+        }
+    }
+
+    /** What the engine knows about one event; replaced, never mutated, when it changes. */
+    private static final class Tracked {
+        final String id;
+        final String status;
+        final long regOpens;
+        final long regCloses;
+        final long dueAt;
+
+        Tracked(String id, String status, long regOpens, long regCloses, long dueAt) {
+            this.id = id;
+            this.status = status;
+            this.regOpens = regOpens;
+            this.regCloses = regCloses;
+            this.dueAt = dueAt;
+        }
+    }
+
+    private final LongSupplier clock;
+    private final Map<String, Tracked> tracked = new HashMap<>();
+    /** Catalog instances last passed to {@link #sync}, to skip unchanged events. */
+    private final Map<String, CatalogEvent> synced = new HashMap<>();
+    /** Entries whose {@link Tracked} was replaced or removed stay queued and are skipped when popped. */
+    private final PriorityQueue<Tracked> queue = new PriorityQueue<>(16, (a, b) -> Long.compare(a.dueAt, b.dueAt));
+
+    /**
+     * @param clock time source in milliseconds
+     */
+    public EventStatusEngine(@NonNull LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Stored status at a time: "closed" once a registration window has ended, else "open".
+     *
+     * @param regOpens  registration opens, epoch millis, or 0 if not set
+     * @param regCloses registration closes, epoch millis, or 0 if not set
+     * @param now       time to evaluate at
+     * @return "open" or "closed"
+     */
+    @NonNull
+    public static String statusAt(long regOpens, long regCloses, long now) {
+        return regOpens != 0 && regCloses != 0 && now > regCloses ? "closed" : "open";
+    }
+
+    /**
+     * Status label the event lists show at a time.
+     *
+     * @return "Upcoming" before the window, "Closed" after it, else "Open"
+     */
+    @NonNull
+    public static String labelAt(long regOpens, long regCloses, long now) {
+        if (regOpens == 0 || regCloses == 0) return "Open";
+        if (now < regOpens) return "Upcoming";
+        if (now > regCloses) return "Closed";
+        return "Open";
+    }
+
+    /**
+     * First instant after {@code now} at which {@link #statusAt} or {@link #labelAt} gives
+     * a different answer.
+     *
+     * @return epoch millis, or {@link #NONE}
+     */
+    public static long nextTransition(long regOpens, long regCloses, long now) {
+        if (regOpens == 0 || regCloses == 0) return NONE;
+        if (now < regOpens) return regOpens;
+        if (now <= regCloses) return regCloses + 1;
+        return NONE;
+    }
+
+    /**
+     * Starts tracking an event, or updates it after an edit. An event whose stored status
+     * is already stale is due immediately.
+     *
+     * @param eventId   event document ID
+     * @param status    stored status; "flagged" events are not tracked
+     * @param regOpens  registration opens, epoch millis, or 0
+     * @param regCloses registration closes, epoch millis, or 0
+     */
+    public void track(@NonNull String eventId, @Nullable String status, long regOpens, long regCloses) {
+        if ("flagged".equals(status)) {
+            tracked.remove(eventId);
+            return;
+        }
+        long now = clock.getAsLong();
+        String current = status != null ? status : "";
+        long dueAt = current.equals(statusAt(regOpens, regCloses, now))
+                ? nextTransition(regOpens, regCloses, now)
+                : now;
+        Tracked t = new Tracked(eventId, current, regOpens, regCloses, dueAt);
+        tracked.put(eventId, t);
+        if (dueAt != NONE) queue.add(t);
+    }
+
+    /** Stops tracking an event, e.g. after it was deleted. */
+    public void untrack(@NonNull String eventId) {
+        tracked.remove(eventId);
+        synced.remove(eventId);
+    }
+
+    /**
+     * Tracks a catalog listing. Events that are the same instance as last time are skipped,
+     * and events no longer listed are dropped, so only changed events are rescheduled.
+     *
+     * @param events the full current listing
+     */
+    public void sync(@NonNull Collection<CatalogEvent> events) {
+        Set<String> seen = new HashSet<>(events.size() * 2);
+        for (CatalogEvent e : events) {
+            seen.add(e.id);
+            if (synced.get(e.id) == e) continue;
+            synced.put(e.id, e);
+            track(e.id, e.status, e.regOpens, e.regCloses);
+        }
+        if (seen.size() == synced.size()) return;
+        for (String id : new ArrayList<>(synced.keySet())) {
+            if (!seen.contains(id)) untrack(id);
+        }
+    }
+
+    /** @return when the next tracked event is due, or {@link #NONE} */
+    public long nextDueAt() {
+        Tracked head = peekLive();
+        return head != null ? head.dueAt : NONE;
+    }
+
+    /** @return number of tracked events */
+    public int size() {
+        return tracked.size();
+    }
+
+    /**
+     * Handles every event that is due now and queues each at its next transition.
+     *
+     * @return the due events, with their new status and label
+     */
+    @NonNull
+    public List<Flip> advance() {
+        long now = clock.getAsLong();
+        List<Flip> flips = new ArrayList<>();
+        Tracked head;
+        while ((head = peekLive()) != null && head.dueAt <= now) {
+            queue.poll();
+            String status = statusAt(head.regOpens, head.regCloses, now);
+            long next = nextTransition(head.regOpens, head.regCloses, now);
+            Tracked t = new Tracked(head.id, status, head.regOpens, head.regCloses, next);
+            tracked.put(head.id, t);
+            if (next != NONE) queue.add(t);
+            flips.add(new Flip(head.id, status, !status.equals(head.status),
+                    labelAt(head.regOpens, head.regCloses, now)));
+        }
+        return flips;
+    }
+
+    /** Drops queue entries that were replaced or untracked, then returns the head. */
+    @Nullable
+    private Tracked peekLive() {
+        Tracked head;
+        while ((head = queue.peek()) != null && tracked.get(head.id) != head) queue.poll();
+        return head;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.ajilore.code.services;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * LotterySampler
+ *
+ * Purpose: Picks lottery winners uniformly at random with a partial Fisher–Yates shuffle.
+ * Only the first {@code k} slots are shuffled, so a draw costs O(k) swaps instead of
+ * shuffling the whole waiting pool.
+ *
+ * Pattern: Stateless, Android-free helper so it can be unit tested and benchmarked on the JVM.
+ */
+public final class LotterySampler {
+    private LotterySampler() {}
+
+    /**
+     * Moves a uniformly random sample of {@code k} elements to the front of {@code pool}.
+     * After the call, {@code pool.subList(0, result)} are the winners and the rest are
+     * the non-winners.
+     *
+     * @param pool   mutable list of candidates; reordered in place
+     * @param k      requested number of winners
+     * @param random randomness source
+     * @param <T>    candidate type
+     * @return number of winners actually picked ({@code min(k, pool.size())}, never negative)
+     */
+    public static <T> int sampleToFront(List<T> pool, int k, Random random) {
+        int n = pool.size();
+        int winners = Math.max(0, Math.min(k, n));
+        for (int i = 0; i < winners; i++) {
+            int j = i + random.nextInt(n - i);
+            Collections.swap(pool, i, j);
+        }
+        return winners;
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.ajilore.code.services;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.InboxEntry;
+import com.example.ajilore.code.utils.BatchFanOut;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * LotteryService
+ *
+ * Purpose: Runs a lottery draw for one event in a single pass:
+ * <ol>
+ *   <li>Reads the WAITING entrants once, together with the event document for its organizer.</li>
+ *   <li>Picks winners with {@link LotterySampler} (partial Fisher–Yates).</li>
+ *   <li>Writes each winner's status change (WAITING → CHOSEN, responded=pending) and their
+ *       invite in the same batch, then the "not selected" notices for everyone else,
+ *       using operation-sized batches through {@link BatchFanOut}.</li>
+ *   <li>Writes ONE broadcast record and ONE admin audit log for the whole draw.</li>
+ * </ol>
+ * A winner's status change and invite share one atomic batch, so a winner whose batch fails
+ * every retry is still WAITING with no invite. They are not counted as winners; in a full
+ * draw they get the "not selected" notice instead, so nobody is left without a message.
+ *
+ * This replaces one {@code EventNotifier.notifySingle} call per entrant, each of which added
+ * its own broadcast doc, batch commit and event re-read.
+ *
+ * Pattern: Service over {@link DocumentStore}, so it runs against Firestore on the device
+ * and against an in-memory fake in unit tests.
+ */
+public class LotteryService {
+
+    /**
+     * Callback for draw operations.
+     */
+    public interface DrawCallback {
+        /**
+         * Called once the draw and its notifications have been written.
+         *
+         * @param result counts for the draw
+         */
+        void onComplete(@NonNull DrawResult result);
+
+        /**
+         * Called if the waiting list could not be read or no winner could be written.
+         * Once any winner is written the draw completes, even if the record could not be.
+         *
+         * @param e the error that occurred
+         */
+        void onError(@NonNull Exception e);
+    }
+
+    /**
+     * Outcome of a draw.
+     */
+    public static final class DrawResult {
+        /** Number of entrants on the waiting list when the draw ran. */
+        public final int waitingCount;
+        /** Number of winners moved to CHOSEN. */
+        public final int winners;
+        /** Number of non-winners who received the "not selected" notice. */
+        public final int notifiedNonWinners;
+        /** Number of entrants left without any message because their batch failed every retry. */
+        public final int failed;
+        /** ID of the broadcast record under org_events/{eventId}/broadcasts (empty if none). */
+        @NonNull
+        public final String broadcastId;
+        /** Error writing the broadcast record and audit log, or null if they were written. */
+        @Nullable
+        public final Exception recordError;
+
+        DrawResult(int waitingCount, int winners, int notifiedNonWinners, int failed,
+                   @NonNull String broadcastId, @Nullable Exception recordError) {
+            this.waitingCount = waitingCount;
+            this.winners = winners;
+            this.notifiedNonWinners = notifiedNonWinners;
+            this.failed = failed;
+            this.broadcastId = broadcastId;
+            this.recordError = recordError;
+        }
+
+        /** @return a copy of this result with the record's outcome */
+        @NonNull
+        DrawResult withRecordError(@Nullable Exception e) {
+            return new DrawResult(waitingCount, winners, notifiedNonWinners, failed, broadcastId, e);
+        }
+    }
+
+    private final DocumentStore store;
+    private final Random random;
+
+    /**
+     * @param store document store to read from and write to
+     */
+    public LotteryService(@NonNull DocumentStore store) {
+        this(store, new Random());
+    }
+
+    /**
+     * @param store  document store to read from and write to
+     * @param random randomness source (seed it in tests)
+     */
+    public LotteryService(@NonNull DocumentStore store, @NonNull Random random) {
+        this.store = store;
+        this.random = random;
+    }
+
+    /**
+     * Draws up to {@code requested} winners from the waiting list, invites them and tells
+     * everyone else they are still waiting.
+     *
+     * @param eventId    event document ID
+     * @param eventTitle title placed into inbox items
+     * @param requested  number of winners asked for
+     * @param cb         completion callback
+     */
+    public void runDraw(@NonNull String eventId,
+                        @Nullable String eventTitle,
+                        int requested,
+                        @NonNull DrawCallback cb) {
+        String title = eventTitle != null ? eventTitle : "";
+        draw(eventId, title, requested, chosenMessage(title), notChosenMessage(title), cb);
+    }
+
+    /**
+     * Draws replacement entrants after someone declines or is removed. Only the new
+     * winners are notified.
+     *
+     * @param eventId    event document ID
+     * @param eventTitle title placed into inbox items
+     * @param slots      number of replacements to draw
+     * @param cb         completion callback
+     */
+    public void drawReplacements(@NonNull String eventId,
+                                 @Nullable String eventTitle,
+                                 int slots,
+                                 @NonNull DrawCallback cb) {
+        String title = eventTitle != null ? eventTitle : "";
+        draw(eventId, title, slots, replacementMessage(title), null, cb);
+    }
+
+    /** Message sent to lottery winners. */
+    static String chosenMessage(@NonNull String title) {
+        return "You’ve been chosen in the lottery for "
+                + (title.isEmpty() ? "this event" : title)
+                + ". Please open the app to accept or decline your spot.";
+    }
+
+    /** Message sent to entrants who stay on the waiting list. */
+    static String notChosenMessage(@NonNull String title) {
+        return "You were not selected in this lottery draw for "
+                + (title.isEmpty() ? "this event" : title)
+                + ", but you are still on the waiting list. "
+                + "If a spot opens up or another draw is run, you may be selected.";
+    }
+
+    /** Message sent to replacement winners. */
+    static String replacementMessage(@NonNull String title) {
+        return "A spot has opened up for "
+                + (title.isEmpty() ? "this event" : title)
+                + ". You have been selected from the waiting list. "
+                + "Please open the app to accept or decline.";
+    }
+
+    private void draw(@NonNull String eventId,
+                      @NonNull String title,
+                      int requested,
+                      @NonNull String winnerMessage,
+                      @Nullable String nonWinnerMessage,
+                      @NonNull DrawCallback cb) {
+        String waitingPath = "org_events/" + eventId + "/waiting_list";
+        final int[] pending = {2};
+        final List<String> pool = new ArrayList<>();
+        final String[] senderId = {"organizer"};
+        final Exception[] failure = new Exception[1];
+
+        Runnable done = () -> {
+            if (--pending[0] > 0) return;
+            if (failure[0] != null) {
+                cb.onError(failure[0]);
+            } else {
+                drawFrom(eventId, title, senderId[0], pool, requested, winnerMessage, nonWinnerMessage, cb);
+            }
+        };
+
+        store.queryEquals(waitingPath, "status", "waiting", new DocumentStore.ResultCallback<List<DocumentStore.Doc>>() {
+            @Override
+            public void onSuccess(List<DocumentStore.Doc> docs) {
+                for (DocumentStore.Doc d : docs) pool.add(d.id);
+                done.run();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                failure[0] = e;
+                done.run();
+            }
+        });
+        // The audit log names the event's organizer, not the device that ran the draw.
+        store.get("org_events/" + eventId, new DocumentStore.ResultCallback<DocumentStore.Doc>() {
+            @Override
+            public void onSuccess(DocumentStore.Doc event) {
+                String organizer = event != null ? event.getString("createdByUid") : null;
+                if (organizer != null) senderId[0] = organizer;
+                done.run();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                done.run();
+            }
+        });
+    }
+
+    private void drawFrom(@NonNull String eventId,
+                          @NonNull String title,
+                          @NonNull String senderId,
+                          @NonNull List<String> pool,
+                          int requested,
+                          @NonNull String winnerMessage,
+                          @Nullable String nonWinnerMessage,
+                          @NonNull DrawCallback cb) {
+        String waitingPath = "org_events/" + eventId + "/waiting_list";
+        int winnerCount = LotterySampler.sampleToFront(pool, requested, random);
+        if (winnerCount == 0) {
+            cb.onComplete(new DrawResult(pool.size(), 0, 0, 0, "", null));
+            return;
+        }
+
+        List<String> winners = pool.subList(0, winnerCount);
+        String broadcastId = store.newId("org_events/" + eventId + "/broadcasts");
+
+        Map<String, Object> invite = inboxItem(eventId, title, "chosen", "invite", winnerMessage, broadcastId);
+        Map<String, Object> notice = nonWinnerMessage == null ? null
+                : inboxItem(eventId, title, "waiting", "broadcast", nonWinnerMessage, broadcastId);
+
+        Map<String, Object> promote = new HashMap<>();
+        promote.put("status", "chosen");
+        promote.put("responded", "pending");
+        promote.put("selectedAt", DocumentStore.SERVER_TIMESTAMP);
+
+        BatchFanOut<String> promotion = new BatchFanOut<>(store, (out, uid) -> {
+            out.add(DocumentStore.Write.merge(waitingPath + "/" + uid, promote));
+            addInboxWrites(out, eventId, uid, invite);
+        });
+        promotion.run(winners, (wonDelivered, wonFailed, wonError) -> {
+            if (wonDelivered == 0) {
+                cb.onError(wonError != null ? wonError : new Exception("Draw failed"));
+                return;
+            }
+            List<String> nonWinners = new ArrayList<>();
+            if (notice != null) {
+                nonWinners.addAll(pool.subList(winnerCount, pool.size()));
+                // Their promotion never landed, so they are still waiting like everyone else.
+                nonWinners.addAll(promotion.failedItems());
+            }
+            new BatchFanOut<String>(store, (out, uid) -> addInboxWrites(out, eventId, uid, notice))
+                    .run(nonWinners, (lostDelivered, lostFailed, lostError) -> {
+                        int unreached = notice != null ? lostFailed : wonFailed + lostFailed;
+                        DrawResult result = new DrawResult(pool.size(), wonDelivered, lostDelivered,
+                                unreached, broadcastId, null);
+                        writeDrawRecord(eventId, title, senderId, winnerMessage, nonWinnerMessage,
+                                result, cb);
+                    });
+        });
+    }
+
+    /** Adds the event-side inbox doc and its users/{uid} mirror (same id) for one recipient. */
+    private void addInboxWrites(@NonNull List<DocumentStore.Write> out,
+                                @NonNull String eventId,
+                                @NonNull String uid,
+                                @NonNull Map<String, Object> inbox) {
+        String eventInbox = "org_events/" + eventId + "/waiting_list/" + uid + "/inbox";
+        String inboxId = store.newId(eventInbox);
+        out.add(DocumentStore.Write.set(eventInbox + "/" + inboxId, inbox));
+        out.add(DocumentStore.Write.set(
+                "users/" + uid + "/registrations/" + eventId + "/inbox/" + inboxId,
+                InboxEntry.forRecipient(inbox, uid)));
+    }
+
+    /** Builds the inbox payload shared by every recipient of one message type. */
+    private static Map<String, Object> inboxItem(@NonNull String eventId,
+                                                 @NonNull String title,
+                                                 @NonNull String audience,
+                                                 @NonNull String type,
+                                                 @NonNull String message,
+                                                 @NonNull String broadcastId) {
+        Map<String, Object> inbox = new HashMap<>();
+        inbox.put("type", type);
+        inbox.put("audience", audience);
+        inbox.put("eventId", eventId);
+        inbox.put("eventTitle", title);
+        inbox.put("message", message);
+        inbox.put("includePoster", true);
+        inbox.put("linkUrl", null);
+        inbox.put("read", false);
+        inbox.put("broadcastId", broadcastId);
+        inbox.put("createdAt", DocumentStore.SERVER_TIMESTAMP);
+        return inbox;
+    }
+
+    /**
+     * Writes the single broadcast record and admin audit log for a finished draw in one batch.
+     * Winners were already promoted and invited, so a failure here completes the draw with
+     * {@link DrawResult#recordError} set rather than failing it.
+     */
+    private void writeDrawRecord(@NonNull String eventId,
+                                 @NonNull String title,
+                                 @NonNull String senderId,
+                                 @NonNull String winnerMessage,
+                                 @Nullable String nonWinnerMessage,
+                                 @NonNull DrawResult result,
+                                 @NonNull DrawCallback cb) {
+        int recipients = result.winners + result.notifiedNonWinners;
+
+        Map<String, Object> broadcast = new HashMap<>();
+        broadcast.put("audience", nonWinnerMessage != null ? "draw" : "replacement");
+        broadcast.put("message", winnerMessage);
+        broadcast.put("nonWinnerMessage", nonWinnerMessage);
+        broadcast.put("winnerCount", result.winners);
+        broadcast.put("nonWinnerCount", result.notifiedNonWinners);
+        broadcast.put("includePoster", true);
+        broadcast.put("linkUrl", null);
+        broadcast.put("createdAt", DocumentStore.SERVER_TIMESTAMP);
+        broadcast.put("eventId", eventId);
+
+        Map<String, Object> log = new HashMap<>();
+        log.put("eventId", eventId);
+        log.put("eventTitle", title);
+        log.put("message", winnerMessage);
+        log.put("audience", nonWinnerMessage != null ? "draw" : "replacement");
+        log.put("recipientCount", recipients);
+        log.put("type", "broadcast");
+        log.put("senderId", senderId);
+        log.put("timestamp", DocumentStore.SERVER_TIMESTAMP);
+
+        String logId = store.newId("admin_notification_logs");
+        store.commit(Arrays.asList(
+                DocumentStore.Write.set("org_events/" + eventId + "/broadcasts/" + result.broadcastId, broadcast),
+                DocumentStore.Write.set("admin_notification_logs/" + logId, log)
+        ), new DocumentStore.ResultCallback<Void>() {
+            @Override
+            public void onSuccess(Void ignored) {
+                cb.onComplete(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onComplete(result.withRecordError(e));
+            }
+        });
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.ajilore.code.services;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.data.DocumentStore;
+
+import java.util.function.LongSupplier;
+
+/**
+ * StartupGate
+ *
+ * Purpose: Decides where a cold start lands: the login screen, the events screen for a
+ * device that already has a profile, or the ban screen. The decision needs two documents,
+ * {@code banned_users/{deviceId}} and {@code users/{deviceId}}; both reads are issued
+ * together and the result is cached on the device.
+ * <ul>
+ *   <li>With a cached result younger than the TTL, the route is given right away and the
+ *       reads refresh the cache in the background; the route is given again only if it
+ *       changed (e.g. the device was banned since).</li>
+ *   <li>Without one, the route is given when both reads finish.</li>
+ * </ul>
+ *
+ * Pattern: Service over {@link DocumentStore}, like {@link LotteryService}; the cache is an
+ * interface so the device copy lives in SharedPreferences and tests use a field.
+ */
+public class StartupGate {
+
+    /** How long a cached result lets a returning user skip the network round trip. */
+    public static final long DEFAULT_TTL_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /**
+     * Where the app goes after startup.
+     */
+    public enum Route {
+        /** No profile yet: show the login / signup screen. */
+        LOGIN,
+        /** Known device: go straight to the events screen. */
+        HOME,
+        /** Banned device: block the app. */
+        BANNED
+    }
+
+    /**
+     * The result of one check.
+     */
+    public static final class Session {
+        public final boolean banned;
+        public final boolean registered;
+        /** Wall-clock time of the check, ms. */
+        public final long checkedAtMillis;
+
+        public Session(boolean banned, boolean registered, long checkedAtMillis) {
+            this.banned = banned;
+            this.registered = registered;
+            this.checkedAtMillis = checkedAtMillis;
+        }
+
+        /** @return the screen this session leads to */
+        @NonNull
+        public Route route() {
+            if (banned) return Route.BANNED;
+            return registered ? Route.HOME : Route.LOGIN;
+        }
+
+        /**
+         * @param nowMillis current wall-clock time
+         * @param ttlMillis how long a check stays valid
+         * @return true if the check is recent enough to trust; a check from the future
+         * (clock changed) is not
+         */
+        public boolean isFresh(long nowMillis, long ttlMillis) {
+            return nowMillis >= checkedAtMillis && nowMillis - checkedAtMillis < ttlMillis;
+        }
+    }
+
+    /**
+     * Device-local copy of the last check.
+     */
+    public interface Cache {
+        /** @return the last saved session, or null if none */
+        @Nullable
+        Session load();
+
+        /** @param session session to keep */
+        void save(@NonNull Session session);
+    }
+
+    /**
+     * Receives the route.
+     */
+    public interface Listener {
+        /**
+         * @param route  where to go
+         * @param cached true if the route came from the cache without waiting for the network
+         */
+        void onRoute(@NonNull Route route, boolean cached);
+
+        /**
+         * Called when there was no fresh cached route and the check failed.
+         *
+         * @param e the read error
+         */
+        void onError(@NonNull Exception e);
+    }
+
+    private final DocumentStore store;
+    private final Cache cache;
+    private final LongSupplier clock;
+    private final long ttlMillis;
+
+    /**
+     * @param store store to read from
+     * @param cache device copy of the last check
+     */
+    public StartupGate(@NonNull DocumentStore store, @NonNull Cache cache) {
+        this(store, cache, System::currentTimeMillis, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param store     store to read from
+     * @param cache     device copy of the last check
+     * @param clock     wall-clock time source in milliseconds
+     * @param ttlMillis how long a cached check lets startup skip the network
+     */
+    public StartupGate(@NonNull DocumentStore store,
+                       @NonNull Cache cache,
+                       @NonNull LongSupplier clock,
+                       long ttlMillis) {
+        this.store = store;
+        this.cache = cache;
+        this.clock = clock;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Routes the device, from the cache when possible, and refreshes the cache.
+     *
+     * @param deviceId this device's ID
+     * @param listener receives the route once, and again if the refresh changes it
+     */
+    public void open(@NonNull String deviceId, @NonNull Listener listener) {
+        Session cached = cache.load();
+        boolean fresh = cached != null && cached.isFresh(clock.getAsLong(), ttlMillis);
+        if (fresh) listener.onRoute(cached.route(), true);
+
+        check(deviceId, new DocumentStore.ResultCallback<Session>() {
+            @Override
+            public void onSuccess(Session session) {
+                cache.save(session);
+                if (!fresh || session.route() != cached.route()) listener.onRoute(session.route(), false);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                // A fresh cached route stands; the next start tries again.
+                if (!fresh) listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Reads the ban and profile documents in parallel.
+     *
+     * @param deviceId this device's ID
+     * @param cb       receives the session once both reads finish, or the first error
+     */
+    public void check(@NonNull String deviceId, @NonNull DocumentStore.ResultCallback<Session> cb) {
+        final int[] pending = {2};
+        final boolean[] found = new boolean[2];
+        final Exception[] failure = new Exception[1];
+
+        class Part implements DocumentStore.ResultCallback<DocumentStore.Doc> {
+            private final int index;
+
+            Part(int index) {
+                this.index = index;
+            }
+
+            @Override
+            public void onSuccess(DocumentStore.Doc doc) {
+                found[index] = doc != null;
+                done();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (failure[0] == null) failure[0] = e;
+                done();
+            }
+
+            private void done() {
+                if (--pending[0] > 0) return;
+                if (failure[0] != null) {
+                    cb.onError(failure[0]);
+                } else {
+                    cb.onSuccess(new Session(found[0], found[1], clock.getAsLong()));
+                }
+            }
+        }
+
+        store.get("banned_users/" + deviceId, new Part(0));
+        store.get("users/" + deviceId, new Part(1));
+    }
+}
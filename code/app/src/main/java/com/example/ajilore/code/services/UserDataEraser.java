@@ -0,0 +1,419 @@
+package com.example.ajilore.code.services;
+
+import androidx.annotation.NonNull;
+
+import com.example.ajilore.code.data.Broadcast;
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.ImageIndex;
+import com.example.ajilore.code.data.InboxEntry;
+import com.example.ajilore.code.utils.BatchFanOut;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * UserDataEraser
+ *
+ * Purpose: Deletes everything stored for one user when they delete their profile:
+ * <ul>
+ *   <li>{@code users/{uid}} and its {@code registrations/{eventId}} documents,</li>
+ *   <li>the inbox under each registration,</li>
+ *   <li>every {@code org_events/{eventId}/waiting_list/{uid}} entry and the inbox under it,
+ *       releasing the entry's capacity shard like {@link WaitingListService#leave} does,</li>
+ *   <li>the user's read / archived flags for event broadcasts
+ *       ({@code users/{uid}/broadcast_state}),</li>
+ *   <li>the user's entry in the {@code images} index and their inbox unread counter.</li>
+ * </ul>
+ *
+ * <p>The footprint is found from the user's side, without reading every event: one listing
+ * of {@code users/{uid}/registrations}, one {@code collectionGroup("waiting_list")} query on
+ * {@code userId}, one listing of the broadcast overlay, then one inbox listing per event the user touched, at most
+ * {@code maxConcurrentReads} at a time. Deletes go through {@link BatchFanOut} in
+ * operation-sized batches with a bounded number of commits in flight.</p>
+ *
+ * <p>Inbox items and waiting-list entries are deleted first. Registrations and the profile
+ * document are deleted only once that succeeded, so a failed run can simply be repeated:
+ * the registrations still lead to whatever is left. {@link #findFootprint} can be called
+ * afterwards to check that nothing remains.</p>
+ *
+ * Pattern: Service over {@link DocumentStore}, like {@link LotteryService}, so it runs
+ * against Firestore on the device and against an in-memory fake in unit tests.
+ */
+public class UserDataEraser {
+
+    /** Default number of inbox listings in flight at once. */
+    public static final int DEFAULT_MAX_CONCURRENT_READS = 8;
+
+    /**
+     * Receives progress and the outcome of {@link #erase}.
+     */
+    public interface EraseCallback {
+        /**
+         * Called as documents are deleted.
+         *
+         * @param done  documents (or document groups) deleted or given up on so far
+         * @param total documents (or document groups) to delete
+         */
+        void onProgress(int done, int total);
+
+        /**
+         * Called once everything in the footprint has been deleted.
+         *
+         * @param erased what was found and deleted
+         */
+        void onComplete(@NonNull Footprint erased);
+
+        /**
+         * Called if the footprint could not be read or some deletes failed every retry.
+         * The profile document is kept in that case so the erase can be retried.
+         *
+         * @param e the error that occurred
+         */
+        void onError(@NonNull Exception e);
+    }
+
+    /**
+     * Receives the result of {@link #findFootprint}.
+     */
+    public interface FootprintCallback {
+        /** @param footprint everything currently stored for the user */
+        void onFootprint(@NonNull Footprint footprint);
+
+        /** @param e read error */
+        void onError(@NonNull Exception e);
+    }
+
+    /**
+     * Everything stored for one user.
+     */
+    public static final class Footprint {
+        /** Whether {@code users/{uid}} exists. */
+        public final boolean profileExists;
+        /** Paths of {@code users/{uid}/registrations/{eventId}} documents. */
+        @NonNull
+        public final List<String> registrations;
+        /** {@code org_events/{eventId}/waiting_list/{uid}} entries. */
+        @NonNull
+        public final List<DocumentStore.Doc> waitingEntries;
+        /** Paths of inbox documents on both the user's and the events' side. */
+        @NonNull
+        public final List<String> inboxItems;
+        /** Paths of {@code users/{uid}/broadcast_state/{broadcastId}} documents. */
+        @NonNull
+        public final List<String> broadcastState;
+
+        Footprint(boolean profileExists,
+                  @NonNull List<String> registrations,
+                  @NonNull List<DocumentStore.Doc> waitingEntries,
+                  @NonNull List<String> inboxItems,
+                  @NonNull List<String> broadcastState) {
+            this.profileExists = profileExists;
+            this.registrations = Collections.unmodifiableList(registrations);
+            this.waitingEntries = Collections.unmodifiableList(waitingEntries);
+            this.inboxItems = Collections.unmodifiableList(inboxItems);
+            this.broadcastState = Collections.unmodifiableList(broadcastState);
+        }
+
+        /** @return number of documents in the footprint */
+        public int documentCount() {
+            return (profileExists ? 1 : 0) + registrations.size() + waitingEntries.size()
+                    + inboxItems.size() + broadcastState.size();
+        }
+
+        /** @return true when nothing is stored for the user */
+        public boolean isEmpty() {
+            return documentCount() == 0;
+        }
+    }
+
+    private final DocumentStore store;
+    private final int maxConcurrentReads;
+
+    /**
+     * @param store document store to read from and delete through
+     */
+    public UserDataEraser(@NonNull DocumentStore store) {
+        this(store, DEFAULT_MAX_CONCURRENT_READS);
+    }
+
+    /**
+     * @param store              document store to read from and delete through
+     * @param maxConcurrentReads maximum number of inbox listings in flight at once (at least 1)
+     */
+    public UserDataEraser(@NonNull DocumentStore store, int maxConcurrentReads) {
+        this.store = store;
+        this.maxConcurrentReads = Math.max(1, maxConcurrentReads);
+    }
+
+    /**
+     * Finds and deletes everything stored for {@code uid}.
+     *
+     * @param uid user (device) ID
+     * @param cb  receives progress, then completion or an error
+     */
+    public void erase(@NonNull String uid, @NonNull EraseCallback cb) {
+        findFootprint(uid, new FootprintCallback() {
+            @Override
+            public void onFootprint(@NonNull Footprint footprint) {
+                deleteFootprint(uid, footprint, cb);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                cb.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Reads everything stored for {@code uid} without changing it.
+     *
+     * @param uid user (device) ID
+     * @param cb  receives the footprint or an error
+     */
+    public void findFootprint(@NonNull String uid, @NonNull FootprintCallback cb) {
+        final DocumentStore.Doc[] profile = new DocumentStore.Doc[1];
+        final List<DocumentStore.Doc> registrations = new ArrayList<>();
+        final List<DocumentStore.Doc> waiting = new ArrayList<>();
+        final List<String> broadcastState = new ArrayList<>();
+
+        Join join = new Join(4, cb::onError, () -> {
+            Set<String> eventIds = new LinkedHashSet<>();
+            List<String> registrationPaths = new ArrayList<>(registrations.size());
+            for (DocumentStore.Doc reg : registrations) {
+                eventIds.add(reg.id);
+                registrationPaths.add(registrationPath(uid, reg.id));
+            }
+            for (DocumentStore.Doc entry : waiting) {
+                String eventId = eventIdOf(entry);
+                if (eventId != null) eventIds.add(eventId);
+            }
+            listInboxes(uid, new ArrayList<>(eventIds), inbox -> cb.onFootprint(
+                    new Footprint(profile[0] != null, registrationPaths, waiting, inbox, broadcastState)),
+                    cb::onError);
+        });
+
+        store.get(userPath(uid), join.step(doc -> profile[0] = doc));
+        store.list(userPath(uid) + "/registrations", join.step(registrations::addAll));
+        String statePath = userPath(uid) + "/" + Broadcast.STATE_COLLECTION;
+        store.list(statePath, join.step(docs -> {
+            for (DocumentStore.Doc d : docs) broadcastState.add(statePath + "/" + d.id);
+        }));
+        store.queryGroupEquals("waiting_list", "userId", uid, join.step(docs -> {
+            for (DocumentStore.Doc d : docs) {
+                // Only entries keyed by this user under org_events/{eventId}/waiting_list.
+                if (uid.equals(d.id) && eventIdOf(d) != null) waiting.add(d);
+            }
+        }));
+    }
+
+    /**
+     * Lists {@code users/{uid}/registrations/{e}/inbox} and
+     * {@code org_events/{e}/waiting_list/{uid}/inbox} for every event, keeping at most
+     * {@link #maxConcurrentReads} listings in flight.
+     */
+    private void listInboxes(@NonNull String uid,
+                             @NonNull List<String> eventIds,
+                             @NonNull Consumer<List<String>> onDone,
+                             @NonNull Consumer<Exception> onError) {
+        List<String> collections = new ArrayList<>(eventIds.size() * 2);
+        for (String eventId : eventIds) {
+            collections.add(registrationPath(uid, eventId) + "/inbox");
+            collections.add(waitingPath(eventId, uid) + "/inbox");
+        }
+        List<String> found = new ArrayList<>();
+        if (collections.isEmpty()) {
+            onDone.accept(found);
+            return;
+        }
+
+        final int[] next = {0};
+        final int[] finished = {0};
+        final boolean[] failed = {false};
+        Runnable[] launch = new Runnable[1];
+        launch[0] = () -> {
+            String collection;
+            synchronized (found) {
+                if (failed[0] || next[0] >= collections.size()) return;
+                collection = collections.get(next[0]++);
+            }
+            store.list(collection, new DocumentStore.ResultCallback<List<DocumentStore.Doc>>() {
+                @Override
+                public void onSuccess(List<DocumentStore.Doc> docs) {
+                    boolean all;
+                    synchronized (found) {
+                        for (DocumentStore.Doc d : docs) found.add(collection + "/" + d.id);
+                        all = ++finished[0] == collections.size();
+                    }
+                    if (all) {
+                        onDone.accept(found);
+                    } else {
+                        launch[0].run();
+                    }
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    synchronized (found) {
+                        if (failed[0]) return;
+                        failed[0] = true;
+                    }
+                    onError.accept(e);
+                }
+            });
+        };
+        for (int i = 0; i < Math.min(maxConcurrentReads, collections.size()); i++) {
+            launch[0].run();
+        }
+    }
+
+    /**
+     * Deletes inbox items and waiting-list entries, then registrations, the image index
+     * entry and the unread counter, then the profile document.
+     */
+    private void deleteFootprint(@NonNull String uid, @NonNull Footprint footprint, @NonNull EraseCallback cb) {
+        List<List<DocumentStore.Write>> first = new ArrayList<>();
+        for (String path : footprint.inboxItems) {
+            first.add(Collections.singletonList(DocumentStore.Write.delete(path)));
+        }
+        for (String path : footprint.broadcastState) {
+            first.add(Collections.singletonList(DocumentStore.Write.delete(path)));
+        }
+        for (DocumentStore.Doc entry : footprint.waitingEntries) {
+            first.add(releaseWrites(entry));
+        }
+
+        List<List<DocumentStore.Write>> second = new ArrayList<>();
+        for (String path : footprint.registrations) {
+            second.add(Collections.singletonList(DocumentStore.Write.delete(path)));
+        }
+        second.add(Collections.singletonList(
+                DocumentStore.Write.delete(ImageIndex.path(ImageIndex.TYPE_PROFILE, uid))));
+        second.add(Collections.singletonList(DocumentStore.Write.delete(InboxEntry.unreadCounterPath(uid))));
+
+        final int total = first.size() + second.size() + 1;
+        cb.onProgress(0, total);
+
+        fanOut(first, (done, all) -> cb.onProgress(done, total), (delivered, failedFirst, errorFirst) -> {
+            if (failedFirst > 0) {
+                cb.onError(new Exception("Could not delete " + failedFirst + " of " + first.size()
+                        + " items; profile kept so the deletion can be retried", errorFirst));
+                return;
+            }
+            fanOut(second, (done, all) -> cb.onProgress(first.size() + done, total),
+                    (delivered2, failedSecond, errorSecond) -> {
+                        if (failedSecond > 0) {
+                            cb.onError(new Exception("Could not delete " + failedSecond
+                                    + " registrations; profile kept so the deletion can be retried", errorSecond));
+                            return;
+                        }
+                        store.commit(Collections.singletonList(DocumentStore.Write.delete(userPath(uid))),
+                                new DocumentStore.ResultCallback<Void>() {
+                                    @Override
+                                    public void onSuccess(Void result) {
+                                        cb.onProgress(total, total);
+                                        cb.onComplete(footprint);
+                                    }
+
+                                    @Override
+                                    public void onError(Exception e) {
+                                        cb.onError(e);
+                                    }
+                                });
+                    });
+        });
+    }
+
+    /**
+     * Writes that delete a waiting-list entry and, if it was holding capacity, give its
+     * slot back to its shard (see {@link WaitingListService}).
+     */
+    @NonNull
+    static List<DocumentStore.Write> releaseWrites(@NonNull DocumentStore.Doc entry) {
+        List<DocumentStore.Write> writes = new ArrayList<>(2);
+        writes.add(DocumentStore.Write.delete(entry.path));
+        String eventId = eventIdOf(entry);
+        if (eventId != null
+                && WaitingListService.isActive(entry.getString("status"), entry.getString("responded"))) {
+            writes.add(DocumentStore.Write.merge(
+                    "org_events/" + eventId + "/waiting_shards/" + WaitingListService.shardIdOf(entry),
+                    Collections.<String, Object>singletonMap("count", DocumentStore.increment(-1))));
+        }
+        return writes;
+    }
+
+    private void fanOut(@NonNull List<List<DocumentStore.Write>> items,
+                        @NonNull BatchFanOut.ProgressListener progress,
+                        @NonNull BatchFanOut.Listener listener) {
+        new BatchFanOut<List<DocumentStore.Write>>(store, (out, writes) -> out.addAll(writes))
+                .run(items, progress, listener);
+    }
+
+    /** @return the event id of an {@code org_events/{eventId}/waiting_list/{uid}} entry, or null */
+    static String eventIdOf(@NonNull DocumentStore.Doc entry) {
+        if (entry.path == null) return null;
+        String[] segments = entry.path.split("/");
+        return segments.length == 4 && "org_events".equals(segments[0]) ? segments[1] : null;
+    }
+
+    private static String userPath(String uid) {
+        return "users/" + uid;
+    }
+
+    private static String registrationPath(String uid, String eventId) {
+        return "users/" + uid + "/registrations/" + eventId;
+    }
+
+    private static String waitingPath(String eventId, String uid) {
+        return "org_events/" + eventId + "/waiting_list/" + uid;
+    }
+
+    /** Minimal callback type for internal steps. */
+    private interface Consumer<T> {
+        void accept(T value);
+    }
+
+    /**
+     * Waits for a fixed number of reads and runs {@code onDone} once all succeeded,
+     * or {@code onError} once for the first failure.
+     */
+    private static final class Join {
+        private int remaining;
+        private boolean failed;
+        private final Consumer<Exception> onError;
+        private final Runnable onDone;
+
+        Join(int count, Consumer<Exception> onError, Runnable onDone) {
+            this.remaining = count;
+            this.onError = onError;
+            this.onDone = onDone;
+        }
+
+        <T> DocumentStore.ResultCallback<T> step(@NonNull Consumer<T> onResult) {
+            return new DocumentStore.ResultCallback<T>() {
+                @Override
+                public void onSuccess(T result) {
+                    boolean last;
+                    synchronized (Join.this) {
+                        if (failed) return;
+                        onResult.accept(result);
+                        last = --remaining == 0;
+                    }
+                    if (last) onDone.run();
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    synchronized (Join.this) {
+                        if (failed) return;
+                        failed = true;
+                    }
+                    onError.accept(e);
+                }
+            };
+        }
+    }
+}
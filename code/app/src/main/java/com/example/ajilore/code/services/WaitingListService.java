@@ -0,0 +1,552 @@
+package com.example.ajilore.code.services;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.FirestoreDocumentStore;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * WaitingListService
+ *
+ * Purpose: Joins and leaves an event's waiting list with a server-side capacity check.
+ *
+ * <p>Capacity is enforced with a <b>sharded counter</b>. The event's capacity is split across
+ * {@link #SHARD_COUNT} documents under {@code org_events/{eventId}/waiting_shards/{index}},
+ * each holding a {@code count} and owning {@code capacity / SHARD_COUNT} slots (the remainder
+ * goes to the first shards). A join runs a transaction that reads the event, the entrant's
+ * own entry, ONE shard and the legacy counter below; if that shard has room, the entry is
+ * written and the shard is incremented atomically.</p>
+ *
+ * <p>Before the transaction, a join reads the event, the entry and the shard totals
+ * together. A full event is reported {@link JoinResult#FULL} from that read without a
+ * transaction, and only shards that had room are tried, so a join normally commits on its
+ * first transaction. A shard that filled up in the meantime makes the join try the next one.</p>
+ *
+ * <p>Because each transaction touches a single shard, concurrent joins only contend when they
+ * land on the same shard, and the total can never exceed capacity since the shard budgets
+ * sum to it. The shard index is stored on the entry as {@code shard} so leaving or declining
+ * releases the same slot.</p>
+ *
+ * <p>Entries written before shards existed carry no {@code shard} field. They are counted
+ * in one more document, {@code waiting_shards/legacy}, and the shard budgets are split from
+ * {@code capacity - legacy} instead, so existing entrants keep their slots and the total
+ * still never exceeds capacity. The first join after an upgrade counts the active unsharded
+ * entries and writes that document with {@code seeded: true}; releasing an unsharded entry
+ * decrements it, and releases before the seed are overwritten by it. No new unsharded
+ * entries are written, so the legacy count only shrinks and the budgets only grow.</p>
+ *
+ * Pattern: Service over {@link DocumentStore}, like {@link LotteryService}, so the
+ * transactions run against the in-memory fake in unit tests.
+ */
+public class WaitingListService {
+
+    private static final String TAG = "WaitingListService";
+
+    /** Number of counter shards per event. */
+    public static final int SHARD_COUNT = 10;
+
+    /** Id of the counter for entries written before shards existed. */
+    static final String LEGACY_SHARD = "legacy";
+
+    /** Outcome of a join attempt. */
+    public enum JoinResult {
+        /** The entrant was added to the waiting list. */
+        JOINED,
+        /** The entrant already has an active entry; nothing changed. */
+        ALREADY_JOINED,
+        /** Every capacity slot is taken. */
+        FULL,
+        /** Registration is not open (outside the window, closed or flagged, or no such event). */
+        CLOSED
+    }
+
+    /**
+     * Callback for join attempts.
+     */
+    public interface JoinCallback {
+        /** @param result typed outcome of the join */
+        void onResult(@NonNull JoinResult result);
+
+        /** @param e transaction error (network, permissions, too much contention) */
+        void onError(@NonNull Exception e);
+    }
+
+    /**
+     * Callback for leave/decline operations.
+     */
+    public interface ReleaseCallback {
+        /**
+         * @param hadSpot true if the entrant was CHOSEN or had accepted, so a replacement
+         *                should be drawn
+         */
+        void onReleased(boolean hadSpot);
+
+        /** @param e transaction error */
+        void onError(@NonNull Exception e);
+    }
+
+    private final DocumentStore store;
+    private final Random random;
+    private final LongSupplier clock;
+
+    /**
+     * @param db Firestore instance
+     */
+    public WaitingListService(@NonNull FirebaseFirestore db) {
+        this(FirestoreDocumentStore.tracked(db, "WaitingListService"), new Random(), System::currentTimeMillis);
+    }
+
+    /**
+     * @param store  store to read from and write to
+     * @param random chooses the first shard to try
+     * @param clock  wall-clock time source in milliseconds
+     */
+    public WaitingListService(@NonNull DocumentStore store, @NonNull Random random, @NonNull LongSupplier clock) {
+        this.store = store;
+        this.random = random;
+        this.clock = clock;
+    }
+
+    /**
+     * Number of capacity slots owned by a shard. Shard budgets sum to {@code capacity}.
+     *
+     * @param capacity event capacity (&gt; 0)
+     * @param shard    shard index in [0, SHARD_COUNT)
+     * @return slots this shard may hand out (may be 0 for small capacities)
+     */
+    static int shardCapacity(int capacity, int shard) {
+        return capacity / SHARD_COUNT + (shard < capacity % SHARD_COUNT ? 1 : 0);
+    }
+
+    /**
+     * Order in which shards are tried: every shard once, starting at {@code start}.
+     * Shards that own no slots are skipped when a capacity is set.
+     *
+     * @param start    first shard to try
+     * @param capacity event capacity, or 0 for unlimited
+     * @return shard indexes to try, in order
+     */
+    static List<Integer> probeOrder(int start, int capacity) {
+        List<Integer> order = new ArrayList<>(SHARD_COUNT);
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            int shard = (start + i) % SHARD_COUNT;
+            if (capacity <= 0 || shardCapacity(capacity, shard) > 0) order.add(shard);
+        }
+        return order;
+    }
+
+    /**
+     * Slots the shards share once the unsharded entries are taken out.
+     *
+     * @param capacity event capacity, or 0 for unlimited
+     * @param legacy   active entries without a shard
+     * @return slots for the shards to split; 0 when the event is unlimited or already full
+     */
+    static int shardedCapacity(int capacity, long legacy) {
+        return capacity > 0 ? (int) Math.max(0, capacity - Math.max(0, legacy)) : 0;
+    }
+
+    /**
+     * {@link #probeOrder} without the shards that were already full when their totals were read.
+     *
+     * @param start    first shard to try
+     * @param capacity event capacity, or 0 for unlimited
+     * @param legacy   active entries without a shard
+     * @param counts   count of each shard, indexed by shard
+     * @return shard indexes with room, in probe order; empty when the event is full
+     */
+    static List<Integer> openShards(int start, int capacity, long legacy, @NonNull long[] counts) {
+        List<Integer> order = new ArrayList<>(SHARD_COUNT);
+        if (capacity <= 0) return probeOrder(start, 0);
+        int budget = shardedCapacity(capacity, legacy);
+        if (budget == 0) return order;
+        for (int shard : probeOrder(start, budget)) {
+            if (counts[shard] < shardCapacity(budget, shard)) order.add(shard);
+        }
+        return order;
+    }
+
+    /**
+     * @param entry a {@code waiting_list} entry
+     * @return id of the counter under {@code waiting_shards} that the entry's slot is
+     * counted in: its shard index, or {@link #LEGACY_SHARD} for an entry without one
+     */
+    @NonNull
+    public static String shardIdOf(@NonNull DocumentStore.Doc entry) {
+        Long shard = entry.getLong("shard");
+        return shard != null ? String.valueOf(shard) : LEGACY_SHARD;
+    }
+
+    /**
+     * Whether an entry with these fields counts toward capacity
+     * (same rule as the waiting list count: cancelled or declined entries do not).
+     */
+    static boolean isActive(@Nullable String status, @Nullable String responded) {
+        return !"cancelled".equalsIgnoreCase(status) && !"declined".equalsIgnoreCase(responded);
+    }
+
+    /**
+     * Whether an entry holds an invited or accepted spot.
+     */
+    static boolean holdsSpot(@Nullable String status, @Nullable String responded) {
+        return "chosen".equalsIgnoreCase(status)
+                || ("selected".equalsIgnoreCase(status) && "accepted".equalsIgnoreCase(responded));
+    }
+
+    /**
+     * Registration is open when the event is not closed or flagged and now lies inside
+     * [regOpens, regCloses]. Events without a window are always open.
+     *
+     * @param regOpens  epoch millis, or 0 if not set
+     * @param regCloses epoch millis, or 0 if not set
+     */
+    static boolean isRegistrationOpen(@Nullable String status,
+                                      long regOpens,
+                                      long regCloses,
+                                      long nowMillis) {
+        if ("flagged".equalsIgnoreCase(status) || "closed".equalsIgnoreCase(status)) return false;
+        if (regOpens == 0 || regCloses == 0) return true;
+        return nowMillis > regOpens && nowMillis < regCloses;
+    }
+
+    /** @return a Timestamp, Date or number field as epoch millis, or 0 if missing */
+    static long millisOf(@Nullable Object value) {
+        if (value instanceof Timestamp) return ((Timestamp) value).toDate().getTime();
+        if (value instanceof Date) return ((Date) value).getTime();
+        if (value instanceof Number) return ((Number) value).longValue();
+        return 0;
+    }
+
+    /** Whether the event document accepts joins right now. */
+    private boolean isOpen(@NonNull DocumentStore.Doc event) {
+        return isRegistrationOpen(event.getString("status"),
+                millisOf(event.data.get("regOpens")),
+                millisOf(event.data.get("regCloses")),
+                clock.getAsLong());
+    }
+
+    private static int capacityOf(@NonNull DocumentStore.Doc event) {
+        Long capacity = event.getLong("capacity");
+        return capacity != null ? capacity.intValue() : 0;
+    }
+
+    private static boolean isActive(@Nullable DocumentStore.Doc entry) {
+        return entry != null && isActive(entry.getString("status"), entry.getString("responded"));
+    }
+
+    private static String shardPath(@NonNull String eventId, @NonNull Object shard) {
+        return "org_events/" + eventId + "/waiting_shards/" + shard;
+    }
+
+    private static long countOf(@Nullable DocumentStore.Doc shard) {
+        Long count = shard != null ? shard.getLong("count") : null;
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Joins the waiting list if registration is open and a capacity slot is free.
+     *
+     * @param eventId event document ID
+     * @param userId  entrant (device) ID
+     * @param entry   fields for the waiting_list entry (e.g. userId, status, location);
+     *                {@code shard} and {@code joinedAt} are filled in here
+     * @param cb      typed result or error
+     */
+    public void join(@NonNull String eventId,
+                     @NonNull String userId,
+                     @NonNull Map<String, Object> entry,
+                     @NonNull JoinCallback cb) {
+        join(eventId, userId, entry, true, cb);
+    }
+
+    /**
+     * Reads the event, the entry and the shard totals together, then either answers from
+     * them or starts the shard transactions.
+     */
+    private void join(@NonNull String eventId,
+                      @NonNull String userId,
+                      @NonNull Map<String, Object> entry,
+                      boolean maySeed,
+                      @NonNull JoinCallback cb) {
+        final int[] pending = {3};
+        final DocumentStore.Doc[] found = new DocumentStore.Doc[2];
+        final List<DocumentStore.Doc> shards = new ArrayList<>();
+        final Exception[] failure = new Exception[1];
+
+        Runnable done = () -> {
+            if (--pending[0] > 0) return;
+            if (failure[0] != null) {
+                Log.e(TAG, "Join pre-read failed for " + eventId, failure[0]);
+                cb.onError(failure[0]);
+                return;
+            }
+            DocumentStore.Doc event = found[0];
+            if (event == null || !isOpen(event)) {
+                cb.onResult(JoinResult.CLOSED);
+                return;
+            }
+            if (isActive(found[1])) {
+                cb.onResult(JoinResult.ALREADY_JOINED);
+                return;
+            }
+
+            boolean seeded = false;
+            long legacy = 0;
+            long[] counts = new long[SHARD_COUNT];
+            for (DocumentStore.Doc shard : shards) {
+                if (LEGACY_SHARD.equals(shard.id)) {
+                    legacy = countOf(shard);
+                    seeded = Boolean.TRUE.equals(shard.data.get("seeded"));
+                    continue;
+                }
+                try {
+                    int index = Integer.parseInt(shard.id);
+                    if (index >= 0 && index < SHARD_COUNT) counts[index] = countOf(shard);
+                } catch (NumberFormatException ignored) {
+                    // not a counter shard
+                }
+            }
+            if (!seeded && maySeed) {
+                seed(eventId, new DocumentStore.ResultCallback<Void>() {
+                    @Override
+                    public void onSuccess(Void ignored) {
+                        join(eventId, userId, entry, false, cb);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e(TAG, "Seeding shards failed for " + eventId, e);
+                        cb.onError(e);
+                    }
+                });
+                return;
+            }
+
+            List<Integer> order = openShards(random.nextInt(SHARD_COUNT), capacityOf(event), legacy, counts);
+            if (order.isEmpty()) {
+                cb.onResult(JoinResult.FULL);
+                return;
+            }
+            tryShards(eventId, userId, entry, order, 0, cb);
+        };
+
+        class Part implements DocumentStore.ResultCallback<DocumentStore.Doc> {
+            private final int index;
+
+            Part(int index) {
+                this.index = index;
+            }
+
+            @Override
+            public void onSuccess(DocumentStore.Doc doc) {
+                found[index] = doc;
+                done.run();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (failure[0] == null) failure[0] = e;
+                done.run();
+            }
+        }
+
+        store.get("org_events/" + eventId, new Part(0));
+        store.get("org_events/" + eventId + "/waiting_list/" + userId, new Part(1));
+        store.list("org_events/" + eventId + "/waiting_shards", new DocumentStore.ResultCallback<List<DocumentStore.Doc>>() {
+            @Override
+            public void onSuccess(List<DocumentStore.Doc> docs) {
+                shards.addAll(docs);
+                done.run();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (failure[0] == null) failure[0] = e;
+                done.run();
+            }
+        });
+    }
+
+    /**
+     * Counts the active entries without a shard and writes the legacy counter in one
+     * transaction. Does nothing if another client seeded first. An entry released between
+     * the count and the transaction stays counted, which only costs a slot.
+     */
+    void seed(@NonNull String eventId, @NonNull DocumentStore.ResultCallback<Void> cb) {
+        store.list("org_events/" + eventId + "/waiting_list", new DocumentStore.ResultCallback<List<DocumentStore.Doc>>() {
+            @Override
+            public void onSuccess(List<DocumentStore.Doc> entries) {
+                long legacy = 0;
+                for (DocumentStore.Doc e : entries) {
+                    if (isActive(e) && e.getLong("shard") == null) legacy++;
+                }
+                final long count = legacy;
+                String legacyPath = shardPath(eventId, LEGACY_SHARD);
+                store.runTransaction(tx -> {
+                    DocumentStore.Doc doc = tx.get(legacyPath);
+                    if (doc != null && Boolean.TRUE.equals(doc.data.get("seeded"))) return null;
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("count", count);
+                    data.put("seeded", true);
+                    tx.set(legacyPath, data);
+                    return null;
+                }, cb);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Tries the shards in {@code order} one transaction at a time, until one has room.
+     */
+    private void tryShards(@NonNull String eventId,
+                           @NonNull String userId,
+                           @NonNull Map<String, Object> entry,
+                           @NonNull List<Integer> order,
+                           int index,
+                           @NonNull JoinCallback cb) {
+        if (index >= order.size()) {
+            cb.onResult(JoinResult.FULL);
+            return;
+        }
+        String eventPath = "org_events/" + eventId;
+        String entryPath = eventPath + "/waiting_list/" + userId;
+        int shard = order.get(index);
+        String shardPath = shardPath(eventId, shard);
+        String legacyPath = shardPath(eventId, LEGACY_SHARD);
+
+        store.runTransaction(tx -> {
+            DocumentStore.Doc event = tx.get(eventPath);
+            if (event == null || !isOpen(event)) return JoinResult.CLOSED;
+
+            DocumentStore.Doc existing = tx.get(entryPath);
+            if (isActive(existing)) return JoinResult.ALREADY_JOINED;
+
+            int capacity = capacityOf(event);
+            if (capacity > 0) {
+                long legacy = countOf(tx.get(legacyPath));
+                long count = countOf(tx.get(shardPath));
+                if (count >= shardCapacity(shardedCapacity(capacity, legacy), shard)) {
+                    return null; // filled up since the totals were read; try the next one
+                }
+            }
+
+            Map<String, Object> data = new HashMap<>(entry);
+            data.put("shard", shard);
+            data.put("joinedAt", DocumentStore.SERVER_TIMESTAMP);
+            tx.set(entryPath, data);
+            tx.merge(shardPath, Collections.<String, Object>singletonMap("count", DocumentStore.increment(1)));
+            return JoinResult.JOINED;
+        }, new DocumentStore.ResultCallback<JoinResult>() {
+            @Override
+            public void onSuccess(JoinResult result) {
+                if (result != null) {
+                    cb.onResult(result);
+                    return;
+                }
+                Log.d(TAG, "Shard " + shard + " full for " + eventId + ", trying next");
+                tryShards(eventId, userId, entry, order, index + 1, cb);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Join transaction failed for " + eventId, e);
+                cb.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Removes the entrant from the waiting list and frees their capacity slot.
+     *
+     * @param eventId event document ID
+     * @param userId  entrant (device) ID
+     * @param cb      reports whether the entrant held a spot
+     */
+    public void leave(@NonNull String eventId, @NonNull String userId, @NonNull ReleaseCallback cb) {
+        release(eventId, userId, null, cb);
+    }
+
+    /**
+     * Records the entrant's answer to an invite. Declining frees their capacity slot.
+     *
+     * @param eventId  event document ID
+     * @param userId   entrant (device) ID
+     * @param accepted true to accept the spot, false to decline it
+     * @param cb       reports whether the entrant held a spot before answering
+     */
+    public void respond(@NonNull String eventId,
+                        @NonNull String userId,
+                        boolean accepted,
+                        @NonNull ReleaseCallback cb) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("responded", accepted ? "accepted" : "declined");
+        updates.put("responseAt", DocumentStore.SERVER_TIMESTAMP);
+        updates.put("status", accepted ? "selected" : "cancelled");
+        release(eventId, userId, updates, cb);
+    }
+
+    /**
+     * Deletes the entry ({@code updates == null}) or merges {@code updates} into it, and
+     * decrements the entry's shard if it stops counting toward capacity.
+     */
+    private void release(@NonNull String eventId,
+                         @NonNull String userId,
+                         @Nullable Map<String, Object> updates,
+                         @NonNull ReleaseCallback cb) {
+        String entryPath = "org_events/" + eventId + "/waiting_list/" + userId;
+
+        store.runTransaction(tx -> {
+            DocumentStore.Doc existing = tx.get(entryPath);
+            if (existing == null) {
+                if (updates != null) tx.merge(entryPath, updates);
+                return false;
+            }
+            boolean wasActive = isActive(existing);
+
+            boolean staysActive;
+            if (updates == null) {
+                tx.delete(entryPath);
+                staysActive = false;
+            } else {
+                tx.merge(entryPath, updates);
+                staysActive = isActive((String) updates.get("status"), (String) updates.get("responded"));
+            }
+
+            if (wasActive && !staysActive) {
+                tx.merge(shardPath(eventId, shardIdOf(existing)),
+                        Collections.<String, Object>singletonMap("count", DocumentStore.increment(-1)));
+            }
+            return holdsSpot(existing.getString("status"), existing.getString("responded"));
+        }, new DocumentStore.ResultCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean hadSpot) {
+                cb.onReleased(Boolean.TRUE.equals(hadSpot));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Release transaction failed for " + eventId, e);
+                cb.onError(e);
+            }
+        });
+    }
+}
@@ -20,11 +20,15 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
 import com.example.ajilore.code.R;
 import com.example.ajilore.code.adapters.AdminEventsAdapter;
 import com.example.ajilore.code.controllers.AdminController;
+import com.example.ajilore.code.images.Images;
 import com.example.ajilore.code.ui.events.model.Event;
 import com.example.ajilore.code.utils.DeleteDialogHelper;
+import com.example.ajilore.code.utils.PagedScrollListener;
+import com.example.ajilore.code.utils.PagingState;
 
 import java.util.List;
 
@@ -56,6 +60,11 @@ public class AdminEventsFragment extends Fragment implements AdminEventsAdapter.
     private LinearLayout layoutEmptyState;
     private ImageButton btnBack;
 
+    // Paging state
+    private PagedScrollListener pagedScroll;
+    private final PagingState<AdminController.PageToken> paging = new PagingState<>();
+    private Button btnLoadMore;
+
     /**
      * Creates and returns the view hierarchy for the fragment.
      *
@@ -86,6 +95,7 @@ public class AdminEventsFragment extends Fragment implements AdminEventsAdapter.
      */
     private void initializeViews(View view) {
         rvEvents = view.findViewById(R.id.rv_events);
+        btnLoadMore = view.findViewById(R.id.btn_load_more);
         etSearch = view.findViewById(R.id.et_search_events);
         layoutEmptyState = view.findViewById(R.id.layout_empty_state);
         btnBack = view.findViewById(R.id.btn_back);
@@ -97,7 +107,11 @@ public class AdminEventsFragment extends Fragment implements AdminEventsAdapter.
     private void setupRecyclerView() {
         adapter = new AdminEventsAdapter(requireContext(), this);
         rvEvents.setAdapter(adapter);
+        Images.preloadThumbnails(rvEvents, Glide.with(this), R.id.iv_event_poster, adapter::posterUrlAt);
         rvEvents.setLayoutManager(new LinearLayoutManager(requireContext()));
+        pagedScroll = new PagedScrollListener(this::loadMoreEvents);
+        rvEvents.addOnScrollListener(pagedScroll);
+        btnLoadMore.setOnClickListener(v -> loadMoreEvents(false));
     }
 
     /**
@@ -110,8 +124,8 @@ public class AdminEventsFragment extends Fragment implements AdminEventsAdapter.
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                adapter.filter(s.toString());
-                updateEmptyState();
+                paging.resetAutoPages();
+                adapter.filter(s.toString(), AdminEventsFragment.this::onFilterApplied);
             }
 
             @Override
@@ -127,29 +141,61 @@ public class AdminEventsFragment extends Fragment implements AdminEventsAdapter.
     }
 
     /**
-     * Loads all events from Firestore database.
+     * Loads the first page of events from Firestore, discarding anything loaded before.
      *
-     * <p>Fetches event data asynchronously and populates the RecyclerView.</p>
+     * <p>Fetches event data asynchronously and populates the RecyclerView. Further pages
+     * are loaded by {@link #loadMoreEvents(boolean)} as the admin scrolls.</p>
      */
     private void loadEvents() {
         showLoading(true);
+        paging.restart();
+        paging.begin(false);
+        updateLoadMore();
+        loadEventsPage(true);
+    }
 
-        adminController.fetchAllEvents(new AdminController.DataCallback<List<Event>>() {
+    /**
+     * Loads the next page of events, unless one is already loading, the last page is in,
+     * or the screen asked on its own and {@link PagingState} has stopped automatic paging
+     * for the current search; the "load more" button then shows.
+     *
+     * @param auto true when asked after a page or a search, false when the admin scrolled
+     *             or tapped "load more"
+     */
+    private void loadMoreEvents(boolean auto) {
+        if (paging.begin(auto)) {
+            loadEventsPage(false);
+        }
+        updateLoadMore();
+    }
+
+    /**
+     * Fetches one page and appends it (or, for the first page, replaces the list).
+     * Results from before the latest {@link #loadEvents()} are dropped.
+     *
+     * @param first Whether this is the first page.
+     */
+    private void loadEventsPage(boolean first) {
+        final int generation = paging.generation();
+
+        adminController.fetchEventsPage(paging.next(), new AdminController.PagedDataCallback<List<Event>>() {
             @Override
-            public void onSuccess(List<Event> events) {
-                if (isAdded()) {
-                    showLoading(false);
-                    adapter.setEvents(events);
-                    updateEmptyState();
-                    Toast.makeText(requireContext(),
-                            "Loaded " + events.size() + " events",
-                            Toast.LENGTH_SHORT).show();
+            public void onPage(List<Event> events, @Nullable AdminController.PageToken next) {
+                if (isAdded() && paging.isCurrent(generation)) {
+                    paging.onPage(next);
+                    if (first) {
+                        showLoading(false);
+                        adapter.setEvents(events, AdminEventsFragment.this::onFilterApplied);
+                    } else {
+                        adapter.addEvents(events, AdminEventsFragment.this::onFilterApplied);
+                    }
                 }
             }
 
             @Override
             public void onError(Exception e) {
-                if (isAdded()) {
+                if (isAdded() && paging.isCurrent(generation)) {
+                    paging.onError();
                     showLoading(false);
                     Toast.makeText(requireContext(),
                             "Error: " + e.getMessage(),
@@ -160,6 +206,25 @@ public class AdminEventsFragment extends Fragment implements AdminEventsAdapter.
         });
     }
 
+    /**
+     * Runs once the filtered list is showing: updates the empty state and keeps paging
+     * while the matching rows don't fill the screen.
+     */
+    private void onFilterApplied() {
+        if (!isAdded()) return;
+        updateEmptyState();
+        updateLoadMore();
+        checkForMore();
+    }
+
+    /**
+     * Loads another page if the (filtered) rows don't fill the screen, e.g. after a
+     * search that matched few of the events loaded so far.
+     */
+    private void checkForMore() {
+        rvEvents.post(() -> pagedScroll.check(rvEvents));
+    }
+
     /**
      * Sets list visibility based on loading state.
      * @param show True to show "loading", false to show the list.
@@ -169,6 +234,13 @@ public class AdminEventsFragment extends Fragment implements AdminEventsAdapter.
         rvEvents.setVisibility(show ? View.GONE : View.VISIBLE);
     }
 
+    /**
+     * Shows the "load more" button while automatic paging is stopped for the current search.
+     */
+    private void updateLoadMore() {
+        btnLoadMore.setVisibility(paging.isCapped() ? View.VISIBLE : View.GONE);
+    }
+
     /**
      * Shows or hides empty state view if there are no events loaded.
      */
@@ -265,4 +337,13 @@ public class AdminEventsFragment extends Fragment implements AdminEventsAdapter.
             }
         });
     }
+
+    /**
+     * Cancels any search still pending in the adapter when the view is destroyed.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (adapter != null) adapter.cancelSearch();
+    }
 }
\ No newline at end of file
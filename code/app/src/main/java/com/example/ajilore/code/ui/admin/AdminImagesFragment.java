@@ -21,11 +21,15 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
 import com.example.ajilore.code.R;
 import com.example.ajilore.code.adapters.AdminImagesAdapter;
 import com.example.ajilore.code.controllers.AdminController;
+import com.example.ajilore.code.images.Images;
 import com.example.ajilore.code.models.ImageItem;
 import com.example.ajilore.code.utils.DeleteDialogHelper;
+import com.example.ajilore.code.utils.PagedScrollListener;
+import com.example.ajilore.code.utils.PagingState;
 
 import java.util.List;
 
@@ -69,6 +73,11 @@ public class AdminImagesFragment extends Fragment implements AdminImagesAdapter.
     private ImageButton btnBack;
     private EditText etSearchImages;
 
+    // Paging state
+    private PagedScrollListener pagedScroll;
+    private final PagingState<AdminController.PageToken> paging = new PagingState<>();
+    private Button btnLoadMore;
+
     /**
      * Creates and returns the view hierarchy for the images browsing interface.
      *
@@ -100,6 +109,7 @@ public class AdminImagesFragment extends Fragment implements AdminImagesAdapter.
      */
     private void initializeViews(View view) {
         rvImages = view.findViewById(R.id.rv_images);
+        btnLoadMore = view.findViewById(R.id.btn_load_more);
         layoutEmptyState = view.findViewById(R.id.layout_empty_state);
         progressBar = view.findViewById(R.id.progress_bar);
         btnBack = view.findViewById(R.id.btn_back);
@@ -116,6 +126,12 @@ public class AdminImagesFragment extends Fragment implements AdminImagesAdapter.
         GridLayoutManager gridLayoutManager = new GridLayoutManager(requireContext(), 2);
         rvImages.setLayoutManager(gridLayoutManager);
         rvImages.setAdapter(adapter);
+        Images.preloadThumbnails(rvImages, Glide.with(this), R.id.iv_image, adapter::imageUrlAt);
+
+        // Load the next page as the admin nears the end of the grid
+        pagedScroll = new PagedScrollListener(this::loadMoreImages);
+        rvImages.addOnScrollListener(pagedScroll);
+        btnLoadMore.setOnClickListener(v -> loadMoreImages(false));
     }
 
     /**
@@ -133,8 +149,8 @@ public class AdminImagesFragment extends Fragment implements AdminImagesAdapter.
                 @Override
                 public void onTextChanged(CharSequence s, int start, int before, int count) {
                     // Filter the adapter as user types
-                    adapter.filter(s.toString());
-                    updateEmptyState();
+                    paging.resetAutoPages();
+                    adapter.filter(s.toString(), AdminImagesFragment.this::onFilterApplied);
                 }
 
                 @Override
@@ -155,30 +171,64 @@ public class AdminImagesFragment extends Fragment implements AdminImagesAdapter.
     }
 
     /**
-     * Loads all event poster images from Firestore.
-     * Only displays events that have actual poster images (no nulls/defaults).
+     * Loads the first page of images from Firestore, discarding anything loaded before.
+     * Only displays events and users that have actual images (no nulls/defaults).
+     * Further pages are loaded by {@link #loadMoreImages(boolean)} as the admin scrolls.
      */
     private void loadImages() {
         showLoading(true);
+        paging.restart();
+        paging.begin(false);
+        updateLoadMore();
+        loadImagesPage(true);
+    }
 
-        adminController.fetchAllImages(new AdminController.DataCallback<List<ImageItem>>() {
-            @Override
-            public void onSuccess(List<ImageItem> images) {
-                if (isAdded()) {
-                    showLoading(false);
-                    adapter.setImages(images);
-                    updateEmptyState();
+    /**
+     * Loads the next page of images, unless one is already loading, the last page is in,
+     * or the screen asked on its own and {@link PagingState} has stopped automatic paging
+     * for the current search; the "load more" button then shows.
+     *
+     * @param auto true when asked after a page or a search, false when the admin scrolled
+     *             or tapped "load more"
+     */
+    private void loadMoreImages(boolean auto) {
+        if (paging.begin(auto)) {
+            loadImagesPage(false);
+        }
+        updateLoadMore();
+    }
 
-                    String message = images.isEmpty() ?
-                            "No images found" :
-                            "Loaded " + images.size() + " images";
-                    Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
+    /**
+     * Fetches one page and appends it (or, for the first page, replaces the grid).
+     * Results from before the latest {@link #loadImages()} are dropped.
+     *
+     * @param first Whether this is the first page.
+     */
+    private void loadImagesPage(boolean first) {
+        final int generation = paging.generation();
+
+        adminController.fetchImagesPage(paging.next(), new AdminController.PagedDataCallback<List<ImageItem>>() {
+            @Override
+            public void onPage(List<ImageItem> images, @Nullable AdminController.PageToken next) {
+                if (isAdded() && paging.isCurrent(generation)) {
+                    paging.onPage(next);
+                    if (first) {
+                        showLoading(false);
+                        adapter.setImages(images, AdminImagesFragment.this::onFilterApplied);
+                    } else {
+                        adapter.addImages(images, AdminImagesFragment.this::onFilterApplied);
+                    }
+
+                    if (paging.isLastPage() && adapter.getLoadedCount() == 0) {
+                        Toast.makeText(requireContext(), "No images found", Toast.LENGTH_SHORT).show();
+                    }
                 }
             }
 
             @Override
             public void onError(Exception e) {
-                if (isAdded()) {
+                if (isAdded() && paging.isCurrent(generation)) {
+                    paging.onError();
                     showLoading(false);
                     Toast.makeText(requireContext(),
                             "Error loading images: " + e.getMessage(),
@@ -189,6 +239,25 @@ public class AdminImagesFragment extends Fragment implements AdminImagesAdapter.
         });
     }
 
+    /**
+     * Runs once the filtered list is showing: updates the empty state and keeps paging
+     * while the matching rows don't fill the screen.
+     */
+    private void onFilterApplied() {
+        if (!isAdded()) return;
+        updateEmptyState();
+        updateLoadMore();
+        checkForMore();
+    }
+
+    /**
+     * Loads another page if the (filtered) images don't fill the screen, e.g. after a
+     * search that matched few of the images loaded so far.
+     */
+    private void checkForMore() {
+        rvImages.post(() -> pagedScroll.check(rvImages));
+    }
+
     /**
      * Shows or hides the loading indicator.
      * @param show True to show loading, false to hide
@@ -200,6 +269,13 @@ public class AdminImagesFragment extends Fragment implements AdminImagesAdapter.
         rvImages.setVisibility(show ? View.GONE : View.VISIBLE);
     }
 
+    /**
+     * Shows the "load more" button while automatic paging is stopped for the current search.
+     */
+    private void updateLoadMore() {
+        btnLoadMore.setVisibility(paging.isCapped() ? View.VISIBLE : View.GONE);
+    }
+
     /**
      * Updates the empty state visibility based on whether images are loaded.
      */
@@ -329,4 +405,13 @@ public class AdminImagesFragment extends Fragment implements AdminImagesAdapter.
             }
         });
     }
+
+    /**
+     * Cancels any search still pending in the adapter when the view is destroyed.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (adapter != null) adapter.cancelSearch();
+    }
 }
\ No newline at end of file
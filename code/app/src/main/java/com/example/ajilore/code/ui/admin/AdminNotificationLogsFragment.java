@@ -23,6 +23,8 @@ import com.example.ajilore.code.R;
 import com.example.ajilore.code.adapters.AdminLogsAdapter;
 import com.example.ajilore.code.controllers.AdminController;
 import com.example.ajilore.code.models.NotificationLog;
+import com.example.ajilore.code.utils.PagedScrollListener;
+import com.example.ajilore.code.utils.PagingState;
 
 import java.util.List;
 
@@ -71,6 +73,11 @@ public class AdminNotificationLogsFragment extends Fragment {
     private Button btnFilterAll, btnFilterWaiting, btnFilterSelected, btnFilterChosen, btnFilterCancelled;
     private String currentFilter = "all"; // Track active filter
 
+    // Paging state
+    private PagedScrollListener pagedScroll;
+    private final PagingState<AdminController.PageToken> paging = new PagingState<>();
+    private Button btnLoadMore;
+
     /**
      * Inflates the log viewer layout, initializes UI components,
      * configures listeners (search, filters, back button),
@@ -108,6 +115,7 @@ public class AdminNotificationLogsFragment extends Fragment {
 
     private void initializeViews(View view) {
         rvLogs = view.findViewById(R.id.rv_logs);
+        btnLoadMore = view.findViewById(R.id.btn_load_more);
         etSearch = view.findViewById(R.id.et_search);
         layoutEmptyState = view.findViewById(R.id.layout_empty_state);
         progressBar = view.findViewById(R.id.progress_bar);
@@ -123,13 +131,17 @@ public class AdminNotificationLogsFragment extends Fragment {
 
     /**
      * Sets up the RecyclerView used to display notification logs.
-     * Initializes {@link AdminLogsAdapter} and applies a vertical layout manager.
+     * Initializes {@link AdminLogsAdapter}, applies a vertical layout manager, and loads
+     * older logs near the bottom of the list.
      */
 
     private void setupRecyclerView() {
         adapter = new AdminLogsAdapter(requireContext());
         rvLogs.setAdapter(adapter);
         rvLogs.setLayoutManager(new LinearLayoutManager(requireContext()));
+        pagedScroll = new PagedScrollListener(this::loadMoreLogs);
+        rvLogs.addOnScrollListener(pagedScroll);
+        btnLoadMore.setOnClickListener(v -> loadMoreLogs(false));
     }
 
     /**
@@ -153,8 +165,8 @@ public class AdminNotificationLogsFragment extends Fragment {
 
                 @Override
                 public void onTextChanged(CharSequence s, int start, int before, int count) {
-                    adapter.filter(s.toString(), currentFilter);
-                    updateEmptyState();
+                    paging.resetAutoPages();
+                    adapter.filter(s.toString(), currentFilter, () -> onFilterApplied());
                 }
 
                 @Override
@@ -204,8 +216,8 @@ public class AdminNotificationLogsFragment extends Fragment {
             }
 
             // Apply filter
-            adapter.filter(etSearch.getText().toString(), currentFilter);
-            updateEmptyState();
+            paging.resetAutoPages();
+            adapter.filter(etSearch.getText().toString(), currentFilter, () -> onFilterApplied());
         };
 
         btnFilterAll.setOnClickListener(filterListener);
@@ -243,7 +255,9 @@ public class AdminNotificationLogsFragment extends Fragment {
     }
 
     /**
-     * Fetches all notification logs from Firestore through {@link AdminController}.
+     * Fetches the first page of notification logs (newest first) from Firestore through
+     * {@link AdminController}, discarding anything loaded before. Older logs are loaded
+     * by {@link #loadMoreLogs(boolean)} as the admin scrolls.
      *
      * <p>On success:</p>
      * <ul>
@@ -262,25 +276,60 @@ public class AdminNotificationLogsFragment extends Fragment {
      */
     private void loadLogs() {
         showLoading(true);
+        paging.restart();
+        paging.begin(false);
+        updateLoadMore();
+        loadLogsPage(true);
+    }
 
-        adminController.fetchNotificationLogs(new AdminController.DataCallback<List<NotificationLog>>() {
-            @Override
-            public void onSuccess(List<NotificationLog> logs) {
-                if (isAdded()) {
-                    showLoading(false);
-                    adapter.setLogs(logs);
-                    updateEmptyState();
+    /**
+     * Loads the next page of logs, unless one is already loading, the last page is in,
+     * or the screen asked on its own and {@link PagingState} has stopped automatic paging
+     * for the current search; the "load more" button then shows.
+     *
+     * @param auto true when asked after a page or a search, false when the admin scrolled
+     *             or tapped "load more"
+     */
+    private void loadMoreLogs(boolean auto) {
+        if (paging.begin(auto)) {
+            loadLogsPage(false);
+        }
+        updateLoadMore();
+    }
+
+    /**
+     * Fetches one page and appends it (or, for the first page, replaces the list), then
+     * re-applies the active search + filter. Results from before the latest
+     * {@link #loadLogs()} are dropped.
+     *
+     * @param first Whether this is the first page.
+     */
+    private void loadLogsPage(boolean first) {
+        final int generation = paging.generation();
 
-                    String message = logs.isEmpty() ?
-                            "No notification logs found" :
-                            "Loaded " + logs.size() + " logs";
-                    Toast.makeText(requireContext(), message, Toast.LENGTH_SHORT).show();
+        adminController.fetchNotificationLogsPage(paging.next(),
+                new AdminController.PagedDataCallback<List<NotificationLog>>() {
+            @Override
+            public void onPage(List<NotificationLog> logs, @Nullable AdminController.PageToken next) {
+                if (isAdded() && paging.isCurrent(generation)) {
+                    paging.onPage(next);
+                    if (first) {
+                        showLoading(false);
+                        adapter.setLogs(logs);
+                        if (logs.isEmpty()) {
+                            Toast.makeText(requireContext(), "No logs found", Toast.LENGTH_SHORT).show();
+                        }
+                    } else {
+                        adapter.addLogs(logs);
+                    }
+                    adapter.filter(etSearch.getText().toString(), currentFilter, () -> onFilterApplied());
                 }
             }
 
             @Override
             public void onError(Exception e) {
-                if (isAdded()) {
+                if (isAdded() && paging.isCurrent(generation)) {
+                    paging.onError();
                     showLoading(false);
                     Toast.makeText(requireContext(),
                             "Error loading logs: " + e.getMessage(),
@@ -291,6 +340,16 @@ public class AdminNotificationLogsFragment extends Fragment {
         });
     }
 
+    /**
+     * Runs once a filtered list is showing: updates the empty state and keeps paging while
+     * the matching logs don't fill the screen.
+     */
+    private void onFilterApplied() {
+        updateEmptyState();
+        updateLoadMore();
+        rvLogs.post(() -> pagedScroll.check(rvLogs));
+    }
+
     /**
      * Shows or hides the progress bar and toggles the RecyclerView visibility.
      *
@@ -304,6 +363,13 @@ public class AdminNotificationLogsFragment extends Fragment {
         rvLogs.setVisibility(show ? View.GONE : View.VISIBLE);
     }
 
+    /**
+     * Shows the "load more" button while automatic paging is stopped for the current search.
+     */
+    private void updateLoadMore() {
+        btnLoadMore.setVisibility(paging.isCapped() ? View.VISIBLE : View.GONE);
+    }
+
     /**
      * Toggles between the empty-state message and the RecyclerView depending on
      * whether the adapter currently contains any results after filtering.
@@ -313,4 +379,13 @@ public class AdminNotificationLogsFragment extends Fragment {
         layoutEmptyState.setVisibility(isEmpty ? View.VISIBLE : View.GONE);
         rvLogs.setVisibility(isEmpty ? View.GONE : View.VISIBLE);
     }
+
+    /**
+     * Cancels any search still pending in the adapter when the view is destroyed.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (adapter != null) adapter.cancelSearch();
+    }
 }
\ No newline at end of file
@@ -27,6 +27,8 @@ import com.example.ajilore.code.adapters.AdminUsersAdapter;
 import com.example.ajilore.code.controllers.AdminController;
 import com.example.ajilore.code.models.User;
 import com.example.ajilore.code.utils.DeleteDialogHelper;
+import com.example.ajilore.code.utils.PagedScrollListener;
+import com.example.ajilore.code.utils.PagingState;
 
 import java.util.List;
 
@@ -82,6 +84,11 @@ public class AdminProfilesFragment extends Fragment implements AdminUsersAdapter
     private AdminController adminController;
     private String currentFilter = "All"; // Default filter state
 
+    // Paging state
+    private PagedScrollListener pagedScroll;
+    private final PagingState<AdminController.PageToken> paging = new PagingState<>();
+    private Button btnLoadMore;
+
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
@@ -110,6 +117,7 @@ public class AdminProfilesFragment extends Fragment implements AdminUsersAdapter
 
     private void initializeViews(View view) {
         rvUsers = view.findViewById(R.id.rv_users);
+        btnLoadMore = view.findViewById(R.id.btn_load_more);
         etSearch = view.findViewById(R.id.et_search_users);
         layoutEmptyState = view.findViewById(R.id.layout_empty_state);
         progressBar = view.findViewById(R.id.progress_bar);
@@ -121,13 +129,16 @@ public class AdminProfilesFragment extends Fragment implements AdminUsersAdapter
      * Configures the RecyclerView used for displaying user profiles.
      *
      * <p>Initializes the {@link AdminUsersAdapter} with this fragment as its
-     * callback listener, applies a vertical layout manager, and attaches the
-     * adapter to the RecyclerView.</p>
+     * callback listener, applies a vertical layout manager, attaches the
+     * adapter to the RecyclerView, and loads the next page near the bottom.</p>
      */
     private void setupRecyclerView() {
         adapter = new AdminUsersAdapter(requireContext(), this);
         rvUsers.setAdapter(adapter);
         rvUsers.setLayoutManager(new LinearLayoutManager(requireContext()));
+        pagedScroll = new PagedScrollListener(this::loadMoreUsers);
+        rvUsers.addOnScrollListener(pagedScroll);
+        btnLoadMore.setOnClickListener(v -> loadMoreUsers(false));
     }
 
     /**
@@ -164,8 +175,8 @@ public class AdminProfilesFragment extends Fragment implements AdminUsersAdapter
 
                 @Override
                 public void onTextChanged(CharSequence s, int start, int before, int count) {
-                    adapter.filter(s.toString(), currentFilter);
-                    updateEmptyState();
+                    paging.resetAutoPages();
+                    adapter.filter(s.toString(), currentFilter, AdminProfilesFragment.this::onFilterApplied);
                 }
 
                 @Override public void afterTextChanged(Editable s) {}
@@ -183,14 +194,15 @@ public class AdminProfilesFragment extends Fragment implements AdminUsersAdapter
                     currentFilter = "Organizers";
                 }
                 // Apply both text query AND role filter
-                adapter.filter(etSearch.getText().toString(), currentFilter);
-                updateEmptyState();
+                paging.resetAutoPages();
+                adapter.filter(etSearch.getText().toString(), currentFilter, this::onFilterApplied);
             });
         }
     }
 
     /**
-     * Loads the full list of users from Firestore using {@link AdminController}.
+     * Loads the first page of users from Firestore using {@link AdminController},
+     * discarding anything loaded before (e.g. after a delete).
      *
      * <p>Once retrieved:</p>
      * <ul>
@@ -199,29 +211,64 @@ public class AdminProfilesFragment extends Fragment implements AdminUsersAdapter
      *     <li>Shows or hides the empty-state view</li>
      * </ul>
      *
-     * <p>Displays a loading spinner while data is being fetched.</p>
+     * <p>Displays a loading spinner while data is being fetched. Further pages are
+     * loaded by {@link #loadMoreUsers(boolean)} as the admin scrolls.</p>
      */
     private void loadUsers() {
         showLoading(true);
+        paging.restart();
+        paging.begin(false);
+        updateLoadMore();
+        loadUsersPage(true);
+    }
+
+    /**
+     * Loads the next page of users, unless one is already loading, the last page is in,
+     * or the screen asked on its own and {@link PagingState} has stopped automatic paging
+     * for the current search; the "load more" button then shows.
+     *
+     * @param auto true when asked after a page or a search, false when the admin scrolled
+     *             or tapped "load more"
+     */
+    private void loadMoreUsers(boolean auto) {
+        if (paging.begin(auto)) {
+            loadUsersPage(false);
+        }
+        updateLoadMore();
+    }
 
-        adminController.fetchAllUsers(new AdminController.DataCallback<List<User>>() {
+    /**
+     * Fetches one page and appends it (or, for the first page, replaces the list).
+     * Results from before the latest {@link #loadUsers()} are dropped.
+     *
+     * @param first Whether this is the first page.
+     */
+    private void loadUsersPage(boolean first) {
+        final int generation = paging.generation();
+
+        adminController.fetchUsersPage(paging.next(), new AdminController.PagedDataCallback<List<User>>() {
             @Override
-            public void onSuccess(List<User> users) {
+            public void onPage(List<User> users, @Nullable AdminController.PageToken next) {
                 // Safety check: Ensure fragment is still valid before updating UI
-                if (!isAdded()) return;
+                if (!isAdded() || !paging.isCurrent(generation)) return;
 
-                showLoading(false);
-                adapter.setUsers(users);
+                paging.onPage(next);
+                if (first) {
+                    showLoading(false);
+                    adapter.setUsers(users);
+                } else {
+                    adapter.addUsers(users);
+                }
 
                 // Re-apply current filters if any exist
-                adapter.filter(etSearch.getText().toString(), currentFilter);
-                updateEmptyState();
+                adapter.filter(etSearch.getText().toString(), currentFilter, AdminProfilesFragment.this::onFilterApplied);
             }
 
             @Override
             public void onError(Exception e) {
-                if (!isAdded()) return;
+                if (!isAdded() || !paging.isCurrent(generation)) return;
 
+                paging.onError();
                 showLoading(false);
                 Toast.makeText(requireContext(),
                         "Error loading users: " + e.getMessage(),
@@ -230,6 +277,16 @@ public class AdminProfilesFragment extends Fragment implements AdminUsersAdapter
         });
     }
 
+    /**
+     * Runs once a filtered list is showing: updates the empty state and keeps paging while
+     * the matching rows don't fill the screen.
+     */
+    private void onFilterApplied() {
+        updateEmptyState();
+        updateLoadMore();
+        rvUsers.post(() -> pagedScroll.check(rvUsers));
+    }
+
     /**
      * Handles taps on individual user rows.
      *
@@ -415,6 +472,13 @@ public class AdminProfilesFragment extends Fragment implements AdminUsersAdapter
         rvUsers.setVisibility(show ? View.GONE : View.VISIBLE);
     }
 
+    /**
+     * Shows the "load more" button while automatic paging is stopped for the current search.
+     */
+    private void updateLoadMore() {
+        btnLoadMore.setVisibility(paging.isCapped() ? View.VISIBLE : View.GONE);
+    }
+
     /**
      * Updates the visibility of the empty-state layout depending on whether the
      * adapter currently has items to display after filtering.
@@ -424,4 +488,13 @@ public class AdminProfilesFragment extends Fragment implements AdminUsersAdapter
         layoutEmptyState.setVisibility(isEmpty ? View.VISIBLE : View.GONE);
         rvUsers.setVisibility(isEmpty ? View.GONE : View.VISIBLE);
     }
+
+    /**
+     * Cancels any search still pending in the adapter when the view is destroyed.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (adapter != null) adapter.cancelSearch();
+    }
 }
\ No newline at end of file
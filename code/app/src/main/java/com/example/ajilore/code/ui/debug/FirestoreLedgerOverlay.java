@@ -0,0 +1,125 @@
+package com.example.ajilore.code.ui.debug;
+
+import android.app.Activity;
+import android.content.pm.ApplicationInfo;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.data.FirestoreLedger;
+import com.example.ajilore.code.data.TrackedFirestore;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * FirestoreLedgerOverlay
+ *
+ * Purpose: Small translucent panel, in debuggable builds only, showing the most expensive
+ * Firestore callers from {@link FirestoreLedger} with their reads, writes, open listeners
+ * and p90 latency. Tap it to collapse or expand; long-press to write the JSON dump to
+ * logcat and reset the totals, e.g. before measuring one screen.
+ *
+ * Pattern: Attached to the activity's content view and refreshed once a second on the
+ * main thread while the activity is started.
+ */
+public final class FirestoreLedgerOverlay {
+
+    private static final long REFRESH_MS = 1000;
+    private static final int TOP_CALLERS = 5;
+
+    private final TextView view;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private boolean collapsed;
+    private boolean running;
+
+    private final Runnable refresh = new Runnable() {
+        @Override
+        public void run() {
+            render();
+            if (running) main.postDelayed(this, REFRESH_MS);
+        }
+    };
+
+    private FirestoreLedgerOverlay(@NonNull Activity activity) {
+        view = new TextView(activity);
+        view.setTextSize(TypedValue.COMPLEX_UNIT_SP, 10);
+        view.setTypeface(android.graphics.Typeface.MONOSPACE);
+        view.setTextColor(Color.WHITE);
+        view.setBackgroundColor(0xAA000000);
+        int pad = Math.round(4 * activity.getResources().getDisplayMetrics().density);
+        view.setPadding(pad, pad, pad, pad);
+        view.setOnClickListener(v -> {
+            collapsed = !collapsed;
+            render();
+        });
+        view.setOnLongClickListener(v -> {
+            TrackedFirestore.dump("overlay");
+            FirestoreLedger.shared().reset();
+            Toast.makeText(v.getContext(), "Firestore ledger dumped to logcat and reset",
+                    Toast.LENGTH_SHORT).show();
+            render();
+            return true;
+        });
+
+        FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT,
+                Gravity.TOP | Gravity.END);
+        ViewGroup content = activity.findViewById(android.R.id.content);
+        content.addView(view, lp);
+    }
+
+    /**
+     * Adds the overlay to an activity if the app is debuggable.
+     *
+     * @param activity activity whose content view hosts the overlay
+     * @return the overlay, or null in release builds
+     */
+    @Nullable
+    public static FirestoreLedgerOverlay install(@NonNull Activity activity) {
+        if ((activity.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) return null;
+        return new FirestoreLedgerOverlay(activity);
+    }
+
+    /** Starts refreshing; call from {@code onStart}. */
+    public void start() {
+        if (running) return;
+        running = true;
+        main.post(refresh);
+    }
+
+    /** Stops refreshing; call from {@code onStop}. */
+    public void stop() {
+        running = false;
+        main.removeCallbacks(refresh);
+    }
+
+    private void render() {
+        List<FirestoreLedger.Stats> stats = FirestoreLedger.shared().snapshot();
+        long reads = 0, writes = 0, listeners = 0;
+        for (FirestoreLedger.Stats s : stats) {
+            reads += s.reads;
+            writes += s.writes;
+            listeners += s.listeners;
+        }
+        StringBuilder sb = new StringBuilder(String.format(Locale.US,
+                "Firestore  R %d  W %d  L %d", reads, writes, listeners));
+        if (!collapsed) {
+            for (int i = 0; i < Math.min(TOP_CALLERS, stats.size()); i++) {
+                FirestoreLedger.Stats s = stats.get(i);
+                sb.append(String.format(Locale.US, "\n%s  R%d W%d L%d p90 %dms",
+                        s.tag, s.reads, s.writes, s.listeners, s.p90Ms));
+            }
+        }
+        view.setText(sb);
+    }
+}
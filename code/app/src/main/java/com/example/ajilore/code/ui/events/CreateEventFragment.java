@@ -10,6 +10,7 @@ import android.os.Bundle;
 
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
@@ -30,10 +31,12 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import com.bumptech.glide.Glide;
-import com.cloudinary.android.MediaManager;
-import com.cloudinary.android.callback.ErrorInfo;
-import com.cloudinary.android.callback.UploadCallback;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.EventFilterQuery;
+import com.example.ajilore.code.data.FirestoreDocumentStore;
+import com.example.ajilore.code.data.ImageIndex;
+import com.example.ajilore.code.images.MediaPipeline;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 import com.google.android.material.textfield.MaterialAutoCompleteTextView;
 import com.google.android.material.textfield.TextInputEditText;
@@ -55,10 +58,8 @@ import java.util.Calendar;
 import java.text.DateFormat;
 import java.util.Date;
 import java.util.Map;
-import java.util.function.Consumer;
+import java.util.function.BiConsumer;
 
-import com.cloudinary.android.callback.ErrorInfo;
-import com.cloudinary.android.callback.UploadCallback;
 import android.net.Uri;
 
 /**
@@ -505,10 +506,11 @@ public class CreateEventFragment extends Fragment {
         boolean geoRequired = geolocationSwitch != null &&geolocationSwitch.isChecked();
 
 
-        Consumer<String> saveEventWithPosterUrl = (posterUrl) -> {
+        BiConsumer<String, Long> saveEventWithPosterUrl = (posterUrl, posterBytes) -> {
             Map<String, Object> event = new HashMap<>();
             event.put("title", title);
             event.put("type", eventType);
+            event.put(EventFilterQuery.FIELD_TYPE_KEY, EventFilterQuery.typeKey(eventType));
             event.put("location", location);
             if (finalCapacityVal != null){
             event.put("capacity", finalCapacityVal);
@@ -536,6 +538,9 @@ public class CreateEventFragment extends Fragment {
                 event.put("createdByUid", deviceId);
                 db.collection("org_events").add(event)
                         .addOnSuccessListener(ref -> {
+                            if (posterUrl != null) {
+                                recordPoster(ref.getId(), title, posterUrl, posterBytes);
+                            }
                             //role change to organiser
                             db.collection("users")
                                     .document(deviceId)
@@ -558,6 +563,9 @@ public class CreateEventFragment extends Fragment {
                 db.collection("org_events").document(eventId)
                         .update(event)
                         .addOnSuccessListener(ref -> {
+                            if (posterUrl != null) {
+                                recordPoster(eventId, title, posterUrl, posterBytes);
+                            }
                             btnSave.setEnabled(true);
                             Toast.makeText(requireContext(), "Event updated!", Toast.LENGTH_SHORT).show();
                             requireActivity().getSupportFragmentManager().popBackStack();
@@ -575,7 +583,7 @@ public class CreateEventFragment extends Fragment {
         if (pickedPosterUri != null) {
             uploadToCloudinary(pickedPosterUri, saveEventWithPosterUrl);
         } else {
-            saveEventWithPosterUrl.accept(null);
+            saveEventWithPosterUrl.accept(null, 0L);
         }
         Log.d("CreateEventFragment", "Validation passed, starting upload or save");
                 })
@@ -587,41 +595,60 @@ public class CreateEventFragment extends Fragment {
                 });
     }
     /**
-     * Uploads an image to Cloudinary and calls a consumer with the resulting URL.
-     * @param imageUri The picked image's URI.
-     * @param onUrlReady Consumer called with an HTTPS Cloudinary URL on success.
+     * Adds the uploaded poster to the {@code images} index used by the admin gallery.
+     * Failures are only logged; the event itself is already saved.
+     * @param eventId The event the poster belongs to.
+     * @param title The event title shown under the image.
+     * @param posterUrl The uploaded poster's URL.
+     * @param posterBytes Uploaded size in bytes, or 0 if unknown.
      */
-   private void uploadToCloudinary(Uri imageUri, Consumer<String> onUrlReady){
-       MediaManager.get().upload(imageUri)
-               .callback(new UploadCallback() {
-                   @Override
-                   public void onStart(String requestId) {
-                       Log.d("Cloudinary", "Started image upload: " + requestId);
-                   }
-                   @Override
-                   public void onProgress(String requestId, long bytes, long totalBytes) {}
-                   @Override
-                   public void onSuccess(String requestId, Map resultData) {
-                       String url = (String) resultData.get("secure_url");
-                       Log.d("Cloudinary", "Uploaded image URL: " + url);
-                       // Pass the URL to a callback for further use (e.g., save posterUrl to Firestore).
-                       onUrlReady.accept(url);
-                   }
-                   @Override
-                   public void onError(String requestId, ErrorInfo error) {
-                       Log.e("Cloudinary", "Upload error: " + error.getDescription());
-                       // Optionally show a toast or handle UI here.
-                       Toast.makeText(getContext(), "Upload failed: " + error.getDescription(), Toast.LENGTH_SHORT).show();
-                   }
-                   @Override
-                   public void onReschedule(String requestId, ErrorInfo error) {}
-               })
-               .dispatch();
-   }
-
-
+    private void recordPoster(String eventId, String title, String posterUrl, Long posterBytes) {
+        new ImageIndex(FirestoreDocumentStore.tracked(db, "CreateEventFragment.recordImage")).record(
+                ImageIndex.TYPE_EVENT, eventId, title, posterUrl,
+                posterBytes != null ? posterBytes : 0L,
+                new DocumentStore.ResultCallback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {}
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e("CreateEvent", "Failed to index poster: " + e.getMessage());
+                    }
+                });
+    }
 
+    /**
+     * Shrinks the picked image, uploads it to Cloudinary and calls a consumer with the
+     * resulting URL and its size. Upload progress is shown on the save button.
+     * @param imageUri The picked image's URI.
+     * @param onUrlReady Called with an HTTPS Cloudinary URL and the uploaded size in bytes on success.
+     */
+    private void uploadToCloudinary(Uri imageUri, BiConsumer<String, Long> onUrlReady) {
+        final CharSequence saveLabel = btnSave.getText();
+        MediaPipeline.upload(requireContext(), imageUri, MediaPipeline.Preset.POSTER, new MediaPipeline.Listener() {
+            @Override
+            public void onProgress(int percent) {
+                if (isAdded()) btnSave.setText("Uploading… " + percent + "%");
+            }
 
+            @Override
+            public void onSuccess(@NonNull String url, long bytes) {
+                Log.d("Cloudinary", "Uploaded image URL: " + url);
+                if (!isAdded()) return;
+                btnSave.setText(saveLabel);
+                // Pass the URL to a callback for further use (e.g., save posterUrl to Firestore).
+                onUrlReady.accept(url, bytes);
+            }
 
+            @Override
+            public void onError(@NonNull String message) {
+                Log.e("Cloudinary", "Upload error: " + message);
+                if (!isAdded()) return;
+                btnSave.setText(saveLabel);
+                btnSave.setEnabled(true);
+                Toast.makeText(getContext(), "Upload failed: " + message, Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
 
 }
\ No newline at end of file
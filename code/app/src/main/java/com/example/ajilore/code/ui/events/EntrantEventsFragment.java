@@ -14,24 +14,22 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.data.CatalogEvent;
+import com.example.ajilore.code.data.EventCatalog;
+import com.example.ajilore.code.images.Images;
 import com.example.ajilore.code.ui.events.list.EventRow;
 import com.example.ajilore.code.ui.events.list.UserEventsAdapter;
-import com.google.firebase.Timestamp;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.FirebaseFirestoreException;
-import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.QuerySnapshot;
-
-import java.text.DateFormat;
-import java.util.ArrayList;
-import java.util.Date;
+import com.example.ajilore.code.utils.DateLabels;
+import com.example.ajilore.code.utils.RowProjector;
+import com.google.firebase.firestore.ListenerRegistration;
+
 import java.util.List;
 
 /**
  * Fragment for entrants to view all available events in a scrollable list.
- * Events are fetched live from Firestore and shown in chronological order.
+ * Events come from the on-device {@link EventCatalog} and are shown in chronological order.
  */
 public class EntrantEventsFragment extends Fragment {
 
@@ -39,8 +37,8 @@ public class EntrantEventsFragment extends Fragment {
     private ProgressBar progressBar;
     private TextView tvEmptyState;
     private UserEventsAdapter adapter;
-    private final List<EventRow> eventsList = new ArrayList<>();
-    private FirebaseFirestore db;
+    private RowProjector<CatalogEvent, EventRow> rows;
+    private ListenerRegistration catalogListener;
 
     private String currentUserId = "user_temp_id"; // TODO: Replace with actual user ID
 
@@ -69,7 +67,6 @@ public class EntrantEventsFragment extends Fragment {
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        db = FirebaseFirestore.getInstance();
 
         rvEvents = view.findViewById(R.id.rvEntrantEvents);
         progressBar = view.findViewById(R.id.progressBar);
@@ -78,69 +75,92 @@ public class EntrantEventsFragment extends Fragment {
         rvEvents.setLayoutManager(new LinearLayoutManager(requireContext()));
         adapter = new UserEventsAdapter(R.layout.item_event, this::onEventClick);
         rvEvents.setAdapter(adapter);
+        Images.preloadThumbnails(rvEvents, Glide.with(this), R.id.ivPoster, adapter::posterUrlAt);
+        rows = RowProjector.toMainThread(this::toEventRow);
 
         loadAvailableEvents();
     }
 
     /**
-     * Loads all available events from Firestore and updates the list UI.
+     * Subscribes to the event catalog and updates the list UI.
      * Shows or hides a progress bar and "empty" message as appropriate.
+     * Stored events show immediately; rows are built on a background thread and only
+     * changed events are re-mapped afterwards.
      */
     private void loadAvailableEvents() {
         progressBar.setVisibility(View.VISIBLE);
         tvEmptyState.setVisibility(View.GONE);
 
-        Query query = db.collection("org_events")
-                .orderBy("startsAt", Query.Direction.ASCENDING);
-
-        query.addSnapshotListener((QuerySnapshot snapshot, FirebaseFirestoreException e) -> {
-            progressBar.setVisibility(View.GONE);
+        catalogListener = EventCatalog.shared(requireContext()).subscribe(new EventCatalog.Listener() {
+            @Override
+            public void onCatalog(@NonNull List<CatalogEvent> events) {
+                if (!isAdded()) return;
+                rows.submit(events, mapped -> {
+                    if (!isAdded()) return;
+                    progressBar.setVisibility(View.GONE);
+                    onEventsChanged(mapped);
+                });
+            }
 
-            if (e != null) {
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (!isAdded()) return;
+                progressBar.setVisibility(View.GONE);
                 Toast.makeText(requireContext(),
                         "Failed to load events: " + e.getMessage(),
                         Toast.LENGTH_LONG).show();
-                return;
             }
+        });
+    }
 
-            List<EventRow> newList = new ArrayList<>();
-            if (snapshot != null && !snapshot.isEmpty()) {
-                Date now = new Date();
-                for (DocumentSnapshot doc : snapshot.getDocuments()) {
-                    String eventId = doc.getId();
-                    String title = doc.getString("title");
-                    String location = doc.getString("location");
-                    String status = doc.getString("status");
-                    Timestamp startsAt = doc.getTimestamp("startsAt");
-                    String posterUrl = doc.getString("posterUrl");
-
-                    // Format date
-                    String dateText = (startsAt != null)
-                            ? DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.SHORT)
-                            .format(startsAt.toDate())
-                            : "Date TBA";
-
-                    newList.add(new EventRow(
-                            eventId,
-                            title != null ? title : "Untitled Event",
-                            location != null ? location : "TBA",
-                            dateText,
-                            mapPoster(posterUrl),  // fallback resource
-                            posterUrl,             // Cloudinary URL or null
-                            status != null ? status : ""
-                    ));
-                }
-            }
+    /**
+     * Hands the latest rows to the adapter and toggles the empty state.
+     *
+     * @param rows every event row, in start-time order
+     */
+    private void onEventsChanged(List<EventRow> rows) {
+        adapter.replaceAll(rows);
 
-            eventsList.clear();
-            eventsList.addAll(newList);
-            adapter.replaceAll(eventsList);
+        tvEmptyState.setVisibility(rows.isEmpty() ? View.VISIBLE : View.GONE);
+        if (rows.isEmpty()) {
+            tvEmptyState.setText("No events available at the moment");
+        }
+    }
 
-            tvEmptyState.setVisibility(eventsList.isEmpty() ? View.VISIBLE : View.GONE);
-            if (eventsList.isEmpty()) {
-                tvEmptyState.setText("No events available at the moment");
-            }
-        });
+    /**
+     * Builds the list row for one catalog event. Runs on the projection thread.
+     *
+     * @param event stored event
+     * @return row for the feed
+     */
+    private EventRow toEventRow(CatalogEvent event) {
+        // Format date
+        String dateText = (event.startsAt != 0)
+                ? DateLabels.dateTime(event.startsAt)
+                : "Date TBA";
+
+        return new EventRow(
+                event.id,
+                event.title != null ? event.title : "Untitled Event",
+                event.location != null ? event.location : "TBA",
+                dateText,
+                mapPoster(event.posterUrl),  // fallback resource
+                event.posterUrl,             // Cloudinary URL or null
+                event.status != null ? event.status : ""
+        );
+    }
+
+    /**
+     * Unsubscribes from the catalog when the view goes away.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (catalogListener != null) {
+            catalogListener.remove();
+            catalogListener = null;
+        }
+        rows.cancel();
     }
 
     /**
@@ -24,6 +24,11 @@ import androidx.fragment.app.Fragment;
 import com.bumptech.glide.Glide;
 import com.example.ajilore.code.MainActivity;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.data.EventStats;
+import com.example.ajilore.code.data.EventStatsRepository;
+import com.example.ajilore.code.data.TrackedFirestore;
+import com.example.ajilore.code.services.WaitingListService;
+import com.example.ajilore.code.utils.GeoHash;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.location.Priority;
@@ -31,13 +36,11 @@ import com.google.android.material.button.MaterialButton;
 import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.SetOptions;
 
 import java.text.DateFormat;
@@ -205,9 +208,9 @@ public class EventDetailsFragment extends Fragment {
     private void loadEventDetails() {
         progressBar.setVisibility(View.VISIBLE);
 
-        eventListener = db.collection("org_events")
-                .document(eventId)
-                .addSnapshotListener((DocumentSnapshot doc, FirebaseFirestoreException e) -> {
+        eventListener = TrackedFirestore.listen("EventDetailsFragment.loadEventDetails",
+                db.collection("org_events").document(eventId),
+                (DocumentSnapshot doc, FirebaseFirestoreException e) -> {
                     progressBar.setVisibility(View.GONE);
 
                     if (e != null) {
@@ -299,11 +302,9 @@ public class EventDetailsFragment extends Fragment {
      * Checks if the current user is on the waiting list and updates the button.
      */
     private void checkWaitingListStatus() {
-        waitingListStatusListener = db.collection("org_events")
-                .document(eventId)
-                .collection("waiting_list")
-                .document(userId)
-                .addSnapshotListener((DocumentSnapshot doc, FirebaseFirestoreException e) -> {
+        waitingListStatusListener = TrackedFirestore.listen("EventDetailsFragment.checkWaitingListStatus",
+                db.collection("org_events").document(eventId).collection("waiting_list").document(userId),
+                (DocumentSnapshot doc, FirebaseFirestoreException e) -> {
                     if (e != null) {
                         if (isAdded()) {
                             Toast.makeText(requireContext(),
@@ -345,47 +346,37 @@ public class EventDetailsFragment extends Fragment {
 
     /**
      * Loads and updates the displayed waiting list count.
+     * Reads the event's stats document through {@link EventStatsRepository}
+     * instead of downloading the whole waiting list.
      */
     private void loadWaitingListCount() {
-        waitingListCountListener = db.collection("org_events")
-                .document(eventId)
-                .collection("waiting_list")
-                .addSnapshotListener((QuerySnapshot snapshot, FirebaseFirestoreException e) -> {
-                    if (e != null) {
-                        if (isAdded()) {
-                            Toast.makeText(requireContext(),
-                                    "Error loading waiting list count",
-                                    Toast.LENGTH_SHORT).show();
-                        }
-                        return;
-                    }
-
-                    if (snapshot != null) {
-                        int count = 0;
-                        for (DocumentSnapshot d : snapshot.getDocuments()) {
-                            String status    = d.getString("status");
-                            String responded = d.getString("responded");
-
-                            boolean cancelled = "cancelled".equalsIgnoreCase(status)
-                                    || "declined".equalsIgnoreCase(responded);
-
-                            if (!cancelled) {
-                                count++;
-                            }
-                        }
-
-                        waitingListCount = count;
-
-                        isCapacityFull = (capacity > 0 && waitingListCount >= capacity);
-                        if(capacity > 0){
+        if (waitingListCountListener != null) {
+            waitingListCountListener.remove();
+        }
+        waitingListCountListener = new EventStatsRepository(db).listen(eventId,
+                new EventStatsRepository.StatsListener() {
+                    @Override
+                    public void onStats(@NonNull EventStats stats) {
+                        if (!isAdded()) return;
+                        waitingListCount = (int) stats.active;
+
+                        isCapacityFull = stats.isFull(capacity);
+                        if (capacity > 0) {
                             tvWaitingListCount.setText("Waiting List: " + waitingListCount + "/" + capacity);
-                        }else{
+                        } else {
                             tvWaitingListCount.setText("Waiting List: " + waitingListCount);
                         }
-                        //tvWaitingListCount.setText("Waiting List: " + waitingListCount + "/" + capacity);
                         layoutWaitingListInfo.setVisibility(View.VISIBLE);
                     }
 
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        if (isAdded()) {
+                            Toast.makeText(requireContext(),
+                                    "Error loading waiting list count",
+                                    Toast.LENGTH_SHORT).show();
+                        }
+                    }
                 });
     }
 
@@ -430,9 +421,7 @@ public class EventDetailsFragment extends Fragment {
     private void joinWaitingList() {
 
         // Check user's location preference from Firestore
-        db.collection("users")
-                .document(userId)
-                .get()
+        TrackedFirestore.get("EventDetailsFragment.joinWaitingList", db.collection("users").document(userId))
                 .addOnSuccessListener(userDoc -> {
 
                     boolean allowLocation = false;
@@ -489,57 +478,39 @@ public class EventDetailsFragment extends Fragment {
      * Removes the current user from the event's waiting list in Firestore.
      */
     private void leaveWaitingList() {
-        DocumentReference ref = db.collection("org_events")
-                .document(eventId)
-                .collection("waiting_list")
-                .document(userId);
-
-        // First see if this user currently has a spot (chosen/selected)
-        ref.get().addOnSuccessListener(doc -> {
-            String status    = doc != null ? doc.getString("status") : null;
-            String responded = doc != null ? doc.getString("responded") : null;
-
-            boolean hadSpot = "chosen".equalsIgnoreCase(status)
-                    || ("selected".equalsIgnoreCase(status)
-                    && "accepted".equalsIgnoreCase(responded));
-
-            ref.delete()
-                    .addOnSuccessListener(aVoid -> {
-                        if (isAdded()) {
-                            Toast.makeText(requireContext(),
-                                    "Successfully left waiting list",
-                                    Toast.LENGTH_SHORT).show();
-                        }
+        // Deletes the entry and frees its capacity shard in one transaction
+        new WaitingListService(db).leave(eventId, userId, new WaitingListService.ReleaseCallback() {
+            @Override
+            public void onReleased(boolean hadSpot) {
+                if (isAdded()) {
+                    Toast.makeText(requireContext(),
+                            "Successfully left waiting list",
+                            Toast.LENGTH_SHORT).show();
+
+                    //  Only draw a replacement if they actually had a spot
+                    if (hadSpot) {
+                        SelectEntrantsFragment.drawReplacementsFromWaitingList(
+                                db,
+                                requireContext(),
+                                eventId,
+                                eventTitle,
+                                1
+                        );
+                    }
+                }
 
-                        //  Only draw a replacement if they actually had a spot
-                        if (hadSpot) {
-                            SelectEntrantsFragment.drawReplacementsFromWaitingList(
-                                    db,
-                                    requireContext(),
-                                    eventId,
-                                    eventTitle,
-                                    1
-                            );
-                        }
+                btnJoinLeave.setEnabled(true);
+            }
 
-                        btnJoinLeave.setEnabled(true);
-                    })
-                    .addOnFailureListener(e -> {
-                        if (isAdded()) {
-                            Toast.makeText(requireContext(),
-                                    "Failed to leave: " + e.getMessage(),
-                                    Toast.LENGTH_LONG).show();
-                        }
-                        btnJoinLeave.setEnabled(true);
-                    });
-
-        }).addOnFailureListener(e -> {
-            if (isAdded()) {
-                Toast.makeText(requireContext(),
-                        "Failed to check waiting list: " + e.getMessage(),
-                        Toast.LENGTH_LONG).show();
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (isAdded()) {
+                    Toast.makeText(requireContext(),
+                            "Failed to leave: " + e.getMessage(),
+                            Toast.LENGTH_LONG).show();
+                }
+                btnJoinLeave.setEnabled(true);
             }
-            btnJoinLeave.setEnabled(true);
         });
     }
 
@@ -717,49 +688,44 @@ public class EventDetailsFragment extends Fragment {
         btnAcceptSpot.setEnabled(false);
         btnDecline.setEnabled(false);
 
-        DocumentReference ref = db.collection("org_events")
-                .document(eventId)
-                .collection("waiting_list")
-                .document(userId);
-
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("responded", accepted ? "accepted" : "declined");
-        updates.put("responseAt", FieldValue.serverTimestamp());
-        updates.put("status", accepted ? "selected" : "cancelled");
-
-        ref.set(updates, SetOptions.merge())
-                .addOnSuccessListener(aVoid -> {
-                    if (!isAdded()) return;
-
-                    Toast.makeText(
+        // Declining frees the entrant's capacity shard in the same transaction
+        new WaitingListService(db).respond(eventId, userId, accepted, new WaitingListService.ReleaseCallback() {
+            @Override
+            public void onReleased(boolean hadSpot) {
+                if (!isAdded()) return;
+
+                Toast.makeText(
+                        requireContext(),
+                        accepted ? "You accepted your spot 🎉" : "You declined this spot",
+                        Toast.LENGTH_SHORT
+                ).show();
+
+                // If they declined, free the spot and draw 1 replacement
+                if (!accepted) {
+                    SelectEntrantsFragment.drawReplacementsFromWaitingList(
+                            db,
                             requireContext(),
-                            accepted ? "You accepted your spot 🎉" : "You declined this spot",
-                            Toast.LENGTH_SHORT
-                    ).show();
+                            eventId,
+                            eventTitle,
+                            1
+                    );
+                }
+            }
 
-                    // If they declined, free the spot and draw 1 replacement
-                    if (!accepted) {
-                        SelectEntrantsFragment.drawReplacementsFromWaitingList(
-                                db,
-                                requireContext(),
-                                eventId,
-                                eventTitle,
-                                1
-                        );
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    if (!isAdded()) return;
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (!isAdded()) return;
 
-                    btnAcceptSpot.setEnabled(true);
-                    btnDecline.setEnabled(true);
+                btnAcceptSpot.setEnabled(true);
+                btnDecline.setEnabled(true);
 
-                    Toast.makeText(
-                            requireContext(),
-                            "Failed to update response: " + e.getMessage(),
-                            Toast.LENGTH_LONG
-                    ).show();
-                });
+                Toast.makeText(
+                        requireContext(),
+                        "Failed to update response: " + e.getMessage(),
+                        Toast.LENGTH_LONG
+                ).show();
+            }
+        });
     }
 
 
@@ -782,7 +748,8 @@ public class EventDetailsFragment extends Fragment {
                                           @NonNull String eventTitle) {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
 
-        db.collection("org_events").document(eventId).get().addOnSuccessListener(eventDoc -> {
+        TrackedFirestore.get("EventDetailsFragment.logRegistrationToHistory",
+                db.collection("org_events").document(eventId)).addOnSuccessListener(eventDoc -> {
                     if (!eventDoc.exists()) return;
 
                     Map<String, Object> reg = new HashMap<>();
@@ -814,55 +781,89 @@ public class EventDetailsFragment extends Fragment {
     /**
      * Saves a waiting list entry for the current user including their location.
      * <p>
-     * Creates or updates the document under
+     * Joins through {@link WaitingListService}, which checks the registration window and
+     * capacity in a transaction before writing
      * {@code org_events/{eventId}/waiting_list/{userId}} with join time,
-     * waiting status, and latitude/longitude, and logs the registration to history.
+     * waiting status, latitude/longitude, and the point's geohash so regional queries
+     * ({@link com.example.ajilore.code.data.EntrantGeoRepository}) read only the
+     * entrants in an area.
      *
      * @param lat latitude of the user's location at join time
      * @param lng longitude of the user's location at join time
      */
     private void saveWaitingListEntryWithLocation(double lat, double lng) {
-        DocumentReference ref = db.collection("org_events")
-                .document(eventId)
-                .collection("waiting_list")
-                .document(userId);
-
         Map<String, Object> entrant = new HashMap<>();
         entrant.put("userId", userId);
-        entrant.put("joinedAt", FieldValue.serverTimestamp());
         entrant.put("status", "waiting");
         entrant.put("latitude", lat);
         entrant.put("longitude", lng);
+        entrant.put("geohash", GeoHash.encode(lat, lng, GeoHash.ENTRY_PRECISION));
 
-        logRegistrationToHistory(userId, eventId, eventTitle);
-
-        ref.set(entrant);
+        joinWithCapacityCheck(entrant);
     }
 
 
     /**
      * Saves a waiting list entry for the current user without any location data.
      * <p>
-     * Creates or updates the document under
+     * Joins through {@link WaitingListService}, which checks the registration window and
+     * capacity in a transaction before writing
      * {@code org_events/{eventId}/waiting_list/{userId}} with join time
-     * and waiting status only, and logs the registration to history.
+     * and waiting status only.
      */
     private void saveWaitingListEntryWithoutLocation() {
-        DocumentReference ref = db.collection("org_events")
-                .document(eventId)
-                .collection("waiting_list")
-                .document(userId);
-
         Map<String, Object> entrant = new HashMap<>();
         entrant.put("userId", userId);
-        entrant.put("joinedAt", FieldValue.serverTimestamp());
         entrant.put("status", "waiting");
 
-        logRegistrationToHistory(userId, eventId, eventTitle);
+        joinWithCapacityCheck(entrant);
+    }
+
+    /**
+     * Runs the transactional join and reports the typed result to the user.
+     * Registration history is only logged once the entrant is actually on the list.
+     *
+     * @param entrant fields for the waiting_list entry
+     */
+    private void joinWithCapacityCheck(@NonNull Map<String, Object> entrant) {
+        new WaitingListService(db).join(eventId, userId, entrant, new WaitingListService.JoinCallback() {
+            @Override
+            public void onResult(@NonNull WaitingListService.JoinResult result) {
+                switch (result) {
+                    case JOINED:
+                    case ALREADY_JOINED:
+                        logRegistrationToHistory(userId, eventId, eventTitle != null ? eventTitle : "");
+                        break;
+                    case FULL:
+                        isCapacityFull = true;
+                        if (isAdded()) {
+                            Toast.makeText(requireContext(),
+                                    "Sorry, this event is full",
+                                    Toast.LENGTH_SHORT).show();
+                        }
+                        break;
+                    case CLOSED:
+                        if (isAdded()) {
+                            Toast.makeText(requireContext(),
+                                    "Registration is not currently open",
+                                    Toast.LENGTH_SHORT).show();
+                        }
+                        break;
+                }
+                if (isAdded()) updateJoinLeaveButton();
+            }
 
-        ref.set(entrant);
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (isAdded()) {
+                    Toast.makeText(requireContext(),
+                            "Failed to join: " + e.getMessage(),
+                            Toast.LENGTH_LONG).show();
+                    btnJoinLeave.setEnabled(true);
+                }
+            }
+        });
     }
 
 
 }
-
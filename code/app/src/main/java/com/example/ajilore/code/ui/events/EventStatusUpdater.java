@@ -12,6 +12,12 @@ public class EventStatusUpdater {
         this.functions = FirebaseFunctions.getInstance();
     }
 
+    /**
+     * Asks the server to apply the status transitions that are due. Only events whose
+     * registration window changed state since the last run are read and written.
+     *
+     * @param listener notified when the call finishes, or null
+     */
     public void updateAllEventStatuses(OnUpdateCompleteListener listener) {
         functions
                 .getHttpsCallable("manualUpdateStatuses")
@@ -1,6 +1,8 @@
 package com.example.ajilore.code.ui.events;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -15,35 +17,40 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.data.CatalogEvent;
+import com.example.ajilore.code.data.EventCatalog;
+import com.example.ajilore.code.data.EventFilterQuery;
+import com.example.ajilore.code.images.Images;
+import com.example.ajilore.code.services.EventStatusEngine;
 import com.example.ajilore.code.ui.events.list.EventRow;
+import com.example.ajilore.code.ui.events.list.EventRowOrder;
 import com.example.ajilore.code.ui.events.list.UserEventsAdapter;
+import com.example.ajilore.code.utils.DateLabels;
+import com.example.ajilore.code.utils.RowProjector;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
-import com.google.firebase.Timestamp;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.FirebaseFirestoreException;
-import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.QuerySnapshot;
-
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import com.google.firebase.firestore.ListenerRegistration;
+
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collections;
-import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 /**
  * US 01.01.04: Fragment for displaying and filtering events
- * Events are fetched live from Firestore and can be filtered by:
+ * Events come from the on-device {@link EventCatalog}, which renders stored events
+ * immediately and then applies server changes. Filters are sent to Firestore as an
+ * {@link EventFilterQuery}, so only matching events are read. They can be filtered by:
  * - Date range
  * - Location
  * - Category
  * - Availability
  *
- * Also provides sorting by status (Open -> Published -> Closed)
+ * Also provides sorting by status (Open -> Published -> Closed). Status labels depend on
+ * the time, so an {@link EventStatusEngine} wakes the list at the next registration
+ * window change and only the rows whose label flipped are rebuilt.
  */
 public class EventsFragment extends Fragment implements FilterEventsDialogFragment.OnFiltersAppliedListener {
 
@@ -51,9 +58,15 @@ public class EventsFragment extends Fragment implements FilterEventsDialogFragme
     private ProgressBar progress;
     private TextView emptyView;
     private UserEventsAdapter adapter;
-    private FirebaseFirestore db;
 
     private List<EventRow> allEvents = new ArrayList<>();
+    private RowProjector<CatalogEvent, EventRow> rows;
+    /** Latest catalog listing, kept to rebuild rows when a status label flips. */
+    private List<CatalogEvent> lastEvents = Collections.emptyList();
+    private final EventStatusEngine statuses = new EventStatusEngine(System::currentTimeMillis);
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final Runnable statusTick = this::onStatusTransition;
+    private ListenerRegistration catalogListener;
     private FilterEventsDialogFragment.EventFilters currentFilters;
     private FloatingActionButton btnFilter;
     private ImageButton btnScanQr;
@@ -74,8 +87,6 @@ public class EventsFragment extends Fragment implements FilterEventsDialogFragme
 
         android.util.Log.d("EventsFragment", "=== Fragment loaded ===");
 
-        db = FirebaseFirestore.getInstance();
-
         // Get device ID
         deviceId = android.provider.Settings.Secure.getString(
                 requireContext().getContentResolver(),
@@ -93,6 +104,8 @@ public class EventsFragment extends Fragment implements FilterEventsDialogFragme
         rvEvents.setLayoutManager(new LinearLayoutManager(requireContext()));
         adapter = new UserEventsAdapter(R.layout.item_event, this::onEventClick);
         rvEvents.setAdapter(adapter);
+        Images.preloadThumbnails(rvEvents, Glide.with(this), R.id.ivPoster, adapter::posterUrlAt);
+        rows = RowProjector.toMainThread(this::toEventRow);
 
         // Setup QR scan button
         if (btnScanQr != null) {
@@ -119,101 +132,151 @@ public class EventsFragment extends Fragment implements FilterEventsDialogFragme
     }
 
     /**
-     * Loads all available events from Firestore
+     * Subscribes to the event catalog, or to the matching events while filters are set.
+     * Stored events arrive right away. Rows are built on a background thread, and later
+     * updates only re-map the events that changed; everything else keeps its existing row.
      */
     private void loadAvailableEvents() {
+        if (catalogListener != null) {
+            catalogListener.remove();
+            catalogListener = null;
+        }
         progress.setVisibility(View.VISIBLE);
         emptyView.setVisibility(View.GONE);
 
-        Query query = db.collection("org_events")
-                .orderBy("startsAt", Query.Direction.ASCENDING);
-
-        query.addSnapshotListener((QuerySnapshot snapshot, FirebaseFirestoreException e) -> {
-            progress.setVisibility(View.GONE);
+        EventCatalog.Listener listener = new EventCatalog.Listener() {
+            @Override
+            public void onCatalog(@NonNull List<CatalogEvent> events) {
+                if (!isAdded()) return;
+                lastEvents = events;
+                statuses.sync(events);
+                rows.submit(events, EventsFragment.this::showRows);
+            }
 
-            if (e != null) {
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (!isAdded()) return;
+                progress.setVisibility(View.GONE);
                 Toast.makeText(requireContext(),
                         "Failed to load events: " + e.getMessage(),
                         Toast.LENGTH_LONG).show();
-                return;
             }
+        };
+
+        EventCatalog catalog = EventCatalog.shared(requireContext());
+        EventFilterQuery filter = currentFilters == null ? null : EventFilterQuery.of(
+                currentFilters.startDate,
+                currentFilters.endDate,
+                currentFilters.categories,
+                currentFilters.availabilityFilter,
+                System.currentTimeMillis());
+        catalogListener = filter == null || filter.isEmpty()
+                ? catalog.subscribe(listener)
+                : catalog.subscribe(filter, listener);
+    }
 
-            allEvents.clear();
-
-            if (snapshot != null && !snapshot.isEmpty()) {
-                android.util.Log.d("Firebase", "Found " + snapshot.size() + " events");
-
-                for (DocumentSnapshot doc : snapshot.getDocuments()) {
-                    // Skip flagged events
-                    String dbStatus = doc.getString("status");
-                    if ("flagged".equals(dbStatus)) {
-                        continue;
-                    }
+    /**
+     * Shows freshly built rows and waits for the next status transition.
+     *
+     * @param mapped rows for {@link #lastEvents}
+     */
+    private void showRows(List<EventRow> mapped) {
+        if (!isAdded()) return;
+        progress.setVisibility(View.GONE);
+        onEventsChanged(mapped);
+        scheduleStatusTick();
+    }
 
-                    EventRow eventRow = toEventRow(doc);
-                    allEvents.add(eventRow);
+    /**
+     * Posts {@link #statusTick} for the moment the next listed event opens or closes
+     * registration. Nothing runs in between, however many events are listed.
+     */
+    private void scheduleStatusTick() {
+        main.removeCallbacks(statusTick);
+        long at = statuses.nextDueAt();
+        if (at == EventStatusEngine.NONE) return;
+        main.postDelayed(statusTick, Math.max(0, at - System.currentTimeMillis()));
+    }
 
-                    android.util.Log.d("Firebase", "Event: " + eventRow.title);
-                    android.util.Log.d("EventsCheck", "Event ID: " + eventRow.id);
-                }
+    /**
+     * Rebuilds only the rows of events whose label changed at this transition.
+     */
+    private void onStatusTransition() {
+        if (!isAdded()) return;
+        List<EventStatusEngine.Flip> flips = statuses.advance();
+        if (!flips.isEmpty()) {
+            Map<String, String> shown = new HashMap<>();
+            for (EventRow row : allEvents) shown.put(row.id, row.status);
+            Map<String, CatalogEvent> byId = new HashMap<>();
+            for (CatalogEvent e : lastEvents) byId.put(e.id, e);
+
+            List<CatalogEvent> stale = new ArrayList<>();
+            for (EventStatusEngine.Flip flip : flips) {
+                CatalogEvent event = byId.get(flip.eventId);
+                if (event != null && !flip.label.equals(shown.get(flip.eventId))) stale.add(event);
+            }
+            if (!stale.isEmpty()) {
+                rows.invalidate(stale);
+                rows.submit(lastEvents, this::showRows);
+                return;
             }
+        }
+        scheduleStatusTick();
+    }
 
-            applyFilters();
-        });
+    /**
+     * Keeps the latest rows from the catalog and shows them.
+     *
+     * @param rows event rows matching the current filters, in start-time order
+     */
+    private void onEventsChanged(List<EventRow> rows) {
+        allEvents = rows;
+        applyFilters();
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (catalogListener != null) {
+            catalogListener.remove();
+            catalogListener = null;
+        }
+        rows.cancel();
+        main.removeCallbacks(statusTick);
     }
 
     /**
-     * Converts a Firestore document to an EventRow object
+     * Converts a catalog event to an EventRow object. Runs on the projection thread.
      */
-    private EventRow toEventRow(DocumentSnapshot doc) {
-        String id = doc.getId();
-        String title = safe(doc.getString("title"), "Untitled Event");
-        String location = safe(doc.getString("location"), "TBA");
-        String type = doc.getString("type");  // Changed from "category" to "type"
-        String posterUrl = doc.getString("posterUrl");
-
-        Timestamp startsAt = doc.getTimestamp("startsAt");
-        Timestamp regOpens = doc.getTimestamp("regOpens");
-        Timestamp regCloses = doc.getTimestamp("regCloses");
+    private EventRow toEventRow(CatalogEvent event) {
+        String title = safe(event.title, "Untitled Event");
+        String location = safe(event.location, "TBA");
         String dayLabel = "";
         String monthLabel = "";
 
-
         String dateText;
-        if (startsAt != null) {
-            DateFormat df = DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.SHORT);
-            dateText = df.format(startsAt.toDate());
-            SimpleDateFormat dayFmt = new SimpleDateFormat("d", Locale.getDefault());
-            SimpleDateFormat monthFmt = new SimpleDateFormat("MMMM", Locale.getDefault());
-            dayLabel = dayFmt.format(startsAt.toDate());
-            monthLabel = monthFmt.format(startsAt.toDate());
-
+        if (event.startsAt != 0) {
+            dateText = DateLabels.dateTime(event.startsAt);
+            dayLabel = DateLabels.dayOfMonth(event.startsAt);
+            monthLabel = DateLabels.monthName(event.startsAt);
         } else {
             dateText = "Date TBA";
         }
 
-        Date now = new Date();
-        String status = computeStatus(regOpens, regCloses, now);
+        String status = EventStatusEngine.labelAt(event.regOpens, event.regCloses, System.currentTimeMillis());
 
-        EventRow eventRow = new EventRow(
-                id,
+        return new EventRow(
+                event.id,
                 title,
                 location,
                 dateText,
-                mapPoster(posterUrl),
-                posterUrl,
-                status
+                mapPoster(event.posterUrl),
+                event.posterUrl,
+                status,
+                dayLabel,
+                monthLabel,
+                event.isFlagged()
         );
-        eventRow.dayLabel = dayLabel;
-        eventRow.monthLabel = monthLabel;
-
-        // Store additional data for filtering
-        eventRow.category = type;  // Store "type" in category field for filtering
-        eventRow.startsAt = startsAt != null ? startsAt.toDate() : null;
-        eventRow.regOpens = regOpens != null ? regOpens.toDate() : null;
-        eventRow.regCloses = regCloses != null ? regCloses.toDate() : null;
-
-        return eventRow;
     }
 
     /**
@@ -237,7 +300,7 @@ public class EventsFragment extends Fragment implements FilterEventsDialogFragme
     public void onFiltersApplied(FilterEventsDialogFragment.EventFilters filters) {
         android.util.Log.d("EventsFragment", "Filters applied");
         currentFilters = filters;
-        applyFilters();
+        loadAvailableEvents();
     }
 
     @Override
@@ -246,27 +309,11 @@ public class EventsFragment extends Fragment implements FilterEventsDialogFragme
     }
 
     /**
-     * Apply filters to the event list and sort by status
+     * Hides flagged events and groups the rest by status ({@link EventRowOrder}). The rows
+     * already match the filters.
      */
     private void applyFilters() {
-        List<EventRow> filtered = new ArrayList<>();
-
-        if (currentFilters == null || !currentFilters.hasFilters()) {
-            filtered.addAll(allEvents);
-        } else {
-            for (EventRow event : allEvents) {
-                if (matchesFilters(event)) {
-                    filtered.add(event);
-                }
-            }
-        }
-
-        // Sort by status: Open -> Published -> Closed
-        Collections.sort(filtered, (a, b) -> {
-            int rankA = statusRank(a.status);
-            int rankB = statusRank(b.status);
-            return Integer.compare(rankA, rankB);
-        });
+        List<EventRow> filtered = EventRowOrder.visibleByStatus(allEvents);
 
         adapter.replaceAll(filtered);
 
@@ -280,125 +327,6 @@ public class EventsFragment extends Fragment implements FilterEventsDialogFragme
         }
     }
 
-    /**
-     * Check if an event matches the current filters
-     */
-    private boolean matchesFilters(EventRow event) {
-        if (currentFilters == null) return true;
-
-        // Date range filter - Fixed to properly compare dates
-        if (event.startsAt != null) {
-
-            // Start date only
-            if (currentFilters.startDate != null) {
-                Calendar startCal = Calendar.getInstance();
-                startCal.setTime(currentFilters.startDate);
-                startCal.set(Calendar.HOUR_OF_DAY, 0);
-                startCal.set(Calendar.MINUTE, 0);
-                startCal.set(Calendar.SECOND, 0);
-                startCal.set(Calendar.MILLISECOND, 0);
-
-                if (event.startsAt.before(startCal.getTime())) {
-                    return false;
-                }
-            }
-
-            // End date only
-            if (currentFilters.endDate != null) {
-                Calendar endCal = Calendar.getInstance();
-                endCal.setTime(currentFilters.endDate);
-                endCal.set(Calendar.HOUR_OF_DAY, 23);
-                endCal.set(Calendar.MINUTE, 59);
-                endCal.set(Calendar.SECOND, 59);
-                endCal.set(Calendar.MILLISECOND, 999);
-
-                if (event.startsAt.after(endCal.getTime())) {
-                    return false;
-                }
-            }
-        }
-
-        // Category filter - Fixed to use "type" field
-        if (currentFilters.categories != null && !currentFilters.categories.isEmpty()) {
-            if (event.category == null) {
-                android.util.Log.d("EventsFragment",
-                        "Event " + event.title + " has no type/category");
-                return false;
-            }
-
-            String eventType = event.category.toLowerCase().trim();
-            boolean matches = false;
-            for (String filterCategory : currentFilters.categories) {
-                if (eventType.equals(filterCategory.toLowerCase().trim())) {
-                    matches = true;
-                    break;
-                }
-            }
-
-            android.util.Log.d("EventsFragment",
-                    "Event " + event.title + " type: " + eventType +
-                            ", matches filter: " + matches);
-
-            if (!matches) {
-                return false;
-            }
-        }
-
-        // Availability filter
-        if (currentFilters.availabilityFilter != null) {
-
-            switch (currentFilters.availabilityFilter) {
-
-                case "open":
-                    if (!"open".equalsIgnoreCase(event.status)) {
-                        return false;
-                    }
-                    break;
-
-                case "closed":
-                    if (!"closed".equalsIgnoreCase(event.status)) {
-                        return false;
-                    }
-                    break;
-            }
-        }
-
-
-        return true;
-    }
-
-    /**
-     * Helper function to compute the status based on registration window
-     */
-    private String computeStatus(Timestamp regStartTime, Timestamp regEndTime, Date now) {
-        if (regStartTime == null || regEndTime == null) {
-            return "Open";
-        }
-        Date start = regStartTime.toDate();
-        Date end = regEndTime.toDate();
-        if (now.before(start)) {
-            return "Upcoming";
-        } else if (now.after(end)) {
-            return "Closed";
-        } else {
-            return "Open";
-        }
-    }
-
-    /**
-     * Helper function to sort the events based on their status
-     * @param status The status string
-     * @return The rank of the status (lower is higher priority)
-     */
-    private int statusRank(String status) {
-        if (status == null) return 3;
-        String s = status.trim().toLowerCase();
-        if ("open".equals(s)) return 1;
-        if ("published".equals(s)) return 2;
-        if ("closed".equals(s)) return 3;
-        return 4; // anything else
-    }
-
     /**
      * Returns a string or a default if the value is null or empty.
      * @param s The string to check
@@ -2,8 +2,6 @@ package com.example.ajilore.code.ui.events;
 
 import android.content.ContentValues;
 import android.content.Intent;
-import android.graphics.Bitmap;
-import android.graphics.Color;
 import android.os.Bundle;
 
 import androidx.fragment.app.Fragment;
@@ -14,11 +12,7 @@ import android.view.ViewGroup;
 
 import com.example.ajilore.code.R;
 import com.google.firebase.BuildConfig;
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.EncodeHintType;
-import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
+import com.example.ajilore.code.images.QrRenderer;
 
 import android.net.Uri;
 import android.os.Bundle;
@@ -37,11 +31,9 @@ import androidx.core.content.FileProvider;
 import androidx.fragment.app.Fragment;
 
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.EnumMap;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * {@code ManageEventQRFragment} generates, displays, shares, and saves a QR code
@@ -52,10 +44,11 @@ import java.util.Map;
  *
  * <ul>
  *     <li>Builds a dynamic deep link for an event</li>
- *     <li>Generates a QR code bitmap using ZXing</li>
+ *     <li>Renders the QR code off the main thread through {@link QrRenderer}, which caches it</li>
  *     <li>Displays the QR code with event title and subtitle</li>
  *     <li>Allows sharing the QR image via Android Sharesheet</li>
  *     <li>Allows saving the QR image into the device's Pictures folder</li>
+ *     <li>Allows sharing a print-ready SVG of the QR code</li>
  * </ul>
  *
  * <p><b>Usage:</b></p>
@@ -103,7 +96,9 @@ public class ManageEventQRFragment extends Fragment {
 
 
     private ImageView ivQR;
-    private Bitmap qrBitmap;
+    /** The code on screen and its cached PNG; null until rendered. */
+    @Nullable
+    private QrRenderer.Rendered qr;
     private String eventId, eventTitle;
 
     private ImageButton btnBack;
@@ -161,6 +156,7 @@ public class ManageEventQRFragment extends Fragment {
         //Buttons
         view.findViewById(R.id.btnShare).setOnClickListener(x -> sharePng());
         view.findViewById(R.id.btnDownload).setOnClickListener(x -> downloadPng());
+        view.findViewById(R.id.btnPrint).setOnClickListener(x -> shareSvg());
     }
 
     /**
@@ -175,66 +171,37 @@ public class ManageEventQRFragment extends Fragment {
 
 
     /**
-     * Generates a QR code image for the event and displays it in the ImageView.
+     * Renders the event's QR code in the background, or loads it from the cache, and
+     * displays it in the ImageView.
      *
      * @param size Size (in pixels) for QR image.
      */
     private void renderQRInto(int size) {
-        try {
-            qrBitmap = generateQRBitmap(buildDeepLink(), size, size);
-            ivQR.setImageBitmap(qrBitmap);
-        } catch (Exception e) {
-            Toast.makeText(requireContext(), "Failed to generate QR: " + e.getMessage(), Toast.LENGTH_LONG).show();
-        }
+        QrRenderer.render(requireContext(), eventId, buildDeepLink(), size,
+                new QrRenderer.Callback<QrRenderer.Rendered>() {
+                    @Override
+                    public void onSuccess(@NonNull QrRenderer.Rendered rendered) {
+                        if (!isAdded()) return;
+                        qr = rendered;
+                        ivQR.setImageBitmap(rendered.bitmap);
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        if (!isAdded()) return;
+                        Toast.makeText(requireContext(), "Failed to generate QR: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                    }
+                });
     }
 
     /**
-     * Uses ZXing to generate a QR code Bitmap from given string.
-     *
-     * @param text String to encode.
-     * @param width Width in pixels.
-     * @param height Height in pixels.
-     * @return Bitmap QR code image.
-     * @throws WriterException If QR generation fails.
-     */
-    private Bitmap generateQRBitmap(String text, int width, int height) throws WriterException {
-        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
-
-        BitMatrix matrix = new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, width, height, hints);
-
-        Bitmap bmp = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                bmp.setPixel(x, y, matrix.get(x, y) ? 0xFF000000 : Color.WHITE);
-            }
-        }
-        return bmp;
-    }
-
-    /**
-     * Shares the QR code bitmap as a PNG using FileProvider and Android Sharesheet.
+     * Shares the cached QR code PNG using FileProvider and Android Sharesheet.
      */
     private void sharePng(){
-        if(qrBitmap == null) return;
+        if(qr == null) return;
 
         try {
-            //Write it into cache/qr/qr.png
-            File dir = new File(requireContext().getCacheDir(), "qr");
-
-            if (!dir.exists()) dir.mkdirs();
-            File out = new File(dir, "event_" + eventId + ".png");
-
-            try (FileOutputStream fos = new FileOutputStream(out)) {
-                qrBitmap.compress(Bitmap.CompressFormat.PNG, 100, fos);
-            }
-
-            Uri uri = FileProvider.getUriForFile(requireContext(), requireContext().getPackageName() + ".provider", out);
-
-            Intent share = new Intent(Intent.ACTION_SEND);
-            share.setType("image/png");
-            share.putExtra(Intent.EXTRA_STREAM, uri);
-            share.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
-            startActivity(Intent.createChooser(share, "Share QR"));
+            share(qr.png, "image/png", "Share QR");
         }catch (Exception e){
             Toast.makeText(requireContext(), "Failed to share QR: " + e.getMessage(), Toast.LENGTH_LONG).show();
 
@@ -243,10 +210,51 @@ public class ManageEventQRFragment extends Fragment {
         }
 
     /**
-     * Saves the QR code PNG to the user's Pictures/Quartz Events folder.
+     * Shares the QR code as an SVG for printing; it stays sharp at any size.
+     */
+    private void shareSvg() {
+        QrRenderer.exportSvg(requireContext(), eventId, buildDeepLink(), new QrRenderer.Callback<File>() {
+            @Override
+            public void onSuccess(@NonNull File svg) {
+                if (!isAdded()) return;
+                try {
+                    share(svg, "image/svg+xml", "Share QR for print");
+                } catch (Exception e) {
+                    onError(e);
+                }
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (!isAdded()) return;
+                Toast.makeText(requireContext(), "Failed to export QR: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    /**
+     * Opens the Sharesheet for a file in the shared cache directory.
+     *
+     * @param file  file under cache/qr/
+     * @param mime  MIME type of the file
+     * @param title chooser title
+     */
+    private void share(File file, String mime, String title) {
+        Uri uri = FileProvider.getUriForFile(requireContext(), requireContext().getPackageName() + ".provider", file);
+
+        Intent share = new Intent(Intent.ACTION_SEND);
+        share.setType(mime);
+        share.putExtra(Intent.EXTRA_STREAM, uri);
+        share.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        startActivity(Intent.createChooser(share, title));
+    }
+
+    /**
+     * Saves the QR code PNG to the user's Pictures/Quartz Events folder. The cached PNG is
+     * copied as-is rather than compressed again.
      */
     private void downloadPng(){
-        if(qrBitmap == null) return;
+        if(qr == null) return;
 
         try{
             String name = "event_" + eventId + ".png";
@@ -259,13 +267,17 @@ public class ManageEventQRFragment extends Fragment {
             Uri uri = requireContext().getContentResolver().insert(MediaStore.Images.Media.EXTERNAL_CONTENT_URI, cv);
 
             if (uri != null) {
-                try (OutputStream os = requireContext().getContentResolver().openOutputStream(uri)) {
-                    qrBitmap.compress(Bitmap.CompressFormat.PNG, 100, os);
+                try (InputStream in = new FileInputStream(qr.png);
+                     OutputStream os = requireContext().getContentResolver().openOutputStream(uri)) {
+                    if (os == null) throw new IllegalStateException("Could not open " + uri);
+                    byte[] buffer = new byte[8192];
+                    int n;
+                    while ((n = in.read(buffer)) > 0) os.write(buffer, 0, n);
                 }
                 Toast.makeText(requireContext(), "Saved to Pictures/Quartz Events", Toast.LENGTH_LONG).show();
             }
         }catch (Exception e) {
-            Toast.makeText(requireContext(), "Failed to save QR: " + e.getMessage(), Toast.LENGTH_LONG);
+            Toast.makeText(requireContext(), "Failed to save QR: " + e.getMessage(), Toast.LENGTH_LONG).show();
         }
     }
 }
@@ -20,16 +20,17 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.ajilore.code.R;
-import com.google.firebase.Timestamp;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.EventListener;
+import com.example.ajilore.code.data.CatalogEvent;
+import com.example.ajilore.code.data.CatalogIndex;
+import com.example.ajilore.code.data.EventCatalog;
+import com.example.ajilore.code.images.Images;
+import com.example.ajilore.code.utils.DateLabels;
+import com.example.ajilore.code.utils.RowProjector;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.FirebaseFirestoreException;
-import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
 
-import java.text.DateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import android.provider.Settings;
 import android.widget.ImageView;
@@ -40,8 +41,8 @@ import com.bumptech.glide.Glide;
 /**
  * OrganizerEventsFragment
  *
- * Purpose: Shows the organizer’s events in a scrollable list. Live-updates from Firestore
- * and routes into ManageEventsFragment when an event is clicked.
+ * Purpose: Shows the organizer’s events in a scrollable list. Live-updates from the
+ * on-device {@link EventCatalog} and routes into ManageEventsFragment when an event is clicked.
  *
  * Pattern: Fragment + RecyclerView adapter (simple list controller).
  *
@@ -52,7 +53,8 @@ public class OrganizerEventsFragment extends Fragment {
 
     private RecyclerView rv;
     private OrganizerEventsAdapter adapter;
-    private final List<EventItem> data = new ArrayList<>();
+    private RowProjector<CatalogEvent, EventItem> rows;
+    private ListenerRegistration catalogListener;
     private FirebaseFirestore db;
 
     private ImageView ivAvatar;
@@ -72,7 +74,7 @@ public class OrganizerEventsFragment extends Fragment {
 
 
     /**
-     * Sets up RecyclerView, adapter, click handlers, and Firestore listening.
+     * Sets up RecyclerView, adapter, click handlers, and the catalog subscription.
      */
 
     @Override
@@ -93,7 +95,7 @@ public class OrganizerEventsFragment extends Fragment {
         rv = v.findViewById(R.id.rvMyEvents);
         rv.setLayoutManager(new LinearLayoutManager(requireContext()));
 
-        adapter = new OrganizerEventsAdapter(data, item -> {
+        adapter = new OrganizerEventsAdapter(item -> {
             Fragment f = ManageEventsFragment.newInstance(item.eventId, item.title);
             requireActivity().getSupportFragmentManager().beginTransaction()
                     .replace(R.id.nav_host_fragment, f)
@@ -101,6 +103,8 @@ public class OrganizerEventsFragment extends Fragment {
                     .commit();
         });
         rv.setAdapter(adapter);
+        Images.preloadThumbnails(rv, Glide.with(this), R.id.ivPoster, adapter::posterUrlAt);
+        rows = RowProjector.toMainThread(this::toEventItem);
 
         btnCreate.setOnClickListener(x -> requireActivity().getSupportFragmentManager()
                 .beginTransaction()
@@ -161,75 +165,81 @@ public class OrganizerEventsFragment extends Fragment {
 
 
     /**
-     * Subscribes to /org_events ordered by startsAt (desc) and updates the list on changes.
+     * Subscribes to the event catalog and shows it newest-created first.
+     * Rows are built on a background thread and only changed events are re-mapped; the
+     * adapter diffs the result so unchanged rows keep their views and posters.
      */
     private void loadEvents() {
-        Query q = db.collection("org_events")
-                .orderBy("createdAt", Query.Direction.DESCENDING);
+        catalogListener = EventCatalog.shared(requireContext()).subscribe(new EventCatalog.Listener() {
+            @Override
+            public void onCatalog(@NonNull List<CatalogEvent> events) {
+                if (!isAdded()) return;
+                List<CatalogEvent> newestFirst = new ArrayList<>(events);
+                Collections.sort(newestFirst, CatalogIndex.BY_CREATED_DESC);
+                rows.submit(newestFirst, items -> {
+                    if (isAdded()) adapter.submitList(items);
+                });
+            }
 
-        q.addSnapshotListener(new EventListener<QuerySnapshot>() {
-            @Override public void onEvent(@Nullable QuerySnapshot snap, @Nullable FirebaseFirestoreException e) {
-                if (e != null) {
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (isAdded()) {
                     Toast.makeText(requireContext(), "Failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                    return;
-                }
-                data.clear();
-                if (snap != null) {
-                    for (DocumentSnapshot d : snap.getDocuments()) {
-                        String id = d.getId();
-                        String title = d.getString("title");
-                        Timestamp ts = d.getTimestamp("startsAt");
-                        String dateText = (ts != null)
-                                ? DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.SHORT).format(ts.toDate())
-                                : "";
-                        String posterKey = d.getString("posterUrl");
-
-                        //Added by Precious
-                        String type = d.getString("type");
-                        String location = d.getString("location");
-
-                        Object capacityObj = d.get("capacity");
-                        String capacity = "";
-
-                        if (capacityObj instanceof Number) {
-                            // If it's already a number, convert it to a string.
-                            capacity = String.valueOf(((Number) capacityObj).longValue());
-                        } else if (capacityObj instanceof String) {
-                            // If it's a string, just use it directly.
-                            // (You could also try to parse it, but for display this is fine).
-                            capacity = (String) capacityObj;
-                        }
-
-
-                        String subtitle = "";
-                        if(type != null && !type.isEmpty()){
-                            subtitle = type;
-                        }
-
-                        if(location != null && !location.isEmpty()){
-                            subtitle = subtitle.isEmpty() ? location : (subtitle + " · " + location);
-                        }
-
-                        //I think we can include capacity if its present
-                        if(capacity != null && !capacity.isEmpty()){
-                            subtitle = subtitle.isEmpty() ? (capacity + " ppl") :
-                                    (subtitle + " · " + capacity + " ppl");
-                        }
-
-                        data.add(new EventItem(id,
-                                title != null ? title : "(untitled)",
-                                dateText,
-                                mapPoster(posterKey), subtitle, posterKey, d.getString("status")));
-
-                        android.util.Log.d("OrgList", "subtitle=" + subtitle);
-
-                    }
                 }
-                adapter.notifyDataSetChanged();
             }
         });
     }
 
+    /**
+     * Builds the list row for one catalog event. Runs on the projection thread.
+     *
+     * @param e stored event
+     * @return row for the organizer list
+     */
+    private EventItem toEventItem(CatalogEvent e) {
+        String dateText = (e.startsAt != 0)
+                ? DateLabels.dateTime(e.startsAt)
+                : "";
+
+        //Added by Precious
+        String type = e.type;
+        String location = e.location;
+        String capacity = e.capacity;
+
+        String subtitle = "";
+        if(type != null && !type.isEmpty()){
+            subtitle = type;
+        }
+
+        if(location != null && !location.isEmpty()){
+            subtitle = subtitle.isEmpty() ? location : (subtitle + " · " + location);
+        }
+
+        //I think we can include capacity if its present
+        if(capacity != null && !capacity.isEmpty()){
+            subtitle = subtitle.isEmpty() ? (capacity + " ppl") :
+                    (subtitle + " · " + capacity + " ppl");
+        }
+
+        return new EventItem(e.id,
+                e.title != null ? e.title : "(untitled)",
+                dateText,
+                mapPoster(e.posterUrl), subtitle, e.posterUrl, e.status);
+    }
+
+    /**
+     * Unsubscribes from the catalog when the view goes away.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (catalogListener != null) {
+            catalogListener.remove();
+            catalogListener = null;
+        }
+        rows.cancel();
+    }
+
     // Map posterKey -> drawable resource id
 
     /**
@@ -19,6 +19,11 @@ import com.google.firebase.firestore.*;
 import java.util.*;
 import com.example.ajilore.code.ui.events.EventNotifier;
 import com.bumptech.glide.Glide;
+import com.example.ajilore.code.data.FirestoreDocumentStore;
+import com.example.ajilore.code.data.TrackedFirestore;
+import com.example.ajilore.code.data.UserProfileResolver;
+import com.example.ajilore.code.services.LotteryService;
+import com.example.ajilore.code.services.WaitingListService;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 
 /**
@@ -30,7 +35,8 @@ import com.bumptech.glide.load.engine.DiskCacheStrategy;
  *
  * Pattern: Fragment as controller. Firestore is the single source of truth.
  * - A snapshot listener keeps the UI list in sync with entrants in Firestore.
- * - The "Run Draw" button reads WAITING entrants, shuffles, and writes updates in a batch.
+ * - The "Run Draw" button hands off to {@link LotteryService}, which samples winners and
+ *   writes status changes and notifications in operation-sized batches.
  *
  * Additional Context:
  * waiting: User is on the event waiting list and not yet chosen/selected.
@@ -86,6 +92,8 @@ public class SelectEntrantsFragment extends Fragment {
     private RecyclerView rvSelected;
     private SelectedAdapter adapter;
     private final List<Entrant> selectedList = new ArrayList<>();
+    private int selectedVersion;
+    private ListenerRegistration selectedListener;
 
     /**
      * Inflates the Select Entrants layout.
@@ -159,31 +167,38 @@ public class SelectEntrantsFragment extends Fragment {
                                 new EventNotifier.Callback() {
                                     @Override
                                     public void onSuccess(int delivered, @NonNull String broadcastId) {
-                                        // 2) now remove them from waiting_list
-                                        db.collection("org_events").document(eventId)
-                                                .collection("waiting_list").document(entrant.uid)
-                                                .delete()
-                                                .addOnSuccessListener(ve -> {
-                                                    Toast.makeText(
-                                                            requireContext(),
-                                                            "Entrant removed and notified",
-                                                            Toast.LENGTH_SHORT
-                                                    ).show();
-
-                                                    // pick 1 replacement if possible
-                                                    SelectEntrantsFragment.drawReplacementsFromWaitingList(
-                                                            db,
-                                                            requireContext(),
-                                                            eventId,
-                                                            eventTitle,
-                                                            1
-                                                    );
-                                                })
-                                                .addOnFailureListener(err -> Toast.makeText(
-                                                        requireContext(),
-                                                        "Removed but failed to update list: " + err.getMessage(),
-                                                        Toast.LENGTH_SHORT
-                                                ).show());
+                                        // 2) now remove them from waiting_list (frees their capacity shard)
+                                        new WaitingListService(db).leave(eventId, entrant.uid,
+                                                new WaitingListService.ReleaseCallback() {
+                                                    @Override
+                                                    public void onReleased(boolean hadSpot) {
+                                                        if (!isAdded()) return;
+                                                        Toast.makeText(
+                                                                requireContext(),
+                                                                "Entrant removed and notified",
+                                                                Toast.LENGTH_SHORT
+                                                        ).show();
+
+                                                        // pick 1 replacement if possible
+                                                        SelectEntrantsFragment.drawReplacementsFromWaitingList(
+                                                                db,
+                                                                requireContext(),
+                                                                eventId,
+                                                                eventTitle,
+                                                                1
+                                                        );
+                                                    }
+
+                                                    @Override
+                                                    public void onError(@NonNull Exception err) {
+                                                        if (!isAdded()) return;
+                                                        Toast.makeText(
+                                                                requireContext(),
+                                                                "Removed but failed to update list: " + err.getMessage(),
+                                                                Toast.LENGTH_SHORT
+                                                        ).show();
+                                                    }
+                                                });
                                     }
 
                                     @Override
@@ -214,64 +229,67 @@ public class SelectEntrantsFragment extends Fragment {
 
     /**
      * Subscribes to entrants with status == "chosen" for this event.
-     * Updates the RecyclerView whenever Firestore changes.
+     * Updates the RecyclerView whenever Firestore changes, resolving names and
+     * pictures through {@link UserProfileResolver}.
      */
 
     private void listenForSelected() {
-        db.collection("org_events").document(eventId)
+        Query query = db.collection("org_events").document(eventId)
                 .collection("waiting_list")
-                .whereEqualTo("status", "chosen")   // <— was "selected"
-                .addSnapshotListener((snap, e) -> {
+                .whereEqualTo("status", "chosen");   // <— was "selected"
+        if (selectedListener != null) selectedListener.remove();
+        selectedListener = TrackedFirestore.listen("SelectEntrantsFragment.listenForSelected", query,
+                (snap, e) -> {
                     if (e != null) {
                         Toast.makeText(requireContext(), "Load failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
                         return;
                     }
-                    selectedList.clear();
-                    if (snap != null) {
-                        for (DocumentSnapshot d : snap.getDocuments()) {
-                            String uid = d.getId();
-                            String responded = d.getString("responded"); // pending/accepted/decline
-
-                            // if declined, do not show them in the chosen list
-                            if ("declined".equalsIgnoreCase(responded)) {
-                                continue;
-                            }
-
-                            db.collection("users")
-                                    .document(uid)
-                                    .get()
-                                    .addOnSuccessListener(userDoc -> {
-                                        String userName = userDoc.getString("name");
-                                        if(userName == null || userName.isEmpty()){
-                                            userName = uid; // use the device id
-                                            }
-                                        String photoUrl = userDoc.getString("profilepicture");
-                                        selectedList.add(new Entrant(uid, userName, responded, photoUrl));
-                                        adapter.notifyDataSetChanged();
-                                        tvEmpty.setVisibility(selectedList.isEmpty() ? View.VISIBLE : View.GONE);
-
-                                    }).addOnFailureListener(e1 -> {
-                                        selectedList.add(new Entrant(uid, uid, responded, null));
-                                        adapter.notifyDataSetChanged();
-                                        tvEmpty.setVisibility(selectedList.isEmpty() ? View.VISIBLE : View.GONE);
-                                    });
-                                    }
-                        } else {
-                            //no chosen entrants
-                            adapter.notifyDataSetChanged();
-                            tvEmpty.setVisibility(selectedList.isEmpty() ? View.VISIBLE : View.GONE);
+                    if (snap == null) return;
+                    Map<String, String> respondedByUid = new LinkedHashMap<>();
+                    for (DocumentSnapshot d : snap.getDocuments()) {
+                        String responded = d.getString("responded"); // pending/accepted/decline
+
+                        // if declined, do not show them in the chosen list
+                        if ("declined".equalsIgnoreCase(responded)) {
+                            continue;
+                        }
+                        respondedByUid.put(d.getId(), responded);
                     }
-                });
-
 
+                    // Names and pictures for every row in one batched, cached lookup.
+                    int version = ++selectedVersion;
+                    UserProfileResolver.shared(FirestoreDocumentStore.tracked(db, "UserProfileResolver"))
+                            .resolve(respondedByUid.keySet(), profiles -> {
+                                if (!isAdded() || version != selectedVersion) return;
+                                selectedList.clear();
+                                for (Map.Entry<String, String> row : respondedByUid.entrySet()) {
+                                    UserProfileResolver.Profile profile = profiles.get(row.getKey());
+                                    selectedList.add(new Entrant(row.getKey(), profile.displayName(),
+                                            row.getValue(), profile.photoUrl));
+                                }
+                                adapter.notifyDataSetChanged();
+                                tvEmpty.setVisibility(selectedList.isEmpty() ? View.VISIBLE : View.GONE);
+                            });
+                });
+    }
 
+    /**
+     * Detaches the selected-entrants listener when the view goes away.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (selectedListener != null) {
+            selectedListener.remove();
+            selectedListener = null;
+        }
     }
 
     /**
-     * Runs a simple lottery:
-     * - Reads all WAITING entrants,
-     * - Shuffles them,
-     * - Promotes the first N to CHOSEN with responded=pending.
+     * Runs a lottery through {@link LotteryService}:
+     * - Reads all WAITING entrants once,
+     * - Samples N winners (partial Fisher–Yates),
+     * - Promotes them to CHOSEN with responded=pending and notifies everyone in batches.
      */
 
     private void runDraw() {
@@ -291,136 +309,52 @@ public class SelectEntrantsFragment extends Fragment {
         btnRunDraw.setEnabled(false);
         final int numberOfWinners = n;
 
-        // Get everyone still on the waiting list
-        db.collection("org_events").document(eventId)
-                .collection("waiting_list")
-                .whereEqualTo("status", "waiting")
-                .get()
-                .addOnSuccessListener(snap -> {
-                    if (snap == null || snap.isEmpty()) {
-                        Toast.makeText(requireContext(),
-                                "No one on the waiting list.",
-                                Toast.LENGTH_SHORT).show();
+        // One pass: sample winners, batch the status changes and both message types,
+        // and write a single broadcast record + audit log for the draw.
+        new LotteryService(FirestoreDocumentStore.tracked(db, "SelectEntrantsFragment.runDraw")).runDraw(
+                eventId,
+                eventTitle,
+                numberOfWinners,
+                new LotteryService.DrawCallback() {
+                    @Override
+                    public void onComplete(@NonNull LotteryService.DrawResult result) {
+                        if (!isAdded()) return;
                         btnRunDraw.setEnabled(true);
-                        return;
-                    }
 
-                    // All waiting entrants
-                    List<DocumentSnapshot> waiting = new ArrayList<>(snap.getDocuments());
-                    Collections.shuffle(waiting, new Random());
-
-                    int available = waiting.size();
-
-                    //warning if they asked for more than available
-                    if (numberOfWinners > available) {
-                        Toast.makeText(
-                                requireContext(),
-                                "You asked to pick " + numberOfWinners
-                                        + " entrants, but only " + available
-                                        + " are left. Running draw for " + available + ".",
-                                Toast.LENGTH_LONG
-                        ).show();
+                        if (result.waitingCount == 0) {
+                            Toast.makeText(requireContext(),
+                                    "No one on the waiting list.",
+                                    Toast.LENGTH_SHORT).show();
+                            return;
+                        }
+
+                        //warning if they asked for more than available
+                        if (numberOfWinners > result.waitingCount) {
+                            Toast.makeText(
+                                    requireContext(),
+                                    "You asked to pick " + numberOfWinners
+                                            + " entrants, but only " + result.waitingCount
+                                            + " were left. Ran draw for " + result.waitingCount + ".",
+                                    Toast.LENGTH_LONG
+                            ).show();
+                        }
+
+                        String msg = "Selected " + result.winners + " entrant(s).";
+                        if (result.failed > 0) {
+                            msg += " " + result.failed + " update(s) failed.";
+                        }
+                        if (result.recordError != null) {
+                            msg += " The draw was not logged: " + result.recordError.getMessage();
+                        }
+                        Toast.makeText(requireContext(), msg, Toast.LENGTH_SHORT).show();
                     }
 
-                    int maxWinners = Math.min(numberOfWinners, available);
-                    List<DocumentSnapshot> winners    = waiting.subList(0, maxWinners);
-                    List<DocumentSnapshot> nonWinners = waiting.subList(maxWinners, waiting.size());
-
-
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot d : winners) {
-                        DocumentReference ref =
-                                db.collection("org_events").document(eventId)
-                                        .collection("waiting_list").document(d.getId());
-
-                        Map<String, Object> upd = new HashMap<>();
-                        upd.put("status", "chosen");
-                        upd.put("responded", "pending");
-                        upd.put("selectedAt", FieldValue.serverTimestamp());
-                        batch.set(ref, upd, SetOptions.merge());
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        if (!isAdded()) return;
+                        Toast.makeText(requireContext(), "Draw failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                        btnRunDraw.setEnabled(true);
                     }
-
-                    batch.commit()
-                            .addOnSuccessListener(v -> {
-                                Toast.makeText(requireContext(),
-                                        "Selected " + winners.size() + " entrant(s).",
-                                        Toast.LENGTH_SHORT).show();
-                                btnRunDraw.setEnabled(true);
-
-                                // 1) Notify winners (lottery winners)
-                                String chosenMsgTemplate =
-                                        "You’ve been chosen in the lottery for "
-                                                + (eventTitle != null ? eventTitle : "this event")
-                                                + ". Please open the app to accept or decline your spot.";
-
-                                for (DocumentSnapshot d : winners) {
-                                    String uid = d.getId();
-
-                                    EventNotifier.notifySingle(
-                                            db,
-                                            eventId,
-                                            eventTitle != null ? eventTitle : "",
-                                            uid,
-                                            "chosen",
-                                            chosenMsgTemplate,
-                                            /* includePoster */ true,
-                                            /* linkUrl */ null,
-                                            new EventNotifier.Callback() {
-                                                @Override
-                                                public void onSuccess(int delivered, @NonNull String broadcastId) {
-                                                    // optional log
-                                                }
-
-                                                @Override
-                                                public void onError(@NonNull Exception e) {
-                                                    // optional log
-                                                }
-                                            }
-                                    );
-                                }
-
-                                // 2) Notify non-winners (still on waiting list)
-                                if (!nonWinners.isEmpty()) {
-                                    String notChosenMsgTemplate =
-                                            "You were not selected in this lottery draw for "
-                                                    + (eventTitle != null ? eventTitle : "this event")
-                                                    + ", but you are still on the waiting list. "
-                                                    + "If a spot opens up or another draw is run, you may be selected.";
-
-                                    for (DocumentSnapshot d : nonWinners) {
-                                        String uid = d.getId();
-
-                                        EventNotifier.notifySingle(
-                                                db,
-                                                eventId,
-                                                eventTitle != null ? eventTitle : "",
-                                                uid,
-                                                "waiting",   // they remain waiting
-                                                notChosenMsgTemplate,
-                                                /* includePoster */ true,
-                                                /* linkUrl */ null,
-                                                new EventNotifier.Callback() {
-                                                    @Override
-                                                    public void onSuccess(int delivered, @NonNull String broadcastId) { }
-
-                                                    @Override
-                                                    public void onError(@NonNull Exception e) { }
-                                                }
-                                        );
-                                    }
-                                }
-
-                            })
-
-                            .addOnFailureListener(e -> {
-                                Toast.makeText(requireContext(), "Draw failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                                btnRunDraw.setEnabled(true);
-                            });
-
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(requireContext(), "Load waiting list failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                    btnRunDraw.setEnabled(true);
                 });
     }
 
@@ -435,10 +369,10 @@ public class SelectEntrantsFragment extends Fragment {
      * cancels or rejects the invitation.
      */
     /**
-     * Draws replacement entrants from the waiting pool.
+     * Draws replacement entrants from the waiting pool via {@link LotteryService}.
      * - Looks for entrants with status == "waiting"
      * - Promotes up to numSlots of them to CHOSEN (responded = pending)
-     * - Sends each a notification.
+     * - Sends each a notification, with one broadcast record for the whole draw.
      */
     public static void drawReplacementsFromWaitingList(@NonNull FirebaseFirestore db,
                                                        @NonNull android.content.Context context,
@@ -448,83 +382,30 @@ public class SelectEntrantsFragment extends Fragment {
 
         if (numSlots <= 0) return;
 
-        db.collection("org_events").document(eventId)
-                .collection("waiting_list")
-                .whereEqualTo("status", "waiting")
-                .get()
-                .addOnSuccessListener(snap -> {
-                    if (snap == null || snap.isEmpty()) {
+        new LotteryService(FirestoreDocumentStore.tracked(db, "SelectEntrantsFragment.drawReplacements")).drawReplacements(
+                eventId,
+                eventTitle,
+                numSlots,
+                new LotteryService.DrawCallback() {
+                    @Override
+                    public void onComplete(@NonNull LotteryService.DrawResult result) {
+                        if (result.waitingCount == 0) {
+                            Toast.makeText(context,
+                                    "No one left on the waiting list.",
+                                    Toast.LENGTH_SHORT).show();
+                            return;
+                        }
                         Toast.makeText(context,
-                                "No one left on the waiting list.",
+                                "Selected " + result.winners + " replacement entrant(s).",
                                 Toast.LENGTH_SHORT).show();
-                        return;
                     }
 
-                    List<DocumentSnapshot> waiting = new ArrayList<>(snap.getDocuments());
-                    Collections.shuffle(waiting, new Random());
-
-                    int winnersCount = Math.min(numSlots, waiting.size());
-                    List<DocumentSnapshot> replacements = waiting.subList(0, winnersCount);
-
-                    WriteBatch batch = db.batch();
-                    for (DocumentSnapshot d : replacements) {
-                        String uid = d.getId();
-                        DocumentReference ref = db.collection("org_events")
-                                .document(eventId)
-                                .collection("waiting_list")
-                                .document(uid);
-
-                        Map<String, Object> upd = new HashMap<>();
-                        upd.put("status", "chosen");
-                        upd.put("responded", "pending");
-                        upd.put("selectedAt", FieldValue.serverTimestamp());
-                        batch.set(ref, upd, SetOptions.merge());
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        Toast.makeText(context,
+                                "Failed to pick replacement(s): " + e.getMessage(),
+                                Toast.LENGTH_LONG).show();
                     }
-
-                    batch.commit()
-                            .addOnSuccessListener(v -> {
-                                Toast.makeText(context,
-                                        "Selected " + replacements.size() + " replacement entrant(s).",
-                                        Toast.LENGTH_SHORT).show();
-
-                                String msg = "A spot has opened up for "
-                                        + (eventTitle != null ? eventTitle : "this event")
-                                        + ". You have been selected from the waiting list. "
-                                        + "Please open the app to accept or decline.";
-
-                                for (DocumentSnapshot d : replacements) {
-                                    String uid = d.getId();
-
-                                    EventNotifier.notifySingle(
-                                            db,
-                                            eventId,
-                                            eventTitle != null ? eventTitle : "",
-                                            uid,
-                                            "chosen",
-                                            msg,
-                                            /* includePoster */ true,
-                                            /* linkUrl */ null,
-                                            new EventNotifier.Callback() {
-                                                @Override
-                                                public void onSuccess(int delivered, @NonNull String broadcastId) { }
-
-                                                @Override
-                                                public void onError(@NonNull Exception e) { }
-                                            }
-                                    );
-                                }
-                            })
-                            .addOnFailureListener(e -> {
-                                Toast.makeText(context,
-                                        "Failed to pick replacement(s): " + e.getMessage(),
-                                        Toast.LENGTH_LONG).show();
-                            });
-
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(context,
-                            "Failed to load waiting pool: " + e.getMessage(),
-                            Toast.LENGTH_LONG).show();
                 });
     }
 
@@ -20,14 +20,25 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.EventStats;
+import com.example.ajilore.code.data.EventStatsRepository;
+import com.example.ajilore.code.data.FirestoreDocumentStore;
+import com.example.ajilore.code.data.UserProfileResolver;
 import com.example.ajilore.code.ui.events.data.Entrant;
+import com.example.ajilore.code.ui.events.data.EntrantCsv;
+import com.example.ajilore.code.ui.events.data.WaitingListRoster;
 import com.example.ajilore.code.ui.events.list.WaitingListAdapter;
-import com.google.firebase.firestore.DocumentSnapshot;
+import com.example.ajilore.code.utils.ListSearch;
+import com.example.ajilore.code.utils.SearchIndex;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Fragment displaying the waiting list for an event.
@@ -35,6 +46,26 @@ import java.util.List;
  */
 public class WaitingListFragment extends Fragment {
     private static final String ARG_EVENT_ID = "eventId";
+    private static final String FACET_STATUS = "status";
+
+    /** Indexes name/UID, with the status filter's group ("pending" covers Waiting) as a facet. */
+    private static final SearchIndex.Fields<Entrant> FIELDS = new SearchIndex.Fields<Entrant>() {
+        @NonNull
+        @Override
+        public String[] text(@NonNull Entrant entrant) {
+            return new String[]{entrant.nameOrUid};
+        }
+
+        @Nullable
+        @Override
+        public String facet(@NonNull Entrant entrant, @NonNull String facet) {
+            String status = entrant.displayStatus;
+            if ("Accepted".equalsIgnoreCase(status)) return "accepted";
+            if ("Declined".equalsIgnoreCase(status)) return "declined";
+            if ("Pending".equalsIgnoreCase(status) || "Waiting".equalsIgnoreCase(status)) return "pending";
+            return null;
+        }
+    };
 
     private RecyclerView rvEntrants;
     private TextView tvTotal, tvAccepted, tvDeclined, tvPending, tvEmpty;
@@ -44,8 +75,11 @@ public class WaitingListFragment extends Fragment {
 
     // NEW: Store original list for filtering (added by Kulnoor)
     private List<Entrant> originalEntrantList = new ArrayList<>(); // Store original list for filtering
+    private final ListSearch<Entrant> search = new ListSearch<>(FIELDS, FACET_STATUS);
     private FirebaseFirestore db;
     private String eventId;
+    private DocumentStore.Subscription entrantsListener;
+    private ListenerRegistration statsListener;
 
     private ImageButton btnBack;
 
@@ -140,6 +174,7 @@ public class WaitingListFragment extends Fragment {
         // NEW: Load and listen for real-time updates
 
         loadAndListenForUpdates();
+        listenForStats();
 
         etSearch.addTextChangedListener(new TextWatcher() {
             /**
@@ -159,149 +194,110 @@ public class WaitingListFragment extends Fragment {
         });
     }
 
+    /**
+     * Detaches the Firestore listeners when the view is destroyed.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        search.cancel();
+        if (entrantsListener != null) {
+            entrantsListener.remove();
+            entrantsListener = null;
+        }
+        if (statsListener != null) {
+            statsListener.remove();
+            statsListener = null;
+        }
+    }
+
     // NEW: Method to load data and set up real-time listener
     /**
      * Subscribes to real-time updates on the waiting list for this event and
      * rebuilds the entrant list whenever changes occur.
      * <p>
-     * For each document in the {@code waiting_list} subcollection, this method
-     * derives a display status, fetches the corresponding user document to get
-     * their name and profile picture, updates the entrant list, and refreshes
-     * the summary statistics.
+     * {@link WaitingListRoster} derives each entry's display status and resolves every
+     * entrant's name and profile picture in one batched, cached call through
+     * {@link UserProfileResolver}. The summary statistics come from {@link #listenForStats()}.
      */
     private void loadAndListenForUpdates() {
-        db.collection("org_events").document(eventId)
-                .collection("waiting_list")
-                .addSnapshotListener((snap, err) -> {
-                    entrantList.clear();
-                    int total = 0, accepted = 0, declined = 0, pending = 0;
-
-                    if (snap != null) {
-                        for (DocumentSnapshot d : snap.getDocuments()) {
-                            String uid = d.getId();
-                            //String name = d.getString("name");
-                            String status = d.getString("status");
-                            String responded = d.getString("responded");
-
-                            String displayStatus;
-                            if ("chosen".equalsIgnoreCase(status) && "pending".equalsIgnoreCase(responded)) {
-                                displayStatus = "Pending";
-                            } else if ("selected".equalsIgnoreCase(status) && "accepted".equalsIgnoreCase(responded)) {
-                                displayStatus = "Accepted";
-                            } else if ("waiting".equalsIgnoreCase(status) && "declined".equalsIgnoreCase(responded)) {
-                                displayStatus = "Declined";
-                            } else if ("waiting".equalsIgnoreCase(status)) {
-                                displayStatus = "Waiting";
-                            } else {
-                                displayStatus = responded != null ? responded : "Pending";
-                            }
-
-                            String finalDisplayStatus = displayStatus;
-
-                            // NEW: Fetch user's name and update entrant in real-time (added by Kulnoor)
-                            db.collection("users")
-                                    .document(uid)
-                                    .get()
-                                    .addOnSuccessListener(userDoc -> {
-                                        String userName = userDoc.getString("name");
-                                        if (userName == null || userName.isEmpty()) {
-                                            userName = uid; // just use the device id
-                                        }
-                                        String photoUrl = userDoc.getString("profilepicture");
-                                        Entrant newEntrant = new Entrant(uid, userName, finalDisplayStatus, photoUrl);
-
-                                        // NEW: Update existing entrant or add new one (added by Kulnoor)
-                                        updateEntrantList(newEntrant);
-                                    })
-                                    .addOnFailureListener(e -> {
-                                        // Handle case where user doc doesn't exist
-                                        Entrant newEntrant = new Entrant(uid, uid, finalDisplayStatus,null);
-                                        updateEntrantList(newEntrant);
-                                    });
-                        }
+        WaitingListRoster roster = new WaitingListRoster(
+                FirestoreDocumentStore.tracked(db, "WaitingListFragment.roster"),
+                UserProfileResolver.shared(FirestoreDocumentStore.tracked(db, "UserProfileResolver")));
+        entrantsListener = roster.listen(eventId, new WaitingListRoster.Listener() {
+            @Override
+            public void onRoster(@NonNull List<Entrant> entrants) {
+                if (isAdded()) replaceEntrants(entrants);
+            }
 
-                        // Update statistics in real-time
-                        updateStatsFromFirestore(snap);
-                    }
-                });
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (isAdded()) {
+                    Toast.makeText(requireContext(),
+                            "Error loading waiting list", Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
     }
 
     // Method to update the entrant lists in real-time
 
     /**
-     * Updates the in-memory entrant lists with a new or modified entrant and reapplies filters.
+     * Replaces the in-memory entrant list with the latest snapshot's rows and reapplies filters.
      * <p>
-     * Any existing entries with the same UID are removed from both the visible and
-     * original lists, then the new entrant is added to the original list before
-     * calling {@link #applyFilters()}.
+     * Entrants who left the waiting list drop out here, since the whole list is rebuilt
+     * from the snapshot rather than patched one row at a time.
      *
-     * @param newEntrant the entrant to insert or update
+     * @param rows entrants in snapshot order, with names and pictures resolved
      */
-    private void updateEntrantList(Entrant newEntrant) {
-        // NEW: Remove existing entrant with same UID if it exists (added by Kulnoor)
-        entrantList.removeIf(entrant -> entrant.uid.equals(newEntrant.uid));
-        originalEntrantList.removeIf(entrant -> entrant.uid.equals(newEntrant.uid));
-
-        // NEW: Add the updated entrant (added by Kulnoor)
-        originalEntrantList.add(newEntrant);
+    private void replaceEntrants(List<Entrant> rows) {
+        originalEntrantList.clear();
+        originalEntrantList.addAll(rows);
+        search.replaceAll(rows);
 
         //  Apply current filter to update visible list
         applyFilters();
     }
 
-    //  Method to update statistics from Firestore snapshot
+    /**
+     * Subscribes to the event's aggregate counts through {@link EventStatsRepository},
+     * so the summary row costs one document read per change instead of a pass over
+     * the whole waiting list.
+     */
+    private void listenForStats() {
+        statsListener = new EventStatsRepository(db).listen(eventId,
+                new EventStatsRepository.StatsListener() {
+                    @Override
+                    public void onStats(@NonNull EventStats stats) {
+                        if (isAdded()) updateStatsFromFirestore(stats);
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        if (isAdded()) {
+                            Toast.makeText(requireContext(),
+                                    "Error loading waiting list stats", Toast.LENGTH_SHORT).show();
+                        }
+                    }
+                });
+    }
 
     /**
-     * Recomputes and displays aggregate statistics for the waiting list.
+     * Displays aggregate statistics for the waiting list.
      * <p>
-     * Iterates over the snapshot of {@code waiting_list} documents, interprets
-     * the logical status (accepted, declined, pending, etc.), counts each category,
-     * and updates the summary TextViews and CSV export button visibility.
+     * Updates the summary TextViews (total, accepted, declined, pending) and shows the
+     * CSV export button only when at least one entrant has accepted.
      *
-     * @param snap the Firestore snapshot of the event's waiting list
+     * @param stats the event's current waiting list counts
      */
-
-    private void updateStatsFromFirestore(com.google.firebase.firestore.QuerySnapshot snap) {
-        int total = 0, accepted = 0, declined = 0, pending = 0;
-
-        for (DocumentSnapshot d : snap.getDocuments()) {
-            String status = d.getString("status");
-            String responded = d.getString("responded");
-
-            String displayStatus;
-            if ("chosen".equalsIgnoreCase(status) && "pending".equalsIgnoreCase(responded)) {
-                displayStatus = "Pending";
-            } else if ("selected".equalsIgnoreCase(status) && "accepted".equalsIgnoreCase(responded)) {
-                displayStatus = "Accepted";
-            } else if ("waiting".equalsIgnoreCase(status) && "declined".equalsIgnoreCase(responded)) {
-                displayStatus = "Declined";
-            } else if ("waiting".equalsIgnoreCase(status)) {
-                displayStatus = "Waiting";
-            } else {
-                displayStatus = responded != null ? responded : "Pending";
-            }
-
-            String safeResponded = responded != null ? responded.toLowerCase() : "pending";
-
-            switch (safeResponded) {
-                case "accepted": accepted++; break;
-                case "declined": declined++; break;
-                case "waiting" :
-                    pending++; break;
-                default: pending++; break;
-            }
-        }
-
-        total = snap.size();
-
-        // Update UI with new statistics
-        tvTotal.setText(total + " Total");
-        tvAccepted.setText(accepted + " Accepted");
-        tvDeclined.setText(declined + " Declined");
-        tvPending.setText(pending + " Pending");
+    private void updateStatsFromFirestore(@NonNull EventStats stats) {
+        tvTotal.setText(stats.total + " Total");
+        tvAccepted.setText(stats.accepted + " Accepted");
+        tvDeclined.setText(stats.declined + " Declined");
+        tvPending.setText(stats.pending() + " Pending");
 
         if (btnExportCsv != null) {
-            btnExportCsv.setVisibility(accepted > 0 ? View.VISIBLE : View.GONE);
+            btnExportCsv.setVisibility(stats.accepted > 0 ? View.VISIBLE : View.GONE);
         }
     }
 
@@ -358,46 +354,19 @@ public class WaitingListFragment extends Fragment {
      * Applies the current text search and status filter to the entrant list,
      * then updates the adapter and empty-state UI.
      * <p>
-     * This method uses {@link #originalEntrantList} as the source of truth,
-     * and filters by name/UID and by logical status (accepted, declined, pending, etc.).
+     * The query runs against {@link #search}, which indexes {@link #originalEntrantList}
+     * by name/UID and by logical status (accepted, declined, pending). Results arrive on the
+     * main thread once the search finishes; typing is debounced.
      */
     private void applyFilters() {
-        List<Entrant> filtered = new ArrayList<>();
-        String searchTerm = etSearch.getText().toString().toLowerCase();
-
-        // NEW: Loop through original list and apply both search and filter (added by Kulnoor)
-        for (Entrant entrant : originalEntrantList) {
-            //Check if search matches
-            boolean matchesSearch = searchTerm.isEmpty() ||
-                    entrant.nameOrUid.toLowerCase().contains(searchTerm);
-
-            //Check if filter matches (added by Kulnoor)
-            boolean matchesFilter = true;
-            switch (currentFilter) {
-                case "ACCEPTED":
-                    matchesFilter = "Accepted".equalsIgnoreCase(entrant.displayStatus);
-                    break;
-                case "DECLINED":
-                    matchesFilter = "Declined".equalsIgnoreCase(entrant.displayStatus);
-                    break;
-                case "PENDING":
-                    matchesFilter = "Pending".equalsIgnoreCase(entrant.displayStatus) ||
-                            "Waiting".equalsIgnoreCase(entrant.displayStatus);
-                    break;
-                case "ALL":
-                default:
-                    matchesFilter = true;
-                    break;
-            }
-
-            //  Only add if both search and filter match
-            if (matchesSearch && matchesFilter) {
-                filtered.add(entrant);
-            }
-        }
-
-        adapter.updateList(filtered);
-        tvEmpty.setVisibility(filtered.isEmpty() ? View.VISIBLE : View.GONE);
+        String status = "ALL".equals(currentFilter) ? null : currentFilter.toLowerCase(Locale.ROOT);
+        search.query(etSearch.getText().toString(),
+                Collections.singletonMap(FACET_STATUS, status),
+                filtered -> {
+                    if (!isAdded()) return;
+                    adapter.updateList(filtered);
+                    tvEmpty.setVisibility(filtered.isEmpty() ? View.VISIBLE : View.GONE);
+                });
     }
 
     /**
@@ -420,31 +389,13 @@ public class WaitingListFragment extends Fragment {
      * {@link android.content.Intent#ACTION_SEND} intent.
      */
     private void exportAcceptedToCsv() {
-        // 1) collect all accepted entrants for this event from the source list
-        List<Entrant> accepted = new ArrayList<>();
-        for (Entrant e : originalEntrantList) {
-            if ("Accepted".equalsIgnoreCase(e.displayStatus)) {
-                accepted.add(e);
-            }
-        }
-
-        if (accepted.isEmpty()) {
+        String csvContent = EntrantCsv.accepted(originalEntrantList);
+        if (csvContent == null) {
             Toast.makeText(requireContext(),
                     "No accepted entrants to export.", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        // 2) build CSV content
-        StringBuilder csv = new StringBuilder();
-        csv.append("Name,UID\n");
-        for (Entrant entrant : accepted) {
-            String name = safeCsv(entrant.nameOrUid);
-            String uid  = safeCsv(entrant.uid);
-            csv.append("\"").append(name).append("\",")
-                    .append("\"").append(uid).append("\"\n");
-        }
-        String csvContent = csv.toString();
-
         String fileName = "final_list_" + (eventId != null ? eventId : "entrants") + ".csv";
 
         if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.Q) {
@@ -514,19 +465,4 @@ public class WaitingListFragment extends Fragment {
         }
     }
 
-
-    /**
-     * Escapes a string so it can be safely embedded in a CSV field.
-     * <p>
-     * Currently this replaces double quotes with doubled double quotes,
-     * which is the standard CSV escaping rule.
-     *
-     * @param value the raw string value to escape; may be {@code null}
-     * @return a non-null, escaped string safe for CSV output
-     */
-    private String safeCsv(String value) {
-        if(value == null) return "";
-        return value.replace("\"", "\"\"");
-    }
-
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.example.ajilore.code.ui.events.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.UserProfileResolver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WaitingListRoster
+ *
+ * Purpose: Keeps the organizer's view of an event's waiting list up to date. It listens to
+ * {@code org_events/{eventId}/waiting_list}, derives each entrant's display status, and
+ * resolves every name and profile picture in one batched, cached call through
+ * {@link UserProfileResolver}. Profiles already shown are kept for the next snapshot, so a
+ * change to one entry costs one document read rather than a {@code users/{uid}} read per row.
+ * A profile dropped with {@link UserProfileResolver#invalidate} is read again and the
+ * roster rebuilt.
+ *
+ * Pattern: Works over {@link DocumentStore} so the screen's read budget can be checked
+ * against the in-memory fake; results from an older snapshot are dropped.
+ */
+public class WaitingListRoster {
+
+    /**
+     * Receives the rebuilt roster.
+     */
+    public interface Listener {
+        /**
+         * @param entrants every entrant in snapshot order, with names and pictures resolved
+         */
+        void onRoster(@NonNull List<Entrant> entrants);
+
+        /**
+         * @param e the listen error
+         */
+        void onError(@NonNull Exception e);
+    }
+
+    private final DocumentStore store;
+    private final UserProfileResolver profiles;
+
+    /**
+     * @param store    store to listen to
+     * @param profiles resolver for names and pictures
+     */
+    public WaitingListRoster(@NonNull DocumentStore store, @NonNull UserProfileResolver profiles) {
+        this.store = store;
+        this.profiles = profiles;
+    }
+
+    /**
+     * Status label shown for a waiting list entry.
+     *
+     * @param status    entry status ("waiting", "chosen", "selected", ...)
+     * @param responded entrant response ("pending", "accepted", "declined", ...)
+     * @return "Pending", "Accepted", "Declined", "Waiting", or the raw response
+     */
+    @NonNull
+    public static String displayStatus(@Nullable String status, @Nullable String responded) {
+        if ("chosen".equalsIgnoreCase(status) && "pending".equalsIgnoreCase(responded)) {
+            return "Pending";
+        } else if ("selected".equalsIgnoreCase(status) && "accepted".equalsIgnoreCase(responded)) {
+            return "Accepted";
+        } else if ("waiting".equalsIgnoreCase(status) && "declined".equalsIgnoreCase(responded)) {
+            return "Declined";
+        } else if ("waiting".equalsIgnoreCase(status)) {
+            return "Waiting";
+        }
+        return responded != null ? responded : "Pending";
+    }
+
+    /**
+     * Starts listening to an event's waiting list.
+     *
+     * @param eventId  event document ID
+     * @param listener receives the roster after every change
+     * @return registration to remove when the screen goes away
+     */
+    @NonNull
+    public DocumentStore.Subscription listen(@NonNull String eventId, @NonNull Listener listener) {
+        Session session = new Session(listener);
+        DocumentStore.Subscription inner = store.listen("org_events/" + eventId + "/waiting_list", session);
+        DocumentStore.Subscription invalidations = profiles.addInvalidationListener(session);
+        return () -> {
+            session.removed = true;
+            invalidations.remove();
+            inner.remove();
+        };
+    }
+
+    /** State of one {@link #listen} registration. */
+    private final class Session implements DocumentStore.SnapshotListener,
+            UserProfileResolver.InvalidationListener {
+
+        private final Listener listener;
+        /**
+         * Profiles of the entrants in the last roster, so a change only resolves new uids
+         * even when the list is larger than the resolver's cache. An invalidated profile
+         * is dropped and resolved again.
+         */
+        private final Map<String, UserProfileResolver.Profile> known = new HashMap<>();
+        /** Display status by uid from the last snapshot, in snapshot order. */
+        @Nullable
+        private Map<String, String> statusByUid;
+        private int version;
+        private boolean removed;
+
+        Session(@NonNull Listener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSnapshot(List<DocumentStore.Doc> docs, int changed) {
+            Map<String, String> statuses = new LinkedHashMap<>();
+            for (DocumentStore.Doc d : docs) {
+                statuses.put(d.id, displayStatus(d.getString("status"), d.getString("responded")));
+            }
+            statusByUid = statuses;
+            rebuild(statuses);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            if (!removed) listener.onError(e);
+        }
+
+        @Override
+        public void onInvalidated(@NonNull String uid) {
+            if (removed || known.remove(uid) == null || statusByUid == null) return;
+            rebuild(statusByUid);
+        }
+
+        private void rebuild(@NonNull Map<String, String> statuses) {
+            List<String> missing = new ArrayList<>();
+            for (String uid : statuses.keySet()) {
+                if (!known.containsKey(uid)) missing.add(uid);
+            }
+            int mine = ++version;
+            profiles.resolve(missing, resolved -> {
+                known.putAll(resolved);
+                if (removed || mine != version) return;
+                known.keySet().retainAll(statuses.keySet());
+                List<Entrant> rows = new ArrayList<>(statuses.size());
+                for (Map.Entry<String, String> row : statuses.entrySet()) {
+                    UserProfileResolver.Profile profile = known.get(row.getKey());
+                    rows.add(new Entrant(row.getKey(), profile.displayName(),
+                            row.getValue(), profile.photoUrl));
+                }
+                listener.onRoster(rows);
+            });
+        }
+    }
+}
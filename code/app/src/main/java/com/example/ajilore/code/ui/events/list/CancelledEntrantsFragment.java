@@ -13,8 +13,10 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.ajilore.code.R;
 import com.example.ajilore.code.adapters.EntrantAdapter;
+import com.example.ajilore.code.data.TrackedFirestore;
 import com.example.ajilore.code.models.Entrant;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 import java.util.ArrayList;
 import java.util.List;
@@ -40,6 +42,7 @@ public class CancelledEntrantsFragment extends Fragment {
     private ProgressBar progressBar;
     private TextView emptyView;
     private FirebaseFirestore db;
+    private ListenerRegistration entrantsListener;
 
     /**
      * Initializes Firestore and creates the in-memory list used by the adapter.
@@ -120,10 +123,12 @@ public class CancelledEntrantsFragment extends Fragment {
     private void loadCancelledEntrants() {
         showLoading(true);
 
-        db.collection("entrants")
+        Query query = db.collection("entrants")
                 .whereEqualTo("status", "cancelled")
-                .orderBy("cancelledDate", Query.Direction.DESCENDING)
-                .addSnapshotListener((snapshot, error) -> {
+                .orderBy("cancelledDate", Query.Direction.DESCENDING);
+        if (entrantsListener != null) entrantsListener.remove();
+        entrantsListener = TrackedFirestore.listen("CancelledEntrantsFragment.loadCancelledEntrants", query,
+                (snapshot, error) -> {
                     if (error != null) {
                         showLoading(false);
                         return;
@@ -139,13 +144,29 @@ public class CancelledEntrantsFragment extends Fragment {
                             }
                         }
 
-                        adapter.setEntrants(entrants);
-                        updateEmptyView();
-                        showLoading(false);
+                        // Entry docs carry the uid, not the name; resolve names in one batch.
+                        EntrantNames.fill(db, entrants, () -> {
+                            if (!isAdded()) return;
+                            adapter.setEntrants(entrants);
+                            updateEmptyView();
+                            showLoading(false);
+                        });
                     }
                 });
     }
 
+    /**
+     * Detaches the cancelled entrants listener when the view goes away.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (entrantsListener != null) {
+            entrantsListener.remove();
+            entrantsListener = null;
+        }
+    }
+
     /**
      * Toggles visibility between the empty state text and the RecyclerView
      * based on whether any cancelled entrants were loaded.
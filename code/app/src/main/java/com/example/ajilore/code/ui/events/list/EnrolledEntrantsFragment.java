@@ -18,9 +18,11 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.ajilore.code.R;
 import com.example.ajilore.code.adapters.EntrantAdapter;
+import com.example.ajilore.code.data.TrackedFirestore;
 import com.example.ajilore.code.models.Entrant;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 
 import java.io.File;
@@ -59,6 +61,7 @@ public class EnrolledEntrantsFragment extends Fragment {
     private ProgressBar progressBar;
     private TextView emptyView;
     private FirebaseFirestore db;
+    private ListenerRegistration entrantsListener;
 
     private String eventId;
     
@@ -169,12 +172,14 @@ public class EnrolledEntrantsFragment extends Fragment {
     private void loadEnrolledEntrants() {
         showLoading(true);
 
-        db.collection("org_events").document(eventId)
+        Query query = db.collection("org_events").document(eventId)
                 .collection("waiting_list")
                 .whereEqualTo("status", "chosen")
                 .whereEqualTo("responded", "accepted")
-                .orderBy("joinedAt", Query.Direction.DESCENDING)
-                .addSnapshotListener((snapshot, error) -> {
+                .orderBy("joinedAt", Query.Direction.DESCENDING);
+        if (entrantsListener != null) entrantsListener.remove();
+        entrantsListener = TrackedFirestore.listen("EnrolledEntrantsFragment.loadEnrolledEntrants", query,
+                (snapshot, error) -> {
                     if (error != null) {
                         showLoading(false);
                         return;
@@ -190,14 +195,30 @@ public class EnrolledEntrantsFragment extends Fragment {
                             }
                         }
 
-                        adapter.setEntrants(entrants);
-                        updateEmptyView();
-                        btnExportCsv.setVisibility(entrants.isEmpty() ? View.GONE: View.VISIBLE);
-                        showLoading(false);
+                        // Entry docs carry the uid, not the name; resolve names in one batch.
+                        EntrantNames.fill(db, entrants, () -> {
+                            if (!isAdded()) return;
+                            adapter.setEntrants(entrants);
+                            updateEmptyView();
+                            btnExportCsv.setVisibility(entrants.isEmpty() ? View.GONE: View.VISIBLE);
+                            showLoading(false);
+                        });
                     }
                 });
     }
 
+    /**
+     * Detaches the enrolled entrants listener when the view goes away.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (entrantsListener != null) {
+            entrantsListener.remove();
+            entrantsListener = null;
+        }
+    }
+
     /**
      * Shows the "empty" placeholder message when there are no enrolled entrants
      * and hides the RecyclerView. When entrants exist, the list becomes visible.
@@ -0,0 +1,56 @@
+package com.example.ajilore.code.ui.events.list;
+
+import androidx.annotation.NonNull;
+
+import com.example.ajilore.code.data.FirestoreDocumentStore;
+import com.example.ajilore.code.data.UserProfileResolver;
+import com.example.ajilore.code.models.Entrant;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EntrantNames
+ *
+ * Purpose: Fills in missing display names on {@link Entrant} rows (entry documents
+ * usually store only the uid) with one batched, cached {@link UserProfileResolver} call.
+ */
+final class EntrantNames {
+    private EntrantNames() {}
+
+    /**
+     * Sets the name of every entrant that has none, then runs {@code onDone}.
+     * Entrants whose user has no name keep their uid as the label.
+     *
+     * @param db       Firestore instance
+     * @param entrants rows to complete (modified in place)
+     * @param onDone   called once the names are set (immediately if none were missing)
+     */
+    static void fill(@NonNull FirebaseFirestore db,
+                     @NonNull List<Entrant> entrants,
+                     @NonNull Runnable onDone) {
+        List<String> uids = new ArrayList<>();
+        for (Entrant e : entrants) {
+            if (e.getName() == null || e.getName().isEmpty()) uids.add(uidOf(e));
+        }
+        if (uids.isEmpty()) {
+            onDone.run();
+            return;
+        }
+        UserProfileResolver.shared(FirestoreDocumentStore.tracked(db, "UserProfileResolver")).resolve(uids, profiles -> {
+            for (Entrant e : entrants) {
+                if (e.getName() != null && !e.getName().isEmpty()) continue;
+                UserProfileResolver.Profile profile = profiles.get(uidOf(e));
+                if (profile != null) e.setName(profile.displayName());
+            }
+            onDone.run();
+        });
+    }
+
+    /** The user id of an entry: its {@code userId} field, else the document id. */
+    @NonNull
+    private static String uidOf(@NonNull Entrant e) {
+        return e.getUserId() != null && !e.getUserId().isEmpty() ? e.getUserId() : e.getId();
+    }
+}
@@ -1,10 +1,9 @@
 package com.example.ajilore.code.ui.events.list;
 
-import java.util.Date;
-
 /**
  * Model representing a single event row in the events feed, used by adapters for display.
- * Includes additional fields needed for filtering functionality (US 01.01.04)
+ * Every display string is formatted once when the row is built; rows are immutable so
+ * they can be built off the main thread.
  */
 public class EventRow {
 
@@ -29,22 +28,14 @@ public class EventRow {
     /** Poster Cloudinary URL (if image is remote), or null. */
     public final String posterUrl; //Cloudinary url
 
-    // ========== Additional fields for filtering (US 01.01.04) ==========
-
-    /** Event category for category filtering (e.g., "Music & Concerts", "Sports") */
-    public String category;
-
-    /** Event start date/time for date range filtering */
-    public Date startsAt;
+    /** Day of month for the date badge, e.g. "27"; empty when the date is unknown. */
+    public final String dayLabel;
 
-    /** Registration open date for availability filtering */
-    public Date regOpens;
+    /** Month name for the date badge, e.g. "November"; empty when the date is unknown. */
+    public final String monthLabel;
 
-    /** Registration close date for availability filtering */
-    public Date regCloses;
-
-    public String dayLabel;
-    public String monthLabel;
+    /** True when an admin has flagged the event; such rows are kept out of the feed. */
+    public final boolean flagged;
 
 
     /**
@@ -60,6 +51,26 @@ public class EventRow {
      */
     public EventRow(String id, String title, String location, String dateText,
                     int posterRes, String posterUrl, String status) {
+        this(id, title, location, dateText, posterRes, posterUrl, status, "", "", false);
+    }
+
+    /**
+     * Constructs a new immutable event row with the date badge labels and flagged state.
+     *
+     * @param id         Firestore doc ID of the event.
+     * @param title      Event title.
+     * @param location   Event location.
+     * @param dateText   Pre-formatted date and/or time.
+     * @param posterRes  Drawable res ID for thumbnail; used as fallback.
+     * @param posterUrl  Remote URL to image (Cloudinary or similar); may be null.
+     * @param status     String status to show in UI chips, e.g., "Open" or "Closed".
+     * @param dayLabel   Pre-formatted day of month, or empty.
+     * @param monthLabel Pre-formatted month name, or empty.
+     * @param flagged    True when an admin has flagged the event.
+     */
+    public EventRow(String id, String title, String location, String dateText,
+                    int posterRes, String posterUrl, String status,
+                    String dayLabel, String monthLabel, boolean flagged) {
         this.id = id;
         this.title = title;
         this.location = location;
@@ -67,6 +78,9 @@ public class EventRow {
         this.status = status;
         this.posterRes = posterRes;
         this.posterUrl = posterUrl;
+        this.dayLabel = dayLabel;
+        this.monthLabel = monthLabel;
+        this.flagged = flagged;
     }
 
     /**
@@ -0,0 +1,74 @@
+package com.example.ajilore.code.ui.events.list;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * EventRowOrder
+ *
+ * Purpose: Orders the entrant events feed: flagged rows are dropped and the rest are
+ * grouped by status, Open first, then Published, then Closed, then anything else.
+ * Rows keep their incoming order within a group.
+ *
+ * There are only four ranks, so rows are ranked once and placed with a counting pass,
+ * O(n), instead of re-ranking both sides of every comparison in a sort.
+ *
+ * Pattern: Stateless, Android-free helper so it can be unit tested and benchmarked on the JVM.
+ */
+public final class EventRowOrder {
+
+    private static final int RANKS = 4;
+
+    private EventRowOrder() {
+    }
+
+    /**
+     * @param status status label, in any case
+     * @return 1 for open, 2 for published, 3 for closed or missing, 4 for anything else
+     */
+    public static int statusRank(@Nullable String status) {
+        if (status == null) return 3;
+        String s = status.trim().toLowerCase(Locale.ROOT);
+        if ("open".equals(s)) return 1;
+        if ("published".equals(s)) return 2;
+        if ("closed".equals(s)) return 3;
+        return 4;
+    }
+
+    /**
+     * @param rows feed rows in their current order
+     * @return the unflagged rows, grouped by {@link #statusRank}, stable within each group
+     */
+    @NonNull
+    public static List<EventRow> visibleByStatus(@NonNull Collection<EventRow> rows) {
+        byte[] ranks = new byte[rows.size()];
+        int[] starts = new int[RANKS + 1];
+        int i = 0;
+        for (EventRow row : rows) {
+            int rank = row.flagged ? 0 : statusRank(row.status);
+            ranks[i++] = (byte) rank;
+            if (rank > 0) starts[rank]++;
+        }
+        // Counts to start offsets; slot 0 (flagged) takes no space.
+        int visible = 0;
+        for (int r = 1; r <= RANKS; r++) {
+            int count = starts[r];
+            starts[r] = visible;
+            visible += count;
+        }
+
+        EventRow[] out = new EventRow[visible];
+        i = 0;
+        for (EventRow row : rows) {
+            int rank = ranks[i++];
+            if (rank > 0) out[starts[rank]++] = row;
+        }
+        return new ArrayList<>(Arrays.asList(out));
+    }
+}
@@ -13,8 +13,10 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.ajilore.code.R;
 import com.example.ajilore.code.adapters.EntrantAdapter;
+import com.example.ajilore.code.data.TrackedFirestore;
 import com.example.ajilore.code.models.Entrant;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 import java.util.ArrayList;
 import java.util.List;
@@ -51,6 +53,7 @@ public class InvitedEntrantsFragment extends Fragment {
     private ProgressBar progressBar;
     private TextView emptyView;
     private FirebaseFirestore db;
+    private ListenerRegistration entrantsListener;
 
     /**
      * Initializes Firestore and the in-memory entrant list.
@@ -129,16 +132,18 @@ public class InvitedEntrantsFragment extends Fragment {
      *     <li>Toggles loading and empty-state views</li>
      * </ul>
      *
-     * <p>Because this uses {@code addSnapshotListener}, the UI stays synced with
+     * <p>Because this uses a realtime listener, the UI stays synced with
      * Firestore in real time.</p>
      */
     private void loadInvitedEntrants() {
         showLoading(true);
 
-        db.collection("entrants")
+        Query query = db.collection("entrants")
                 .whereEqualTo("status", "invited")
-                .orderBy("invitedDate", Query.Direction.DESCENDING)
-                .addSnapshotListener((snapshot, error) -> {
+                .orderBy("invitedDate", Query.Direction.DESCENDING);
+        if (entrantsListener != null) entrantsListener.remove();
+        entrantsListener = TrackedFirestore.listen("InvitedEntrantsFragment.loadInvitedEntrants", query,
+                (snapshot, error) -> {
                     if (error != null) {
                         showLoading(false);
                         return;
@@ -154,13 +159,29 @@ public class InvitedEntrantsFragment extends Fragment {
                             }
                         }
 
-                        adapter.setEntrants(entrants);
-                        updateEmptyView();
-                        showLoading(false);
+                        // Entry docs carry the uid, not the name; resolve names in one batch.
+                        EntrantNames.fill(db, entrants, () -> {
+                            if (!isAdded()) return;
+                            adapter.setEntrants(entrants);
+                            updateEmptyView();
+                            showLoading(false);
+                        });
                     }
                 });
     }
 
+    /**
+     * Detaches the invited entrants listener when the view goes away.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (entrantsListener != null) {
+            entrantsListener.remove();
+            entrantsListener = null;
+        }
+    }
+
     /**
      * Shows or hides the "empty" placeholder text depending on whether any
      * invited entrants exist. Also toggles the RecyclerView accordingly.
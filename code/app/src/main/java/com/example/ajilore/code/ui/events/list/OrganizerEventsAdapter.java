@@ -10,18 +10,23 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.ajilore.code.R;
 import com.example.ajilore.code.activities.OrganizerEntrantsActivity;
 import com.bumptech.glide.Glide;
+import com.example.ajilore.code.images.Images;
 
-import java.util.List;
+import java.util.Objects;
 
 /**
- * RecyclerView.Adapter that binds {@link EventItem} objects for the organizer's event list.
+ * ListAdapter that binds {@link EventItem} objects for the organizer's event list.
  * Handles image loading for event poster, subtitle visibility, and click actions for both row and edit icon.
+ * Lists are submitted with {@link #submitList} and diffed off the main thread.
  */
-public class OrganizerEventsAdapter extends RecyclerView.Adapter<OrganizerEventsAdapter.EventVH> {
+public class OrganizerEventsAdapter extends ListAdapter<EventItem, OrganizerEventsAdapter.EventVH> {
     /** Click handler for an event row. */
     public interface OnEventClick {
         /**
@@ -30,24 +35,52 @@ public class OrganizerEventsAdapter extends RecyclerView.Adapter<OrganizerEvents
          */
         void onClick(EventItem item); }
 
-    private final List<EventItem> items;
+    /** Rows are the same event when the id matches; contents compare every bound field. */
+    static final DiffUtil.ItemCallback<EventItem> DIFF = new DiffUtil.ItemCallback<EventItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull EventItem a, @NonNull EventItem b) {
+            return Objects.equals(a.eventId, b.eventId);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull EventItem a, @NonNull EventItem b) {
+            return a == b || (Objects.equals(a.title, b.title)
+                    && Objects.equals(a.dateText, b.dateText)
+                    && Objects.equals(a.subtitle, b.subtitle)
+                    && a.posterRes == b.posterRes
+                    && Objects.equals(a.posterUrl, b.posterUrl)
+                    && Objects.equals(a.status, b.status));
+        }
+    };
+
     private final OnEventClick click;
     private boolean isOrganizer = false; // NEW: Flag to determine if user is organizer
 
     /**
-     * Constructs an OrganizerEventsAdapter.
+     * Constructs an OrganizerEventsAdapter. Rows are supplied with {@link #submitList}.
      *
-     * @param items List of {@link EventItem} data to display.
      * @param click Callback invoked for row or edit icon clicks.
      */
-    public OrganizerEventsAdapter(List<EventItem> items, OnEventClick click) {
-        this.items = items;
+    public OrganizerEventsAdapter(OnEventClick click) {
+        super(DIFF);
         this.click = click;
     }
 
     // NEW by Kulnoor: Method to set if user is organizer
     public void setIsOrganizer(boolean isOrganizer) {
+        if (this.isOrganizer == isOrganizer) return;
         this.isOrganizer = isOrganizer;
+        notifyItemRangeChanged(0, getItemCount());
+    }
+
+    /**
+     * @param position adapter position
+     * @return the row's remote poster URL, or null if it shows a bundled drawable
+     */
+    @Nullable
+    public String posterUrlAt(int position) {
+        String url = getItem(position).posterUrl;
+        return url != null && url.startsWith("http") ? url : null;
     }
 
     /**
@@ -73,16 +106,7 @@ public class OrganizerEventsAdapter extends RecyclerView.Adapter<OrganizerEvents
      */
     @Override
     public void onBindViewHolder(@NonNull EventVH h, int pos) {
-        h.bind(items.get(pos), click, isOrganizer);
-    }
-
-    /**
-     * Returns the number of events currently in the adapter.
-     * @return List size.
-     */
-    @Override
-    public int getItemCount() {
-        return items.size();
+        h.bind(getItem(pos), click, isOrganizer);
     }
 
     // ---------- view holder ----------
@@ -125,8 +149,7 @@ public class OrganizerEventsAdapter extends RecyclerView.Adapter<OrganizerEvents
             //ivPoster.setImageResource(e.posterRes);
             //---THIS SETS THE IMAGE IN THE ORGANIZER LIST-----
             if(e.posterUrl != null && e.posterUrl.startsWith("http")){
-                Glide.with(itemView.getContext())
-                        .load(e.posterUrl)
+                Images.thumbnail(Glide.with(itemView.getContext()), e.posterUrl)
                         .placeholder(e.posterRes)
                         .into(ivPoster);
             } else {
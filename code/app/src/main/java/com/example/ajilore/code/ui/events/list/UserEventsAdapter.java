@@ -9,13 +9,18 @@ import android.widget.TextView;
 
 import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.images.Images;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for the Events feed that matches the required item_event.xml structure.
@@ -31,12 +36,30 @@ import java.util.List;
  *  - tvLocation          (location row)
  *  - btnViewDetails      (CTA button at the bottom)
  */
-public class UserEventsAdapter extends RecyclerView.Adapter<UserEventsAdapter.VH> {
+public class UserEventsAdapter extends ListAdapter<EventRow, UserEventsAdapter.VH> {
 
     /** Row click callback. We’ll call it for both the whole card and the CTA button. */
     public interface OnEventClick { void onClick(EventRow row); }
 
-    private final List<EventRow> items = new ArrayList<>();
+    /** Rows are the same event when the id matches; contents compare every bound field. */
+    static final DiffUtil.ItemCallback<EventRow> DIFF = new DiffUtil.ItemCallback<EventRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull EventRow a, @NonNull EventRow b) {
+            return Objects.equals(a.id, b.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull EventRow a, @NonNull EventRow b) {
+            return a == b || (Objects.equals(a.title, b.title)
+                    && Objects.equals(a.location, b.location)
+                    && Objects.equals(a.dateText, b.dateText)
+                    && Objects.equals(a.status, b.status)
+                    && a.posterRes == b.posterRes
+                    && Objects.equals(a.posterUrl, b.posterUrl)
+                    && Objects.equals(a.dayLabel, b.dayLabel)
+                    && Objects.equals(a.monthLabel, b.monthLabel));
+        }
+    };
 
     /**
      * Called when an event row or its CTA button is clicked.
@@ -53,18 +76,28 @@ public class UserEventsAdapter extends RecyclerView.Adapter<UserEventsAdapter.VH
      * @param onClick  Callback for responding to row click events.
      */
     public UserEventsAdapter(@LayoutRes int layoutId, @NonNull OnEventClick onClick) {
+        super(DIFF);
         this.layoutId = layoutId;      // should be R.layout.item_event for this design
         this.onClick = onClick;
     }
 
     /**
-     * Replace the full list of events with new items and refresh the UI.
+     * Replace the full list of events with new items. The new list is diffed against the
+     * old one off the main thread, so only rows that changed are rebound.
      * @param newItems List of event rows to display.
      */
     public void replaceAll(@NonNull List<EventRow> newItems) {
-        items.clear();
-        items.addAll(newItems);
-        notifyDataSetChanged();
+        submitList(new ArrayList<>(newItems));
+    }
+
+    /**
+     * @param position adapter position
+     * @return the row's remote poster URL, or null if it shows a bundled drawable
+     */
+    @Nullable
+    public String posterUrlAt(int position) {
+        String url = getItem(position).posterUrl;
+        return url != null && url.startsWith("http") ? url : null;
     }
 
     /**
@@ -86,17 +119,10 @@ public class UserEventsAdapter extends RecyclerView.Adapter<UserEventsAdapter.VH
      */
     @Override
     public void onBindViewHolder(@NonNull VH holder, int position) {
-        holder.bind(items.get(position), onClick);
+        holder.bind(getItem(position), onClick);
 
     }
 
-    /**
-     * Returns the number of events currently in the adapter.
-     * @return List size.
-     */
-    @Override
-    public int getItemCount() { return items.size(); }
-
     /** Holds references to item_event.xml views and binds one EventRow into them. */
     static class VH extends RecyclerView.ViewHolder {
         private final ImageView ivPoster;
@@ -141,8 +167,7 @@ public class UserEventsAdapter extends RecyclerView.Adapter<UserEventsAdapter.VH
             //ivPoster.setImageResource(row.posterRes);
             if(row.posterUrl != null && row.posterUrl.startsWith("http")){
                 //This means that its a cloudinary image
-                Glide.with(itemView.getContext())
-                        .load(row.posterUrl)
+                Images.thumbnail(Glide.with(itemView.getContext()), row.posterUrl)
                         .placeholder(row.posterRes)
                         .into(ivPoster);
             } else {
@@ -9,6 +9,8 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.ajilore.code.R;
@@ -16,17 +18,33 @@ import com.example.ajilore.code.ui.events.data.Entrant;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.load.engine.DiskCacheStrategy;
 
 /**
- * RecyclerView.Adapter for displaying a waiting list of Entrants in a RecyclerView.
+ * ListAdapter for displaying a waiting list of Entrants in a RecyclerView.
  * Binds entrant data to rows and styles them according to their display status.
+ * Updates are diffed off the main thread, so only changed rows are rebound.
  */
-public class WaitingListAdapter extends RecyclerView.Adapter<WaitingListAdapter.VH> {
-    private final List<Entrant> items;
+public class WaitingListAdapter extends ListAdapter<Entrant, WaitingListAdapter.VH> {
     private final Context context;
 
+    /** Rows are the same entrant when the uid matches; contents compare what is shown. */
+    static final DiffUtil.ItemCallback<Entrant> DIFF = new DiffUtil.ItemCallback<Entrant>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Entrant a, @NonNull Entrant b) {
+            return Objects.equals(a.uid, b.uid);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Entrant a, @NonNull Entrant b) {
+            return Objects.equals(a.nameOrUid, b.nameOrUid)
+                    && Objects.equals(a.displayStatus, b.displayStatus)
+                    && Objects.equals(a.profilePictureUrl, b.profilePictureUrl);
+        }
+    };
+
 
     /**
      * Constructs a new WaitingListAdapter.
@@ -35,18 +53,18 @@ public class WaitingListAdapter extends RecyclerView.Adapter<WaitingListAdapter.
      * @param items  List of Entrant objects to show in the waiting list.
      */
     public WaitingListAdapter(Context ctx, List<Entrant> items) {
+        super(DIFF);
         this.context = ctx;
-        this.items = new ArrayList<>(items);
+        submitList(new ArrayList<>(items));
     }
 
     /**
-     * Replaces the current list with a new set of entrants and refreshes the adapter.
+     * Replaces the current list with a new set of entrants. The change is diffed in the
+     * background and only rows that differ are rebound.
      * @param newItems The new list of entrants to display.
      */
     public void updateList(List<Entrant> newItems) {
-        items.clear();
-        items.addAll(newItems);
-        notifyDataSetChanged();
+        submitList(new ArrayList<>(newItems));
     }
 
     /**
@@ -70,16 +88,7 @@ public class WaitingListAdapter extends RecyclerView.Adapter<WaitingListAdapter.
      */
     @Override
     public void onBindViewHolder(@NonNull VH holder, int pos) {
-        holder.bind(items.get(pos), context);
-    }
-
-    /**
-     * Returns the number of entrants in the waiting list.
-     * @return The number of entrants.
-     */
-    @Override
-    public int getItemCount() {
-        return items.size();
+        holder.bind(getItem(pos), context);
     }
 
     /**
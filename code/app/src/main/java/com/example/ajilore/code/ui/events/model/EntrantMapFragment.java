@@ -1,6 +1,12 @@
 package com.example.ajilore.code.ui.events.model;
 
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -13,17 +19,35 @@ import androidx.fragment.app.Fragment;
 
 import com.example.ajilore.code.MainActivity;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.EntrantGeoRepository;
+import com.example.ajilore.code.data.GeoDensity;
+import com.example.ajilore.code.utils.BackgroundExecutors;
+import com.example.ajilore.code.utils.ClusterIndex;
+import com.example.ajilore.code.utils.GeoHash;
 import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
 import com.google.android.gms.maps.OnMapReadyCallback;
 import com.google.android.gms.maps.SupportMapFragment;
+import com.google.android.gms.maps.model.BitmapDescriptor;
+import com.google.android.gms.maps.model.BitmapDescriptorFactory;
+import com.google.android.gms.maps.model.CameraPosition;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.LatLngBounds;
+import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * {@code EntrantMapFragment} displays a Google Map containing the geographic
@@ -37,9 +61,11 @@ import java.util.List;
  * <h3>Core Responsibilities</h3>
  * <ul>
  *     <li>Retrieves all entrants in {@code org_events/{eventId}/waiting_list}</li>
- *     <li>Extracts saved latitude/longitude values for each entrant</li>
- *     <li>Places map markers for entrants who provided valid location data</li>
- *     <li>Automatically adjusts the camera to fit all markers</li>
+ *     <li>For large lists, reads per-area counts from {@code stats/geo} instead of every entrant</li>
+ *     <li>Otherwise extracts saved latitude/longitude values for each entrant</li>
+ *     <li>Groups entrants into grid clusters with {@link ClusterIndex}, off the main thread</li>
+ *     <li>Shows markers only for the clusters in view, updating them when the camera stops</li>
+ *     <li>Automatically adjusts the camera to fit all entrants</li>
  *     <li>Provides a back navigation button and hides bottom navigation while active</li>
  * </ul>
  *
@@ -56,11 +82,29 @@ import java.util.List;
 public class EntrantMapFragment extends Fragment implements OnMapReadyCallback {
 
     private static final String ARG_EVENT_ID = "eventId";
+    /**
+     * Above this many located entrants the map is drawn from the geohash density cells;
+     * below it, downloading the entrants is cheap and gives exact positions.
+     */
+    private static final long DENSITY_THRESHOLD = 1000;
 
     private String eventId;
     private FirebaseFirestore db;
     private GoogleMap myMap;
-    private final List<LatLng> entrantLocations = new ArrayList<>();
+
+    /** Builds the cluster index and answers viewport queries; shared by all map screens. */
+    private static final ExecutorService CLUSTER_WORKER = BackgroundExecutors.serial("entrant-clusters");
+
+    private final Handler main = new Handler(Looper.getMainLooper());
+    /** Null until the waiting list has been loaded and indexed. */
+    @Nullable
+    private ClusterIndex clusters;
+    /** Markers on the map, by {@link ClusterIndex.Cluster#key}. */
+    private final Map<Long, Marker> markers = new HashMap<>();
+    /** Cluster icons by label, e.g. "12" or "1k+". */
+    private final Map<String, BitmapDescriptor> clusterIcons = new HashMap<>();
+    /** Bumped for every viewport query; only the newest one updates the markers. */
+    private int viewportGeneration;
 
     /**
      * Factory method for creating a new {@code EntrantMapFragment} tied
@@ -129,30 +173,70 @@ public class EntrantMapFragment extends Fragment implements OnMapReadyCallback {
 
     /**
      * Called once the Google Map is fully initialized. Stores the map
-     * reference and begins loading entrant locations from Firestore.
+     * reference, wires the camera and marker listeners and begins loading
+     * entrant locations from Firestore.
      *
      * @param googleMap The fully prepared GoogleMap object.
      */
     @Override
     public void onMapReady(@NonNull GoogleMap googleMap) {
         myMap = googleMap;
-        loadEntrantLocations();
+        myMap.setOnCameraIdleListener(this::refreshVisibleClusters);
+        myMap.setOnMarkerClickListener(this::onMarkerClick);
+        loadDensityOrEntrants();
     }
 
     /**
-     * Fetches all documents under {@code waiting_list} for the event and
-     * extracts the latitude/longitude stored for each entrant.
-     *
-     * <p>For each entrant with valid coordinates:</p>
-     * <ul>
-     *     <li>A marker is added to the map</li>
-     *     <li>The coordinates are stored locally for camera adjustment</li>
-     * </ul>
+     * Detaches map listeners and drops any viewport query still in flight.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        viewportGeneration++;
+        if (myMap != null) {
+            myMap.setOnCameraIdleListener(null);
+            myMap.setOnMarkerClickListener(null);
+        }
+        markers.clear();
+    }
+
+    /**
+     * Reads the event's density document and draws the map from it when the list is
+     * large, so opening the map costs one read however many entrants there are. Smaller
+     * lists, and events whose density document is missing or unreadable, load every
+     * entrant instead.
+     */
+    private void loadDensityOrEntrants() {
+        new EntrantGeoRepository(db).fetchDensity(eventId, new DocumentStore.ResultCallback<GeoDensity>() {
+            @Override
+            public void onSuccess(GeoDensity density) {
+                if (density.total < DENSITY_THRESHOLD) {
+                    loadEntrantLocations();
+                    return;
+                }
+                CLUSTER_WORKER.execute(() -> {
+                    ClusterIndex index = buildIndex(density);
+                    main.post(() -> showIndex(index));
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e("MapError", "Density read failed: " + e.getMessage());
+                loadEntrantLocations();
+            }
+        });
+    }
+
+    /**
+     * Fetches all documents under {@code waiting_list} for the event, then
+     * reads the latitude/longitude stored for each entrant and builds a
+     * {@link ClusterIndex} from them on a background thread.
      *
-     * Entrants without stored location data are logged and skipped.
+     * Entrants without stored location data are skipped.
      *
-     * <p>After all markers are added, the camera is adjusted to include
-     * all visible markers.</p>
+     * <p>Once the index is ready, the camera is adjusted to include every
+     * entrant; the markers follow when the camera stops moving.</p>
      */
     private void loadEntrantLocations() {
         db.collection("org_events")
@@ -165,58 +249,197 @@ public class EntrantMapFragment extends Fragment implements OnMapReadyCallback {
                         Log.d("MapDebug", "No entrants in waiting list.");
                         return;
                     }
-                    for (var wlDoc : waitlistDocs) {
+                    CLUSTER_WORKER.execute(() -> {
+                        ClusterIndex index = buildIndex(waitlistDocs);
+                        main.post(() -> showIndex(index));
+                    });
+                })
+                .addOnFailureListener(e ->
+                        Log.e("MapError", e.getMessage()));
+    }
+
+    /**
+     * Fits the camera to a freshly built index and draws the clusters in view.
+     *
+     * @param index entrants or density cells to show
+     */
+    private void showIndex(ClusterIndex index) {
+        if (!isAdded() || myMap == null) return;
+        clusters = index;
+        fitCameraToAllMarkers();
+        refreshVisibleClusters();
+    }
+
+    /**
+     * Places one weighted point at the center of each density cell. Runs on the cluster worker.
+     *
+     * @param density entrant counts per geohash cell
+     * @return an index whose cluster sizes are entrant counts
+     */
+    private static ClusterIndex buildIndex(GeoDensity density) {
+        int n = density.cells.size();
+        double[] lats = new double[n];
+        double[] lngs = new double[n];
+        int[] weights = new int[n];
+        int i = 0;
+        for (Map.Entry<String, Long> cell : density.cells.entrySet()) {
+            double[] center = GeoHash.center(cell.getKey());
+            lats[i] = center[0];
+            lngs[i] = center[1];
+            weights[i] = (int) Math.min(Integer.MAX_VALUE, cell.getValue());
+            i++;
+        }
+        Log.d("MapDebug", density.total + " entrants in " + n + " density cells.");
+        return new ClusterIndex(lats, lngs, weights);
+    }
 
-                        Double lat = wlDoc.getDouble("latitude");
-                        Double lng = wlDoc.getDouble("longitude");
+    /**
+     * Reads the coordinates out of the waiting list snapshot. Runs on the cluster worker.
+     *
+     * @param waitlistDocs the waiting list documents
+     * @return an index over the entrants that have a location
+     */
+    private static ClusterIndex buildIndex(QuerySnapshot waitlistDocs) {
+        List<DocumentSnapshot> docs = waitlistDocs.getDocuments();
+        double[] lats = new double[docs.size()];
+        double[] lngs = new double[docs.size()];
+        int n = 0;
+        for (DocumentSnapshot wlDoc : docs) {
+            Double lat = wlDoc.getDouble("latitude");
+            Double lng = wlDoc.getDouble("longitude");
+            if (lat == null || lng == null) continue;
+            lats[n] = lat;
+            lngs[n] = lng;
+            n++;
+        }
+        Log.d("MapDebug", n + " of " + docs.size() + " entrants have a location.");
+        return new ClusterIndex(Arrays.copyOf(lats, n), Arrays.copyOf(lngs, n));
+    }
 
-                        if (lat == null || lng == null) {
-                            Log.d("MapDebug", "User " + wlDoc.getId() + " has no location saved.");
-                            continue;
-                        }
+    /**
+     * Asks the index, in the background, for the clusters in the current viewport and
+     * then adds and removes markers so only those clusters are on the map. Markers for
+     * clusters that are still visible are kept as they are.
+     */
+    private void refreshVisibleClusters() {
+        ClusterIndex index = clusters;
+        if (index == null || myMap == null) return;
+
+        LatLngBounds view = myMap.getProjection().getVisibleRegion().latLngBounds;
+        float zoom = myMap.getCameraPosition().zoom;
+        int generation = ++viewportGeneration;
+        CLUSTER_WORKER.execute(() -> {
+            List<ClusterIndex.Cluster> visible = index.visible(zoom,
+                    view.southwest.latitude, view.southwest.longitude,
+                    view.northeast.latitude, view.northeast.longitude);
+            main.post(() -> {
+                if (generation == viewportGeneration && isAdded()) showClusters(visible);
+            });
+        });
+    }
 
-                        LatLng pos = new LatLng(lat, lng);
-                        entrantLocations.add(pos);
+    /**
+     * Makes the markers on the map match {@code visible}.
+     *
+     * @param visible clusters in and just around the viewport
+     */
+    private void showClusters(List<ClusterIndex.Cluster> visible) {
+        Set<Long> keep = new HashSet<>();
+        for (ClusterIndex.Cluster c : visible) keep.add(c.key);
 
-                        myMap.addMarker(new MarkerOptions()
-                                .position(pos)
-                                .title("Entrant"));
-                    }
+        Iterator<Map.Entry<Long, Marker>> it = markers.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Marker> e = it.next();
+            if (!keep.contains(e.getKey())) {
+                e.getValue().remove();
+                it.remove();
+            }
+        }
 
-                    fitCameraToAllMarkers();
-                })
-                .addOnFailureListener(e ->
-                        Log.e("MapError", e.getMessage()));
+        for (ClusterIndex.Cluster c : visible) {
+            if (markers.containsKey(c.key)) continue;
+            MarkerOptions options = new MarkerOptions().position(new LatLng(c.lat, c.lng));
+            if (c.count == 1) {
+                options.title("Entrant");
+            } else {
+                options.title(c.count + " entrants")
+                        .icon(clusterIcon(c.count))
+                        .anchor(0.5f, 0.5f);
+            }
+            Marker marker = myMap.addMarker(options);
+            if (marker == null) continue;
+            marker.setTag(c);
+            markers.put(c.key, marker);
+        }
     }
 
     /**
-     * Adjusts the map camera to show all entrant markers.
+     * Zooms in on a tapped cluster; single entrants show their info window as usual.
+     *
+     * @param marker the tapped marker
+     * @return true if the tap was handled here
+     */
+    private boolean onMarkerClick(Marker marker) {
+        Object tag = marker.getTag();
+        if (!(tag instanceof ClusterIndex.Cluster) || ((ClusterIndex.Cluster) tag).count == 1) {
+            return false;
+        }
+        CameraPosition camera = myMap.getCameraPosition();
+        myMap.animateCamera(CameraUpdateFactory.newLatLngZoom(marker.getPosition(),
+                Math.min(myMap.getMaxZoomLevel(), camera.zoom + 2)));
+        return true;
+    }
+
+    /**
+     * @param count entrants in the cluster
+     * @return a round badge with the count, drawn once per label
+     */
+    private BitmapDescriptor clusterIcon(int count) {
+        String label = count < 1000 ? String.valueOf(count) : (count / 1000) + "k+";
+        BitmapDescriptor cached = clusterIcons.get(label);
+        if (cached != null) return cached;
+
+        float density = getResources().getDisplayMetrics().density;
+        int size = (int) ((label.length() > 2 ? 44 : 36) * density);
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(Color.parseColor("#00B6AA"));
+        canvas.drawCircle(size / 2f, size / 2f, size / 2f, paint);
+        paint.setColor(Color.WHITE);
+        paint.setTextSize(13 * density);
+        paint.setFakeBoldText(true);
+        paint.setTextAlign(Paint.Align.CENTER);
+        canvas.drawText(label, size / 2f, size / 2f - (paint.descent() + paint.ascent()) / 2, paint);
+
+        BitmapDescriptor icon = BitmapDescriptorFactory.fromBitmap(bitmap);
+        clusterIcons.put(label, icon);
+        return icon;
+    }
+
+    /**
+     * Adjusts the map camera to show all entrants.
      *
      * <p>Behavior:</p>
      * <ul>
-     *     <li>If no markers exist: do nothing</li>
-     *     <li>If exactly one marker exists: zoom in directly on that marker</li>
-     *     <li>If multiple markers exist: build a bounding box and adjust
-     *         the camera to include all markers with padding</li>
+     *     <li>If no entrant has a location: do nothing</li>
+     *     <li>If all entrants are at one spot: zoom in directly on it</li>
+     *     <li>Otherwise: fit the camera to the bounding box the index
+     *         computed while loading, with padding</li>
      * </ul>
      */
     private void fitCameraToAllMarkers() {
-        if (entrantLocations.isEmpty()) return;
+        double[] b = clusters != null ? clusters.bounds() : null;
+        if (b == null) return;
 
-        if (entrantLocations.size() == 1) {
+        LatLng southwest = new LatLng(b[0], b[1]);
+        LatLng northeast = new LatLng(b[2], b[3]);
+        if (southwest.equals(northeast)) {
             // One entrant → zoom into them
-            myMap.animateCamera(CameraUpdateFactory.newLatLngZoom(entrantLocations.get(0), 13));
+            myMap.animateCamera(CameraUpdateFactory.newLatLngZoom(southwest, 13));
             return;
         }
 
-        LatLngBounds.Builder builder = new LatLngBounds.Builder();
-
-        for (LatLng p : entrantLocations) {
-            builder.include(p);
-        }
-
-        LatLngBounds bounds = builder.build();
-
-        myMap.animateCamera(CameraUpdateFactory.newLatLngBounds(bounds, 120));
+        myMap.animateCamera(CameraUpdateFactory.newLatLngBounds(new LatLngBounds(southwest, northeast), 120));
     }
 }
@@ -12,6 +12,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.images.Images;
 
 import com.google.firebase.Timestamp;
 import java.text.DateFormat;
@@ -117,8 +118,7 @@ public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.ViewHold
 
         // Load poster image
         if (posterUrl != null && !posterUrl.isEmpty()) {
-            Glide.with(holder.itemView.getContext())
-                    .load(posterUrl)
+            Images.thumbnail(Glide.with(holder.itemView.getContext()), posterUrl)
                     .placeholder(R.drawable.image_placeholder)
                     .into(holder.imgPoster);
         } else {
@@ -12,22 +12,25 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.ajilore.code.MainActivity;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.InboxEntry;
+import com.example.ajilore.code.data.InboxFeed;
+import com.example.ajilore.code.utils.DateLabels;
+import com.example.ajilore.code.utils.RowProjector;
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentChange;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.WriteBatch;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import android.provider.Settings;
-import com.google.firebase.Timestamp;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 
 /**
  * InboxFragment
@@ -39,6 +42,9 @@ import java.util.Locale;
  * users/{deviceId}/registrations/{eventId}/inbox/{notificationId}
  * </pre>
  *
+ * <p>plus event broadcasts ({@code org_events/{eventId}/broadcasts}) that match the
+ * user's waiting-list status, merged in by {@link InboxFeed}.</p>
+ *
  * <p>Supports the following features:</p>
  * <ul>
  *    <li>View notifications grouped by event</li>
@@ -50,12 +56,17 @@ import java.util.Locale;
  *    <li>Navigate to Notification Settings</li>
  * </ul>
  *
- * <p><b>Design Pattern:</b> Fragment as controller, with real-time Firestore
- * listeners. UI state is delegated to {@link NotificationAdapter}, while data
- * persistence is handled via Firestore batch updates.</p>
+ * <p><b>Design Pattern:</b> Fragment as controller over the shared {@link InboxFeed}
+ * (one collection-group listener per source). The bottom-nav badge shares that feed
+ * for broadcasts and follows a server-maintained counter for personal notices
+ * ({@link com.example.ajilore.code.data.InboxUnreadRepository}). Older
+ * notifications are paged in as the list scrolls. UI state is delegated to
+ * {@link NotificationAdapter}, while data persistence is handled via Firestore
+ * batch updates.</p>
  */
 public class InboxFragment extends Fragment {
-    private String userProfileUrl;
+    /** Read by {@link #toNotification} on the projection thread; set through {@link #setProfileUrl}. */
+    private volatile String userProfileUrl;
     private RecyclerView recyclerNotifications;
     private NotificationAdapter adapter;
     private List<NotificationModel> notificationList;
@@ -72,6 +83,16 @@ public class InboxFragment extends Fragment {
     private NotificationAdapter.OnNotificationActionListener listener;
     // NEW: Add a flag to track user's notification preference (as per easiest approach)
     private boolean userNotificationsEnabled = true;
+    private InboxFeed feed;
+    private ListenerRegistration inboxSubscription;
+    /** Feed entries by notification doc id, to map adapter rows back to their documents. */
+    private final Map<String, InboxEntry> entriesByDocId = new HashMap<>();
+    /** Builds notification rows off the main thread, once per entry version. */
+    private final RowProjector<InboxEntry, NotificationModel> rows = RowProjector.toMainThread(this::toNotification);
+    /** Entries last handed to {@link #rows}, to rebuild them when the avatar changes. */
+    @Nullable
+    private List<InboxEntry> lastShown;
+    private String actionText;
 
     /**
      * Default public constructor for {@link InboxFragment}.
@@ -94,6 +115,7 @@ public class InboxFragment extends Fragment {
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_inbox, container, false);
+        actionText = getString(R.string.see_details);
         recyclerNotifications = view.findViewById(R.id.recyclerNotifications);
         recyclerNotifications.setLayoutManager(new LinearLayoutManager(getContext()));
         btnMarkAllRead = view.findViewById(R.id.btnMarkAllRead);
@@ -132,6 +154,25 @@ public class InboxFragment extends Fragment {
                 if (userId == null || userId.isEmpty()) return;
                 String eventId = notification.getEventId();
                 String docId   = notification.getFirestoreDocId();
+                InboxEntry pulled = entriesByDocId.get(docId);
+                if (feed != null && pulled != null && pulled.isBroadcast()) {
+                    // Event broadcasts are shared; archive only this user's overlay copy.
+                    feed.setBroadcastArchived(pulled, true, new DocumentStore.ResultCallback<Void>() {
+                        @Override
+                        public void onSuccess(Void result) {
+                            if (!isAdded()) return;
+                            Toast.makeText(getContext(), "Notification archived", Toast.LENGTH_SHORT).show();
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            if (!isAdded()) return;
+                            Toast.makeText(getContext(), "Failed to archive: " + e.getMessage(),
+                                    Toast.LENGTH_SHORT).show();
+                        }
+                    });
+                    return;
+                }
                 // Per-user path
                 DocumentReference userInboxRef = db.collection("users")
                         .document(userId)
@@ -152,11 +193,13 @@ public class InboxFragment extends Fragment {
                 batch.update(orgInboxRef,  "archived", true);
                 batch.commit()
                         .addOnSuccessListener(aVoid -> {
-                            // Just remove from current inbox list.
-                            // Snapshot listener will add it to archivedList when 'archived' becomes true.
-                            notificationList.remove(notification);
-                            adapter.updateList(getCurrentList(), showingArchived);
-                            updateInboxBadgeFromLists();
+                            // The live listener moves it to the archive; older pages have no
+                            // listener, so patch the feed's copy as well.
+                            InboxEntry entry = entriesByDocId.get(docId);
+                            if (feed != null && entry != null) {
+                                feed.updateLocal(entry.withArchived(true));
+                            }
+                            if (!isAdded()) return;
                             Toast.makeText(getContext(), "Notification archived", Toast.LENGTH_SHORT).show();
                         })
                         .addOnFailureListener(e ->
@@ -169,7 +212,6 @@ public class InboxFragment extends Fragment {
             @Override
             public void onAction(NotificationModel notification) {
                 markNotificationAsRead(notification);
-                updateInboxBadgeFromLists();
                 String eventId = notification.getEventId();
                 if (eventId == null || eventId.isEmpty()) {
                     Toast.makeText(getContext(),
@@ -185,6 +227,16 @@ public class InboxFragment extends Fragment {
 
         adapter = new NotificationAdapter(getContext(), getCurrentList(), listener, showingArchived);
         recyclerNotifications.setAdapter(adapter);
+        recyclerNotifications.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy <= 0 || feed == null || !feed.hasOlder()) return;
+                LinearLayoutManager lm = (LinearLayoutManager) rv.getLayoutManager();
+                if (lm != null && lm.findLastVisibleItemPosition() >= adapter.getItemCount() - 5) {
+                    feed.loadOlder(null);
+                }
+            }
+        });
 
         btnMarkAllRead.setOnClickListener(v -> markAllRead());
         btnFilterUnread.setOnClickListener(v -> toggleUnreadFilter());
@@ -219,7 +271,7 @@ public class InboxFragment extends Fragment {
                     .get()
                     .addOnSuccessListener(doc -> {
                         if (doc != null && doc.exists()) {
-                            userProfileUrl = doc.getString("profilepicture");
+                            setProfileUrl(doc.getString("profilepicture"));
                         }
                         // avatar is loaded, start FirebaseAuth + notifications
                         signInAnonymouslyIfNeeded();
@@ -280,105 +332,143 @@ public class InboxFragment extends Fragment {
     }
 
     /**
-     * Adds snapshot listeners to all notification subcollections under:
+     * Subscribes to the shared {@link InboxFeed}: one collection-group listener over
      *
      * <pre>
      * users/{deviceId}/registrations/{eventId}/inbox
      * </pre>
      *
-     * <p>Each registration (event) has its own inbox. Changes across all events
-     * are aggregated into {@code notificationList} (active inbox) and
-     * {@code archivedList}.</p>
-     *
-     * <p>Supports live updates via DocumentChange events.</p>
+     * <p>Every update rebuilds {@code notificationList} (active inbox) and
+     * {@code archivedList} from the feed's items; the adapter diffs the result.</p>
      */
     private void loadUserNotifications() {
         FirebaseUser user = auth.getCurrentUser();
         //Use ID as the key, still require that FirebaseAuth is not null
         if (user == null || userId == null || userId.isEmpty()) return;
+        if (!isAdded() || inboxSubscription != null) return;
 
-        db.collection("users")
-                .document(userId)
-                .collection("registrations")
-                .get()
-                .addOnSuccessListener(regSnapshots -> {
-                    if (regSnapshots == null || regSnapshots.isEmpty()) {
-                        adapter.updateList(getCurrentList(), showingArchived);
-                        updateInboxBadgeFromLists();
-                        return;
-                    }
-                    for (DocumentSnapshot regDoc : regSnapshots) {
-                        final String eventId = regDoc.getId();
-                        regDoc.getReference()
-                                .collection("inbox")
-                                .orderBy("createdAt", Query.Direction.DESCENDING)
-                                .addSnapshotListener((snapshots, e) -> {
-                                    if (e != null || snapshots == null) return;
-                                    if (!isAdded()) return;
-                                    for (DocumentChange change : snapshots.getDocumentChanges()) {
-                                        DocumentSnapshot inboxDoc = change.getDocument();
-                                        String message = inboxDoc.getString("message");
-                                        String type = inboxDoc.getString("type") != null
-                                                ? inboxDoc.getString("type")
-                                                : "general";
-                                        Boolean readFlag = inboxDoc.getBoolean("read");
-                                        boolean read = readFlag != null && readFlag;
-                                        Boolean archivedFlag = inboxDoc.getBoolean("archived");
-                                        boolean archived = archivedFlag != null && archivedFlag;
-                                        String docId = inboxDoc.getId();
-
-                                        // NEW: Check user preference here before adding to lists (as per easiest approach)
-                                        // If preference is OFF, force archived = true for display purposes only
-                                        boolean displayAsArchived = archived || !userNotificationsEnabled;
-
-                                        // for time: get createdAt and format it
-                                        Timestamp ts = inboxDoc.getTimestamp("createdAt");
-                                        String timeString = "";
-                                        if (ts != null) {
-                                            Date date = ts.toDate();
-                                            // e.g. "Nov 27, 5:36 PM"
-                                            SimpleDateFormat sdf =
-                                                    new SimpleDateFormat("MMM d, h:mm a", Locale.getDefault());
-                                            timeString = sdf.format(date);
-                                        }
-                                        if (message != null) {
-                                            NotificationModel notification = new NotificationModel(
-                                                    eventId,
-                                                    docId, // Firestore document ID
-                                                    message,
-                                                    timeString,  // from createdAt
-                                                    userProfileUrl != null ? userProfileUrl : "",
-                                                    read,
-                                                    getString(R.string.see_details),
-                                                    type
-                                            );
-                                            if (displayAsArchived) {
-                                                if (!archivedList.contains(notification)) {
-                                                    archivedList.add(notification);
-                                                }
-                                            } else {
-                                                if (!notificationList.contains(notification)) {
-                                                    notificationList.add(notification);
-                                                }
-                                            }
-                                        }
-                                    }
-                                    adapter.updateList(getCurrentList(), showingArchived);
-                                    updateInboxBadgeFromLists();
-                                });
-                    }
-                })
-                .addOnFailureListener(e ->
-                        Toast.makeText(getContext(),
-                                "Failed to load notifications: " + e.getMessage(),
-                                Toast.LENGTH_SHORT).show()
-                );
+        feed = InboxFeed.shared(db, userId);
+        inboxSubscription = feed.subscribe(new InboxFeed.Listener() {
+            @Override
+            public void onInbox(@NonNull List<InboxEntry> entries, boolean hasOlder) {
+                if (!isAdded()) return;
+                showEntries(entries);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (!isAdded()) return;
+                Toast.makeText(getContext(),
+                        "Failed to load notifications: " + e.getMessage(),
+                        Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
-    private void markAllRead() {
-        for (NotificationModel n : notificationList) n.setRead(true);
+    /**
+     * Builds rows for the feed items in the background, then shows them.
+     *
+     * @param entries every loaded item, newest first
+     */
+    private void showEntries(@NonNull List<InboxEntry> entries) {
+        List<InboxEntry> shown = new ArrayList<>(entries.size());
+        for (InboxEntry entry : entries) {
+            if (entry.message != null) shown.add(entry);
+        }
+        lastShown = shown;
+        rows.submit(shown, models -> {
+            if (isAdded()) showRows(shown, models);
+        });
+    }
+
+    /**
+     * Sets the avatar shown on every row. Rows already built with another one are
+     * built again, since {@link RowProjector} only rebuilds entries that changed.
+     *
+     * @param url profile picture URL, or null for none
+     */
+    private void setProfileUrl(@Nullable String url) {
+        if (Objects.equals(url, userProfileUrl)) return;
+        userProfileUrl = url;
+        rows.invalidateAll();
+        if (lastShown != null) showEntries(lastShown);
+    }
+
+    /**
+     * Splits rows into the inbox and archive lists and refreshes the adapter.
+     *
+     * @param entries feed items with a message, newest first
+     * @param models  one row per entry, in the same order
+     */
+    private void showRows(@NonNull List<InboxEntry> entries, @NonNull List<NotificationModel> models) {
+        notificationList.clear();
+        archivedList.clear();
+        entriesByDocId.clear();
+
+        for (int i = 0; i < entries.size(); i++) {
+            InboxEntry entry = entries.get(i);
+            NotificationModel notification = models.get(i);
+            entriesByDocId.put(entry.docId, entry);
+
+            // If preference is OFF, force archived = true for display purposes only
+            if (entry.archived || !userNotificationsEnabled) {
+                archivedList.add(notification);
+            } else {
+                notificationList.add(notification);
+            }
+        }
         adapter.updateList(getCurrentList(), showingArchived);
-        updateInboxBadgeFromLists();
+    }
+
+    /**
+     * Builds the row for one feed item. Runs on the projection thread.
+     *
+     * @param entry feed item with a message
+     * @return the row to show
+     */
+    private NotificationModel toNotification(@NonNull InboxEntry entry) {
+        // for time: format createdAt, e.g. "Nov 27, 5:36 PM"
+        String timeString = entry.createdAtMillis != 0
+                ? DateLabels.shortDateTime(entry.createdAtMillis)
+                : "";
+        NotificationModel notification = new NotificationModel(
+                entry.eventId,
+                entry.docId, // Firestore document ID
+                entry.message,
+                timeString,  // from createdAt
+                userProfileUrl != null ? userProfileUrl : "",
+                entry.read,
+                actionText,
+                entry.type
+        );
+        notification.setArchived(entry.archived);
+        return notification;
+    }
+
+    /**
+     * Stops listening to the feed; the badge keeps its own subscription.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (inboxSubscription != null) {
+            inboxSubscription.remove();
+            inboxSubscription = null;
+        }
+        rows.cancel();
+        lastShown = null;
+    }
+
+    private void markAllRead() {
+        List<InboxEntry> unread = new ArrayList<>();
+        for (NotificationModel n : notificationList) {
+            InboxEntry entry = entriesByDocId.get(n.getFirestoreDocId());
+            if (entry != null && !entry.read) unread.add(entry);
+        }
+        if (feed != null) {
+            // Updates the rows and badge right away and persists read = true.
+            feed.markRead(unread);
+        }
         Toast.makeText(getContext(), "All notifications marked as read", Toast.LENGTH_SHORT).show();
     }
 
@@ -396,6 +486,12 @@ public class InboxFragment extends Fragment {
         String eventId = notification.getEventId();
         String docId   = notification.getFirestoreDocId();
         if (eventId == null || docId == null) return;
+        InboxEntry entry = entriesByDocId.get(docId);
+        if (feed != null && entry != null) {
+            // Feed marks it locally (UI + badge update instantly) and writes read = true
+            feed.markRead(Collections.singletonList(entry));
+            return;
+        }
         // Firestore: mark as read in user inbox path
         DocumentReference userInboxRef = db.collection("users")
                 .document(userId)
@@ -404,11 +500,6 @@ public class InboxFragment extends Fragment {
                 .collection("inbox")
                 .document(docId);
         userInboxRef.update("read", true);
-
-        // Local model: mark as read so UI + badge update instantly
-        notification.setRead(true); // make sure NotificationModel has setRead(boolean)
-        adapter.updateList(getCurrentList(), showingArchived);
-        updateInboxBadgeFromLists();   //  update  red indicator
     }
 
     private void toggleUnreadFilter() {
@@ -448,15 +539,4 @@ public class InboxFragment extends Fragment {
         }
         return filteredList;
     }
-
-    private void updateInboxBadgeFromLists() {
-        int unreadCount = 0;
-        // Only count non-archived notifications (as determined by the display logic)
-        for (NotificationModel n : notificationList) {
-            if (!n.isRead()) unreadCount++;
-        }
-        if (getActivity() instanceof MainActivity) {
-            ((MainActivity) getActivity()).updateInboxBadge(unreadCount);
-        }
-    }
 }
\ No newline at end of file
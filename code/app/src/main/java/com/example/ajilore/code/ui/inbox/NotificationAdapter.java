@@ -14,6 +14,8 @@ import com.bumptech.glide.Glide;
 
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 
@@ -21,14 +23,37 @@ import com.example.ajilore.code.R;
 import com.google.android.material.button.MaterialButton;
 
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 
-public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapter.NotificationViewHolder> {
+/**
+ * ListAdapter for inbox notifications. New lists are diffed on a background thread,
+ * so marking one notification read or archiving it only rebinds the affected rows.
+ */
+public class NotificationAdapter extends ListAdapter<NotificationModel, NotificationAdapter.NotificationViewHolder> {
+
+    /** Same notification when the Firestore doc id matches; contents compare the bound fields. */
+    static final DiffUtil.ItemCallback<NotificationModel> DIFF = new DiffUtil.ItemCallback<NotificationModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull NotificationModel a, @NonNull NotificationModel b) {
+            return Objects.equals(a.getFirestoreDocId(), b.getFirestoreDocId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull NotificationModel a, @NonNull NotificationModel b) {
+            return Objects.equals(a.getMessage(), b.getMessage())
+                    && Objects.equals(a.getTime(), b.getTime())
+                    && Objects.equals(a.getImageUrl(), b.getImageUrl())
+                    && Objects.equals(a.getActionText(), b.getActionText())
+                    && a.isRead() == b.isRead()
+                    && a.isArchived() == b.isArchived();
+        }
+    };
 
 
     private Context context;
-    private List<NotificationModel> notificationList;
     private OnNotificationActionListener listener;
     private boolean isArchivedView;
 
@@ -41,10 +66,11 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
 
     public NotificationAdapter(Context context, List<NotificationModel> notificationList,
                                OnNotificationActionListener listener, boolean isArchivedView) {
+        super(DIFF);
         this.context = context;
-        this.notificationList = notificationList;
         this.listener = listener;
         this.isArchivedView = isArchivedView;
+        submitList(copyOf(notificationList));
     }
 
 
@@ -58,7 +84,7 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
 
     @Override
     public void onBindViewHolder(@NonNull NotificationViewHolder holder, int position) {
-        NotificationModel notification = notificationList.get(position);
+        NotificationModel notification = getItem(position);
 
 
         // 🔹 load profile image from imageUrl
@@ -104,12 +130,6 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
 
 
 
-    @Override
-    public int getItemCount() {
-        return notificationList != null ? notificationList.size() : 0;
-    }
-
-
     public static class NotificationViewHolder extends RecyclerView.ViewHolder {
         ImageView imageProfile;
         TextView textMessage, textTime;
@@ -129,9 +149,19 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
     }
 
 
+    /**
+     * Replaces the displayed notifications. Switching between the inbox and archive views
+     * rebinds every row so the dismiss button follows the view.
+     */
     public void updateList(List<NotificationModel> newList, boolean isArchivedView) {
-        this.notificationList = newList;
+        boolean viewChanged = this.isArchivedView != isArchivedView;
         this.isArchivedView = isArchivedView;
-        notifyDataSetChanged();
+        submitList(copyOf(newList), () -> {
+            if (viewChanged) notifyItemRangeChanged(0, getItemCount());
+        });
+    }
+
+    private static List<NotificationModel> copyOf(List<NotificationModel> list) {
+        return list != null ? new ArrayList<>(list) : new ArrayList<>();
     }
 }
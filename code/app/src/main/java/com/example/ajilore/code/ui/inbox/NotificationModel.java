@@ -38,6 +38,7 @@ public class NotificationModel {
     private String time;
     private String imageUrl;
     private boolean isRead;
+    private boolean archived;        // Moved to the archive by the user
     private String actionText;
     private String type;
 
@@ -103,6 +104,7 @@ public class NotificationModel {
     public String getTime() { return time; }
     public String getImageUrl() { return imageUrl; }
     public boolean isRead() { return isRead; }
+    public boolean isArchived() { return archived; }
 
 
 
@@ -123,6 +125,7 @@ public class NotificationModel {
     public void setTime(String time) { this.time = time; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
     public void setRead(boolean read) { this.isRead = read; }
+    public void setArchived(boolean archived) { this.archived = archived; }
     public void setActionText(String actionText) { this.actionText = actionText; }
     public void setType(String type) { this.type = type; }
 
@@ -14,6 +14,9 @@ import androidx.fragment.app.Fragment;
 
 import com.bumptech.glide.Glide;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.data.FirestoreDocumentStore;
+import com.example.ajilore.code.data.ImageIndex;
+import com.example.ajilore.code.data.UserProfileResolver;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.auth.FirebaseAuth;
@@ -170,6 +173,14 @@ public class EditProfileFragment extends Fragment {
         db.collection("users").document(deviceId)
                 .set(patch, SetOptions.merge())
                 .addOnSuccessListener(x -> {
+                    // Lists on this device should show the new name/picture right away.
+                    UserProfileResolver.shared(FirestoreDocumentStore.tracked(db, "UserProfileResolver")).invalidate(deviceId);
+                    if (chosenImageUrl != null) {
+                        // Avatars are external URLs, so the size is unknown (0).
+                        new ImageIndex(FirestoreDocumentStore.tracked(db, "EditProfileFragment.recordImage")).record(
+                                ImageIndex.TYPE_PROFILE, deviceId, (String) patch.get("name"),
+                                chosenImageUrl, 0L, null);
+                    }
                     Toast.makeText(getContext(), "Profile updated", Toast.LENGTH_SHORT).show();
                     requireActivity()
                             .getSupportFragmentManager()
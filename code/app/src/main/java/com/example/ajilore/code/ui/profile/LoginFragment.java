@@ -22,6 +22,7 @@ import androidx.fragment.app.Fragment;
 import com.example.ajilore.code.MainActivity;
 import com.example.ajilore.code.R;
 import com.example.ajilore.code.ui.events.GeneralEventsFragment;
+import com.example.ajilore.code.utils.SessionPrefs;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.android.gms.location.Priority;
@@ -177,6 +178,7 @@ public class LoginFragment extends Fragment {
                                             .update("locationPreference", enabled);
                                     //device already exists
                                     groupSignup.setVisibility(View.GONE);
+                                    new SessionPrefs(requireContext()).markRegistered();
                                     Toast.makeText(getContext(), "Welcome back!", Toast.LENGTH_SHORT).show();
                                     ((MainActivity) requireActivity()).showBottomNav();
                                     navigateToEvents();
@@ -292,6 +294,7 @@ public class LoginFragment extends Fragment {
                 .document(deviceId)
                 .set(user)
                 .addOnSuccessListener(x -> {
+                    new SessionPrefs(requireContext()).markRegistered();
                     Toast.makeText(getContext(), "Account created!", Toast.LENGTH_SHORT).show();
                     ((MainActivity) requireActivity()).showBottomNav();
                     navigateToEvents();
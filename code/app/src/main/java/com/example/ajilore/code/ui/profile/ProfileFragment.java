@@ -20,21 +20,20 @@ import com.bumptech.glide.Glide;
 import com.example.ajilore.code.AdminActivity;
 import com.example.ajilore.code.MainActivity;
 import com.example.ajilore.code.R;
+import com.example.ajilore.code.data.FirestoreDocumentStore;
+import com.example.ajilore.code.services.UserDataEraser;
 import com.example.ajilore.code.ui.admin.AdminAboutFragment;
 import com.example.ajilore.code.ui.events.OrganizerEventsFragment;
 import com.example.ajilore.code.utils.AdminAuthManager;
+import com.example.ajilore.code.utils.SessionPrefs;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.navigation.NavigationBarView;
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
-import org.junit.After;
-import com.google.firebase.firestore.WriteBatch;
-import com.google.firebase.firestore.DocumentReference;
 
 
 /**
@@ -266,7 +265,7 @@ public class ProfileFragment extends Fragment {
                 .show();
     }
     /**
-     * Permanently deletes the user's account from Firestore, including:
+     * Permanently deletes the user's account from Firestore through {@link UserDataEraser}, including:
      *
      * <ul>
      *     <li>The user's main document in {@code users/{deviceId}}</li>
@@ -276,94 +275,44 @@ public class ProfileFragment extends Fragment {
      *     <li>All inbox messages under each waiting-list entry</li>
      * </ul>
      *
-     * <p>After deletion, navigates back to {@link LoginFragment}.</p>
+     * <p>The delete button is disabled and shows progress while this runs. The profile
+     * document is removed last, so after a failure the user can simply try again.
+     * On success, navigates back to {@link LoginFragment}.</p>
      *
      * <p><b>Note:</b> Because this uses the device ID instead of FirebaseAuth UID,
      * actual FirebaseAuth account deletion is not required.</p>
      */
 
     private void performDelete() {
-        db.collection("org_events")
-                .get()
-                .addOnSuccessListener(events -> {
-
-                    for (DocumentSnapshot eventDoc : events.getDocuments()) {
-                        String eventId = eventDoc.getId();
-
-                        // waiting_list/{deviceId}
-                        DocumentReference waitingRef = db.collection("org_events")
-                                .document(eventId)
-                                .collection("waiting_list")
-                                .document(deviceId);
-
-                        // delete inbox docs under waiting_list/{deviceId}/inbox
-                        waitingRef.collection("inbox")
-                                .get()
-                                .addOnSuccessListener(inboxSnap -> {
-                                    WriteBatch inboxBatch = db.batch();
-                                    for (DocumentSnapshot d : inboxSnap.getDocuments()) {
-                                        inboxBatch.delete(d.getReference());
-                                    }
-                                    inboxBatch.commit();
-                                });
-
-                        // delete the waiting_list doc itself
-                        waitingRef.delete();
-                    }
+        final CharSequence deleteLabel = btnDeleteProfile.getText();
+        btnDeleteProfile.setEnabled(false);
+
+        new UserDataEraser(FirestoreDocumentStore.tracked(db, "ProfileFragment.eraseData")).erase(deviceId, new UserDataEraser.EraseCallback() {
+            @Override
+            public void onProgress(int done, int total) {
+                if (!isAdded() || total == 0) return;
+                btnDeleteProfile.setText("Deleting\u2026 " + (done * 100 / total) + "%");
+            }
 
-                    db.collection("users")
-                            .document(deviceId)
-                            .collection("registrations")
-                            .get()
-                            .addOnSuccessListener(regSnap -> {
-                                for (DocumentSnapshot regDoc : regSnap.getDocuments()) {
-                                    // clear inbox subcollection for this registration
-                                    regDoc.getReference()
-                                            .collection("inbox")
-                                            .get()
-                                            .addOnSuccessListener(inboxSnap -> {
-                                                WriteBatch batch = db.batch();
-                                                for (DocumentSnapshot d : inboxSnap.getDocuments()) {
-                                                    batch.delete(d.getReference());
-                                                }
-                                                batch.commit();
-                                            });
-
-                                    // delete the registration doc itself
-                                    regDoc.getReference().delete();
-                                }
-
-                                //Delete the main users/{deviceId} doc
-                                db.collection("users")
-                                        .document(deviceId)
-                                        .delete()
-                                        .addOnSuccessListener(x -> {
-                                            Toast.makeText(getContext(),
-                                                    "Profile deleted",
-                                                    Toast.LENGTH_SHORT).show();
-
-                                            requireActivity().getSupportFragmentManager()
-                                                    .beginTransaction()
-                                                    .replace(R.id.nav_host_fragment,
-                                                            new LoginFragment())
-                                                    .commit();
-                                        })
-                                        .addOnFailureListener(err ->
-                                                Toast.makeText(getContext(),
-                                                        "Delete failed: " + err.getMessage(),
-                                                        Toast.LENGTH_LONG).show()
-                                        );
-                            })
-                            .addOnFailureListener(err ->
-                                    Toast.makeText(getContext(),
-                                            "Delete failed: " + err.getMessage(),
-                                            Toast.LENGTH_LONG).show()
-                            );
-                })
-                .addOnFailureListener(err ->
-                        Toast.makeText(getContext(),
-                                "Delete failed: " + err.getMessage(),
-                                Toast.LENGTH_LONG).show()
-                );
+            @Override
+            public void onComplete(@NonNull UserDataEraser.Footprint erased) {
+                if (!isAdded()) return;
+                new SessionPrefs(requireContext()).clear();
+                Toast.makeText(getContext(), "Profile deleted", Toast.LENGTH_SHORT).show();
+
+                requireActivity().getSupportFragmentManager()
+                        .beginTransaction()
+                        .replace(R.id.nav_host_fragment, new LoginFragment())
+                        .commit();
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                if (!isAdded()) return;
+                btnDeleteProfile.setEnabled(true);
+                btnDeleteProfile.setText(deleteLabel);
+                Toast.makeText(getContext(), "Delete failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
     }
 }
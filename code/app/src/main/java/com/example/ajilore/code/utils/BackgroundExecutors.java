@@ -0,0 +1,37 @@
+package com.example.ajilore.code.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * BackgroundExecutors
+ *
+ * Purpose: Creates the process-wide worker threads that keep work off the main thread:
+ * row projection, list search, media encoding, QR rendering, map clustering and the
+ * event catalog's disk access.
+ *
+ * Pattern: Static factory. Each caller keeps its own executor in a field, so one
+ * kind of work never queues behind another. The threads are daemons, so they never keep
+ * the process alive.
+ */
+public final class BackgroundExecutors {
+
+    private BackgroundExecutors() {
+    }
+
+    /**
+     * @param name thread name, shown in traces and ANR reports
+     * @return an executor that runs one task at a time, in submission order, on a daemon
+     *         thread
+     */
+    @NonNull
+    public static ExecutorService serial(@NonNull String name) {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
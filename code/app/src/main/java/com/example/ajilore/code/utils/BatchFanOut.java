@@ -0,0 +1,357 @@
+package com.example.ajilore.code.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.data.DocumentStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * BatchFanOut
+ *
+ * Purpose: Writes one or more Firestore operations per item for a large list of items
+ * (e.g. one inbox message per recipient) without breaking Firestore's batch limit.
+ *
+ * <ul>
+ *   <li>Items are packed into chunks sized by <b>operation count</b>, not item count,
+ *       so a chunk never exceeds {@link #MAX_BATCH_OPS} writes. An item's writes are
+ *       never split across chunks, so they land atomically.</li>
+ *   <li>Up to {@code maxConcurrent} chunks are committed at the same time, so a broadcast
+ *       costs a few round-trips instead of one per chunk.</li>
+ *   <li>A failed chunk is retried on its own (a batch is atomic, so a failed commit
+ *       wrote nothing) after an exponential backoff, so a throttled or briefly offline
+ *       backend is not hit again at once. Other chunks are not affected.</li>
+ * </ul>
+ *
+ * Pattern: One instance per fan-out run. Firestore delivers task listeners on the main
+ * thread, but the counters are guarded anyway so the engine is safe with other executors.
+ *
+ * @param <T> item type (e.g. a recipient uid)
+ */
+public final class BatchFanOut<T> {
+
+    private static final String TAG = "BatchFanOut";
+
+    /** Hard Firestore limit on operations in one WriteBatch. */
+    public static final int MAX_BATCH_OPS = 500;
+
+    /** Default number of batch commits allowed in flight at once. */
+    public static final int DEFAULT_MAX_CONCURRENT = 4;
+
+    /** Default number of commit attempts per chunk before its items are counted as failed. */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /** Delay before the first retry of a chunk; each further retry doubles it. */
+    public static final long BASE_BACKOFF_MILLIS = 500;
+
+    /** Upper bound on the delay before one retry. */
+    public static final long MAX_BACKOFF_MILLIS = 8_000;
+
+    /**
+     * Runs a chunk's retry after its backoff.
+     */
+    public interface RetryScheduler {
+        /**
+         * @param retry       the retry to run
+         * @param delayMillis how long to wait first
+         */
+        void schedule(@NonNull Runnable retry, long delayMillis);
+    }
+
+    /**
+     * Adds the writes for one item.
+     *
+     * @param <T> item type
+     */
+    public interface BatchFiller<T> {
+        /**
+         * @param out  list to append this item's writes to (at most {@link #MAX_BATCH_OPS})
+         * @param item the item to write
+         */
+        void fill(@NonNull List<DocumentStore.Write> out, @NonNull T item);
+    }
+
+    /**
+     * Receives the final result of a fan-out run.
+     */
+    public interface Listener {
+        /**
+         * Called exactly once after every chunk has been committed or has used up its retries.
+         *
+         * @param delivered number of items whose chunk committed
+         * @param failed    number of items whose chunk failed every attempt
+         * @param lastError last commit error seen, or null when {@code failed == 0}
+         */
+        void onComplete(int delivered, int failed, @Nullable Exception lastError);
+    }
+
+    /**
+     * Receives progress while a fan-out runs.
+     */
+    public interface ProgressListener {
+        /**
+         * Called after each chunk has committed or used up its retries.
+         *
+         * @param done  items whose chunk has finished (delivered or failed)
+         * @param total items in the run
+         */
+        void onProgress(int done, int total);
+    }
+
+    /** One planned batch: the items it covers and their writes. */
+    private final class Chunk {
+        final List<T> items;
+        final int itemCount;
+        final List<DocumentStore.Write> writes;
+
+        Chunk(List<T> items, List<DocumentStore.Write> writes) {
+            this.items = items;
+            this.itemCount = items.size();
+            this.writes = writes;
+        }
+    }
+
+    private final DocumentStore store;
+    private final int maxConcurrent;
+    private final int maxAttempts;
+    private final RetryScheduler retries;
+    private final BatchFiller<T> filler;
+
+    private List<Chunk> chunks;
+    private Listener listener;
+    private ProgressListener progress;
+    private int totalItems;
+    private int nextChunk;
+    private int inFlight;
+    private int delivered;
+    private int failed;
+    private final List<T> failedItems = new ArrayList<>();
+    private Exception lastError;
+    private boolean finished;
+
+    /**
+     * Creates an engine with the default concurrency and retry settings.
+     *
+     * @param store  store used to commit batches
+     * @param filler adds the writes for one item
+     */
+    public BatchFanOut(@NonNull DocumentStore store, @NonNull BatchFiller<T> filler) {
+        this(store, DEFAULT_MAX_CONCURRENT, DEFAULT_MAX_ATTEMPTS, filler);
+    }
+
+    /**
+     * @param store         store used to commit batches
+     * @param maxConcurrent maximum number of commits in flight at once (at least 1)
+     * @param maxAttempts   commit attempts per chunk (at least 1)
+     * @param filler        adds the writes for one item
+     */
+    public BatchFanOut(@NonNull DocumentStore store,
+                       int maxConcurrent,
+                       int maxAttempts,
+                       @NonNull BatchFiller<T> filler) {
+        this(store, maxConcurrent, maxAttempts, mainThread(), filler);
+    }
+
+    /**
+     * @param store         store used to commit batches
+     * @param maxConcurrent maximum number of commits in flight at once (at least 1)
+     * @param maxAttempts   commit attempts per chunk (at least 1)
+     * @param retries       runs each retry after its backoff
+     * @param filler        adds the writes for one item
+     */
+    public BatchFanOut(@NonNull DocumentStore store,
+                       int maxConcurrent,
+                       int maxAttempts,
+                       @NonNull RetryScheduler retries,
+                       @NonNull BatchFiller<T> filler) {
+        this.store = store;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retries = retries;
+        this.filler = filler;
+    }
+
+    /**
+     * @param failedAttempt number of the attempt that just failed, from 1
+     * @return delay before the next attempt: {@link #BASE_BACKOFF_MILLIS} doubled per
+     * failed attempt, capped at {@link #MAX_BACKOFF_MILLIS}
+     */
+    public static long backoffMillis(int failedAttempt) {
+        int doublings = Math.min(Math.max(0, failedAttempt - 1), 20);
+        return Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << doublings);
+    }
+
+    /** Retries on the main thread, where Firestore delivers the commit results. */
+    private static RetryScheduler mainThread() {
+        Handler main = new Handler(Looper.getMainLooper());
+        return (retry, delayMillis) -> {
+            // postDelayed only fails when the looper is quitting (or there is none, as in
+            // plain JVM tests); retry at once rather than lose the chunk.
+            if (!main.postDelayed(retry, delayMillis)) retry.run();
+        };
+    }
+
+    /**
+     * Greedily packs {@code items} into chunks whose total operation count fits one batch.
+     * Items keep their order and are never split.
+     *
+     * @param items items to write
+     * @param opsOf number of writes an item needs
+     * @param <T>   item type
+     * @return chunks in the original order; empty when {@code items} is empty
+     * @throws IllegalArgumentException if a single item needs more than {@link #MAX_BATCH_OPS} writes
+     */
+    @NonNull
+    public static <T> List<List<T>> planChunks(@NonNull List<T> items, @NonNull ToIntFunction<T> opsOf) {
+        List<List<T>> out = new ArrayList<>();
+        List<T> current = new ArrayList<>();
+        int currentOps = 0;
+        for (T item : items) {
+            int ops = opsOf.applyAsInt(item);
+            if (ops > MAX_BATCH_OPS) {
+                throw new IllegalArgumentException("Item needs " + ops + " writes; limit is " + MAX_BATCH_OPS);
+            }
+            if (currentOps + ops > MAX_BATCH_OPS && !current.isEmpty()) {
+                out.add(current);
+                current = new ArrayList<>();
+                currentOps = 0;
+            }
+            current.add(item);
+            currentOps += ops;
+        }
+        if (!current.isEmpty()) out.add(current);
+        return out;
+    }
+
+    /**
+     * Starts the fan-out. Must be called at most once per instance.
+     *
+     * @param items    items to write
+     * @param listener receives delivered/failed counts when every chunk is done
+     */
+    public void run(@NonNull List<T> items, @NonNull Listener listener) {
+        run(items, null, listener);
+    }
+
+    /**
+     * Starts the fan-out and reports progress after every chunk.
+     * Must be called at most once per instance.
+     *
+     * @param items    items to write
+     * @param progress receives done/total counts as chunks finish; may be null
+     * @param listener receives delivered/failed counts when every chunk is done
+     */
+    public void run(@NonNull List<T> items,
+                    @Nullable ProgressListener progress,
+                    @NonNull Listener listener) {
+        List<List<DocumentStore.Write>> perItem = new ArrayList<>(items.size());
+        for (T item : items) {
+            List<DocumentStore.Write> writes = new ArrayList<>();
+            filler.fill(writes, item);
+            perItem.add(writes);
+        }
+
+        List<Chunk> planned = new ArrayList<>();
+        int offset = 0;
+        for (List<List<DocumentStore.Write>> group : planChunks(perItem, List::size)) {
+            List<DocumentStore.Write> writes = new ArrayList<>();
+            for (List<DocumentStore.Write> w : group) writes.addAll(w);
+            planned.add(new Chunk(new ArrayList<>(items.subList(offset, offset + group.size())), writes));
+            offset += group.size();
+        }
+
+        synchronized (this) {
+            if (this.listener != null) {
+                throw new IllegalStateException("BatchFanOut.run() called twice");
+            }
+            this.listener = listener;
+            this.progress = progress;
+            this.totalItems = items.size();
+            this.chunks = planned;
+        }
+        Log.d(TAG, "Fan-out of " + items.size() + " items in " + planned.size() + " batch(es)");
+        launchMore();
+    }
+
+    /**
+     * Items whose chunk failed every attempt. A batch is atomic, so none of their writes
+     * landed. Complete once the {@link Listener} has been called.
+     *
+     * @return a copy of the failed items, in the order their chunks gave up
+     */
+    @NonNull
+    public synchronized List<T> failedItems() {
+        return new ArrayList<>(failedItems);
+    }
+
+    /** Starts commits until the concurrency cap is reached, or finishes when all are done. */
+    private void launchMore() {
+        List<Chunk> toStart = new ArrayList<>();
+        synchronized (this) {
+            while (inFlight < maxConcurrent && nextChunk < chunks.size()) {
+                toStart.add(chunks.get(nextChunk++));
+                inFlight++;
+            }
+            if (toStart.isEmpty() && inFlight == 0 && !finished) {
+                finished = true;
+                Log.d(TAG, "Fan-out done: delivered=" + delivered + ", failed=" + failed);
+                listener.onComplete(delivered, failed, failed > 0 ? lastError : null);
+                return;
+            }
+        }
+        for (Chunk chunk : toStart) {
+            commitChunk(chunk, 1);
+        }
+    }
+
+    private void reportProgress() {
+        if (progress == null) return;
+        int done;
+        synchronized (this) {
+            done = delivered + failed;
+        }
+        progress.onProgress(done, totalItems);
+    }
+
+    /** Commits one chunk, retrying it with backoff on failure up to {@code maxAttempts} times. */
+    private void commitChunk(@NonNull Chunk chunk, int attempt) {
+        store.commit(chunk.writes, new DocumentStore.ResultCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                synchronized (BatchFanOut.this) {
+                    delivered += chunk.itemCount;
+                    inFlight--;
+                }
+                reportProgress();
+                launchMore();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (attempt < maxAttempts) {
+                    long delay = backoffMillis(attempt);
+                    Log.w(TAG, "Batch of " + chunk.itemCount + " failed (attempt " + attempt
+                            + "), retrying in " + delay + " ms", e);
+                    retries.schedule(() -> commitChunk(chunk, attempt + 1), delay);
+                    return;
+                }
+                Log.e(TAG, "Batch of " + chunk.itemCount + " failed after " + attempt + " attempts", e);
+                synchronized (BatchFanOut.this) {
+                    failed += chunk.itemCount;
+                    failedItems.addAll(chunk.items);
+                    lastError = e;
+                    inFlight--;
+                }
+                reportProgress();
+                launchMore();
+            }
+        });
+    }
+}
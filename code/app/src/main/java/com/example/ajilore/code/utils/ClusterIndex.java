@@ -0,0 +1,203 @@
+package com.example.ajilore.code.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClusterIndex
+ *
+ * Purpose: Groups map points into on-screen grid cells so a map with thousands of
+ * entrants draws one marker per cluster instead of one per entrant. Points are projected
+ * to Web Mercator world coordinates once. The cells for a zoom level are built the first
+ * time that level is shown and then reused, so panning at the same zoom only filters
+ * cached cells to the visible area. A point can stand for several entrants (e.g. a
+ * geohash density cell); its weight then counts toward the cluster size and centroid.
+ *
+ * Pattern: Plain Java, thread-safe through {@code synchronized}, so it can be unit tested
+ * and run off the main thread. Coordinates are plain doubles, not Maps SDK types.
+ */
+public final class ClusterIndex {
+
+    /** Width of a grid cell on screen, in density-independent map pixels. */
+    public static final int CELL_PX = 80;
+    public static final int MAX_ZOOM = 21;
+    private static final double TILE_PX = 256;
+    /** Latitude limit of the Web Mercator projection. */
+    private static final double MAX_LAT = 85.05112878;
+
+    /** One marker's worth of points. */
+    public static final class Cluster {
+        /** Stable for the same cell and zoom, so a marker can be kept across pans. */
+        public final long key;
+        /** Weighted centroid of the points in the cell. */
+        public final double lat;
+        public final double lng;
+        /** Total weight of the points in the cell; entrants when every weight is 1. */
+        public final int count;
+        /** Index of one point in the cell, e.g. the only one when {@code count == 1}. */
+        public final int firstIndex;
+        /** Centroid in world coordinates, for filtering without projecting again. */
+        final double x;
+        final double y;
+
+        Cluster(long key, double x, double y, int count, int firstIndex) {
+            this.key = key;
+            this.x = x;
+            this.y = y;
+            this.lat = yToLat(y);
+            this.lng = xToLng(x);
+            this.count = count;
+            this.firstIndex = firstIndex;
+        }
+    }
+
+    private final double[] x;
+    private final double[] y;
+    private final int[] weights;
+    private final double south;
+    private final double west;
+    private final double north;
+    private final double east;
+    private final Map<Integer, List<Cluster>> cellsByZoom = new HashMap<>();
+
+    /**
+     * @param lats latitudes in degrees
+     * @param lngs longitudes in degrees; same length as {@code lats}
+     */
+    public ClusterIndex(@NonNull double[] lats, @NonNull double[] lngs) {
+        this(lats, lngs, null);
+    }
+
+    /**
+     * @param lats    latitudes in degrees
+     * @param lngs    longitudes in degrees; same length as {@code lats}
+     * @param weights how many entrants each point stands for, or null for 1 each
+     */
+    public ClusterIndex(@NonNull double[] lats, @NonNull double[] lngs, @Nullable int[] weights) {
+        if (lats.length != lngs.length || (weights != null && weights.length != lats.length)) {
+            throw new IllegalArgumentException("lats, lngs and weights differ in length");
+        }
+        int n = lats.length;
+        this.weights = weights;
+        x = new double[n];
+        y = new double[n];
+        double s = 90, w = 180, nth = -90, e = -180;
+        for (int i = 0; i < n; i++) {
+            x[i] = lngToX(lngs[i]);
+            y[i] = latToY(lats[i]);
+            s = Math.min(s, lats[i]);
+            nth = Math.max(nth, lats[i]);
+            w = Math.min(w, lngs[i]);
+            e = Math.max(e, lngs[i]);
+        }
+        south = s;
+        west = w;
+        north = nth;
+        east = e;
+    }
+
+    /** @return number of points */
+    public int size() {
+        return x.length;
+    }
+
+    /** @return {south, west, north, east} of all points, or null if there are none */
+    @Nullable
+    public double[] bounds() {
+        return x.length == 0 ? null : new double[]{south, west, north, east};
+    }
+
+    /**
+     * Clusters inside the visible region, plus a margin of one cell so markers at the edge
+     * do not pop in while panning.
+     *
+     * @param zoom  camera zoom; rounded down to a whole level
+     * @param south visible southern edge, degrees
+     * @param west  visible western edge, degrees; greater than {@code east} across the antimeridian
+     * @param north visible northern edge, degrees
+     * @param east  visible eastern edge, degrees
+     * @return the clusters to show
+     */
+    @NonNull
+    public synchronized List<Cluster> visible(double zoom, double south, double west, double north, double east) {
+        int z = (int) Math.max(0, Math.min(MAX_ZOOM, Math.floor(zoom)));
+        double cellsPerSide = cellsPerSide(z);
+        double margin = 1 / cellsPerSide;
+        double minX = lngToX(west) - margin;
+        double maxX = lngToX(east) + margin;
+        double minY = latToY(north) - margin;
+        double maxY = latToY(south) + margin;
+        boolean wraps = west > east;
+
+        List<Cluster> out = new ArrayList<>();
+        for (Cluster c : cells(z)) {
+            if (c.y < minY || c.y > maxY) continue;
+            boolean inX = wraps ? (c.x >= minX || c.x <= maxX) : (c.x >= minX && c.x <= maxX);
+            if (inX) out.add(c);
+        }
+        return out;
+    }
+
+    /** @return every cluster at zoom level {@code z}, built once per level */
+    @NonNull
+    private List<Cluster> cells(int z) {
+        List<Cluster> cached = cellsByZoom.get(z);
+        if (cached != null) return cached;
+
+        double cellsPerSide = cellsPerSide(z);
+        Map<Long, double[]> sums = new HashMap<>(); // {count, sumX, sumY, firstIndex}
+        List<Long> order = new ArrayList<>();
+        for (int i = 0; i < x.length; i++) {
+            long cx = (long) Math.min(cellsPerSide - 1, Math.floor(x[i] * cellsPerSide));
+            long cy = (long) Math.min(cellsPerSide - 1, Math.floor(y[i] * cellsPerSide));
+            long key = ((long) z << 48) | (cx << 24) | cy;
+            double[] sum = sums.get(key);
+            if (sum == null) {
+                sums.put(key, sum = new double[]{0, 0, 0, i});
+                order.add(key);
+            }
+            int w = weights != null ? weights[i] : 1;
+            sum[0] += w;
+            sum[1] += x[i] * w;
+            sum[2] += y[i] * w;
+        }
+
+        List<Cluster> clusters = new ArrayList<>(order.size());
+        for (long key : order) {
+            double[] sum = sums.get(key);
+            int count = (int) sum[0];
+            double div = count > 0 ? count : 1;
+            clusters.add(new Cluster(key, sum[1] / div, sum[2] / div, count, (int) sum[3]));
+        }
+        clusters = Collections.unmodifiableList(clusters);
+        cellsByZoom.put(z, clusters);
+        return clusters;
+    }
+
+    private static double cellsPerSide(int z) {
+        return Math.max(1, TILE_PX * Math.pow(2, z) / CELL_PX);
+    }
+
+    private static double lngToX(double lng) {
+        return (lng + 180) / 360;
+    }
+
+    private static double xToLng(double x) {
+        return x * 360 - 180;
+    }
+
+    private static double latToY(double lat) {
+        double sin = Math.sin(Math.toRadians(Math.max(-MAX_LAT, Math.min(MAX_LAT, lat))));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    private static double yToLat(double y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ajilore.code.utils;
+
+import androidx.annotation.NonNull;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * DateLabels
+ *
+ * Purpose: The date strings list rows show, formatted with cached formatters instead of
+ * building a {@code DateFormat} per row.
+ *
+ * Pattern: Static helpers over one set of formatters per thread ({@code DateFormat} is not
+ * thread-safe), so rows can be built on {@link RowProjector}'s worker and on the main
+ * thread alike. A thread's formatters are rebuilt if the default locale or time zone changes.
+ */
+public final class DateLabels {
+
+    private static final ThreadLocal<Formats> FORMATS = new ThreadLocal<Formats>() {
+        @Override
+        protected Formats initialValue() {
+            return new Formats();
+        }
+    };
+
+    private DateLabels() {
+    }
+
+    /** @return e.g. "Nov 27, 2025, 5:36 PM" (medium date, short time) */
+    @NonNull
+    public static String dateTime(long millis) {
+        return formats().dateTime.format(new Date(millis));
+    }
+
+    /** @return day of month, e.g. "27" */
+    @NonNull
+    public static String dayOfMonth(long millis) {
+        return formats().day.format(new Date(millis));
+    }
+
+    /** @return full month name, e.g. "November" */
+    @NonNull
+    public static String monthName(long millis) {
+        return formats().month.format(new Date(millis));
+    }
+
+    /** @return inbox time, e.g. "Nov 27, 5:36 PM" */
+    @NonNull
+    public static String shortDateTime(long millis) {
+        return formats().shortDateTime.format(new Date(millis));
+    }
+
+    /** @return admin log time, e.g. "Nov 27, 2025 • 5:36 PM" */
+    @NonNull
+    public static String logStamp(long millis) {
+        return formats().logStamp.format(new Date(millis));
+    }
+
+    @NonNull
+    private static Formats formats() {
+        Formats f = FORMATS.get();
+        if (!f.isCurrent()) {
+            f = new Formats();
+            FORMATS.set(f);
+        }
+        return f;
+    }
+
+    private static final class Formats {
+        final Locale locale = Locale.getDefault();
+        final TimeZone zone = TimeZone.getDefault();
+        final DateFormat dateTime = DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.SHORT, locale);
+        final DateFormat day = new SimpleDateFormat("d", locale);
+        final DateFormat month = new SimpleDateFormat("MMMM", locale);
+        final DateFormat shortDateTime = new SimpleDateFormat("MMM d, h:mm a", locale);
+        final DateFormat logStamp = new SimpleDateFormat("MMM dd, yyyy • h:mm a", locale);
+
+        boolean isCurrent() {
+            return locale.equals(Locale.getDefault()) && zone.equals(TimeZone.getDefault());
+        }
+    }
+}
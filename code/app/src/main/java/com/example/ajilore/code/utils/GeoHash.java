@@ -0,0 +1,306 @@
+package com.example.ajilore.code.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * GeoHash
+ *
+ * Purpose: Encodes coordinates as geohashes and turns a bounding box or radius into a
+ * few geohash prefix ranges. Waiting-list entries store a {@code geohash} field at join
+ * time. An {@code orderBy("geohash")} query per range then reads only the entrants in
+ * that region instead of the whole list. Ranges cover whole cells, so callers still check
+ * each result against the exact box or radius.
+ *
+ * Pattern: Stateless, Android-free helper so it can be unit tested on the JVM.
+ */
+public final class GeoHash {
+
+    /** Precision stored on waiting-list entries; about 5 m x 5 m. */
+    public static final int ENTRY_PRECISION = 9;
+    /** Largest number of cells {@link #ranges} covers a box with, before merging. */
+    public static final int MAX_CELLS = 9;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final int MAX_PRECISION = 12;
+    private static final double METERS_PER_DEGREE = 111_320;
+    private static final double EARTH_RADIUS_M = 6_371_008.8;
+
+    /**
+     * Inclusive range of geohash prefixes: every hash that starts with a prefix between
+     * {@link #start} and {@link #end} lies in the range.
+     */
+    public static final class Range {
+        @NonNull
+        public final String start;
+        @NonNull
+        public final String end;
+
+        Range(@NonNull String start, @NonNull String end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @param hash a full geohash
+         * @return true if the hash starts with a prefix in this range
+         */
+        public boolean contains(@NonNull String hash) {
+            String prefix = hash.length() > start.length() ? hash.substring(0, start.length()) : hash;
+            return prefix.compareTo(start) >= 0 && prefix.compareTo(end) <= 0;
+        }
+
+        @Override
+        public String toString() {
+            return start.equals(end) ? start : start + ".." + end;
+        }
+    }
+
+    private GeoHash() {
+    }
+
+    /**
+     * @param lat       latitude in degrees
+     * @param lng       longitude in degrees
+     * @param precision characters, 1 to 12
+     * @return the geohash of the cell containing the point
+     */
+    @NonNull
+    public static String encode(double lat, double lng, int precision) {
+        int p = Math.max(1, Math.min(MAX_PRECISION, precision));
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        StringBuilder sb = new StringBuilder(p);
+        boolean lngBit = true;
+        int bits = 0;
+        int ch = 0;
+        while (sb.length() < p) {
+            if (lngBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            lngBit = !lngBit;
+            if (++bits == 5) {
+                sb.append(BASE32.charAt(ch));
+                bits = 0;
+                ch = 0;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param hash a geohash
+     * @return {south, west, north, east} of the cell
+     * @throws IllegalArgumentException if the hash has a character outside the geohash alphabet
+     */
+    @NonNull
+    public static double[] bounds(@NonNull String hash) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        boolean lngBit = true;
+        for (int i = 0; i < hash.length(); i++) {
+            int value = BASE32.indexOf(hash.charAt(i));
+            if (value < 0) throw new IllegalArgumentException("Not a geohash: " + hash);
+            for (int b = 4; b >= 0; b--) {
+                boolean set = ((value >> b) & 1) == 1;
+                if (lngBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (set) minLng = mid;
+                    else maxLng = mid;
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) minLat = mid;
+                    else maxLat = mid;
+                }
+                lngBit = !lngBit;
+            }
+        }
+        return new double[]{minLat, minLng, maxLat, maxLng};
+    }
+
+    /**
+     * @param hash a geohash
+     * @return {lat, lng} of the cell's center
+     */
+    @NonNull
+    public static double[] center(@NonNull String hash) {
+        double[] b = bounds(hash);
+        return new double[]{(b[0] + b[2]) / 2, (b[1] + b[3]) / 2};
+    }
+
+    /**
+     * Prefix ranges covering a box. The precision is the finest at which the box touches
+     * at most {@link #MAX_CELLS} cells; cells that follow each other in geohash order are
+     * merged into one range.
+     *
+     * @param south southern edge, degrees
+     * @param west  western edge, degrees; greater than {@code east} across the antimeridian
+     * @param north northern edge, degrees
+     * @param east  eastern edge, degrees
+     * @return ranges in ascending order, one query each
+     */
+    @NonNull
+    public static List<Range> ranges(double south, double west, double north, double east) {
+        double s = clampLat(Math.min(south, north));
+        double n = clampLat(Math.max(south, north));
+        if (west > east) {
+            List<Range> out = new ArrayList<>(ranges(s, west, n, 180));
+            out.addAll(ranges(s, -180, n, east));
+            return merge(new TreeSet<>(toHashes(out)));
+        }
+        double w = Math.max(-180, west);
+        double e = Math.min(180, east);
+
+        int precision = 1;
+        for (int p = MAX_PRECISION; p >= 1; p--) {
+            if (cellCount(s, w, n, e, p) <= MAX_CELLS) {
+                precision = p;
+                break;
+            }
+        }
+        return merge(cells(s, w, n, e, precision));
+    }
+
+    /**
+     * Prefix ranges covering a circle, via its bounding box.
+     *
+     * @param lat     center latitude, degrees
+     * @param lng     center longitude, degrees
+     * @param radiusM radius in meters
+     * @return ranges in ascending order, one query each
+     */
+    @NonNull
+    public static List<Range> rangesNear(double lat, double lng, double radiusM) {
+        double dLat = radiusM / METERS_PER_DEGREE;
+        double cos = Math.cos(Math.toRadians(lat));
+        double dLng = cos < 1e-6 ? 180 : Math.min(180, radiusM / (METERS_PER_DEGREE * cos));
+        if (dLng >= 180 || lat + dLat >= 90 || lat - dLat <= -90) {
+            // Reaches a pole: every longitude is in range.
+            return ranges(lat - dLat, -180, lat + dLat, 180);
+        }
+        return ranges(lat - dLat, wrapLng(lng - dLng), lat + dLat, wrapLng(lng + dLng));
+    }
+
+    /**
+     * Great-circle distance.
+     *
+     * @return meters between the two points
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_M * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long cellCount(double s, double w, double n, double e, int precision) {
+        double[] size = cellSize(precision);
+        long rows = index(n, -90, size[0], 180) - index(s, -90, size[0], 180) + 1;
+        long cols = index(e, -180, size[1], 360) - index(w, -180, size[1], 360) + 1;
+        return rows * cols;
+    }
+
+    /** Geohashes of every cell at {@code precision} the box touches, sorted. */
+    @NonNull
+    private static TreeSet<String> cells(double s, double w, double n, double e, int precision) {
+        double[] size = cellSize(precision);
+        TreeSet<String> hashes = new TreeSet<>();
+        long row0 = index(s, -90, size[0], 180);
+        long row1 = index(n, -90, size[0], 180);
+        long col0 = index(w, -180, size[1], 360);
+        long col1 = index(e, -180, size[1], 360);
+        for (long row = row0; row <= row1; row++) {
+            double lat = -90 + (row + 0.5) * size[0];
+            for (long col = col0; col <= col1; col++) {
+                hashes.add(encode(lat, -180 + (col + 0.5) * size[1], precision));
+            }
+        }
+        return hashes;
+    }
+
+    /** Joins runs of hashes that are consecutive at their precision. */
+    @NonNull
+    private static List<Range> merge(@NonNull TreeSet<String> hashes) {
+        List<Range> out = new ArrayList<>();
+        String start = null;
+        String prev = null;
+        for (String hash : hashes) {
+            if (start != null && hash.length() == prev.length() && value(hash) == value(prev) + 1) {
+                prev = hash;
+                continue;
+            }
+            if (start != null) out.add(new Range(start, prev));
+            start = prev = hash;
+        }
+        if (start != null) out.add(new Range(start, prev));
+        return Collections.unmodifiableList(out);
+    }
+
+    /** Expands ranges back to the hashes they cover, so two halves can be merged. */
+    @NonNull
+    private static List<String> toHashes(@NonNull List<Range> ranges) {
+        List<String> out = new ArrayList<>();
+        for (Range r : ranges) {
+            for (long v = value(r.start); v <= value(r.end); v++) out.add(fromValue(v, r.start.length()));
+        }
+        return out;
+    }
+
+    /** @return {cell height, cell width} in degrees */
+    private static double[] cellSize(int precision) {
+        int bits = 5 * precision;
+        int lngBits = (bits + 1) / 2;
+        int latBits = bits / 2;
+        return new double[]{180 / Math.pow(2, latBits), 360 / Math.pow(2, lngBits)};
+    }
+
+    private static long index(double coord, double origin, double cell, double span) {
+        long max = (long) Math.ceil(span / cell) - 1;
+        return Math.max(0, Math.min(max, (long) Math.floor((coord - origin) / cell)));
+    }
+
+    private static long value(String hash) {
+        long v = 0;
+        for (int i = 0; i < hash.length(); i++) v = (v << 5) | BASE32.indexOf(hash.charAt(i));
+        return v;
+    }
+
+    private static String fromValue(long v, int precision) {
+        char[] chars = new char[precision];
+        for (int i = precision - 1; i >= 0; i--) {
+            chars[i] = BASE32.charAt((int) (v & 31));
+            v >>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static double clampLat(double lat) {
+        return Math.max(-90, Math.min(90, lat));
+    }
+
+    private static double wrapLng(double lng) {
+        if (lng > 180) return lng - 360;
+        if (lng < -180) return lng + 360;
+        return lng;
+    }
+}
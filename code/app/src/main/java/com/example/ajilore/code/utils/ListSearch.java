@@ -0,0 +1,117 @@
+package com.example.ajilore.code.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ListSearch
+ *
+ * Purpose: Drives a {@link SearchIndex} for a search box. Indexing and queries run on a
+ * background thread. Typing is debounced, and only the newest query's results reach the
+ * main thread.
+ *
+ * Pattern: Owned by a list adapter or fragment in place of its "full list" copy. Updates
+ * and queries share one worker thread, so a query always sees the rows added before it.
+ * A query whose text has not changed (a facet or a new page) runs without the debounce
+ * delay.
+ *
+ * @param <T> item type
+ */
+public final class ListSearch<T> {
+
+    /** Delay after the last keystroke before a query runs. */
+    public static final long DEBOUNCE_MS = 150;
+
+    /**
+     * Receives the matches on the main thread.
+     *
+     * @param <T> item type
+     */
+    public interface Results<T> {
+        void onResults(@NonNull List<T> matches);
+    }
+
+    private static final ExecutorService WORKER = BackgroundExecutors.serial("list-search");
+
+    private final SearchIndex<T> index;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final AtomicInteger latest = new AtomicInteger();
+    @Nullable
+    private Runnable pending;
+    @Nullable
+    private String lastText;
+
+    /**
+     * @param fields     reads text and facet values from an item
+     * @param facetNames facets queries may filter on
+     */
+    public ListSearch(@NonNull SearchIndex.Fields<T> fields, @NonNull String... facetNames) {
+        this.index = new SearchIndex<>(fields, facetNames);
+    }
+
+    /** @param items new contents, in display order; copied */
+    public void replaceAll(@NonNull List<T> items) {
+        List<T> copy = new ArrayList<>(items);
+        WORKER.execute(() -> index.replaceAll(copy));
+    }
+
+    /** @param items rows to append, in display order; copied */
+    public void addAll(@NonNull List<T> items) {
+        List<T> copy = new ArrayList<>(items);
+        WORKER.execute(() -> index.addAll(copy));
+    }
+
+    /**
+     * Runs a query, after {@link #DEBOUNCE_MS} if the text changed since the last one.
+     * Any query still waiting or running is superseded.
+     *
+     * @param text    search box text
+     * @param facets  required facet values; null values are ignored
+     * @param results receives the matches unless a newer query was made first
+     */
+    public void query(@Nullable String text,
+                      @NonNull Map<String, String> facets,
+                      @NonNull Results<T> results) {
+        final int generation = latest.incrementAndGet();
+        final Map<String, String> facetsCopy = new HashMap<>(facets);
+        boolean typed = !Objects.equals(SearchIndex.normalize(text), lastText);
+        lastText = SearchIndex.normalize(text);
+
+        if (pending != null) main.removeCallbacks(pending);
+        pending = () -> {
+            pending = null;
+            WORKER.execute(() -> {
+                if (generation != latest.get()) return;
+                List<T> matches = index.query(text, facetsCopy);
+                main.post(() -> {
+                    if (generation == latest.get()) results.onResults(matches);
+                });
+            });
+        };
+        if (typed) {
+            main.postDelayed(pending, DEBOUNCE_MS);
+        } else {
+            pending.run();
+        }
+    }
+
+    /** Drops any query that has not delivered yet, e.g. in {@code onDestroyView}. */
+    public void cancel() {
+        latest.incrementAndGet();
+        if (pending != null) {
+            main.removeCallbacks(pending);
+            pending = null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ajilore.code.utils;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * PagedScrollListener
+ *
+ * Purpose: Infinite scroll for the admin browse lists. Asks for the next page when the
+ * last visible row comes within {@link #PREFETCH_ROWS} of the end of the adapter.
+ *
+ * Pattern: The screen owns the paging state ({@link PagingState}) and decides in
+ * {@code onLoadMore} whether a page is actually fetched. After showing a page, the screen
+ * calls {@link #check} so a short result (e.g. a search that matched few rows) keeps
+ * loading until the list fills the screen, the last page is reached or
+ * {@link PagingState#MAX_AUTO_PAGES} pages were read without the admin asking.
+ * Works with {@link LinearLayoutManager} and {@code GridLayoutManager}.
+ */
+public class PagedScrollListener extends RecyclerView.OnScrollListener {
+
+    /** Rows from the end at which the next page is requested. */
+    public static final int PREFETCH_ROWS = 6;
+
+    /**
+     * Receives requests for the next page.
+     */
+    public interface LoadMore {
+        /**
+         * @param auto false when the admin scrolled, true when {@link #check} asked after a
+         *             page or a search
+         */
+        void onLoadMore(boolean auto);
+    }
+
+    private final LoadMore onLoadMore;
+
+    /**
+     * @param onLoadMore called when more rows are needed; must ignore calls while a page
+     *                   is loading or after the last page
+     */
+    public PagedScrollListener(@NonNull LoadMore onLoadMore) {
+        this.onLoadMore = onLoadMore;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy > 0 && nearEnd(recyclerView)) onLoadMore.onLoadMore(false);
+    }
+
+    /**
+     * Requests the next page if the end of the list is (nearly) visible, including when the
+     * list is too short to scroll at all.
+     *
+     * @param recyclerView the paged list
+     */
+    public void check(@NonNull RecyclerView recyclerView) {
+        if (nearEnd(recyclerView)) onLoadMore.onLoadMore(true);
+    }
+
+    private static boolean nearEnd(@NonNull RecyclerView recyclerView) {
+        RecyclerView.LayoutManager lm = recyclerView.getLayoutManager();
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        if (!(lm instanceof LinearLayoutManager) || adapter == null) return false;
+
+        int lastVisible = ((LinearLayoutManager) lm).findLastVisibleItemPosition();
+        return lastVisible >= adapter.getItemCount() - 1 - PREFETCH_ROWS;
+    }
+}
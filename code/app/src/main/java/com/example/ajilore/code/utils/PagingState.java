@@ -0,0 +1,138 @@
+package com.example.ajilore.code.utils;
+
+import androidx.annotation.Nullable;
+
+/**
+ * PagingState
+ *
+ * Purpose: Paging bookkeeping for one admin browse list: the next page token, whether a
+ * page is in flight or the last one is in, a generation so pages requested before a
+ * reload are dropped, and a cap on pages fetched without the admin asking.
+ * <ul>
+ *   <li>While a search matches few of the loaded rows, the screen asks for more on its
+ *       own ({@link PagedScrollListener#check}). After {@link #MAX_AUTO_PAGES} such pages
+ *       for the same query it stops and shows a "load more" button instead of reading the
+ *       rest of the collection.</li>
+ *   <li>Scrolling, tapping the button or changing the query is the admin asking, and
+ *       allows another run of automatic pages.</li>
+ * </ul>
+ *
+ * Pattern: Plain Java so the stop conditions are unit tested; each browse fragment owns
+ * one and keeps the fetch itself.
+ *
+ * @param <T> page token type
+ */
+public final class PagingState<T> {
+
+    /** Pages fetched in a row without the admin asking before paging stops. */
+    public static final int MAX_AUTO_PAGES = 3;
+
+    private final int maxAutoPages;
+    private T next;
+    private boolean loading;
+    private boolean lastPage;
+    private int generation;
+    private int autoPages;
+    /** An automatic request was refused because of the cap. */
+    private boolean stopped;
+
+    public PagingState() {
+        this(MAX_AUTO_PAGES);
+    }
+
+    /**
+     * @param maxAutoPages pages fetched in a row without the admin asking
+     */
+    public PagingState(int maxAutoPages) {
+        this.maxAutoPages = maxAutoPages;
+    }
+
+    /**
+     * Forgets every page, e.g. after a delete. Pages still in flight become stale
+     * ({@link #isCurrent}); call {@link #begin} next for the first page.
+     */
+    public void restart() {
+        generation++;
+        next = null;
+        loading = false;
+        lastPage = false;
+        autoPages = 0;
+        stopped = false;
+    }
+
+    /**
+     * Decides whether to fetch a page now and, if so, marks it in flight.
+     *
+     * @param auto true when the screen asks on its own (after a page or a search), false
+     *             when the admin scrolled or tapped "load more"
+     * @return true if the caller should fetch {@link #next()}
+     */
+    public boolean begin(boolean auto) {
+        if (loading || lastPage) return false;
+        if (!auto) {
+            autoPages = 0;
+            stopped = false;
+        } else if (autoPages >= maxAutoPages) {
+            stopped = true;
+            return false;
+        } else {
+            autoPages++;
+        }
+        loading = true;
+        return true;
+    }
+
+    /** @return the generation a fetch started now belongs to */
+    public int generation() {
+        return generation;
+    }
+
+    /**
+     * @param generation {@link #generation()} when the fetch started
+     * @return false if the list was restarted since, so the result must be dropped
+     */
+    public boolean isCurrent(int generation) {
+        return generation == this.generation;
+    }
+
+    /**
+     * Records a fetched page.
+     *
+     * @param next token of the following page, or null if this was the last one
+     */
+    public void onPage(@Nullable T next) {
+        loading = false;
+        this.next = next;
+        lastPage = next == null;
+    }
+
+    /** Records a failed fetch; the same page can be asked for again. */
+    public void onError() {
+        loading = false;
+    }
+
+    /** @return token of the page to fetch, or null for the first page */
+    @Nullable
+    public T next() {
+        return next;
+    }
+
+    /** @return whether the last page is in */
+    public boolean isLastPage() {
+        return lastPage;
+    }
+
+    /** The query or filter changed: automatic paging may run again. */
+    public void resetAutoPages() {
+        autoPages = 0;
+        stopped = false;
+    }
+
+    /**
+     * @return true when the screen wanted more rows but automatic paging has stopped and
+     *         more pages exist, so "load more" should show
+     */
+    public boolean isCapped() {
+        return stopped && !loading && !lastPage;
+    }
+}
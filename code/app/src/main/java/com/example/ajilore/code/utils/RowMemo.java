@@ -0,0 +1,79 @@
+package com.example.ajilore.code.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RowMemo
+ *
+ * Purpose: Maps a list of immutable source objects to rows, re-mapping only sources it
+ * has not seen before. A source that is the same instance as last time gets the same row
+ * back, so a {@code DiffUtil} pass over the result only rebinds rows that changed.
+ *
+ * Pattern: Identity memo for lists fed from the local {@code EventCatalog}, which keeps
+ * unchanged events as the same instances. Only the latest sources are remembered.
+ *
+ * @param <S> source type
+ * @param <T> row type
+ */
+public final class RowMemo<S, T> {
+
+    /**
+     * Maps one source to a row.
+     *
+     * @param <S> source type
+     * @param <T> row type
+     */
+    public interface Mapper<S, T> {
+        @NonNull
+        T map(@NonNull S source);
+    }
+
+    private final Mapper<S, T> mapper;
+    private Map<S, T> rows = new IdentityHashMap<>();
+
+    /**
+     * @param mapper maps a source to a row
+     */
+    public RowMemo(@NonNull Mapper<S, T> mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * @param sources sources in display order
+     * @return one row per source, in the same order
+     */
+    @NonNull
+    public List<T> map(@NonNull List<S> sources) {
+        Map<S, T> next = new IdentityHashMap<>(sources.size() * 2);
+        List<T> out = new ArrayList<>(sources.size());
+        for (S s : sources) {
+            T row = rows.get(s);
+            if (row == null) row = mapper.map(s);
+            next.put(s, row);
+            out.add(row);
+        }
+        rows = next;
+        return out;
+    }
+
+    /**
+     * Forgets the rows of some sources, so they are mapped again next time even though
+     * they are the same instances, e.g. when a time-dependent label changed.
+     *
+     * @param sources sources whose rows are stale
+     */
+    public void forget(@NonNull Collection<S> sources) {
+        for (S s : sources) rows.remove(s);
+    }
+
+    /** Forgets every row, e.g. when the mapping itself changed. */
+    public void clear() {
+        rows = new IdentityHashMap<>();
+    }
+}
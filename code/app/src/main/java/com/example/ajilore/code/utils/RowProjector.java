@@ -0,0 +1,114 @@
+package com.example.ajilore.code.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RowProjector
+ *
+ * Purpose: Maps source objects (catalog events, inbox entries) to list rows on a
+ * background thread and hands finished, unmodifiable row lists to the main thread.
+ * Rows are memoized per source instance through {@link RowMemo}, so a source that did not
+ * change is not formatted again.
+ *
+ * Pattern: Every screen shares one worker thread, which also confines each projector's
+ * memo. Only the newest submitted list is delivered; older ones are skipped, even if
+ * they were already mapped.
+ *
+ * @param <S> source type
+ * @param <T> row type
+ */
+public final class RowProjector<S, T> {
+
+    /**
+     * Receives finished rows on the UI executor.
+     *
+     * @param <T> row type
+     */
+    public interface Sink<T> {
+        void onRows(@NonNull List<T> rows);
+    }
+
+    private static final ExecutorService WORKER = BackgroundExecutors.serial("row-projection");
+
+    private final RowMemo<S, T> memo;
+    private final Executor worker;
+    private final Executor ui;
+    private final AtomicInteger latest = new AtomicInteger();
+
+    /**
+     * @param mapper called on {@code worker}; must not touch views
+     * @param worker executor the mapping runs on; must run one task at a time
+     * @param ui     executor the rows are delivered on
+     */
+    public RowProjector(@NonNull RowMemo.Mapper<S, T> mapper,
+                        @NonNull Executor worker,
+                        @NonNull Executor ui) {
+        this.memo = new RowMemo<>(mapper);
+        this.worker = worker;
+        this.ui = ui;
+    }
+
+    /**
+     * @param mapper called on the shared worker thread; must not touch views
+     * @return a projector that delivers rows on the main thread
+     */
+    @NonNull
+    public static <S, T> RowProjector<S, T> toMainThread(@NonNull RowMemo.Mapper<S, T> mapper) {
+        Handler main = new Handler(Looper.getMainLooper());
+        return new RowProjector<>(mapper, WORKER, main::post);
+    }
+
+    /**
+     * Maps {@code sources} in the background and delivers the rows unless a newer list
+     * was submitted in the meantime.
+     *
+     * @param sources sources in display order; copied, so the caller may reuse the list
+     * @param sink    receives the rows, in the same order
+     */
+    public void submit(@NonNull List<S> sources, @NonNull Sink<T> sink) {
+        final int generation = latest.incrementAndGet();
+        final List<S> copy = new ArrayList<>(sources);
+        worker.execute(() -> {
+            if (generation != latest.get()) return;
+            List<T> rows = Collections.unmodifiableList(memo.map(copy));
+            ui.execute(() -> {
+                if (generation == latest.get()) sink.onRows(rows);
+            });
+        });
+    }
+
+    /**
+     * Maps some sources again on the next {@link #submit}, even if they are the same
+     * instances. Runs on the worker, so it applies before any later submission.
+     *
+     * @param stale sources whose rows are out of date; copied
+     */
+    public void invalidate(@NonNull Collection<S> stale) {
+        final List<S> copy = new ArrayList<>(stale);
+        worker.execute(() -> memo.forget(copy));
+    }
+
+    /**
+     * Maps every source again on the next {@link #submit}, e.g. when an input the mapper
+     * reads besides the source changed. Runs on the worker, like {@link #invalidate}.
+     */
+    public void invalidateAll() {
+        worker.execute(memo::clear);
+    }
+
+    /** Drops any pending delivery, e.g. in {@code onDestroyView}. */
+    public void cancel() {
+        latest.incrementAndGet();
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.ajilore.code.utils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SearchIndex
+ *
+ * Purpose: Substring search with facet filters over a growing list, without lower-casing
+ * and scanning every row on each query. Each item's text fields are normalized once when
+ * it is added. Every distinct trigram and facet value keeps a sorted list of the items
+ * that have it. A query intersects those lists and then confirms the few candidates with
+ * {@code contains}. Results keep the order items were added in.
+ *
+ * Pattern: Plain Java, thread-safe through {@code synchronized}, so it can be unit tested
+ * on the JVM. {@link ListSearch} runs it on a background thread for the list screens.
+ * Items are only ever appended or all replaced, which matches how pages arrive.
+ *
+ * @param <T> item type
+ */
+public final class SearchIndex<T> {
+
+    /**
+     * Reads the searchable parts of an item.
+     *
+     * @param <T> item type
+     */
+    public interface Fields<T> {
+        /** @return text fields a query is matched against; null entries are skipped */
+        @NonNull
+        String[] text(@NonNull T item);
+
+        /**
+         * @param facet one of the facet names the index was built with
+         * @return the item's value for that facet, or null if it has none
+         */
+        @Nullable
+        String facet(@NonNull T item, @NonNull String facet);
+    }
+
+    private static final int GRAM = 3;
+    /** Separates fields so a match cannot span two of them. */
+    private static final char FIELD_SEPARATOR = '\n';
+
+    private final Fields<T> fields;
+    private final String[] facetNames;
+    private final List<T> items = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private final Map<String, IntList> grams = new HashMap<>();
+    private final Map<String, Map<String, IntList>> facets = new HashMap<>();
+
+    /**
+     * @param fields     reads text and facet values from an item
+     * @param facetNames facets queries may filter on, e.g. "audience"
+     */
+    public SearchIndex(@NonNull Fields<T> fields, @NonNull String... facetNames) {
+        this.fields = fields;
+        this.facetNames = facetNames.clone();
+        for (String name : facetNames) facets.put(name, new HashMap<>());
+    }
+
+    /**
+     * @param s raw text
+     * @return the text as it is indexed and queried: trimmed and lower-cased
+     */
+    @NonNull
+    public static String normalize(@Nullable String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** @param items new contents, in display order */
+    public synchronized void replaceAll(@NonNull Collection<T> items) {
+        this.items.clear();
+        texts.clear();
+        grams.clear();
+        for (Map<String, IntList> values : facets.values()) values.clear();
+        addAll(items);
+    }
+
+    /** @param items items to append, in display order */
+    public synchronized void addAll(@NonNull Collection<T> items) {
+        Set<String> seen = new HashSet<>();
+        for (T item : items) {
+            int ordinal = this.items.size();
+            this.items.add(item);
+
+            StringBuilder sb = new StringBuilder();
+            for (String field : fields.text(item)) {
+                if (field == null) continue;
+                if (sb.length() > 0) sb.append(FIELD_SEPARATOR);
+                sb.append(normalize(field));
+            }
+            String text = sb.toString();
+            texts.add(text);
+
+            seen.clear();
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                String gram = text.substring(i, i + GRAM);
+                if (gram.indexOf(FIELD_SEPARATOR) >= 0 || !seen.add(gram)) continue;
+                IntList list = grams.get(gram);
+                if (list == null) grams.put(gram, list = new IntList());
+                list.add(ordinal);
+            }
+
+            for (String name : facetNames) {
+                String value = fields.facet(item, name);
+                if (value == null) continue;
+                Map<String, IntList> values = facets.get(name);
+                String key = normalize(value);
+                IntList list = values.get(key);
+                if (list == null) values.put(key, list = new IntList());
+                list.add(ordinal);
+            }
+        }
+    }
+
+    /** @return number of indexed items */
+    public synchronized int size() {
+        return items.size();
+    }
+
+    /**
+     * @param text   substring to find in any text field, case-insensitive; blank matches all
+     * @param facets required facet values by facet name; null values are ignored
+     * @return matching items in the order they were added
+     */
+    @NonNull
+    public synchronized List<T> query(@Nullable String text, @NonNull Map<String, String> facets) {
+        String q = normalize(text);
+        List<IntList> required = new ArrayList<>();
+        for (Map.Entry<String, String> f : facets.entrySet()) {
+            if (f.getValue() == null) continue;
+            Map<String, IntList> values = this.facets.get(f.getKey());
+            if (values == null) {
+                throw new IllegalArgumentException("Not an indexed facet: " + f.getKey());
+            }
+            IntList list = values.get(normalize(f.getValue()));
+            if (list == null) return Collections.emptyList();
+            required.add(list);
+        }
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            IntList list = grams.get(q.substring(i, i + GRAM));
+            if (list == null) return Collections.emptyList();
+            if (!required.contains(list)) required.add(list);
+        }
+
+        List<T> out = new ArrayList<>();
+        if (required.isEmpty()) {
+            // Blank or one- and two-character queries without facets: a plain scan.
+            for (int i = 0; i < items.size(); i++) {
+                if (q.isEmpty() || texts.get(i).contains(q)) out.add(items.get(i));
+            }
+            return out;
+        }
+
+        required.sort(Comparator.comparingInt(l -> l.size));
+        IntList smallest = required.get(0);
+        int[] cursors = new int[required.size()];
+        candidates:
+        for (int c = 0; c < smallest.size; c++) {
+            int ordinal = smallest.data[c];
+            for (int r = 1; r < required.size(); r++) {
+                IntList other = required.get(r);
+                int at = other.seek(ordinal, cursors[r]);
+                cursors[r] = at;
+                if (at == other.size) break candidates;
+                if (other.data[at] != ordinal) continue candidates;
+            }
+            if (q.isEmpty() || texts.get(ordinal).contains(q)) out.add(items.get(ordinal));
+        }
+        return out;
+    }
+
+    /** Growable sorted list of item ordinals. */
+    private static final class IntList {
+        int[] data = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        /** @return the first index at or after {@code from} whose value is at least {@code value} */
+        int seek(int value, int from) {
+            int i = Arrays.binarySearch(data, from, size, value);
+            return i >= 0 ? i : -i - 1;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.ajilore.code.utils;
 
 import android.content.Context;
 import android.widget.Toast;
+import com.example.ajilore.code.data.InboxEntry;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import java.util.HashMap;
@@ -63,7 +64,7 @@ public class SendNotificationHelper {
                             .document(eventId)
                             .collection("inbox")
                             .document(inboxId)
-                            .set(notifData);
+                            .set(InboxEntry.forRecipient(notifData, userId));
 
                     // ON SUCCESS: Write to Admin Log
                     db.collection("notification_logs")
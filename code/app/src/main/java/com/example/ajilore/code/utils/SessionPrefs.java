@@ -0,0 +1,64 @@
+package com.example.ajilore.code.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.services.StartupGate;
+
+/**
+ * SessionPrefs
+ *
+ * Purpose: Keeps the last {@link StartupGate} check in SharedPreferences so a returning
+ * user's next start can route without waiting for Firestore. Login and signup mark the
+ * device as registered; deleting the profile forgets it.
+ *
+ * Pattern: {@link StartupGate.Cache} backed by a private preferences file.
+ */
+public final class SessionPrefs implements StartupGate.Cache {
+
+    private static final String FILE = "startup_session";
+    private static final String KEY_BANNED = "banned";
+    private static final String KEY_REGISTERED = "registered";
+    private static final String KEY_CHECKED_AT = "checkedAt";
+
+    private final SharedPreferences prefs;
+
+    /**
+     * @param context any context; the preferences file is app-wide
+     */
+    public SessionPrefs(@NonNull Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences(FILE, Context.MODE_PRIVATE);
+    }
+
+    @Nullable
+    @Override
+    public StartupGate.Session load() {
+        if (!prefs.contains(KEY_CHECKED_AT)) return null;
+        return new StartupGate.Session(
+                prefs.getBoolean(KEY_BANNED, false),
+                prefs.getBoolean(KEY_REGISTERED, false),
+                prefs.getLong(KEY_CHECKED_AT, 0));
+    }
+
+    @Override
+    public void save(@NonNull StartupGate.Session session) {
+        prefs.edit()
+                .putBoolean(KEY_BANNED, session.banned)
+                .putBoolean(KEY_REGISTERED, session.registered)
+                .putLong(KEY_CHECKED_AT, session.checkedAtMillis)
+                .apply();
+    }
+
+    /** Records a successful login or signup, so the next start goes straight to events. */
+    public void markRegistered() {
+        save(new StartupGate.Session(false, true, System.currentTimeMillis()));
+    }
+
+    /** Forgets the device, e.g. after its profile was deleted. */
+    public void clear() {
+        prefs.edit().clear().apply();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.ajilore.code.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * StartupTrace
+ *
+ * Purpose: Named milestones of one app start, in ms since the process started.
+ * {@code MainActivity} marks {@code onCreate}, {@code firstFrame} (the first frame drawn)
+ * and {@code route} (the first real screen shown) and logs {@link #summary()}.
+ *
+ * Pattern: Plain Java so it can be unit tested. Only the first mark of each name counts,
+ * so a milestone reached again, e.g. a second route after a background refresh, does
+ * not move it.
+ */
+public final class StartupTrace {
+
+    private final long originMillis;
+    private final Map<String, Long> marks = new LinkedHashMap<>();
+
+    /**
+     * @param originMillis process start, on the same clock as the marks
+     */
+    public StartupTrace(long originMillis) {
+        this.originMillis = originMillis;
+    }
+
+    /**
+     * Records a milestone.
+     *
+     * @param name     milestone name
+     * @param atMillis time reached, on the origin's clock
+     * @return true if this was the first mark with that name
+     */
+    public synchronized boolean mark(@NonNull String name, long atMillis) {
+        if (marks.containsKey(name)) return false;
+        marks.put(name, Math.max(0, atMillis - originMillis));
+        return true;
+    }
+
+    /**
+     * @param name milestone name
+     * @return ms from process start to the milestone, or -1 if not reached
+     */
+    public synchronized long elapsed(@NonNull String name) {
+        Long ms = marks.get(name);
+        return ms != null ? ms : -1;
+    }
+
+    /** @return the milestones in the order reached, e.g. {@code "onCreate=180ms firstFrame=520ms"} */
+    @NonNull
+    public synchronized String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Long> e : marks.entrySet()) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(e.getKey()).append('=').append(e.getValue()).append("ms");
+        }
+        return sb.toString();
+    }
+}
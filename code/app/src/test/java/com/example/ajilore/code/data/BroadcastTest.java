@@ -0,0 +1,174 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the audience and overlay rules of pull-delivered {@link Broadcast}s.
+ */
+public class BroadcastTest {
+
+    private static Broadcast broadcast(String id, String eventId, String audience, long createdAt) {
+        return new Broadcast("org_events/" + eventId + "/broadcasts/" + id, id, eventId,
+                audience, "msg " + id, createdAt);
+    }
+
+    @Test
+    public void reaches_followsTheAudienceRules() {
+        assertTrue(Broadcast.reaches("waiting", "waiting", null));
+        assertFalse(Broadcast.reaches("waiting", "chosen", null));
+
+        assertTrue(Broadcast.reaches("chosen", "chosen", "pending"));
+        assertFalse(Broadcast.reaches("chosen", "chosen", "accepted"));
+
+        assertTrue(Broadcast.reaches("selected", "chosen", "accepted"));
+        assertTrue(Broadcast.reaches("selected", "selected", "accepted"));
+        assertFalse(Broadcast.reaches("selected", "waiting", null));
+
+        assertTrue(Broadcast.reaches("cancelled", "chosen", "declined"));
+        assertTrue(Broadcast.reaches("cancelled", "cancelled", null));
+        assertFalse(Broadcast.reaches("cancelled", "selected", "accepted"));
+
+        assertFalse(Broadcast.reaches("everyone", "waiting", null));
+        assertFalse(Broadcast.reaches(null, "waiting", null));
+    }
+
+    @Test
+    public void reaches_skipsBroadcastsSentBeforeTheReaderEnteredTheAudience() {
+        Broadcast b = broadcast("b1", "e1", "waiting", 1_000);
+
+        assertTrue(b.reaches(new Broadcast.Membership("waiting", null, 500)));
+        assertFalse(b.reaches(new Broadcast.Membership("waiting", null, 2_000)));
+        // Entries from before the stamps are matched on status alone.
+        assertTrue(b.reaches(new Broadcast.Membership("waiting", null, 0)));
+        // A broadcast still pending its server timestamp was just sent.
+        assertTrue(broadcast("b2", "e1", "waiting", 0).reaches(new Broadcast.Membership("waiting", null, 2_000)));
+        assertFalse(b.reaches(null));
+    }
+
+    @Test
+    public void reaches_isFrozenWhenTheReaderChangesAudience() {
+        // Sent to the chosen entrants at t=1000.
+        Broadcast invite = broadcast("b1", "e1", "chosen", 1_000);
+        // Drawn at t=1500: not in the audience when it was sent.
+        assertFalse(invite.reaches(new Broadcast.Membership("chosen", "pending", 1_500)));
+        // Answered at t=2000: has left the audience since.
+        assertFalse(invite.reaches(new Broadcast.Membership("selected", "accepted", 2_000)));
+        assertTrue(invite.reaches(new Broadcast.Membership("chosen", "pending", 500)));
+    }
+
+    @Test
+    public void resolve_keepsMatchingBroadcastsAndAppliesOverlay() {
+        Map<String, Broadcast> byPath = new HashMap<>();
+        List<InboxEntry> entries = new ArrayList<>();
+        for (Broadcast b : Arrays.asList(
+                broadcast("b1", "e1", "waiting", 100),
+                broadcast("b2", "e1", "chosen", 200),
+                broadcast("b3", "e2", "selected", 300),
+                broadcast("b4", "e3", "waiting", 400),
+                broadcast("b5", "e1", "waiting", 20))) {
+            byPath.put(b.path, b);
+            entries.add(b.toEntry());
+        }
+        Map<String, Broadcast.Membership> memberships = new HashMap<>();
+        memberships.put("e1", new Broadcast.Membership("waiting", null, 50));
+        memberships.put("e2", new Broadcast.Membership("selected", "accepted", 50));
+        Map<String, Broadcast.State> states = new HashMap<>();
+        states.put("b3", new Broadcast.State(true, false));
+        // Read while the reader was still in its audience.
+        states.put("b2", new Broadcast.State(true, false));
+
+        List<InboxEntry> out = Broadcast.resolve(entries, byPath, memberships, states);
+
+        assertEquals(3, out.size());
+        assertEquals("b1", out.get(0).docId);
+        assertFalse(out.get(0).read);
+        assertEquals("b2", out.get(1).docId);
+        assertTrue(out.get(1).read);
+        assertEquals("b3", out.get(2).docId);
+        assertTrue(out.get(2).read);
+    }
+
+    @Test
+    public void chunks_respectTheWhereInLimit() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 65; i++) ids.add("e" + i);
+
+        List<List<String>> chunks = Broadcast.chunks(ids);
+
+        assertEquals(3, chunks.size());
+        assertEquals(30, chunks.get(0).size());
+        assertEquals(5, chunks.get(2).size());
+        assertTrue(Broadcast.chunks(Collections.<String>emptyList()).isEmpty());
+    }
+
+    @Test
+    public void withStates_appliesTheOverlayToBroadcastsOnly() {
+        InboxEntry notice = new InboxEntry("users/u1/registrations/e1/inbox/b1", "b1", "e1",
+                "hi", null, false, false, 50);
+        List<InboxEntry> entries = Arrays.asList(
+                broadcast("b1", "e1", "waiting", 100).toEntry(),
+                broadcast("b3", "e2", "selected", 300).toEntry(),
+                notice);
+        Map<String, Broadcast.State> states = new HashMap<>();
+        states.put("b3", new Broadcast.State(true, true));
+        states.put("b1", new Broadcast.State(false, true));
+
+        List<InboxEntry> out = Broadcast.withStates(entries, states);
+
+        assertEquals(3, out.size());
+        InboxEntry first = out.get(0);
+        assertEquals("b1", first.docId);
+        assertEquals("e1", first.eventId);
+        assertEquals("broadcast", first.type);
+        assertFalse(first.read);
+        assertTrue(first.archived);
+        assertTrue(first.isBroadcast());
+        InboxEntry second = out.get(1);
+        assertEquals("b3", second.docId);
+        assertEquals("selected_notice", second.type);
+        assertTrue(second.read);
+        assertTrue(second.archived);
+        // Same id as an overlay entry, but a personal notice keeps its own flags.
+        assertSame(notice, out.get(2));
+    }
+
+    @Test
+    public void state_fromMapDefaultsToUnread() {
+        assertSame(Broadcast.State.NONE, Broadcast.State.fromMap(null));
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("read", true);
+        Broadcast.State state = Broadcast.State.fromMap(data);
+        assertTrue(state.read);
+        assertFalse(state.archived);
+        assertTrue(state.withArchived(true).archived);
+    }
+
+    @Test
+    public void payload_isMarkedForPullDelivery() {
+        Map<String, Object> data = Broadcast.payload("e1", "Swim", "hello", true, null, "chosen");
+
+        assertEquals(Broadcast.DELIVERY_PULL, data.get(Broadcast.FIELD_DELIVERY));
+        assertEquals("chosen", data.get("audience"));
+        assertEquals("invite", data.get("type"));
+        assertEquals("e1", data.get("eventId"));
+        assertSame(DocumentStore.SERVER_TIMESTAMP, data.get("createdAt"));
+    }
+
+    @Test
+    public void personalNoticeIsNotABroadcast() {
+        InboxEntry notice = new InboxEntry("users/u1/registrations/e1/inbox/n1", "n1", "e1",
+                "hi", null, false, false, 1);
+
+        assertFalse(notice.isBroadcast());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for folding sync deltas into {@link CatalogIndex}.
+ */
+public class CatalogIndexTest {
+
+    private static CatalogEvent event(String id, long startsAt, long updatedAt, String status) {
+        return new CatalogEvent(id, "Title " + id, "Hall", "music", status, null, "20",
+                startsAt, 0, 0, updatedAt, updatedAt);
+    }
+
+    @Test
+    public void apply_advancesHighWaterToNewestUpdate() {
+        CatalogIndex index = new CatalogIndex();
+        index.load(Collections.emptyList(), 100);
+
+        index.apply(Arrays.asList(event("a", 1, 150, "open"), event("b", 2, 120, "open")),
+                Collections.emptyList());
+
+        assertEquals(150, index.highWater());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void apply_keepsInstanceAndReportsNothingWhenEventIsUnchanged() {
+        CatalogIndex index = new CatalogIndex();
+        CatalogEvent stored = event("a", 1, 150, "open");
+        index.load(Collections.singletonList(stored), 150);
+
+        CatalogIndex.Delta delta = index.apply(
+                Collections.singletonList(event("a", 1, 150, "open")), Collections.emptyList());
+
+        assertTrue(delta.isEmpty());
+        assertSame(stored, index.get("a"));
+        assertSame(stored, index.events().get(0));
+    }
+
+    @Test
+    public void apply_replacesChangedEventAndLeavesOthersAlone() {
+        CatalogIndex index = new CatalogIndex();
+        CatalogEvent a = event("a", 1, 100, "open");
+        CatalogEvent b = event("b", 2, 100, "open");
+        index.load(Arrays.asList(a, b), 100);
+
+        CatalogEvent closed = event("b", 2, 200, "closed");
+        CatalogIndex.Delta delta = index.apply(Collections.singletonList(closed), Collections.emptyList());
+
+        assertEquals(Collections.singletonList(closed), delta.upserted);
+        assertSame(a, index.get("a"));
+        assertSame(closed, index.get("b"));
+    }
+
+    @Test
+    public void apply_reportsOnlyDeletionsOfKnownEvents() {
+        CatalogIndex index = new CatalogIndex();
+        index.load(Collections.singletonList(event("a", 1, 100, "open")), 100);
+
+        CatalogIndex.Delta delta = index.apply(Collections.emptyList(), Arrays.asList("a", "unknown"));
+
+        assertEquals(Collections.singletonList("a"), delta.deleted);
+        assertEquals(0, index.size());
+        assertTrue(index.events().isEmpty());
+    }
+
+    @Test
+    public void events_sortsByStartTimeWithUndatedEventsLast() {
+        CatalogIndex index = new CatalogIndex();
+        index.load(Arrays.asList(event("late", 300, 1, "open"), event("tba", 0, 1, "open"),
+                event("early", 100, 1, "open")), 1);
+
+        List<CatalogEvent> events = index.events();
+
+        assertEquals("early", events.get(0).id);
+        assertEquals("late", events.get(1).id);
+        assertEquals("tba", events.get(2).id);
+        assertSame(events, index.events());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import com.example.ajilore.code.utils.GeoHash;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the region queries in {@link EntrantGeoRepository}, run against
+ * {@link InMemoryDocumentStore}.
+ */
+public class EntrantGeoRepositoryTest {
+
+    private static final String LIST = "org_events/e1/waiting_list/";
+    private static final double VENUE_LAT = 53.5461;
+    private static final double VENUE_LNG = -113.4938;
+    /** Degrees of latitude per kilometre. */
+    private static final double KM = 1 / 111.32;
+
+    private InMemoryDocumentStore store;
+    private EntrantGeoRepository repo;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryDocumentStore();
+        repo = new EntrantGeoRepository(store);
+    }
+
+    private void entrant(String id, double lat, double lng) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", id);
+        data.put("status", "waiting");
+        data.put("latitude", lat);
+        data.put("longitude", lng);
+        data.put("geohash", GeoHash.encode(lat, lng, GeoHash.ENTRY_PRECISION));
+        store.put(LIST + id, data);
+    }
+
+    private static List<String> ids(List<DocumentStore.Doc> docs) {
+        List<String> out = new ArrayList<>();
+        for (DocumentStore.Doc d : docs) out.add(d.id);
+        return out;
+    }
+
+    private List<DocumentStore.Doc> near(double radiusM) {
+        List<List<DocumentStore.Doc>> out = new ArrayList<>();
+        repo.near("e1", VENUE_LAT, VENUE_LNG, radiusM, new DocumentStore.ResultCallback<List<DocumentStore.Doc>>() {
+            @Override
+            public void onSuccess(List<DocumentStore.Doc> result) {
+                out.add(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                fail(e.toString());
+            }
+        });
+        assertEquals(1, out.size());
+        return out.get(0);
+    }
+
+    @Test
+    public void near_returnsOnlyEntrantsInsideTheRadius_nearestFirst() {
+        entrant("at4km", VENUE_LAT + 4 * KM, VENUE_LNG);
+        entrant("at1km", VENUE_LAT - 1 * KM, VENUE_LNG);
+        // Inside the radius' bounding box but not the circle.
+        entrant("corner", VENUE_LAT + 4 * KM, VENUE_LNG + 4 * KM / Math.cos(Math.toRadians(VENUE_LAT)));
+        entrant("at6km", VENUE_LAT + 6 * KM, VENUE_LNG);
+        entrant("far", VENUE_LAT + 50 * KM, VENUE_LNG);
+        Map<String, Object> noLocation = new HashMap<>();
+        noLocation.put("status", "waiting");
+        store.put(LIST + "noLocation", noLocation);
+
+        List<DocumentStore.Doc> result = near(5_000);
+
+        assertEquals(Arrays.asList("at1km", "at4km"), ids(result));
+    }
+
+    @Test
+    public void near_runsOneRangeQueryPerPrefixRange() {
+        entrant("at1km", VENUE_LAT + 1 * KM, VENUE_LNG);
+
+        near(5_000);
+
+        assertEquals(GeoHash.rangesNear(VENUE_LAT, VENUE_LNG, 5_000).size(), store.queries);
+    }
+
+    @Test
+    public void inBox_filtersToTheExactBox() {
+        entrant("inside", VENUE_LAT, VENUE_LNG);
+        entrant("north", VENUE_LAT + 3 * KM, VENUE_LNG);
+        entrant("west", VENUE_LAT, VENUE_LNG - 0.1);
+        List<List<DocumentStore.Doc>> out = new ArrayList<>();
+
+        repo.inBox("e1", VENUE_LAT - KM, VENUE_LNG - 0.05, VENUE_LAT + KM, VENUE_LNG + 0.05,
+                new DocumentStore.ResultCallback<List<DocumentStore.Doc>>() {
+                    @Override
+                    public void onSuccess(List<DocumentStore.Doc> result) {
+                        out.add(result);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        fail(e.toString());
+                    }
+                });
+
+        assertEquals(1, out.size());
+        assertEquals(Collections.singletonList("inside"), ids(out.get(0)));
+    }
+}
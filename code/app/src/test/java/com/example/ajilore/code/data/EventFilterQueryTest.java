@@ -0,0 +1,78 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+
+/**
+ * Unit tests for translating filter criteria in {@link EventFilterQuery}.
+ */
+public class EventFilterQueryTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private static CatalogEvent event(long regOpens, long regCloses) {
+        return new CatalogEvent("e1", "Title", "Hall", "Party", "open", null, null,
+                NOW, regOpens, regCloses, 1, 1);
+    }
+
+    @Test
+    public void of_withNoCriteria_isEmpty() {
+        EventFilterQuery q = EventFilterQuery.of(null, null, Collections.emptySet(), null, NOW);
+
+        assertTrue(q.isEmpty());
+        assertNull(q.typeKeys);
+    }
+
+    @Test
+    public void of_normalizesCategoriesToSortedTypeKeys() {
+        EventFilterQuery q = EventFilterQuery.of(null, null,
+                new HashSet<>(Arrays.asList("Workshop", " party ", "PARTY", "")), null, NOW);
+
+        assertFalse(q.isEmpty());
+        assertEquals(Arrays.asList("party", "workshop"), q.typeKeys);
+    }
+
+    @Test
+    public void of_passesDayBoundsThroughAsStartsAtRange() {
+        Date from = new Date(NOW - 86_400_000L);
+        Date to = new Date(NOW + 86_400_000L);
+
+        EventFilterQuery q = EventFilterQuery.of(from, to, null, null, NOW);
+
+        assertEquals(from, q.startsFrom);
+        assertEquals(to, q.startsTo);
+        assertNull(q.regClosesFrom);
+        assertNull(q.regClosesBefore);
+    }
+
+    @Test
+    public void closed_isAServerRangeOnRegCloses() {
+        EventFilterQuery q = EventFilterQuery.of(null, null, null, "closed", NOW);
+
+        assertEquals(new Date(NOW), q.regClosesBefore);
+        assertNull(q.regClosesFrom);
+        assertTrue(q.matchesResidual(event(NOW - 2000, NOW - 1000)));
+    }
+
+    @Test
+    public void open_checksRegOpensOnTheDevice() {
+        EventFilterQuery q = EventFilterQuery.of(null, null, null, "open", NOW);
+
+        assertEquals(new Date(NOW), q.regClosesFrom);
+        assertTrue(q.matchesResidual(event(NOW - 1000, NOW + 1000)));
+        assertFalse(q.matchesResidual(event(NOW + 1000, NOW + 2000)));
+    }
+
+    @Test
+    public void typeKey_isTrimmedLowerCaseOrNull() {
+        assertEquals("party", EventFilterQuery.typeKey(" Party "));
+        assertNull(EventFilterQuery.typeKey("  "));
+        assertNull(EventFilterQuery.typeKey(null));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for parsing and derived values in {@link EventStats}.
+ */
+public class EventStatsTest {
+
+    @Test
+    public void fromMap_readsEveryCounter() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("total", 12L);
+        data.put("active", 9L);
+        data.put("waiting", 6L);
+        data.put("chosen", 2L);
+        data.put("accepted", 1L);
+        data.put("declined", 3L);
+
+        EventStats stats = EventStats.fromMap(data);
+
+        assertEquals(12, stats.total);
+        assertEquals(9, stats.active);
+        assertEquals(6, stats.waiting);
+        assertEquals(2, stats.chosen);
+        assertEquals(1, stats.accepted);
+        assertEquals(3, stats.declined);
+        assertEquals(8, stats.pending());
+    }
+
+    @Test
+    public void fromMap_treatsMissingOrBadFieldsAsZero() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("total", 4L);
+        data.put("active", "lots");
+        data.put("declined", -2L);
+
+        EventStats stats = EventStats.fromMap(data);
+
+        assertEquals(4, stats.total);
+        assertEquals(0, stats.active);
+        assertEquals(0, stats.declined);
+        assertSame(EventStats.EMPTY, EventStats.fromMap(null));
+    }
+
+    @Test
+    public void isFull_onlyWhenCapacityIsSetAndReached() {
+        EventStats stats = new EventStats(10, 5, 5, 0, 0, 0);
+
+        assertTrue(stats.isFull(5));
+        assertFalse(stats.isFull(6));
+        assertFalse(stats.isFull(0));
+    }
+
+    @Test
+    public void audienceSize_matchesBroadcastAudiences() {
+        EventStats stats = new EventStats(12, 9, 6, 2, 1, 3);
+
+        assertEquals(6, stats.audienceSize("waiting"));
+        assertEquals(2, stats.audienceSize("chosen"));
+        assertEquals(1, stats.audienceSize("selected"));
+        assertEquals(3, stats.audienceSize("cancelled"));
+        assertEquals(0, stats.audienceSize("everyone"));
+    }
+}
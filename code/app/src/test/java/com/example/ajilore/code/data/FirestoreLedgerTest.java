@@ -0,0 +1,128 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Unit tests for {@link FirestoreLedger}: billing rules, latency percentiles, ranking
+ * and the JSON dump.
+ */
+public class FirestoreLedgerTest {
+
+    private final FirestoreLedger ledger = new FirestoreLedger();
+
+    private static FirestoreLedger.Stats find(List<FirestoreLedger.Stats> all, String tag) {
+        for (FirestoreLedger.Stats s : all) {
+            if (s.tag.equals(tag)) return s;
+        }
+        fail("No entry for " + tag);
+        return null;
+    }
+
+    @Test
+    public void reads_billAtLeastOneDocumentPerQuery() {
+        ledger.recordRead("a", 0, 10);
+        ledger.recordRead("a", 25, 10);
+
+        FirestoreLedger.Stats s = find(ledger.snapshot(), "a");
+        assertEquals(2, s.calls);
+        assertEquals(26, s.reads);
+    }
+
+    @Test
+    public void snapshots_billOnlyServerChanges() {
+        ledger.listenerOpened("feed");
+        ledger.recordSnapshot("feed", 30, true);
+        ledger.recordSnapshot("feed", 30, false);
+        ledger.recordSnapshot("feed", 2, false);
+
+        FirestoreLedger.Stats s = find(ledger.snapshot(), "feed");
+        assertEquals(3, s.snapshots);
+        assertEquals(32, s.reads);
+        assertEquals(1, s.listeners);
+        assertEquals(0, s.calls);
+    }
+
+    @Test
+    public void listeners_countOpenAndEverOpened() {
+        ledger.listenerOpened("x");
+        ledger.listenerOpened("x");
+        ledger.listenerClosed("x");
+        ledger.listenerClosed("x");
+        ledger.listenerClosed("x");
+
+        FirestoreLedger.Stats s = find(ledger.snapshot(), "x");
+        assertEquals(0, s.listeners);
+        assertEquals(2, s.listenersOpened);
+    }
+
+    @Test
+    public void commits_countBatchesAndDocuments() {
+        ledger.recordCommit("w", 100, 20);
+        ledger.recordCommit("w", 30, 20);
+        ledger.recordError("w", 20);
+        ledger.recordError("w", -1);
+
+        FirestoreLedger.Stats s = find(ledger.snapshot(), "w");
+        assertEquals(2, s.commits);
+        assertEquals(130, s.writes);
+        assertEquals(2, s.errors);
+        assertEquals(3, s.calls);
+    }
+
+    @Test
+    public void percentiles_useBucketUpperBounds() {
+        for (int i = 0; i < 90; i++) ledger.recordRead("p", 1, 8);
+        for (int i = 0; i < 9; i++) ledger.recordRead("p", 1, 180);
+        ledger.recordRead("p", 1, 45_000);
+
+        FirestoreLedger.Stats s = find(ledger.snapshot(), "p");
+        assertEquals(10, s.p50Ms);
+        assertEquals(10, s.p90Ms);
+        assertEquals(200, s.p99Ms);
+
+        ledger.recordRead("p", 1, 45_000);
+        assertEquals(60_000, find(ledger.snapshot(), "p").p99Ms);
+    }
+
+    @Test
+    public void snapshot_ranksByCost() {
+        ledger.recordRead("cheap", 1, 1);
+        ledger.recordCommit("writer", 40, 1);
+        ledger.recordRead("reader", 500, 1);
+
+        List<FirestoreLedger.Stats> all = ledger.snapshot();
+        assertEquals("reader", all.get(0).tag);
+        assertEquals("writer", all.get(1).tag);
+        assertEquals("cheap", all.get(2).tag);
+    }
+
+    @Test
+    public void reset_keepsOpenListeners() {
+        ledger.listenerOpened("live");
+        ledger.recordSnapshot("live", 10, false);
+        ledger.recordRead("once", 3, 1);
+
+        ledger.reset();
+
+        List<FirestoreLedger.Stats> all = ledger.snapshot();
+        assertEquals(1, all.size());
+        assertEquals(1, all.get(0).listeners);
+        assertEquals(0, all.get(0).reads);
+    }
+
+    @Test
+    public void toJson_escapesTags() {
+        ledger.recordRead("EventCatalog.subscribe(\"x\")\n", 2, 7);
+
+        assertEquals("{\"callers\":[{\"tag\":\"EventCatalog.subscribe(\\\"x\\\")\\u000a\","
+                        + "\"calls\":1,\"reads\":2,\"writes\":0,\"commits\":0,\"listeners\":0,"
+                        + "\"listenersOpened\":0,\"snapshots\":0,\"errors\":0,"
+                        + "\"latencyMs\":{\"p50\":10,\"p90\":10,\"p99\":10}}]}",
+                ledger.toJson());
+        assertEquals("{\"callers\":[]}", new FirestoreLedger().toJson());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for parsing in {@link GeoDensity}.
+ */
+public class GeoDensityTest {
+
+    @Test
+    public void fromMap_readsCellsAndCounters() {
+        Map<String, Object> cells = new HashMap<>();
+        cells.put("c3x235", 40L);
+        cells.put("c3x236", 2L);
+        Map<String, Object> data = new HashMap<>();
+        data.put("precision", 6L);
+        data.put("total", 42L);
+        data.put("cells", cells);
+
+        GeoDensity density = GeoDensity.fromMap(data);
+
+        assertEquals(6, density.precision);
+        assertEquals(42, density.total);
+        assertEquals(2, density.cells.size());
+        assertEquals(Long.valueOf(40), density.cells.get("c3x235"));
+    }
+
+    @Test
+    public void fromMap_dropsEmptyOrBadCells() {
+        Map<String, Object> cells = new HashMap<>();
+        cells.put("c3x235", 0L);
+        cells.put("c3x236", -1L);
+        cells.put("c3x237", "many");
+        cells.put("c3x238", 3L);
+        Map<String, Object> data = new HashMap<>();
+        data.put("cells", cells);
+
+        GeoDensity density = GeoDensity.fromMap(data);
+
+        assertEquals(1, density.cells.size());
+        assertEquals(0, density.total);
+        assertSame(GeoDensity.EMPTY, GeoDensity.fromMap(null));
+    }
+}
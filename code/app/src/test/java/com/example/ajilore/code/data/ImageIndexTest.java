@@ -0,0 +1,75 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+/**
+ * Unit tests for the {@code images} index entries written by {@link ImageIndex}.
+ */
+public class ImageIndexTest {
+
+    private static final DocumentStore.ResultCallback<Void> IGNORE = new DocumentStore.ResultCallback<Void>() {
+        @Override
+        public void onSuccess(Void result) {}
+
+        @Override
+        public void onError(Exception e) {
+            fail(e.getMessage());
+        }
+    };
+
+    @Test
+    public void record_writesOneEntryKeyedByTypeAndOwner() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+
+        new ImageIndex(store).record(ImageIndex.TYPE_EVENT, "e1", "Swim Lessons",
+                "https://img/1.jpg", 2048, IGNORE);
+
+        Map<String, Object> doc = store.doc("images/event_e1");
+        assertNotNull(doc);
+        assertEquals("https://img/1.jpg", doc.get(ImageIndex.FIELD_URL));
+        assertEquals("e1", doc.get(ImageIndex.FIELD_OWNER));
+        assertEquals(ImageIndex.TYPE_EVENT, doc.get(ImageIndex.FIELD_TYPE));
+        assertEquals("Swim Lessons", doc.get(ImageIndex.FIELD_TITLE));
+        assertEquals(2048L, doc.get(ImageIndex.FIELD_BYTES));
+        assertEquals(InMemoryDocumentStore.FAKE_SERVER_TIME, doc.get(ImageIndex.FIELD_UPLOADED_AT));
+        assertEquals(1, store.commits);
+    }
+
+    @Test
+    public void record_newUploadReplacesPreviousEntry() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        ImageIndex index = new ImageIndex(store);
+
+        index.record(ImageIndex.TYPE_PROFILE, "u1", "Ada", "https://img/old.jpg", 10, IGNORE);
+        index.record(ImageIndex.TYPE_PROFILE, "u1", null, "https://img/new.jpg", 0, IGNORE);
+
+        assertEquals(1, store.ids("images").size());
+        Map<String, Object> doc = store.doc("images/profile_u1");
+        assertEquals("https://img/new.jpg", doc.get(ImageIndex.FIELD_URL));
+        assertEquals("", doc.get(ImageIndex.FIELD_TITLE));
+        assertEquals(0L, doc.get(ImageIndex.FIELD_BYTES));
+    }
+
+    @Test
+    public void remove_deletesOnlyThatOwnersEntry() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        ImageIndex index = new ImageIndex(store);
+        index.record(ImageIndex.TYPE_EVENT, "e1", "A", "https://img/a.jpg", 1, IGNORE);
+        index.record(ImageIndex.TYPE_PROFILE, "e1", "B", "https://img/b.jpg", 1, IGNORE);
+
+        index.remove(ImageIndex.TYPE_EVENT, "e1", null);
+
+        assertNull(store.doc("images/event_e1"));
+        assertNotNull(store.doc("images/profile_e1"));
+    }
+
+    @Test
+    public void entry_clampsNegativeSizeToUnknown() {
+        assertEquals(0L, ImageIndex.entry(ImageIndex.TYPE_EVENT, "e1", "A", "u", -5)
+                .get(ImageIndex.FIELD_BYTES));
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.ajilore.code.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * In-memory {@link DocumentStore} fake for JVM unit tests.
+ *
+ * Callbacks run synchronously. Documents are kept in a sorted map keyed by full path,
+ * and every read, listener and committed batch is counted so tests can assert operation
+ * budgets. Listeners get their first snapshot inside {@link #listen} and another after
+ * each commit that writes to their collection, billed like Firestore: every document on
+ * the first snapshot, then only the changed ones. A transaction runs its body once against
+ * the current documents and commits its writes like a batch, so there is never contention.
+ */
+public class InMemoryDocumentStore implements DocumentStore {
+
+    /** Value stored in place of {@link DocumentStore#SERVER_TIMESTAMP}. */
+    public static final long FAKE_SERVER_TIME = 1_700_000_000_000L;
+
+    private final Map<String, Map<String, Object>> docs = new TreeMap<>();
+    private int idCounter;
+
+    /** Number of documents returned by get/query calls. */
+    public int documentReads;
+    /**
+     * Number of multi-document queries issued by {@link #getAll}, {@link #list},
+     * {@link #queryGroupEquals} and {@link #queryRange}.
+     */
+    public int queries;
+    /** Number of committed batches. */
+    public int commits;
+    /** Number of write operations in committed batches. */
+    public int writes;
+    /** Number of listeners attached and not yet removed. */
+    public int listeners;
+    /** Number of listeners ever attached. */
+    public int listenersOpened;
+    /** Number of snapshots delivered to listeners. */
+    public int snapshots;
+    /** Number of transactions run, committed or not. */
+    public int transactions;
+    /** When &gt; 0, the next N commits fail without writing anything. */
+    public int failNextCommits;
+
+    private final List<Listening> active = new ArrayList<>();
+
+    private static final class Listening {
+        final String collectionPath;
+        final SnapshotListener listener;
+
+        Listening(String collectionPath, SnapshotListener listener) {
+            this.collectionPath = collectionPath;
+            this.listener = listener;
+        }
+    }
+
+    /** Seeds a document directly, without counting it as a write. */
+    public void put(String path, Map<String, Object> data) {
+        docs.put(path, new HashMap<>(data));
+    }
+
+    /** @return the document's data, or null if it does not exist */
+    public Map<String, Object> doc(String path) {
+        return docs.get(path);
+    }
+
+    /** @return ids of the documents directly inside {@code collectionPath} */
+    public List<String> ids(String collectionPath) {
+        List<String> out = new ArrayList<>();
+        for (String path : docs.keySet()) {
+            if (isDirectChild(collectionPath, path)) out.add(path.substring(collectionPath.length() + 1));
+        }
+        return out;
+    }
+
+    @Override
+    public void get(String docPath, ResultCallback<Doc> cb) {
+        Map<String, Object> data = docs.get(docPath);
+        documentReads++;
+        cb.onSuccess(data == null ? null : new Doc(lastSegment(docPath), docPath, data));
+    }
+
+    @Override
+    public void queryEquals(String collectionPath, String field, Object value, ResultCallback<List<Doc>> cb) {
+        List<Doc> out = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> e : docs.entrySet()) {
+            if (isDirectChild(collectionPath, e.getKey()) && Objects.equals(e.getValue().get(field), value)) {
+                out.add(new Doc(lastSegment(e.getKey()), e.getKey(), e.getValue()));
+            }
+        }
+        // Firestore bills one read for an empty result.
+        documentReads += Math.max(1, out.size());
+        cb.onSuccess(out);
+    }
+
+    @Override
+    public void queryRange(String collectionPath, String field, String start, String end,
+                           ResultCallback<List<Doc>> cb) {
+        List<Doc> out = new ArrayList<>();
+        for (Doc d : children(collectionPath)) {
+            String value = d.getString(field);
+            if (value != null && value.compareTo(start) >= 0 && value.compareTo(end) <= 0) out.add(d);
+        }
+        out.sort((a, b) -> a.getString(field).compareTo(b.getString(field)));
+        queries++;
+        documentReads += Math.max(1, out.size());
+        cb.onSuccess(out);
+    }
+
+    @Override
+    public void list(String collectionPath, ResultCallback<List<Doc>> cb) {
+        List<Doc> out = children(collectionPath);
+        queries++;
+        documentReads += Math.max(1, out.size());
+        cb.onSuccess(out);
+    }
+
+    @Override
+    public void queryGroupEquals(String collectionId, String field, Object value, ResultCallback<List<Doc>> cb) {
+        List<Doc> out = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> e : docs.entrySet()) {
+            String[] segments = e.getKey().split("/");
+            if (segments.length >= 2
+                    && segments[segments.length - 2].equals(collectionId)
+                    && Objects.equals(e.getValue().get(field), value)) {
+                out.add(new Doc(lastSegment(e.getKey()), e.getKey(), e.getValue()));
+            }
+        }
+        queries++;
+        documentReads += Math.max(1, out.size());
+        cb.onSuccess(out);
+    }
+
+    @Override
+    public void getAll(String collectionPath, List<String> ids, ResultCallback<List<Doc>> cb) {
+        if (ids.size() > MAX_IN_IDS) {
+            cb.onError(new IllegalArgumentException("whereIn with " + ids.size() + " ids"));
+            return;
+        }
+        queries++;
+        List<Doc> out = new ArrayList<>();
+        for (String id : ids) {
+            Map<String, Object> data = docs.get(collectionPath + "/" + id);
+            if (data != null) out.add(new Doc(id, collectionPath + "/" + id, data));
+        }
+        documentReads += Math.max(1, out.size());
+        cb.onSuccess(out);
+    }
+
+    @Override
+    public Subscription listen(String collectionPath, SnapshotListener listener) {
+        Listening l = new Listening(collectionPath, listener);
+        active.add(l);
+        listeners++;
+        listenersOpened++;
+        List<Doc> current = children(collectionPath);
+        int changed = Math.max(1, current.size());
+        documentReads += changed;
+        snapshots++;
+        listener.onSnapshot(current, changed);
+        return () -> {
+            if (active.remove(l)) listeners--;
+        };
+    }
+
+    @Override
+    public String newId(String collectionPath) {
+        return String.format("id%06d", ++idCounter);
+    }
+
+    @Override
+    public void commit(List<Write> batch, ResultCallback<Void> cb) {
+        if (batch.size() > 500) {
+            cb.onError(new IllegalArgumentException("Batch has " + batch.size() + " writes"));
+            return;
+        }
+        if (failNextCommits > 0) {
+            failNextCommits--;
+            cb.onError(new Exception("Injected commit failure"));
+            return;
+        }
+        for (Write w : batch) {
+            if (w.kind == Write.Kind.UPDATE && !docs.containsKey(w.path)) {
+                cb.onError(new Exception("No document to update: " + w.path));
+                return;
+            }
+        }
+        for (Write w : batch) {
+            switch (w.kind) {
+                case SET:
+                    docs.put(w.path, resolve(w.data, null));
+                    break;
+                case MERGE:
+                case UPDATE:
+                    Map<String, Object> merged = docs.containsKey(w.path)
+                            ? new HashMap<>(docs.get(w.path)) : new HashMap<>();
+                    merged.putAll(resolve(w.data, merged));
+                    docs.put(w.path, merged);
+                    break;
+                case DELETE:
+                    docs.remove(w.path);
+                    break;
+            }
+        }
+        commits++;
+        writes += batch.size();
+        notifyListeners(batch);
+        cb.onSuccess(null);
+    }
+
+    @Override
+    public <T> void runTransaction(TransactionBody<T> body, ResultCallback<T> cb) {
+        transactions++;
+        List<Write> staged = new ArrayList<>();
+        T result;
+        try {
+            result = body.apply(new Transaction() {
+                @Override
+                public Doc get(String docPath) {
+                    if (!staged.isEmpty()) {
+                        throw new IllegalStateException("Transaction read after a write: " + docPath);
+                    }
+                    documentReads++;
+                    Map<String, Object> d = docs.get(docPath);
+                    return d == null ? null : new Doc(lastSegment(docPath), docPath, d);
+                }
+
+                @Override
+                public void set(String docPath, Map<String, Object> data) {
+                    staged.add(Write.set(docPath, data));
+                }
+
+                @Override
+                public void merge(String docPath, Map<String, Object> data) {
+                    staged.add(Write.merge(docPath, data));
+                }
+
+                @Override
+                public void delete(String docPath) {
+                    staged.add(Write.delete(docPath));
+                }
+            });
+        } catch (Exception e) {
+            cb.onError(e);
+            return;
+        }
+        if (staged.isEmpty()) {
+            cb.onSuccess(result);
+            return;
+        }
+        commit(staged, new ResultCallback<Void>() {
+            @Override
+            public void onSuccess(Void ignored) {
+                cb.onSuccess(result);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+    }
+
+    private void notifyListeners(List<Write> batch) {
+        for (Listening l : new ArrayList<>(active)) {
+            if (!active.contains(l)) continue;
+            int changed = 0;
+            for (Write w : batch) {
+                if (isDirectChild(l.collectionPath, w.path)) changed++;
+            }
+            if (changed == 0) continue;
+            documentReads += changed;
+            snapshots++;
+            l.listener.onSnapshot(children(l.collectionPath), changed);
+        }
+    }
+
+    private List<Doc> children(String collectionPath) {
+        List<Doc> out = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Object>> e : docs.entrySet()) {
+            if (isDirectChild(collectionPath, e.getKey())) {
+                out.add(new Doc(lastSegment(e.getKey()), e.getKey(), e.getValue()));
+            }
+        }
+        return out;
+    }
+
+    private static Map<String, Object> resolve(Map<String, Object> data, Map<String, Object> existing) {
+        Map<String, Object> out = new HashMap<>();
+        for (Map.Entry<String, Object> e : data.entrySet()) {
+            Object v = e.getValue();
+            if (v == SERVER_TIMESTAMP) {
+                v = FAKE_SERVER_TIME;
+            } else if (v instanceof Increment) {
+                Object old = existing != null ? existing.get(e.getKey()) : null;
+                v = (old instanceof Number ? ((Number) old).longValue() : 0L) + ((Increment) v).by;
+            }
+            out.put(e.getKey(), v);
+        }
+        return out;
+    }
+
+    private static boolean isDirectChild(String collectionPath, String docPath) {
+        return docPath.startsWith(collectionPath + "/")
+                && docPath.indexOf('/', collectionPath.length() + 1) < 0;
+    }
+
+    private static String lastSegment(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
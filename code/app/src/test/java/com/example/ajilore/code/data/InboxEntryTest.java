@@ -0,0 +1,93 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the merge, spill and unread rules behind {@link InboxFeed}.
+ */
+public class InboxEntryTest {
+
+    private static InboxEntry entry(String id, long createdAt) {
+        return new InboxEntry("users/u1/registrations/e1/inbox/" + id, id, "e1",
+                "msg " + id, null, false, false, createdAt);
+    }
+
+    private static List<String> ids(List<InboxEntry> entries) {
+        List<String> out = new ArrayList<>();
+        for (InboxEntry e : entries) out.add(e.docId);
+        return out;
+    }
+
+    @Test
+    public void forRecipient_copiesPayloadAndLeavesOriginalUntouched() {
+        Map<String, Object> inbox = new HashMap<>();
+        inbox.put("message", "hi");
+
+        Map<String, Object> mine = InboxEntry.forRecipient(inbox, "u1");
+
+        assertEquals("u1", mine.get(InboxEntry.RECIPIENT_FIELD));
+        assertEquals("hi", mine.get("message"));
+        assertFalse(inbox.containsKey(InboxEntry.RECIPIENT_FIELD));
+    }
+
+    @Test
+    public void merge_liveWinsAndResultIsNewestFirst() {
+        InboxEntry liveA = entry("a", 300).withRead(true);
+        List<InboxEntry> live = Arrays.asList(liveA, entry("b", 200));
+        List<InboxEntry> older = Arrays.asList(entry("a", 300), entry("c", 100));
+
+        List<InboxEntry> merged = InboxEntry.merge(live, older);
+
+        assertEquals(Arrays.asList("a", "b", "c"), ids(merged));
+        assertTrue(merged.get(0).read);
+    }
+
+    @Test
+    public void merge_pendingTimestampSortsFirst() {
+        List<InboxEntry> merged = InboxEntry.merge(
+                Arrays.asList(entry("old", 100), entry("pending", 0)), Collections.emptyList());
+
+        assertEquals(Arrays.asList("pending", "old"), ids(merged));
+    }
+
+    @Test
+    public void spilled_keepsItemsPushedOutByNewerOnes() {
+        List<InboxEntry> before = Arrays.asList(entry("b", 300), entry("c", 200), entry("d", 100));
+        List<InboxEntry> after = Arrays.asList(entry("a", 400), entry("b", 300), entry("c", 200));
+
+        assertEquals(Collections.singletonList("d"), ids(InboxEntry.spilled(before, after, true)));
+    }
+
+    @Test
+    public void spilled_ignoresDeletedItemsInsideTheWindow() {
+        List<InboxEntry> before = Arrays.asList(entry("a", 400), entry("b", 300), entry("c", 200));
+        List<InboxEntry> after = Arrays.asList(entry("a", 400), entry("c", 200), entry("d", 100));
+
+        assertTrue(InboxEntry.spilled(before, after, true).isEmpty());
+    }
+
+    @Test
+    public void spilled_nothingWhenWindowIsNotFull() {
+        List<InboxEntry> before = Arrays.asList(entry("a", 400), entry("b", 300));
+        List<InboxEntry> after = Collections.singletonList(entry("a", 400));
+
+        assertTrue(InboxEntry.spilled(before, after, false).isEmpty());
+    }
+
+    @Test
+    public void unreadCount_skipsReadAndArchived() {
+        List<InboxEntry> entries = Arrays.asList(
+                entry("a", 3), entry("b", 2).withRead(true), entry("c", 1).withArchived(true));
+
+        assertEquals(1, InboxEntry.unreadCount(entries));
+    }
+}
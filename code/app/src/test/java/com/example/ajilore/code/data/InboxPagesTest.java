@@ -0,0 +1,181 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link InboxPages}: notices and broadcasts paged as one list, with a
+ * page size of 50 like {@link InboxFeed#PAGE_SIZE}. Cursors are the entry ids.
+ */
+public class InboxPagesTest {
+
+    private static final int PAGE = 50;
+
+    private final InboxPages<String> notices = new InboxPages<>();
+    private final InboxPages<String> broadcasts = new InboxPages<>();
+    private final List<InboxPages<String>> sources = Arrays.asList(notices, broadcasts);
+
+    private static InboxEntry notice(String id, long createdAt) {
+        return new InboxEntry("users/u1/registrations/e1/inbox/" + id, id, "e1",
+                "msg " + id, null, false, false, createdAt);
+    }
+
+    private static InboxEntry broadcast(String id, long createdAt) {
+        return new Broadcast("org_events/e1/broadcasts/" + id, id, "e1", "waiting", "msg " + id, createdAt)
+                .toEntry();
+    }
+
+    /** @return {@code count} items newest first, created at {@code newest}, newest - step, ... */
+    private static List<InboxEntry> items(boolean broadcast, String prefix, int count, long newest, long step) {
+        List<InboxEntry> out = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String id = prefix + i;
+            long at = newest - i * step;
+            out.add(broadcast ? broadcast(id, at) : notice(id, at));
+        }
+        return out;
+    }
+
+    /** The page a {@code startAfter(cursor).limit(PAGE)} query returns from {@code all}. */
+    private static List<InboxEntry> pageAfter(List<InboxEntry> all, String cursor) {
+        int from = 0;
+        if (cursor != null) {
+            while (!all.get(from).docId.equals(cursor)) from++;
+            from++;
+        }
+        return all.subList(from, Math.min(all.size(), from + PAGE));
+    }
+
+    private static List<String> ids(List<InboxEntry> entries) {
+        List<String> out = new ArrayList<>();
+        for (InboxEntry e : entries) out.add(e.docId);
+        return out;
+    }
+
+    private static void live(InboxPages<String> pages, List<InboxEntry> all) {
+        List<InboxEntry> page = pageAfter(all, null);
+        pages.onLive(page, ids(page), PAGE);
+    }
+
+    private static void older(InboxPages<String> pages, List<InboxEntry> all) {
+        List<InboxEntry> page = pageAfter(all, pages.nextCursor());
+        pages.onOlder(page, ids(page), PAGE);
+    }
+
+    private List<InboxEntry> shown() {
+        List<InboxEntry> all = new ArrayList<>(notices.entries());
+        all.addAll(broadcasts.entries());
+        return InboxPages.visible(InboxEntry.merge(all, Collections.<InboxEntry>emptyList()),
+                InboxPages.horizon(sources));
+    }
+
+    @Test
+    public void moreThanOnePageOfBroadcasts_isPagedWithTheNotices() {
+        // 60 broadcasts at 10_000, 9_900, ... and 10 notices spread over the same span.
+        List<InboxEntry> allBroadcasts = items(true, "b", 60, 10_000, 100);
+        List<InboxEntry> allNotices = items(false, "n", 10, 9_950, 600);
+        live(notices, allNotices);
+        live(broadcasts, allBroadcasts);
+
+        // The live broadcast page ends at b49 (5_100); nothing older than that is shown yet.
+        List<InboxEntry> first = shown();
+        assertEquals(50 + 9, first.size());
+        assertEquals("b49", first.get(first.size() - 1).docId);
+        assertFalse(ids(first).contains("n9"));
+        assertTrue(notices.isLoaded());
+        assertFalse(notices.hasMore());
+        assertTrue(broadcasts.hasMore());
+        assertEquals(Collections.singletonList(broadcasts), InboxPages.toPage(sources));
+
+        older(broadcasts, allBroadcasts);
+
+        List<InboxEntry> all = shown();
+        assertEquals(70, all.size());
+        assertEquals("b59", all.get(all.size() - 1).docId);
+        assertTrue(ids(all).contains("n9"));
+        assertFalse(broadcasts.hasMore());
+        assertTrue(InboxPages.toPage(sources).isEmpty());
+    }
+
+    @Test
+    public void pagesTheSourceThatLimitsTheHorizon() {
+        // Both sources have more: broadcasts 200 at 100_000.., notices 120 at 99_000.. (step 100).
+        List<InboxEntry> allBroadcasts = items(true, "b", 200, 100_000, 100);
+        List<InboxEntry> allNotices = items(false, "n", 120, 99_000, 100);
+        live(notices, allNotices);
+        live(broadcasts, allBroadcasts);
+
+        // Broadcasts stop at 95_100, notices at 94_100: broadcasts limit the list.
+        assertEquals(95_100, InboxPages.horizon(sources));
+        assertEquals(Collections.singletonList(broadcasts), InboxPages.toPage(sources));
+        List<InboxEntry> first = shown();
+        for (InboxEntry e : first) assertTrue(e.createdAtMillis >= 95_100);
+
+        older(broadcasts, allBroadcasts);
+
+        // Now notices end first (94_100 > 90_100).
+        assertEquals(94_100, InboxPages.horizon(sources));
+        assertEquals(Collections.singletonList(notices), InboxPages.toPage(sources));
+
+        // Page until both run out; every item is shown once, newest first.
+        for (int guard = 0; guard < 20 && !InboxPages.toPage(sources).isEmpty(); guard++) {
+            for (InboxPages<String> due : InboxPages.toPage(sources)) {
+                older(due, due == notices ? allNotices : allBroadcasts);
+            }
+        }
+        List<InboxEntry> all = shown();
+        assertEquals(320, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).createdAtMillis >= all.get(i).createdAtMillis);
+        }
+    }
+
+    @Test
+    public void spilledLiveItemsStayLoadedAndMoveTheCursor() {
+        List<InboxEntry> firstPage = items(false, "n", PAGE, 10_000, 100);
+        notices.onLive(firstPage, ids(firstPage), PAGE);
+        assertEquals("n49", notices.nextCursor());
+
+        // A new notice pushes n49 out of the live page.
+        List<InboxEntry> next = new ArrayList<>();
+        next.add(notice("new", 20_000));
+        next.addAll(firstPage.subList(0, PAGE - 1));
+        notices.onLive(next, ids(next), PAGE);
+
+        assertEquals(PAGE + 1, notices.entries().size());
+        assertEquals("n49", notices.nextCursor());
+        assertTrue(notices.hasMore());
+    }
+
+    @Test
+    public void markReadAndUpdate_patchLoadedItems() {
+        List<InboxEntry> page = items(false, "n", 3, 300, 100);
+        notices.onLive(page, ids(page), PAGE);
+
+        notices.markRead(Collections.singleton(page.get(1).path));
+        notices.update(page.get(2).withArchived(true));
+
+        List<InboxEntry> entries = notices.entries();
+        assertFalse(entries.get(0).read);
+        assertTrue(entries.get(1).read);
+        assertTrue(entries.get(2).archived);
+        assertEquals(1, InboxEntry.unreadCount(entries));
+    }
+
+    @Test
+    public void shortLivePages_haveNothingOlder() {
+        live(notices, items(false, "n", 3, 300, 100));
+        live(broadcasts, Collections.<InboxEntry>emptyList());
+
+        assertEquals(Long.MIN_VALUE, InboxPages.horizon(sources));
+        assertTrue(InboxPages.toPage(sources).isEmpty());
+        assertEquals(3, shown().size());
+        assertNull(broadcasts.nextCursor());
+    }
+}
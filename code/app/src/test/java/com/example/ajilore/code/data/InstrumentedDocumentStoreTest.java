@@ -0,0 +1,155 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link InstrumentedDocumentStore}, wrapping {@link InMemoryDocumentStore}
+ * with a clock that advances 40 ms per reading.
+ */
+public class InstrumentedDocumentStoreTest {
+
+    private final InMemoryDocumentStore fake = new InMemoryDocumentStore();
+    private final FirestoreLedger ledger = new FirestoreLedger();
+    private final long[] now = {0};
+    private final DocumentStore store = new InstrumentedDocumentStore(fake, "Screen.load", ledger, () -> now[0] += 40);
+
+    private static <T> DocumentStore.ResultCallback<T> into(Object[] out) {
+        return new DocumentStore.ResultCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                out[0] = result;
+            }
+
+            @Override
+            public void onError(Exception e) {
+                out[0] = e;
+            }
+        };
+    }
+
+    private static Map<String, Object> fields(Object status) {
+        Map<String, Object> m = new HashMap<>();
+        m.put("status", status);
+        return m;
+    }
+
+    private FirestoreLedger.Stats stats() {
+        List<FirestoreLedger.Stats> all = ledger.snapshot();
+        assertEquals(1, all.size());
+        return all.get(0);
+    }
+
+    @Test
+    public void reads_recordReturnedDocumentsAndLatency() {
+        fake.put("events/a", fields("open"));
+        fake.put("events/b", fields("open"));
+        fake.put("events/c", fields("closed"));
+        Object[] out = new Object[1];
+
+        store.queryEquals("events", "status", "open", into(out));
+        assertEquals(2, ((List<?>) out[0]).size());
+        store.get("events/missing", into(out));
+        assertNull(out[0]);
+        store.getAll("events", Arrays.asList("a", "c"), into(out));
+
+        FirestoreLedger.Stats s = stats();
+        assertEquals("Screen.load", s.tag);
+        assertEquals(3, s.calls);
+        assertEquals(5, s.reads);
+        assertEquals(50, s.p99Ms);
+    }
+
+    @Test
+    public void commit_recordsWrittenDocuments() {
+        Object[] out = {"pending"};
+
+        store.commit(Arrays.asList(
+                DocumentStore.Write.set("events/a", fields("open")),
+                DocumentStore.Write.merge("events/b", fields("closed"))), into(out));
+
+        assertNull(out[0]);
+        assertEquals("closed", fake.doc("events/b").get("status"));
+        FirestoreLedger.Stats s = stats();
+        assertEquals(1, s.commits);
+        assertEquals(2, s.writes);
+        assertEquals(0, s.reads);
+    }
+
+    @Test
+    public void failedCommit_recordsErrorAndPassesItOn() {
+        fake.failNextCommits = 1;
+        Object[] out = new Object[1];
+
+        store.commit(Collections.singletonList(DocumentStore.Write.delete("events/a")), into(out));
+
+        assertTrue(out[0] instanceof Exception);
+        FirestoreLedger.Stats s = stats();
+        assertEquals(1, s.errors);
+        assertEquals(0, s.commits);
+        assertEquals(0, s.writes);
+    }
+
+    @Test
+    public void update_changesAnExistingDocumentButNeverCreatesOne() {
+        fake.put("events/a", fields("open"));
+        Object[] out = {"pending"};
+
+        store.commit(Collections.singletonList(DocumentStore.Write.update("events/a", fields("closed"))), into(out));
+        assertNull(out[0]);
+        assertEquals("closed", fake.doc("events/a").get("status"));
+
+        store.commit(Arrays.asList(
+                DocumentStore.Write.merge("events/b", fields("open")),
+                DocumentStore.Write.update("events/gone", fields("closed"))), into(out));
+        assertTrue(out[0] instanceof Exception);
+        assertNull(fake.doc("events/gone"));
+        // The failed update fails the whole batch.
+        assertNull(fake.doc("events/b"));
+        assertEquals(1, stats().errors);
+    }
+
+    @Test
+    public void listen_billsChangedDocumentsAndClosesOnce() {
+        fake.put("events/a", fields("open"));
+        fake.put("events/b", fields("open"));
+        int[] snapshots = {0};
+        DocumentStore.Subscription sub = store.listen("events", new DocumentStore.SnapshotListener() {
+            @Override
+            public void onSnapshot(List<DocumentStore.Doc> docs, int changed) {
+                snapshots[0]++;
+            }
+
+            @Override
+            public void onError(Exception e) {
+                fail("Unexpected error: " + e);
+            }
+        });
+        fake.commit(Collections.singletonList(DocumentStore.Write.merge("events/a", fields("closed"))),
+                into(new Object[1]));
+
+        assertEquals(2, snapshots[0]);
+        FirestoreLedger.Stats s = stats();
+        assertEquals(1, s.listeners);
+        assertEquals(2, s.snapshots);
+        assertEquals(3, s.reads);
+
+        sub.remove();
+        sub.remove();
+        assertEquals(0, stats().listeners);
+        assertEquals(0, fake.listeners);
+    }
+
+    @Test
+    public void newId_isNotRecorded() {
+        assertNotNull(store.newId("events"));
+        assertTrue(ledger.snapshot().isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.ajilore.code.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for batching, caching and coalescing in {@link UserProfileResolver}.
+ */
+public class UserProfileResolverTest {
+
+    private InMemoryDocumentStore store;
+    private long now;
+    private Map<String, UserProfileResolver.Profile> resolved;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryDocumentStore();
+        now = 0;
+        resolved = null;
+    }
+
+    private void seedUsers(int n) {
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> user = new HashMap<>();
+            user.put("name", "User " + i);
+            user.put("profilepicture", "https://img/" + i);
+            store.put("users/uid" + i, user);
+        }
+    }
+
+    private static List<String> uids(int n) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) out.add("uid" + i);
+        return out;
+    }
+
+    private UserProfileResolver resolver(int maxEntries) {
+        return new UserProfileResolver(store, () -> now, 1000, maxEntries);
+    }
+
+    @Test
+    public void resolve_fetchesInGroupsOfThirty() {
+        seedUsers(95);
+
+        resolver(500).resolve(uids(95), p -> resolved = p);
+
+        assertEquals(4, store.queries);
+        assertEquals(95, resolved.size());
+        assertEquals("User 42", resolved.get("uid42").displayName());
+        assertEquals("https://img/7", resolved.get("uid7").photoUrl);
+    }
+
+    @Test
+    public void resolve_missingUserFallsBackToUid() {
+        resolver(500).resolve(Collections.singletonList("ghost"), p -> resolved = p);
+
+        assertEquals("ghost", resolved.get("ghost").displayName());
+        assertNull(resolved.get("ghost").photoUrl);
+    }
+
+    @Test
+    public void resolve_servesRepeatsFromCache_untilTtlExpires() {
+        seedUsers(40);
+        UserProfileResolver resolver = resolver(500);
+
+        resolver.resolve(uids(40), p -> { });
+        int readsAfterFirst = store.documentReads;
+        resolver.resolve(uids(40), p -> resolved = p);
+
+        assertEquals(readsAfterFirst, store.documentReads);
+        assertEquals(40, resolved.size());
+
+        now = 1000;
+        resolver.resolve(uids(40), p -> { });
+        assertEquals(4, store.queries);
+    }
+
+    @Test
+    public void cache_evictsLeastRecentlyUsed() {
+        seedUsers(3);
+        UserProfileResolver resolver = resolver(2);
+
+        resolver.resolve(Arrays.asList("uid0", "uid1"), p -> { });
+        assertNotNull(resolver.peek("uid0"));
+        resolver.resolve(Collections.singletonList("uid2"), p -> { });
+
+        assertEquals(2, resolver.cachedCount());
+        assertNotNull(resolver.peek("uid0"));
+        assertNull(resolver.peek("uid1"));
+    }
+
+    @Test
+    public void resolve_coalescesUidsAlreadyInFlight() {
+        seedUsers(3);
+        List<Runnable> pending = new ArrayList<>();
+        DocumentStore deferred = new InMemoryDocumentStore() {
+            @Override
+            public void getAll(String collectionPath, List<String> ids, ResultCallback<List<Doc>> cb) {
+                pending.add(() -> store.getAll(collectionPath, ids, cb));
+            }
+        };
+        UserProfileResolver resolver = new UserProfileResolver(deferred, () -> now, 1000, 500);
+        List<Map<String, UserProfileResolver.Profile>> results = new ArrayList<>();
+
+        resolver.resolve(Arrays.asList("uid0", "uid1"), results::add);
+        resolver.resolve(Arrays.asList("uid1", "uid2"), results::add);
+        assertEquals(2, pending.size());
+        for (Runnable r : pending) r.run();
+
+        assertEquals(2, results.size());
+        assertEquals("User 1", results.get(0).get("uid1").displayName());
+        assertEquals("User 1", results.get(1).get("uid1").displayName());
+        assertEquals(3, store.documentReads);
+    }
+}
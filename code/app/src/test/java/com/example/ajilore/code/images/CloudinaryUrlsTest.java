@@ -0,0 +1,85 @@
+package com.example.ajilore.code.images;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the size and format rewriting in {@link CloudinaryUrls}.
+ */
+public class CloudinaryUrlsTest {
+
+    private static final String POSTER =
+            "https://res.cloudinary.com/demo/image/upload/v1712345678/events/poster.jpg";
+
+    @Test
+    public void sized_cropInsertsFillStepBeforeVersion() {
+        assertEquals("https://res.cloudinary.com/demo/image/upload/"
+                        + "c_fill,g_auto,w_168,h_168,f_auto,q_auto/v1712345678/events/poster.jpg",
+                CloudinaryUrls.sized(POSTER, 168, 168, true));
+    }
+
+    @Test
+    public void sized_withoutCropFitsInsideBox() {
+        assertEquals("https://res.cloudinary.com/demo/image/upload/"
+                        + "c_limit,w_1080,h_600,f_auto,q_auto/v1712345678/events/poster.jpg",
+                CloudinaryUrls.sized(POSTER, 1080, 600, false));
+    }
+
+    @Test
+    public void sized_oneDimensionNeverCrops() {
+        assertEquals("https://res.cloudinary.com/demo/image/upload/"
+                        + "c_limit,w_320,f_auto,q_auto/v1712345678/events/poster.jpg",
+                CloudinaryUrls.sized(POSTER, 320, 0, true));
+    }
+
+    @Test
+    public void sized_goesAfterExistingTransformations() {
+        String url = "https://res.cloudinary.com/demo/image/upload/e_grayscale/a_90/v1/poster.png";
+
+        assertEquals("https://res.cloudinary.com/demo/image/upload/e_grayscale/a_90/"
+                        + "c_limit,w_100,h_50,f_auto,q_auto/v1/poster.png",
+                CloudinaryUrls.sized(url, 100, 50, false));
+    }
+
+    @Test
+    public void sized_worksWithoutVersion() {
+        assertEquals("https://res.cloudinary.com/demo/image/upload/"
+                        + "c_fill,g_auto,w_64,h_64,f_auto,q_auto/poster.jpg",
+                CloudinaryUrls.sized("https://res.cloudinary.com/demo/image/upload/poster.jpg", 64, 64, true));
+    }
+
+    @Test
+    public void sized_keepsFoldersThatLookLikeTransformationsWithoutVersion() {
+        String url = "https://res.cloudinary.com/demo/image/upload/ev_posters/poster.jpg";
+
+        assertEquals("https://res.cloudinary.com/demo/image/upload/"
+                        + "c_limit,w_100,f_auto,q_auto/ev_posters/poster.jpg",
+                CloudinaryUrls.sized(url, 100, 0, false));
+    }
+
+    @Test
+    public void sized_isIdempotentForSameTarget() {
+        String once = CloudinaryUrls.sized(POSTER, 200, 200, true);
+
+        assertEquals(once, CloudinaryUrls.sized(once, 200, 200, true));
+    }
+
+    @Test
+    public void sized_leavesOtherUrlsAlone() {
+        String storage = "https://firebasestorage.googleapis.com/v0/b/app/o/poster.jpg?alt=media";
+        String video = "https://res.cloudinary.com/demo/video/upload/v1/clip.mp4";
+
+        assertSame(storage, CloudinaryUrls.sized(storage, 100, 100, true));
+        assertSame(video, CloudinaryUrls.sized(video, 100, 100, true));
+        assertSame(POSTER, CloudinaryUrls.sized(POSTER, 0, 0, true));
+    }
+
+    @Test
+    public void isCloudinary_requiresHttpImageDeliveryUrl() {
+        assertTrue(CloudinaryUrls.isCloudinary(POSTER));
+        assertFalse(CloudinaryUrls.isCloudinary(null));
+        assertFalse(CloudinaryUrls.isCloudinary("content://media/res.cloudinary.com/image/upload/x.jpg"));
+        assertFalse(CloudinaryUrls.isCloudinary("https://example.com/poster.jpg"));
+    }
+}
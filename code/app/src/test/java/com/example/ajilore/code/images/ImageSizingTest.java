@@ -0,0 +1,45 @@
+package com.example.ajilore.code.images;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the upload downsizing arithmetic in {@link ImageSizing}.
+ */
+public class ImageSizingTest {
+
+    @Test
+    public void sampleSize_keepsDecodeAtLeastAsLargeAsTarget() {
+        // 12MP camera photo to a 1600px poster: 4000 / 2 = 2000 >= 1600, 4000 / 4 = 1000 < 1600
+        assertEquals(2, ImageSizing.sampleSize(4000, 3000, 1600));
+        // Portrait orientation uses the longest edge too
+        assertEquals(2, ImageSizing.sampleSize(3000, 4000, 1600));
+        // 512px avatar: 4000 / 4 = 1000 >= 512, 4000 / 8 = 500 < 512
+        assertEquals(4, ImageSizing.sampleSize(4000, 3000, 512));
+    }
+
+    @Test
+    public void sampleSize_isOneForSmallImagesAndNoLimit() {
+        assertEquals(1, ImageSizing.sampleSize(800, 600, 1600));
+        assertEquals(1, ImageSizing.sampleSize(3199, 100, 1600));
+        assertEquals(1, ImageSizing.sampleSize(4000, 3000, 0));
+    }
+
+    @Test
+    public void fit_scalesLongestEdgeKeepingAspect() {
+        assertArrayEquals(new int[]{1600, 1200}, ImageSizing.fit(2000, 1500, 1600));
+        assertArrayEquals(new int[]{900, 1600}, ImageSizing.fit(1512, 2688, 1600));
+    }
+
+    @Test
+    public void fit_leavesImagesThatAlreadyFit() {
+        assertArrayEquals(new int[]{800, 600}, ImageSizing.fit(800, 600, 1600));
+        assertArrayEquals(new int[]{1600, 10}, ImageSizing.fit(1600, 10, 1600));
+    }
+
+    @Test
+    public void fit_neverReturnsZeroDimension() {
+        assertArrayEquals(new int[]{512, 1}, ImageSizing.fit(10000, 2, 512));
+    }
+}
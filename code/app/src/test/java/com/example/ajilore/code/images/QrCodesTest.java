@@ -0,0 +1,74 @@
+package com.example.ajilore.code.images;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for QR row filling, SVG output and cache naming in {@link QrCodes}.
+ */
+public class QrCodesTest {
+
+    /** Grid from strings of '#' (dark) and '.' (light). */
+    private static QrCodes.Modules grid(String... rows) {
+        return new QrCodes.Modules() {
+            @Override
+            public int size() {
+                return rows.length;
+            }
+
+            @Override
+            public boolean isDark(int x, int y) {
+                return rows[y].charAt(x) == '#';
+            }
+        };
+    }
+
+    @Test
+    public void scale_isWholePixelsPerModule() {
+        assertEquals(7, QrCodes.scale(41, 300));
+        assertEquals(1, QrCodes.scale(41, 20));
+        assertEquals(1, QrCodes.scale(0, 300));
+    }
+
+    @Test
+    public void fillRow_repeatsEachModuleScaleTimes() {
+        int[] out = new int[9];
+
+        QrCodes.fillRow(grid("#.#", "...", "..."), 0, 3, 1, 0, out);
+
+        assertArrayEquals(new int[]{1, 1, 1, 0, 0, 0, 1, 1, 1}, out);
+    }
+
+    @Test
+    public void svg_drawsOneRectanglePerDarkRun() {
+        String svg = QrCodes.svg(grid("##.", ".#.", "###"));
+
+        assertTrue(svg.contains("viewBox=\"0 0 3 3\""));
+        assertTrue(svg.contains("d=\"M0 0h2v1h-2zM1 1h1v1h-1zM0 2h3v1h-3z\""));
+    }
+
+    @Test
+    public void svg_allLightGridHasEmptyPath() {
+        assertTrue(QrCodes.svg(grid("..", "..")).contains("d=\"\""));
+    }
+
+    @Test
+    public void cacheName_changesWithEveryInput() {
+        String base = QrCodes.cacheName("ev1", "https://x/event/ev1", 512);
+
+        assertNotEquals(base, QrCodes.cacheName("ev2", "https://x/event/ev1", 512));
+        assertNotEquals(base, QrCodes.cacheName("ev1", "https://y/event/ev1", 512));
+        assertNotEquals(base, QrCodes.cacheName("ev1", "https://x/event/ev1", 256));
+        assertEquals(base, QrCodes.cacheName("ev1", "https://x/event/ev1", 512));
+    }
+
+    @Test
+    public void cacheName_isSafeFileName() {
+        String name = QrCodes.cacheName("../a/b c", "link", 0);
+
+        assertFalse(name.contains("/"));
+        assertFalse(name.contains(" "));
+        assertTrue(name.startsWith("event_"));
+    }
+}
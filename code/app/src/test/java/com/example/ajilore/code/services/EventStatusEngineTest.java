@@ -0,0 +1,121 @@
+package com.example.ajilore.code.services;
+
+import static org.junit.Assert.*;
+
+import com.example.ajilore.code.data.CatalogEvent;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for the transition queue in {@link EventStatusEngine}, run against a fake
+ * clock.
+ */
+public class EventStatusEngineTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private final long[] now = {1_000 * HOUR};
+    private final EventStatusEngine engine = new EventStatusEngine(() -> now[0]);
+
+    private static CatalogEvent event(String id, String status, long regOpens, long regCloses) {
+        return new CatalogEvent(id, id, null, null, status, null, null, 0, regOpens, regCloses, 0, 0);
+    }
+
+    @Test
+    public void rules_matchRegistrationWindow() {
+        long opens = 10 * HOUR, closes = 20 * HOUR;
+
+        assertEquals("Upcoming", EventStatusEngine.labelAt(opens, closes, 5 * HOUR));
+        assertEquals("Open", EventStatusEngine.labelAt(opens, closes, 15 * HOUR));
+        assertEquals("Closed", EventStatusEngine.labelAt(opens, closes, 25 * HOUR));
+        assertEquals("Open", EventStatusEngine.labelAt(0, 0, 25 * HOUR));
+        assertEquals("open", EventStatusEngine.statusAt(opens, closes, closes));
+        assertEquals("closed", EventStatusEngine.statusAt(opens, closes, closes + 1));
+        assertEquals(opens, EventStatusEngine.nextTransition(opens, closes, 5 * HOUR));
+        assertEquals(closes + 1, EventStatusEngine.nextTransition(opens, closes, 15 * HOUR));
+        assertEquals(EventStatusEngine.NONE, EventStatusEngine.nextTransition(opens, closes, 25 * HOUR));
+        assertEquals(EventStatusEngine.NONE, EventStatusEngine.nextTransition(0, 0, 5 * HOUR));
+    }
+
+    @Test
+    public void advance_onlyVisitsDueEvents() {
+        long t = now[0];
+        engine.track("a", "open", t - HOUR, t + HOUR);
+        engine.track("b", "open", t - HOUR, t + 5 * HOUR);
+        engine.track("c", "open", 0, 0);
+
+        assertTrue(engine.advance().isEmpty());
+        assertEquals(t + HOUR + 1, engine.nextDueAt());
+
+        now[0] = t + 2 * HOUR;
+        List<EventStatusEngine.Flip> flips = engine.advance();
+
+        assertEquals(1, flips.size());
+        assertEquals("a", flips.get(0).eventId);
+        assertEquals("closed", flips.get(0).status);
+        assertTrue(flips.get(0).statusChanged);
+        assertEquals(t + 5 * HOUR + 1, engine.nextDueAt());
+    }
+
+    @Test
+    public void advance_reportsLabelOnlyTransitionWithoutStatusChange() {
+        long t = now[0];
+        engine.track("a", "open", t + HOUR, t + 2 * HOUR);
+
+        now[0] = t + HOUR;
+        List<EventStatusEngine.Flip> flips = engine.advance();
+
+        assertEquals(1, flips.size());
+        assertEquals("Open", flips.get(0).label);
+        assertFalse(flips.get(0).statusChanged);
+        assertEquals(t + 2 * HOUR + 1, engine.nextDueAt());
+    }
+
+    @Test
+    public void track_staleStatusIsDueImmediately() {
+        engine.track("a", "published", now[0] - 2 * HOUR, now[0] - HOUR);
+
+        assertEquals(now[0], engine.nextDueAt());
+        assertEquals("closed", engine.advance().get(0).status);
+        assertEquals(EventStatusEngine.NONE, engine.nextDueAt());
+    }
+
+    @Test
+    public void track_replacesEarlierSchedule() {
+        long t = now[0];
+        engine.track("a", "open", t - HOUR, t + HOUR);
+        engine.track("a", "open", t - HOUR, t + 10 * HOUR);
+
+        now[0] = t + 2 * HOUR;
+
+        assertTrue(engine.advance().isEmpty());
+        assertEquals(t + 10 * HOUR + 1, engine.nextDueAt());
+    }
+
+    @Test
+    public void sync_skipsUnchangedAndDropsRemovedEvents() {
+        long t = now[0];
+        CatalogEvent a = event("a", "open", t - HOUR, t + HOUR);
+        CatalogEvent b = event("b", "open", t - HOUR, t + 2 * HOUR);
+        engine.sync(Arrays.asList(a, b));
+        engine.sync(Collections.singletonList(a));
+
+        assertEquals(1, engine.size());
+        now[0] = t + 3 * HOUR;
+        List<EventStatusEngine.Flip> flips = engine.advance();
+        assertEquals(1, flips.size());
+        assertEquals("a", flips.get(0).eventId);
+    }
+
+    @Test
+    public void sync_ignoresFlaggedEvents() {
+        engine.sync(Collections.singletonList(event("a", "flagged", now[0] - 2 * HOUR, now[0] - HOUR)));
+
+        assertEquals(0, engine.size());
+        assertEquals(EventStatusEngine.NONE, engine.nextDueAt());
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.ajilore.code.services;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.InMemoryDocumentStore;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Unit tests for {@link LotteryService} and {@link LotterySampler} against the in-memory store.
+ */
+public class LotteryServiceTest {
+
+    private static final String EVENT = "evt1";
+    private static final String WAITING = "org_events/" + EVENT + "/waiting_list";
+
+    private InMemoryDocumentStore store;
+    private LotteryService.DrawResult result;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryDocumentStore();
+        result = null;
+    }
+
+    private void seedWaiting(int n) {
+        for (int i = 0; i < n; i++) {
+            Map<String, Object> doc = new HashMap<>();
+            doc.put("status", "waiting");
+            store.put(WAITING + "/uid" + i, doc);
+        }
+    }
+
+    private LotteryService.DrawCallback capture() {
+        return new LotteryService.DrawCallback() {
+            @Override
+            public void onComplete(@NonNull LotteryService.DrawResult r) {
+                result = r;
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                fail("Unexpected error: " + e);
+            }
+        };
+    }
+
+    @Test
+    public void sampleToFront_picksDistinctWinners_andCapsAtPoolSize() {
+        List<Integer> pool = new ArrayList<>();
+        for (int i = 0; i < 10; i++) pool.add(i);
+
+        assertEquals(10, LotterySampler.sampleToFront(pool, 25, new Random(1)));
+        assertEquals(10, new HashSet<>(pool).size());
+        assertEquals(0, LotterySampler.sampleToFront(pool, -3, new Random(1)));
+    }
+
+    @Test
+    public void runDraw_promotesExactlyNWinners_andNotifiesEveryone() {
+        seedWaiting(3000);
+
+        new LotteryService(store, new Random(42)).runDraw(EVENT, "Gala", 100, capture());
+
+        assertNotNull(result);
+        assertEquals(3000, result.waitingCount);
+        assertEquals(100, result.winners);
+        assertEquals(2900, result.notifiedNonWinners);
+        assertEquals(0, result.failed);
+
+        int chosen = 0;
+        for (String uid : store.ids(WAITING)) {
+            Map<String, Object> d = store.doc(WAITING + "/" + uid);
+            if ("chosen".equals(d.get("status"))) {
+                chosen++;
+                assertEquals("pending", d.get("responded"));
+            }
+            assertEquals(1, store.ids(WAITING + "/" + uid + "/inbox").size());
+            assertEquals(1, store.ids("users/" + uid + "/registrations/" + EVENT + "/inbox").size());
+        }
+        assertEquals(100, chosen);
+    }
+
+    @Test
+    public void runDraw_writesOneBroadcastAndOneAuditLog_inFewCommits() {
+        seedWaiting(3000);
+
+        new LotteryService(store, new Random(7)).runDraw(EVENT, "Gala", 100, capture());
+
+        assertEquals(1, store.ids("org_events/" + EVENT + "/broadcasts").size());
+        assertEquals(1, store.ids("admin_notification_logs").size());
+        assertEquals(3000, store.doc("admin_notification_logs/" + store.ids("admin_notification_logs").get(0))
+                .get("recipientCount"));
+        // 100 winners * 3 ops + 2900 * 2 ops = 6100 ops -> 1 + 12 batches, plus the record batch.
+        assertTrue("commits=" + store.commits, store.commits <= 14);
+        // The waiting list plus the event document.
+        assertEquals(3001, store.documentReads);
+    }
+
+    @Test
+    public void drawReplacements_onlyNotifiesNewWinners() {
+        seedWaiting(20);
+
+        new LotteryService(store, new Random(3)).drawReplacements(EVENT, "Gala", 1, capture());
+
+        assertEquals(1, result.winners);
+        assertEquals(0, result.notifiedNonWinners);
+        Set<String> notified = new HashSet<>();
+        for (String uid : store.ids(WAITING)) {
+            if (!store.ids(WAITING + "/" + uid + "/inbox").isEmpty()) notified.add(uid);
+        }
+        assertEquals(1, notified.size());
+    }
+
+    @Test
+    public void runDraw_withEmptyWaitingList_writesNothing() {
+        new LotteryService(store).runDraw(EVENT, "Gala", 5, capture());
+
+        assertEquals(0, result.waitingCount);
+        assertEquals(0, store.commits);
+    }
+
+    @Test
+    public void runDraw_logsTheEventOrganizerAsSender() {
+        seedWaiting(10);
+        Map<String, Object> event = new HashMap<>();
+        event.put("createdByUid", "org1");
+        store.put("org_events/" + EVENT, event);
+
+        new LotteryService(store, new Random(5)).runDraw(EVENT, "Gala", 2, capture());
+
+        assertEquals("org1", store.doc("admin_notification_logs/"
+                + store.ids("admin_notification_logs").get(0)).get("senderId"));
+    }
+
+    @Test
+    public void runDraw_winnerWhoseBatchFails_staysWaitingAndGetsTheNotice() {
+        seedWaiting(3000);
+        // 200 winners * 3 ops is two batches; the first one fails every attempt.
+        store.failNextCommits = 3;
+
+        new LotteryService(store, new Random(9)).runDraw(EVENT, "Gala", 200, capture());
+
+        assertEquals(34, result.winners);
+        assertEquals(2966, result.notifiedNonWinners);
+        assertEquals(0, result.failed);
+        int chosen = 0;
+        for (String uid : store.ids(WAITING)) {
+            Map<String, Object> d = store.doc(WAITING + "/" + uid);
+            List<String> inbox = store.ids(WAITING + "/" + uid + "/inbox");
+            assertEquals(1, inbox.size());
+            String type = (String) store.doc(WAITING + "/" + uid + "/inbox/" + inbox.get(0)).get("type");
+            if ("chosen".equals(d.get("status"))) {
+                chosen++;
+                assertEquals("invite", type);
+            } else {
+                assertEquals("waiting", d.get("status"));
+                assertEquals("broadcast", type);
+            }
+        }
+        assertEquals(34, chosen);
+    }
+
+    @Test
+    public void runDraw_reportsAFailedRecord_withoutFailingTheDraw() {
+        seedWaiting(20);
+        InMemoryDocumentStore failingRecord = new InMemoryDocumentStore() {
+            @Override
+            public void commit(List<DocumentStore.Write> batch, ResultCallback<Void> cb) {
+                if (batch.get(batch.size() - 1).path.startsWith("admin_notification_logs/")) {
+                    cb.onError(new Exception("denied"));
+                    return;
+                }
+                super.commit(batch, cb);
+            }
+        };
+        for (String uid : store.ids(WAITING)) failingRecord.put(WAITING + "/" + uid, store.doc(WAITING + "/" + uid));
+
+        new LotteryService(failingRecord, new Random(3)).runDraw(EVENT, "Gala", 5, capture());
+
+        assertEquals(5, result.winners);
+        assertNotNull(result.recordError);
+        assertTrue(failingRecord.ids("admin_notification_logs").isEmpty());
+    }
+}
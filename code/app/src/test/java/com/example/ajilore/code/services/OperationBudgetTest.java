@@ -0,0 +1,208 @@
+package com.example.ajilore.code.services;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.EventStats;
+import com.example.ajilore.code.data.InMemoryDocumentStore;
+import com.example.ajilore.code.data.UserProfileResolver;
+import com.example.ajilore.code.ui.events.data.Entrant;
+import com.example.ajilore.code.ui.events.data.WaitingListRoster;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Firestore operation budgets for the expensive flows, checked against the in-memory store
+ * on a synthetic event with 10,000 entrants. A change that adds a read per row, a commit
+ * per recipient or a second listener fails here before it reaches the bill.
+ */
+public class OperationBudgetTest {
+
+    private static final String EVENT = "evt1";
+    private static final String WAITING = "org_events/" + EVENT + "/waiting_list";
+    private static final int ENTRANTS = 10_000;
+
+    /** A draw writes each winner's entry and two invites, two notices per non-winner, and one record batch. */
+    private static final int DRAW_WINNERS = 100;
+    private static final int DRAW_MAX_WRITES = 3 * DRAW_WINNERS + 2 * (ENTRANTS - DRAW_WINNERS) + 2;
+    /** 300 winner ops fit in one batch, 19,800 notice ops in 40, plus the record batch. */
+    private static final int DRAW_MAX_COMMITS = 42;
+    /** The draw reads the waiting list once, and the event document for its organizer. */
+    private static final int DRAW_MAX_READS = ENTRANTS + 1;
+
+    /** Opening the waiting list: every entry once, every profile once, in whereIn groups of 30. */
+    private static final int ROSTER_MAX_READS = 2 * ENTRANTS;
+    private static final int ROSTER_MAX_PROFILE_QUERIES = (ENTRANTS + DocumentStore.MAX_IN_IDS - 1) / DocumentStore.MAX_IN_IDS;
+
+    /**
+     * A broadcast to 5,000 people costs the same as a broadcast to one: the sender reads the
+     * stats and the event and commits the broadcast with its audit log.
+     */
+    private static final int AUDIENCE = 5_000;
+    private static final int BROADCAST_MAX_READS = 2;
+    private static final int BROADCAST_MAX_COMMITS = 1;
+    private static final int BROADCAST_MAX_WRITES = 2;
+    /**
+     * Writes Cloud Functions make for one broadcast. No function triggers on
+     * {@code org_events/{eventId}/broadcasts}: each reader's inbox matches the audience
+     * itself. A trigger added there must count its writes here (see functions/index.js).
+     */
+    private static final int BROADCAST_SERVER_WRITES = 0;
+
+    private InMemoryDocumentStore store;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryDocumentStore();
+        for (int i = 0; i < ENTRANTS; i++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("status", "waiting");
+            entry.put("responded", null);
+            store.put(WAITING + "/uid" + i, entry);
+
+            Map<String, Object> user = new HashMap<>();
+            user.put("name", "Entrant " + i);
+            store.put("users/uid" + i, user);
+        }
+        Map<String, Object> event = new HashMap<>();
+        event.put("title", "Gala");
+        event.put("createdByUid", "org1");
+        store.put("org_events/" + EVENT, event);
+    }
+
+    @Test
+    public void draw_staysWithinWriteAndCommitBudget() {
+        LotteryService.DrawResult[] result = new LotteryService.DrawResult[1];
+        new LotteryService(store, new Random(11)).runDraw(EVENT, "Gala", DRAW_WINNERS,
+                new LotteryService.DrawCallback() {
+                    @Override
+                    public void onComplete(@NonNull LotteryService.DrawResult r) {
+                        result[0] = r;
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        fail("Unexpected error: " + e);
+                    }
+                });
+
+        assertNotNull(result[0]);
+        assertEquals(DRAW_WINNERS, result[0].winners);
+        assertTrue("writes=" + store.writes, store.writes <= DRAW_MAX_WRITES);
+        assertTrue("commits=" + store.commits, store.commits <= DRAW_MAX_COMMITS);
+        assertTrue("reads=" + store.documentReads, store.documentReads <= DRAW_MAX_READS);
+        assertEquals(0, store.listenersOpened);
+    }
+
+    @Test
+    public void openingWaitingList_staysWithinReadBudget_andUpdatesCostOneRead() {
+        UserProfileResolver profiles = new UserProfileResolver(store);
+        @SuppressWarnings("unchecked")
+        List<Entrant>[] roster = new List[1];
+        DocumentStore.Subscription sub = new WaitingListRoster(store, profiles).listen(EVENT,
+                new WaitingListRoster.Listener() {
+                    @Override
+                    public void onRoster(@NonNull List<Entrant> entrants) {
+                        roster[0] = entrants;
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        fail("Unexpected error: " + e);
+                    }
+                });
+
+        assertEquals(ENTRANTS, roster[0].size());
+        assertEquals("Entrant 0", roster[0].get(0).nameOrUid);
+        assertTrue("reads=" + store.documentReads, store.documentReads <= ROSTER_MAX_READS);
+        assertTrue("queries=" + store.queries, store.queries <= ROSTER_MAX_PROFILE_QUERIES);
+        assertEquals(0, store.writes);
+        assertEquals(1, store.listeners);
+
+        // One entrant accepts: the listener reads that entry, the profiles come from cache.
+        int readsBefore = store.documentReads;
+        int queriesBefore = store.queries;
+        Map<String, Object> accepted = new HashMap<>();
+        accepted.put("status", "selected");
+        accepted.put("responded", "accepted");
+        store.commit(Collections.singletonList(DocumentStore.Write.merge(WAITING + "/uid7", accepted)),
+                new DocumentStore.ResultCallback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        fail("Unexpected error: " + e);
+                    }
+                });
+
+        assertEquals(1, store.documentReads - readsBefore);
+        assertEquals(0, store.queries - queriesBefore);
+        assertEquals("Accepted", roster[0].get(indexOf(roster[0], "uid7")).displayStatus);
+
+        sub.remove();
+        assertEquals(0, store.listeners);
+    }
+
+    @Test
+    public void notifyAudience_costIsIndependentOfAudienceSize() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("total", (long) ENTRANTS);
+        stats.put("active", (long) ENTRANTS);
+        stats.put("waiting", (long) AUDIENCE);
+        store.put("org_events/" + EVENT + "/stats/waiting_list", stats);
+
+        AudienceBroadcaster.StatsSource source = (eventId, cb) ->
+                store.get("org_events/" + eventId + "/stats/waiting_list",
+                        new DocumentStore.ResultCallback<DocumentStore.Doc>() {
+                            @Override
+                            public void onSuccess(DocumentStore.Doc doc) {
+                                cb.onSuccess(EventStats.fromMap(doc != null ? doc.data : null));
+                            }
+
+                            @Override
+                            public void onError(Exception e) {
+                                cb.onError(e);
+                            }
+                        });
+
+        int[] recipients = {-1};
+        new AudienceBroadcaster(store, source).send(EVENT, "Gala", "Doors open at 6", true, null, "waiting",
+                new AudienceBroadcaster.Callback() {
+                    @Override
+                    public void onSent(int count, @NonNull String broadcastId) {
+                        recipients[0] = count;
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        fail("Unexpected error: " + e);
+                    }
+                });
+
+        assertEquals(AUDIENCE, recipients[0]);
+        assertTrue("reads=" + store.documentReads, store.documentReads <= BROADCAST_MAX_READS);
+        assertTrue("commits=" + store.commits, store.commits <= BROADCAST_MAX_COMMITS);
+        assertTrue("device writes=" + store.writes + ", function writes=" + BROADCAST_SERVER_WRITES,
+                store.writes + BROADCAST_SERVER_WRITES <= BROADCAST_MAX_WRITES);
+        assertEquals("org1", store.doc("admin_notification_logs/"
+                + store.ids("admin_notification_logs").get(0)).get("senderId"));
+    }
+
+    private static int indexOf(List<Entrant> rows, String uid) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).uid.equals(uid)) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.ajilore.code.services;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.data.InMemoryDocumentStore;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link StartupGate} against the in-memory store.
+ */
+public class StartupGateTest {
+
+    private static final String DEVICE = "dev1";
+    private static final long TTL = 60_000;
+
+    private InMemoryDocumentStore store;
+    private StartupGate.Session saved;
+    private long now;
+    private final List<String> routes = new ArrayList<>();
+    private Exception error;
+
+    private final StartupGate.Cache cache = new StartupGate.Cache() {
+        @Nullable
+        @Override
+        public StartupGate.Session load() {
+            return saved;
+        }
+
+        @Override
+        public void save(@NonNull StartupGate.Session session) {
+            saved = session;
+        }
+    };
+
+    private final StartupGate.Listener listener = new StartupGate.Listener() {
+        @Override
+        public void onRoute(@NonNull StartupGate.Route route, boolean cached) {
+            routes.add(route + (cached ? " cached" : ""));
+        }
+
+        @Override
+        public void onError(@NonNull Exception e) {
+            error = e;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        store = new InMemoryDocumentStore();
+        now = 1_000_000;
+    }
+
+    private StartupGate gate() {
+        return new StartupGate(store, cache, () -> now, TTL);
+    }
+
+    @Test
+    public void firstStart_readsBanAndProfile_thenRoutes() {
+        gate().open(DEVICE, listener);
+
+        assertEquals(Collections.singletonList("LOGIN"), routes);
+        assertEquals(2, store.documentReads);
+        assertEquals(StartupGate.Route.LOGIN, saved.route());
+        assertEquals(now, saved.checkedAtMillis);
+    }
+
+    @Test
+    public void bannedDevice_isBannedEvenWithProfile() {
+        store.put("banned_users/" + DEVICE, Collections.singletonMap("reason", "spam"));
+        store.put("users/" + DEVICE, Collections.singletonMap("name", "Ada"));
+
+        gate().open(DEVICE, listener);
+
+        assertEquals(Collections.singletonList("BANNED"), routes);
+    }
+
+    @Test
+    public void freshCache_routesAtOnce_andRoutesAgainOnlyIfChanged() {
+        store.put("users/" + DEVICE, Collections.singletonMap("name", "Ada"));
+        saved = new StartupGate.Session(false, true, now - 1_000);
+
+        gate().open(DEVICE, listener);
+        assertEquals(Collections.singletonList("HOME cached"), routes);
+
+        routes.clear();
+        store.put("banned_users/" + DEVICE, Collections.singletonMap("reason", "spam"));
+        gate().open(DEVICE, listener);
+        assertEquals(Arrays.asList("HOME cached", "BANNED"), routes);
+        assertTrue(saved.banned);
+    }
+
+    @Test
+    public void staleOrFutureCache_waitsForNetwork() {
+        saved = new StartupGate.Session(false, true, now - TTL);
+        gate().open(DEVICE, listener);
+        assertEquals(Collections.singletonList("LOGIN"), routes);
+
+        routes.clear();
+        saved = new StartupGate.Session(false, true, now + 5_000);
+        gate().open(DEVICE, listener);
+        assertEquals(Collections.singletonList("LOGIN"), routes);
+    }
+
+    @Test
+    public void readFailure_reportsErrorOnlyWithoutFreshCache() {
+        InMemoryDocumentStore failing = new InMemoryDocumentStore() {
+            @Override
+            public void get(String docPath, ResultCallback<Doc> cb) {
+                cb.onError(new Exception("offline"));
+            }
+        };
+        new StartupGate(failing, cache, () -> now, TTL).open(DEVICE, listener);
+        assertNotNull(error);
+        assertTrue(routes.isEmpty());
+
+        error = null;
+        saved = new StartupGate.Session(false, true, now);
+        new StartupGate(failing, cache, () -> now, TTL).open(DEVICE, listener);
+        assertNull(error);
+        assertEquals(Collections.singletonList("HOME cached"), routes);
+        assertTrue(saved.registered);
+    }
+}
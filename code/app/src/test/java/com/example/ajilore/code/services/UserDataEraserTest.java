@@ -0,0 +1,167 @@
+package com.example.ajilore.code.services;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+
+import com.example.ajilore.code.data.InMemoryDocumentStore;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for finding and deleting a user's data in {@link UserDataEraser}.
+ */
+public class UserDataEraserTest {
+
+    private static Map<String, Object> fields(Object... kv) {
+        Map<String, Object> out = new HashMap<>();
+        for (int i = 0; i < kv.length; i += 2) out.put((String) kv[i], kv[i + 1]);
+        return out;
+    }
+
+    /** Seeds {@code uid} into {@code events} events, with an inbox item on both sides of each. */
+    private static void seedUser(InMemoryDocumentStore store, String uid, int events) {
+        store.put("users/" + uid, fields("name", uid));
+        for (int i = 0; i < events; i++) {
+            String eventId = "e" + i;
+            store.put("users/" + uid + "/registrations/" + eventId, fields("userId", uid, "eventId", eventId));
+            store.put("users/" + uid + "/registrations/" + eventId + "/inbox/n" + i,
+                    fields("recipientId", uid, "message", "hi"));
+            store.put("org_events/" + eventId + "/waiting_list/" + uid,
+                    fields("userId", uid, "status", i % 10 == 0 ? "cancelled" : "waiting", "shard", (long) (i % 3)));
+            store.put("org_events/" + eventId + "/waiting_list/" + uid + "/inbox/n" + i,
+                    fields("message", "hi"));
+        }
+    }
+
+    private static final class Recorder implements UserDataEraser.EraseCallback {
+        int lastDone = -1;
+        int total = -1;
+        boolean monotonic = true;
+        UserDataEraser.Footprint erased;
+        Exception error;
+
+        @Override
+        public void onProgress(int done, int total) {
+            if (done < lastDone) monotonic = false;
+            lastDone = done;
+            this.total = total;
+        }
+
+        @Override
+        public void onComplete(@NonNull UserDataEraser.Footprint erased) {
+            this.erased = erased;
+        }
+
+        @Override
+        public void onError(@NonNull Exception e) {
+            error = e;
+        }
+    }
+
+    private static UserDataEraser.Footprint footprint(InMemoryDocumentStore store, String uid) {
+        UserDataEraser.Footprint[] out = new UserDataEraser.Footprint[1];
+        new UserDataEraser(store).findFootprint(uid, new UserDataEraser.FootprintCallback() {
+            @Override
+            public void onFootprint(@NonNull UserDataEraser.Footprint footprint) {
+                out[0] = footprint;
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                fail(e.getMessage());
+            }
+        });
+        return out[0];
+    }
+
+    @Test
+    public void erase_removesEveryDocumentForAUserWith300Registrations() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        seedUser(store, "u1", 300);
+        seedUser(store, "u2", 3);
+        store.put("images/profile_u1", fields("url", "https://img/u1.jpg"));
+        store.put("users/u1/broadcast_state/b1", fields("eventId", "e1", "read", true));
+        store.put("users/u1/counters/inbox", fields("unread", 4L));
+
+        Recorder rec = new Recorder();
+        new UserDataEraser(store).erase("u1", rec);
+
+        assertNull(rec.error);
+        assertNotNull(rec.erased);
+        assertEquals(1 + 300 * 4 + 1, rec.erased.documentCount());
+        assertEquals(rec.total, rec.lastDone);
+        assertTrue(rec.monotonic);
+        assertTrue(footprint(store, "u1").isEmpty());
+        assertNull(store.doc("images/profile_u1"));
+        assertNull(store.doc("users/u1/counters/inbox"));
+        // Another user's data is left alone.
+        assertEquals(1 + 3 * 4, footprint(store, "u2").documentCount());
+    }
+
+    @Test
+    public void erase_readsOnlyTheUsersOwnFootprint() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        seedUser(store, "u1", 300);
+        for (int i = 300; i < 1000; i++) store.put("org_events/e" + i, fields("title", "other"));
+
+        new UserDataEraser(store).erase("u1", new Recorder());
+
+        // Registrations and broadcast-state listings, the waiting_list group query,
+        // and two inbox listings per event.
+        assertEquals(3 + 300 * 2, store.queries);
+    }
+
+    @Test
+    public void erase_releasesCapacityOnlyForActiveEntries() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        seedUser(store, "u1", 2);
+        store.put("org_events/e0/waiting_shards/0", fields("count", 4L));
+        store.put("org_events/e1/waiting_shards/1", fields("count", 4L));
+
+        new UserDataEraser(store).erase("u1", new Recorder());
+
+        // e0's entry was cancelled and no longer counted; e1's was waiting.
+        assertEquals(4L, store.doc("org_events/e0/waiting_shards/0").get("count"));
+        assertEquals(3L, store.doc("org_events/e1/waiting_shards/1").get("count"));
+    }
+
+    @Test
+    public void erase_keepsProfileWhenDeletesFail_andRetryFinishes() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        seedUser(store, "u1", 300);
+        // More failures than BatchFanOut retries, so some chunk gives up.
+        store.failNextCommits = 50;
+
+        Recorder failed = new Recorder();
+        new UserDataEraser(store).erase("u1", failed);
+
+        assertNotNull(failed.error);
+        assertNull(failed.erased);
+        assertNotNull(store.doc("users/u1"));
+        assertEquals(300, store.ids("users/u1/registrations").size());
+
+        store.failNextCommits = 0;
+        Recorder retry = new Recorder();
+        new UserDataEraser(store).erase("u1", retry);
+
+        assertNull(retry.error);
+        assertTrue(footprint(store, "u1").isEmpty());
+    }
+
+    @Test
+    public void releaseWrites_releasesAnUnshardedEntryFromTheLegacyCounter() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.put("org_events/e1/waiting_list/u1", fields("userId", "u1", "status", "waiting"));
+        String shard = "org_events/e1/waiting_shards/" + WaitingListService.LEGACY_SHARD;
+        store.put(shard, fields("count", 5L, "seeded", true));
+
+        new UserDataEraser(store).erase("u1", new Recorder());
+
+        assertNull(store.doc("org_events/e1/waiting_list/u1"));
+        assertEquals(4L, store.doc(shard).get("count"));
+    }
+}
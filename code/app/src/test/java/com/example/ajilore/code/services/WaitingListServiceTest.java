@@ -0,0 +1,240 @@
+package com.example.ajilore.code.services;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+
+import com.example.ajilore.code.data.InMemoryDocumentStore;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for the shard budgeting rules in {@link WaitingListService}, and for its
+ * join and release transactions against the in-memory store.
+ */
+public class WaitingListServiceTest {
+
+    private static final String EVENT = "evt1";
+    private static final String WAITING = "org_events/" + EVENT + "/waiting_list";
+    private static final String SHARDS = "org_events/" + EVENT + "/waiting_shards";
+
+    private InMemoryDocumentStore store;
+    private WaitingListService service;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryDocumentStore();
+        service = new WaitingListService(store, new Random(4), () -> 1_000L);
+    }
+
+    private void seedEvent(long capacity) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("status", "open");
+        event.put("capacity", capacity);
+        store.put("org_events/" + EVENT, event);
+    }
+
+    /** An entry written before shards existed: no {@code shard} field. */
+    private void seedUnsharded(String uid, String status) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("userId", uid);
+        entry.put("status", status);
+        store.put(WAITING + "/" + uid, entry);
+    }
+
+    private WaitingListService.JoinResult join(String uid) {
+        WaitingListService.JoinResult[] out = new WaitingListService.JoinResult[1];
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("userId", uid);
+        entry.put("status", "waiting");
+        service.join(EVENT, uid, entry, new WaitingListService.JoinCallback() {
+            @Override
+            public void onResult(@NonNull WaitingListService.JoinResult result) {
+                out[0] = result;
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                fail("Unexpected error: " + e);
+            }
+        });
+        return out[0];
+    }
+
+    private boolean leave(String uid) {
+        boolean[] out = {false};
+        service.leave(EVENT, uid, new WaitingListService.ReleaseCallback() {
+            @Override
+            public void onReleased(boolean hadSpot) {
+                out[0] = true;
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                fail("Unexpected error: " + e);
+            }
+        });
+        return out[0];
+    }
+
+    private long shardTotal() {
+        long total = 0;
+        for (String id : store.ids(SHARDS)) {
+            total += ((Number) store.doc(SHARDS + "/" + id).get("count")).longValue();
+        }
+        return total;
+    }
+
+    @Test
+    public void shardCapacities_sumToEventCapacity() {
+        for (int capacity : new int[]{1, 7, 10, 23, 500, 5001}) {
+            int sum = 0;
+            for (int shard = 0; shard < WaitingListService.SHARD_COUNT; shard++) {
+                sum += WaitingListService.shardCapacity(capacity, shard);
+            }
+            assertEquals("capacity " + capacity, capacity, sum);
+        }
+    }
+
+    @Test
+    public void probeOrder_visitsEveryShardOnce_whenUnlimited() {
+        List<Integer> order = WaitingListService.probeOrder(7, 0);
+
+        assertEquals(WaitingListService.SHARD_COUNT, order.size());
+        assertEquals(WaitingListService.SHARD_COUNT, new HashSet<>(order).size());
+        assertEquals(Integer.valueOf(7), order.get(0));
+    }
+
+    @Test
+    public void probeOrder_skipsShardsWithoutSlots_forSmallCapacities() {
+        List<Integer> order = WaitingListService.probeOrder(5, 3);
+
+        // capacity 3 -> only shards 0, 1 and 2 own a slot
+        assertEquals(3, order.size());
+        assertTrue(order.contains(0));
+        assertTrue(order.contains(1));
+        assertTrue(order.contains(2));
+    }
+
+    @Test
+    public void isActive_excludesCancelledAndDeclined() {
+        assertTrue(WaitingListService.isActive("waiting", null));
+        assertTrue(WaitingListService.isActive("chosen", "pending"));
+        assertFalse(WaitingListService.isActive("cancelled", null));
+        assertFalse(WaitingListService.isActive("chosen", "declined"));
+    }
+
+    @Test
+    public void holdsSpot_onlyForChosenOrAccepted() {
+        assertTrue(WaitingListService.holdsSpot("chosen", "pending"));
+        assertTrue(WaitingListService.holdsSpot("selected", "accepted"));
+        assertFalse(WaitingListService.holdsSpot("waiting", null));
+    }
+
+    @Test
+    public void join_countsUnshardedEntries_soCapacityStillHolds() {
+        seedEvent(12);
+        for (int i = 0; i < 10; i++) seedUnsharded("old" + i, "waiting");
+        seedUnsharded("gone", "cancelled");
+
+        assertEquals(WaitingListService.JoinResult.JOINED, join("new0"));
+        assertEquals(WaitingListService.JoinResult.JOINED, join("new1"));
+        assertEquals(WaitingListService.JoinResult.FULL, join("new2"));
+
+        assertEquals(12, shardTotal());
+        assertNull(store.doc(WAITING + "/new2"));
+        assertEquals(10L, store.doc(SHARDS + "/" + WaitingListService.LEGACY_SHARD).get("count"));
+        assertEquals(true, store.doc(SHARDS + "/" + WaitingListService.LEGACY_SHARD).get("seeded"));
+    }
+
+    @Test
+    public void join_seedsOnce() {
+        seedEvent(100);
+        seedUnsharded("old0", "waiting");
+
+        join("new0");
+        int listings = store.queries;
+        join("new1");
+
+        // Later joins list only the shard totals, not the waiting list.
+        assertEquals(listings + 1, store.queries);
+        assertEquals(3, shardTotal());
+    }
+
+    @Test
+    public void join_whenFull_answersFromTheShardTotals_withoutATransaction() {
+        seedEvent(3);
+        for (int i = 0; i < 3; i++) seedUnsharded("old" + i, "waiting");
+        assertEquals(WaitingListService.JoinResult.FULL, join("new0"));
+        int transactions = store.transactions;
+
+        assertEquals(WaitingListService.JoinResult.FULL, join("new1"));
+
+        assertEquals(transactions, store.transactions);
+    }
+
+    @Test
+    public void join_triesOnlyShardsWithRoom() {
+        seedEvent(20);
+        assertEquals(WaitingListService.JoinResult.JOINED, join("first"));
+        for (int i = 0; i < 18; i++) assertEquals(WaitingListService.JoinResult.JOINED, join("u" + i));
+        int transactions = store.transactions;
+
+        assertEquals(WaitingListService.JoinResult.JOINED, join("last"));
+
+        // One shard had room left; the join went straight to it.
+        assertEquals(transactions + 1, store.transactions);
+        assertEquals(20, shardTotal());
+    }
+
+    @Test
+    public void leave_ofAnUnshardedEntry_freesItsSlot() {
+        seedEvent(2);
+        seedUnsharded("old0", "waiting");
+        seedUnsharded("old1", "waiting");
+        assertEquals(WaitingListService.JoinResult.FULL, join("new0"));
+
+        assertTrue(leave("old0"));
+
+        assertEquals(1, shardTotal());
+        assertEquals(WaitingListService.JoinResult.JOINED, join("new0"));
+        assertEquals(2, shardTotal());
+    }
+
+    @Test
+    public void join_alreadyOnTheList_changesNothing() {
+        seedEvent(5);
+        assertEquals(WaitingListService.JoinResult.JOINED, join("u1"));
+        int writes = store.writes;
+
+        assertEquals(WaitingListService.JoinResult.ALREADY_JOINED, join("u1"));
+
+        assertEquals(writes, store.writes);
+        assertEquals(1, shardTotal());
+    }
+
+    @Test
+    public void openShards_splitsWhatTheLegacyEntriesLeave() {
+        long[] counts = new long[WaitingListService.SHARD_COUNT];
+
+        assertEquals(3, WaitingListService.openShards(0, 13, 10, counts).size());
+        assertTrue(WaitingListService.openShards(0, 13, 13, counts).isEmpty());
+        assertTrue(WaitingListService.openShards(0, 13, 20, counts).isEmpty());
+        assertEquals(WaitingListService.SHARD_COUNT, WaitingListService.openShards(0, 0, 20, counts).size());
+    }
+
+    @Test
+    public void isRegistrationOpen_respectsWindowAndStatus() {
+        assertTrue(WaitingListService.isRegistrationOpen("open", 0, 0, 5));
+        assertTrue(WaitingListService.isRegistrationOpen(null, 1, 10, 5));
+        assertFalse(WaitingListService.isRegistrationOpen(null, 1, 10, 11));
+        assertFalse(WaitingListService.isRegistrationOpen("closed", 0, 0, 5));
+    }
+}
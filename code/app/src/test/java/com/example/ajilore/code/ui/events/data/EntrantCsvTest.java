@@ -0,0 +1,38 @@
+package com.example.ajilore.code.ui.events.data;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit tests for {@link EntrantCsv}.
+ */
+public class EntrantCsvTest {
+
+    @Test
+    public void accepted_listsOnlyAcceptedEntrantsInOrder() {
+        String csv = EntrantCsv.accepted(Arrays.asList(
+                new Entrant("u1", "Ada", "Accepted", null),
+                new Entrant("u2", "Bob", "Declined", null),
+                new Entrant("u3", null, "accepted", null)));
+
+        assertEquals("Name,UID\n\"Ada\",\"u1\"\n\"u3\",\"u3\"\n", csv);
+    }
+
+    @Test
+    public void accepted_doublesQuotes() {
+        String csv = EntrantCsv.accepted(Collections.singletonList(
+                new Entrant("id\"1", "The \"Ace\"", "Accepted", null)));
+
+        assertEquals("Name,UID\n\"The \"\"Ace\"\"\",\"id\"\"1\"\n", csv);
+    }
+
+    @Test
+    public void accepted_returnsNullWithoutAcceptedEntrants() {
+        assertNull(EntrantCsv.accepted(Collections.singletonList(new Entrant("u1", "Ada", "Pending", null))));
+        assertNull(EntrantCsv.accepted(Collections.emptyList()));
+    }
+}
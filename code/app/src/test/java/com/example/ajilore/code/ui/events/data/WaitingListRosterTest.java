@@ -0,0 +1,133 @@
+package com.example.ajilore.code.ui.events.data;
+
+import static org.junit.Assert.*;
+
+import androidx.annotation.NonNull;
+
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.InMemoryDocumentStore;
+import com.example.ajilore.code.data.UserProfileResolver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link WaitingListRoster} against the in-memory store.
+ */
+public class WaitingListRosterTest {
+
+    private static final String WAITING = "org_events/evt1/waiting_list";
+
+    @Test
+    public void displayStatus_mapsStatusAndResponse() {
+        assertEquals("Pending", WaitingListRoster.displayStatus("chosen", "pending"));
+        assertEquals("Accepted", WaitingListRoster.displayStatus("SELECTED", "accepted"));
+        assertEquals("Declined", WaitingListRoster.displayStatus("waiting", "declined"));
+        assertEquals("Waiting", WaitingListRoster.displayStatus("waiting", null));
+        assertEquals("cancelled", WaitingListRoster.displayStatus("cancelled", "cancelled"));
+        assertEquals("Pending", WaitingListRoster.displayStatus(null, null));
+    }
+
+    @Test
+    public void listen_rebuildsOnChange_andStopsAfterRemove() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.put(WAITING + "/u1", entry("waiting"));
+        Map<String, Object> user = new HashMap<>();
+        user.put("name", "Ada");
+        store.put("users/u1", user);
+
+        List<List<Entrant>> rosters = new ArrayList<>();
+        DocumentStore.Subscription sub = new WaitingListRoster(store, new UserProfileResolver(store))
+                .listen("evt1", new WaitingListRoster.Listener() {
+                    @Override
+                    public void onRoster(@NonNull List<Entrant> entrants) {
+                        rosters.add(entrants);
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        fail("Unexpected error: " + e);
+                    }
+                });
+
+        assertEquals(1, rosters.size());
+        assertEquals("Ada", rosters.get(0).get(0).nameOrUid);
+        assertEquals("Waiting", rosters.get(0).get(0).displayStatus);
+
+        write(store, WAITING + "/u2", entry("waiting"));
+        assertEquals(2, rosters.size());
+        assertEquals(2, rosters.get(1).size());
+        assertEquals("u2", rosters.get(1).get(1).nameOrUid);
+
+        sub.remove();
+        write(store, WAITING + "/u3", entry("waiting"));
+        assertEquals(2, rosters.size());
+        assertEquals(0, store.listeners);
+    }
+
+    @Test
+    public void listen_resolvesAnInvalidatedProfileAgain() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.put(WAITING + "/u1", entry("waiting"));
+        store.put(WAITING + "/u2", entry("waiting"));
+        Map<String, Object> user = new HashMap<>();
+        user.put("name", "Ada");
+        store.put("users/u1", user);
+        UserProfileResolver resolver = new UserProfileResolver(store);
+
+        List<List<Entrant>> rosters = new ArrayList<>();
+        DocumentStore.Subscription sub = new WaitingListRoster(store, resolver)
+                .listen("evt1", new WaitingListRoster.Listener() {
+                    @Override
+                    public void onRoster(@NonNull List<Entrant> entrants) {
+                        rosters.add(entrants);
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        fail("Unexpected error: " + e);
+                    }
+                });
+        assertEquals("Ada", rosters.get(0).get(0).nameOrUid);
+
+        user.put("name", "Ada Lovelace");
+        store.put("users/u1", user);
+        int reads = store.documentReads;
+        resolver.invalidate("u1");
+
+        assertEquals(2, rosters.size());
+        assertEquals("Ada Lovelace", rosters.get(1).get(0).nameOrUid);
+        assertEquals("u2", rosters.get(1).get(1).nameOrUid);
+        assertEquals(1, store.documentReads - reads);
+
+        sub.remove();
+        resolver.invalidate("u1");
+        resolver.invalidate("u2");
+        assertEquals(2, rosters.size());
+    }
+
+    private static Map<String, Object> entry(String status) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("status", status);
+        return data;
+    }
+
+    private static void write(InMemoryDocumentStore store, String path, Map<String, Object> data) {
+        store.commit(Collections.singletonList(DocumentStore.Write.set(path, data)),
+                new DocumentStore.ResultCallback<Void>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        fail("Unexpected error: " + e);
+                    }
+                });
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ajilore.code.ui.events.list;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for {@link EventRowOrder}.
+ */
+public class EventRowOrderTest {
+
+    private static EventRow row(String id, String status, boolean flagged) {
+        return new EventRow(id, id, "", "", 0, null, status, "", "", flagged);
+    }
+
+    private static List<String> ids(List<EventRow> rows) {
+        List<String> out = new ArrayList<>();
+        for (EventRow r : rows) out.add(r.id);
+        return out;
+    }
+
+    @Test
+    public void statusRank_matchesFeedOrder() {
+        assertEquals(1, EventRowOrder.statusRank(" Open "));
+        assertEquals(2, EventRowOrder.statusRank("PUBLISHED"));
+        assertEquals(3, EventRowOrder.statusRank("closed"));
+        assertEquals(3, EventRowOrder.statusRank(null));
+        assertEquals(4, EventRowOrder.statusRank("Upcoming"));
+    }
+
+    @Test
+    public void visibleByStatus_groupsStablyAndDropsFlagged() {
+        List<EventRow> rows = Arrays.asList(
+                row("c1", "Closed", false),
+                row("u1", "Upcoming", false),
+                row("o1", "Open", false),
+                row("f1", "Open", true),
+                row("p1", "published", false),
+                row("o2", "open", false),
+                row("n1", null, false),
+                row("u2", "Upcoming", false));
+
+        assertEquals(Arrays.asList("o1", "o2", "p1", "c1", "n1", "u1", "u2"),
+                ids(EventRowOrder.visibleByStatus(rows)));
+    }
+
+    @Test
+    public void visibleByStatus_handlesEmptyAndAllFlagged() {
+        assertTrue(EventRowOrder.visibleByStatus(Collections.emptyList()).isEmpty());
+        assertTrue(EventRowOrder.visibleByStatus(Collections.singletonList(row("f", "Open", true))).isEmpty());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.ajilore.code.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the worker threads made by {@link BackgroundExecutors}.
+ */
+public class BackgroundExecutorsTest {
+
+    @Test
+    public void serial_runsTasksInOrderOnOneNamedDaemonThread() throws InterruptedException {
+        ExecutorService worker = BackgroundExecutors.serial("test-worker");
+        List<Integer> order = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        for (int i = 0; i < 3; i++) {
+            final int n = i;
+            worker.execute(() -> {
+                order.add(n);
+                threads.add(Thread.currentThread());
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        worker.shutdown();
+        assertEquals(Arrays.asList(0, 1, 2), order);
+        assertSame(threads.get(0), threads.get(2));
+        assertEquals("test-worker", threads.get(0).getName());
+        assertTrue(threads.get(0).isDaemon());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.ajilore.code.utils;
+
+import static org.junit.Assert.*;
+
+import com.example.ajilore.code.data.DocumentStore;
+import com.example.ajilore.code.data.InMemoryDocumentStore;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Unit tests for chunk planning and retries in {@link BatchFanOut}.
+ */
+public class BatchFanOutTest {
+
+    private static List<String> uids(int n) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) out.add("uid" + i);
+        return out;
+    }
+
+    private static BatchFanOut<String> twoWritesPerUid(DocumentStore store) {
+        return new BatchFanOut<>(store, (out, uid) -> {
+            out.add(DocumentStore.Write.set("a/" + uid, new HashMap<>()));
+            out.add(DocumentStore.Write.set("b/" + uid, new HashMap<>()));
+        });
+    }
+
+    @Test
+    public void planChunks_neverExceedsBatchLimit_forTwoOpsPerItem() {
+        List<List<String>> chunks = BatchFanOut.planChunks(uids(5000), uid -> 2);
+
+        assertEquals(20, chunks.size());
+        for (List<String> chunk : chunks) {
+            assertTrue(chunk.size() * 2 <= BatchFanOut.MAX_BATCH_OPS);
+        }
+    }
+
+    @Test
+    public void planChunks_keepsEveryItemInOrder() {
+        List<String> all = uids(1234);
+        List<List<String>> chunks = BatchFanOut.planChunks(all, uid -> 3);
+
+        List<String> flattened = new ArrayList<>();
+        for (List<String> chunk : chunks) flattened.addAll(chunk);
+        assertEquals(all, flattened);
+        assertEquals(166, chunks.get(0).size());
+    }
+
+    @Test
+    public void planChunks_returnsNothing_forEmptyInput() {
+        assertTrue(BatchFanOut.planChunks(Collections.<String>emptyList(), uid -> 2).isEmpty());
+    }
+
+    @Test
+    public void run_writesEveryItem_andRetriesAFailedBatch() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.failNextCommits = 1;
+        int[] result = new int[2];
+
+        twoWritesPerUid(store).run(uids(600), (delivered, failed, lastError) -> {
+            result[0] = delivered;
+            result[1] = failed;
+        });
+
+        assertEquals(600, result[0]);
+        assertEquals(0, result[1]);
+        assertEquals(3, store.commits);
+        assertEquals(1200, store.writes);
+    }
+
+    @Test
+    public void run_reportsFailedItems_whenRetriesRunOut() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.failNextCommits = BatchFanOut.DEFAULT_MAX_ATTEMPTS;
+        int[] result = new int[2];
+
+        twoWritesPerUid(store).run(uids(300), (delivered, failed, lastError) -> {
+            result[0] = delivered;
+            result[1] = failed;
+        });
+
+        assertEquals(50, result[0]);
+        assertEquals(250, result[1]);
+    }
+
+    @Test
+    public void run_backsOffExponentially_beforeEachRetry() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.failNextCommits = 2;
+        List<Long> delays = new ArrayList<>();
+        List<Runnable> pending = new ArrayList<>();
+        BatchFanOut<String> fanOut = new BatchFanOut<>(store, 1, 3, (retry, delayMillis) -> {
+            delays.add(delayMillis);
+            pending.add(retry);
+        }, (out, uid) -> out.add(DocumentStore.Write.set("a/" + uid, new HashMap<>())));
+        int[] result = {-1, -1};
+
+        fanOut.run(uids(10), (delivered, failed, lastError) -> {
+            result[0] = delivered;
+            result[1] = failed;
+        });
+        // Nothing is retried until the backoff elapses.
+        assertEquals(-1, result[0]);
+        assertEquals(0, store.commits);
+        while (!pending.isEmpty()) pending.remove(0).run();
+
+        assertEquals(Arrays.asList(BatchFanOut.BASE_BACKOFF_MILLIS, 2 * BatchFanOut.BASE_BACKOFF_MILLIS), delays);
+        assertEquals(10, result[0]);
+        assertEquals(0, result[1]);
+        assertEquals(1, store.commits);
+    }
+
+    @Test
+    public void run_reportsPartialFailure_withLastError() {
+        InMemoryDocumentStore store = new InMemoryDocumentStore();
+        store.failNextCommits = 2;
+        List<Long> delays = new ArrayList<>();
+        BatchFanOut<String> fanOut = new BatchFanOut<>(store, 1, 2, (retry, delayMillis) -> {
+            delays.add(delayMillis);
+            retry.run();
+        }, (out, uid) -> out.add(DocumentStore.Write.set("a/" + uid, new HashMap<>())));
+        Object[] result = new Object[3];
+
+        fanOut.run(uids(BatchFanOut.MAX_BATCH_OPS + 20), (delivered, failed, lastError) -> {
+            result[0] = delivered;
+            result[1] = failed;
+            result[2] = lastError;
+        });
+
+        assertEquals(20, result[0]);
+        assertEquals(BatchFanOut.MAX_BATCH_OPS, result[1]);
+        assertTrue(result[2] instanceof Exception);
+        assertEquals(Collections.singletonList(BatchFanOut.BASE_BACKOFF_MILLIS), delays);
+    }
+
+    @Test
+    public void backoffMillis_doublesUpToTheCap() {
+        assertEquals(500, BatchFanOut.backoffMillis(1));
+        assertEquals(1000, BatchFanOut.backoffMillis(2));
+        assertEquals(4000, BatchFanOut.backoffMillis(4));
+        assertEquals(BatchFanOut.MAX_BACKOFF_MILLIS, BatchFanOut.backoffMillis(10));
+        assertEquals(BatchFanOut.MAX_BACKOFF_MILLIS, BatchFanOut.backoffMillis(1000));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.ajilore.code.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for grid clustering and viewport filtering in {@link ClusterIndex}.
+ */
+public class ClusterIndexTest {
+
+    // Two points a few hundred metres apart in Edmonton, one in Calgary.
+    private static final double[] LATS = {53.5461, 53.5480, 51.0447};
+    private static final double[] LNGS = {-113.4938, -113.4900, -114.0719};
+
+    private static int total(List<ClusterIndex.Cluster> clusters) {
+        int sum = 0;
+        for (ClusterIndex.Cluster c : clusters) sum += c.count;
+        return sum;
+    }
+
+    @Test
+    public void visible_mergesNearbyPointsWhenZoomedOut() {
+        ClusterIndex index = new ClusterIndex(LATS, LNGS);
+
+        List<ClusterIndex.Cluster> world = index.visible(2, -85, -180, 85, 180);
+
+        assertEquals(1, world.size());
+        assertEquals(3, world.get(0).count);
+    }
+
+    @Test
+    public void visible_splitsClustersWhenZoomedIn() {
+        ClusterIndex index = new ClusterIndex(LATS, LNGS);
+
+        List<ClusterIndex.Cluster> province = index.visible(8, 49, -120, 60, -110);
+        List<ClusterIndex.Cluster> street = index.visible(18, 49, -120, 60, -110);
+
+        assertEquals(2, province.size());
+        assertEquals(3, total(province));
+        assertEquals(3, street.size());
+    }
+
+    @Test
+    public void visible_onlyReturnsClustersInViewport() {
+        ClusterIndex index = new ClusterIndex(LATS, LNGS);
+
+        // Around Calgary only
+        List<ClusterIndex.Cluster> calgary = index.visible(12, 50.9, -114.3, 51.2, -113.9);
+
+        assertEquals(1, calgary.size());
+        assertEquals(2, calgary.get(0).firstIndex);
+        assertEquals(51.0447, calgary.get(0).lat, 1e-6);
+        assertEquals(-114.0719, calgary.get(0).lng, 1e-6);
+    }
+
+    @Test
+    public void visible_handlesViewportAcrossAntimeridian() {
+        ClusterIndex index = new ClusterIndex(new double[]{-17.7, 10}, new double[]{179.9, 0});
+
+        List<ClusterIndex.Cluster> pacific = index.visible(6, -20, 170, -15, -170);
+
+        assertEquals(1, pacific.size());
+        assertEquals(0, pacific.get(0).firstIndex);
+    }
+
+    @Test
+    public void visible_centroidAndKeyAreStableAcrossPans() {
+        ClusterIndex index = new ClusterIndex(LATS, LNGS);
+
+        ClusterIndex.Cluster a = index.visible(8, 53, -114, 54, -113).get(0);
+        ClusterIndex.Cluster b = index.visible(8, 52.5, -115, 54.5, -112).get(0);
+
+        assertSame(a, b);
+        assertEquals(2, a.count);
+        assertEquals((53.5461 + 53.5480) / 2, a.lat, 1e-3);
+    }
+
+    @Test
+    public void bounds_coverAllPoints() {
+        assertArrayEquals(new double[]{51.0447, -114.0719, 53.5480, -113.4900},
+                new ClusterIndex(LATS, LNGS).bounds(), 0);
+        assertNull(new ClusterIndex(new double[0], new double[0]).bounds());
+    }
+
+    @Test
+    public void visible_keepsEveryPointInLargeSet() {
+        Random random = new Random(7);
+        int n = 20_000;
+        double[] lats = new double[n];
+        double[] lngs = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = 53.3 + random.nextDouble() * 0.5;
+            lngs[i] = -113.8 + random.nextDouble() * 0.8;
+        }
+        ClusterIndex index = new ClusterIndex(lats, lngs);
+
+        List<ClusterIndex.Cluster> city = index.visible(11, 53.2, -114, 53.9, -112.9);
+
+        // About 15 x 16 cells of 80px cover the area at this zoom
+        assertEquals(n, total(city));
+        assertTrue(city.size() <= 16 * 17);
+    }
+
+    @Test
+    public void visible_weightsCountAndCentroid() {
+        // A density cell of 30 entrants next to a single entrant
+        ClusterIndex index = new ClusterIndex(new double[]{53.54, 53.56}, new double[]{-113.5, -113.5},
+                new int[]{30, 1});
+
+        List<ClusterIndex.Cluster> city = index.visible(8, 53, -114, 54, -113);
+
+        assertEquals(1, city.size());
+        assertEquals(31, city.get(0).count);
+        assertEquals(53.54, city.get(0).lat, 2e-3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsMismatchedArrays() {
+        new ClusterIndex(new double[1], new double[2]);
+    }
+}
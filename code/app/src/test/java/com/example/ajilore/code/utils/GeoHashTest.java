@@ -0,0 +1,105 @@
+package com.example.ajilore.code.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for geohash encoding and the prefix ranges built by {@link GeoHash}.
+ */
+public class GeoHashTest {
+
+    private static boolean covered(List<GeoHash.Range> ranges, String hash) {
+        for (GeoHash.Range r : ranges) {
+            if (r.contains(hash)) return true;
+        }
+        return false;
+    }
+
+    @Test
+    public void encode_matchesKnownHashes() {
+        assertEquals("ezs42", GeoHash.encode(42.605, -5.603, 5));
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+    }
+
+    @Test
+    public void bounds_containEncodedPoint() {
+        String hash = GeoHash.encode(53.5461, -113.4938, 7);
+
+        double[] b = GeoHash.bounds(hash);
+
+        assertTrue(b[0] <= 53.5461 && 53.5461 <= b[2]);
+        assertTrue(b[1] <= -113.4938 && -113.4938 <= b[3]);
+        assertEquals(hash, GeoHash.encode(GeoHash.center(hash)[0], GeoHash.center(hash)[1], 7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bounds_rejectsCharactersOutsideAlphabet() {
+        GeoHash.bounds("ab!");
+    }
+
+    @Test
+    public void ranges_coverEveryPointInBox() {
+        List<GeoHash.Range> ranges = GeoHash.ranges(53.4, -113.7, 53.7, -113.3);
+        Random random = new Random(3);
+
+        for (int i = 0; i < 1000; i++) {
+            double lat = 53.4 + random.nextDouble() * 0.3;
+            double lng = -113.7 + random.nextDouble() * 0.4;
+            assertTrue(covered(ranges, GeoHash.encode(lat, lng, GeoHash.ENTRY_PRECISION)));
+        }
+        assertTrue(ranges.size() <= GeoHash.MAX_CELLS);
+    }
+
+    @Test
+    public void ranges_excludeFarAwayPoints() {
+        List<GeoHash.Range> ranges = GeoHash.ranges(53.4, -113.7, 53.7, -113.3);
+
+        // Calgary and Toronto
+        assertFalse(covered(ranges, GeoHash.encode(51.0447, -114.0719, GeoHash.ENTRY_PRECISION)));
+        assertFalse(covered(ranges, GeoHash.encode(43.6532, -79.3832, GeoHash.ENTRY_PRECISION)));
+    }
+
+    @Test
+    public void ranges_mergeConsecutiveCells() {
+        // The whole world at precision 1 is one range
+        List<GeoHash.Range> world = GeoHash.ranges(-90, -180, 90, 180);
+
+        assertEquals(1, world.size());
+        assertEquals("0", world.get(0).start);
+        assertEquals("z", world.get(0).end);
+    }
+
+    @Test
+    public void ranges_handleAntimeridian() {
+        List<GeoHash.Range> ranges = GeoHash.ranges(-18, 179.5, -17, -179.5);
+
+        assertTrue(covered(ranges, GeoHash.encode(-17.5, 179.9, GeoHash.ENTRY_PRECISION)));
+        assertTrue(covered(ranges, GeoHash.encode(-17.5, -179.9, GeoHash.ENTRY_PRECISION)));
+        assertFalse(covered(ranges, GeoHash.encode(-17.5, 0, GeoHash.ENTRY_PRECISION)));
+    }
+
+    @Test
+    public void rangesNear_coverTheCircle() {
+        double lat = 53.5461, lng = -113.4938;
+        List<GeoHash.Range> ranges = GeoHash.rangesNear(lat, lng, 5000);
+        Random random = new Random(11);
+
+        for (int i = 0; i < 1000; i++) {
+            double pLat = lat + (random.nextDouble() - 0.5) * 0.1;
+            double pLng = lng + (random.nextDouble() - 0.5) * 0.16;
+            if (GeoHash.distanceMeters(lat, lng, pLat, pLng) > 5000) continue;
+            assertTrue(covered(ranges, GeoHash.encode(pLat, pLng, GeoHash.ENTRY_PRECISION)));
+        }
+    }
+
+    @Test
+    public void distanceMeters_edmontonToCalgary() {
+        double d = GeoHash.distanceMeters(53.5461, -113.4938, 51.0447, -114.0719);
+
+        assertEquals(280_000, d, 5_000);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.ajilore.code.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the stop conditions in {@link PagingState}. Page tokens are strings.
+ */
+public class PagingStateTest {
+
+    /** Starts the list the way a browse fragment does and delivers its first page. */
+    private static PagingState<String> firstPageLoaded() {
+        PagingState<String> paging = new PagingState<>();
+        paging.restart();
+        assertTrue(paging.begin(false));
+        assertNull(paging.next());
+        paging.onPage("p1");
+        return paging;
+    }
+
+    @Test
+    public void automaticPages_stopAtTheCapAndAskForLoadMore() {
+        PagingState<String> paging = firstPageLoaded();
+
+        for (int i = 0; i < PagingState.MAX_AUTO_PAGES; i++) {
+            assertTrue(paging.begin(true));
+            paging.onPage("p" + (i + 2));
+        }
+        assertFalse(paging.isCapped());
+
+        assertFalse(paging.begin(true));
+        assertTrue(paging.isCapped());
+        assertFalse(paging.begin(true));
+    }
+
+    @Test
+    public void adminRequest_resetsTheCap() {
+        PagingState<String> paging = new PagingState<>(1);
+        paging.restart();
+        paging.begin(false);
+        paging.onPage("p1");
+        assertTrue(paging.begin(true));
+        paging.onPage("p2");
+        assertFalse(paging.begin(true));
+        assertTrue(paging.isCapped());
+
+        assertTrue(paging.begin(false));
+        assertEquals("p2", paging.next());
+        assertFalse(paging.isCapped());
+        paging.onPage("p3");
+
+        assertTrue(paging.begin(true));
+    }
+
+    @Test
+    public void newQuery_allowsAnotherRunOfAutomaticPages() {
+        PagingState<String> paging = new PagingState<>(1);
+        paging.restart();
+        paging.begin(false);
+        paging.onPage("p1");
+        paging.begin(true);
+        paging.onPage("p2");
+        assertFalse(paging.begin(true));
+
+        paging.resetAutoPages();
+
+        assertFalse(paging.isCapped());
+        assertTrue(paging.begin(true));
+    }
+
+    @Test
+    public void noPage_whileOneIsLoadingOrAfterTheLast() {
+        PagingState<String> paging = firstPageLoaded();
+        assertTrue(paging.begin(false));
+        assertFalse(paging.begin(false));
+        assertFalse(paging.begin(true));
+        assertFalse(paging.isCapped());
+
+        paging.onPage(null);
+
+        assertTrue(paging.isLastPage());
+        assertFalse(paging.begin(false));
+        assertFalse(paging.begin(true));
+        assertFalse(paging.isCapped());
+    }
+
+    @Test
+    public void failedPage_canBeAskedForAgain() {
+        PagingState<String> paging = firstPageLoaded();
+        assertTrue(paging.begin(false));
+        paging.onError();
+
+        assertTrue(paging.begin(false));
+        assertEquals("p1", paging.next());
+    }
+
+    @Test
+    public void restart_dropsPagesStillInFlight() {
+        PagingState<String> paging = firstPageLoaded();
+        paging.begin(true);
+        int before = paging.generation();
+
+        paging.restart();
+
+        assertFalse(paging.isCurrent(before));
+        assertTrue(paging.isCurrent(paging.generation()));
+        assertNull(paging.next());
+        assertFalse(paging.isLastPage());
+        assertTrue(paging.begin(false));
+    }
+}
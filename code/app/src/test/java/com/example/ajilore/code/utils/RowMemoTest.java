@@ -0,0 +1,75 @@
+package com.example.ajilore.code.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for instance-based row reuse in {@link RowMemo}.
+ */
+public class RowMemoTest {
+
+    private static final class Source {
+        final String name;
+
+        Source(String name) {
+            this.name = name;
+        }
+    }
+
+    @Test
+    public void map_onlyMapsSourcesItHasNotSeen() {
+        int[] calls = new int[1];
+        RowMemo<Source, String> memo = new RowMemo<>(s -> {
+            calls[0]++;
+            return new String(s.name);
+        });
+        Source a = new Source("a");
+        Source b = new Source("b");
+
+        List<String> first = memo.map(Arrays.asList(a, b));
+        List<String> second = memo.map(Arrays.asList(b, a, new Source("c")));
+
+        assertEquals(3, calls[0]);
+        assertSame(first.get(1), second.get(0));
+        assertSame(first.get(0), second.get(1));
+        assertEquals("c", second.get(2));
+    }
+
+    @Test
+    public void map_forgetsSourcesThatDroppedOut() {
+        int[] calls = new int[1];
+        RowMemo<Source, String> memo = new RowMemo<>(s -> {
+            calls[0]++;
+            return s.name;
+        });
+        Source a = new Source("a");
+
+        memo.map(Arrays.asList(a));
+        memo.map(Arrays.asList(new Source("b")));
+        memo.map(Arrays.asList(a));
+
+        assertEquals(3, calls[0]);
+    }
+
+    @Test
+    public void forget_remapsOnlyForgottenSources() {
+        int[] calls = new int[1];
+        RowMemo<Source, String> memo = new RowMemo<>(s -> {
+            calls[0]++;
+            return s.name;
+        });
+        Source a = new Source("a");
+        Source b = new Source("b");
+
+        memo.map(Arrays.asList(a, b));
+        memo.forget(Collections.singletonList(b));
+        memo.map(Arrays.asList(a, b));
+
+        assertEquals(3, calls[0]);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.ajilore.code.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Unit tests for background row building and stale-list dropping in {@link RowProjector}.
+ */
+public class RowProjectorTest {
+
+    /** Runs tasks only when asked, to stand in for the worker and main threads. */
+    private static final class QueuedExecutor implements Executor {
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable r) {
+            tasks.add(r);
+        }
+
+        void drain() {
+            while (!tasks.isEmpty()) tasks.poll().run();
+        }
+    }
+
+    private final QueuedExecutor worker = new QueuedExecutor();
+    private final QueuedExecutor ui = new QueuedExecutor();
+    private final List<String> mapped = new ArrayList<>();
+    private final RowProjector<String, String> projector = new RowProjector<>(s -> {
+        mapped.add(s);
+        return s.toUpperCase();
+    }, worker, ui);
+
+    @Test
+    public void submit_mapsOnWorkerAndDeliversOnUi() {
+        List<List<String>> delivered = new ArrayList<>();
+
+        projector.submit(Arrays.asList("a", "b"), delivered::add);
+        assertTrue(mapped.isEmpty());
+        worker.drain();
+        assertTrue(delivered.isEmpty());
+        ui.drain();
+
+        assertEquals(Arrays.asList(Arrays.asList("A", "B")), delivered);
+    }
+
+    @Test
+    public void submit_skipsListsReplacedBeforeTheyRan() {
+        List<List<String>> delivered = new ArrayList<>();
+
+        projector.submit(Arrays.asList("old"), delivered::add);
+        projector.submit(Arrays.asList("new"), delivered::add);
+        worker.drain();
+        ui.drain();
+
+        assertEquals(Arrays.asList("new"), mapped);
+        assertEquals(Arrays.asList(Arrays.asList("NEW")), delivered);
+    }
+
+    @Test
+    public void submit_reusesRowsForTheSameSourceInstance() {
+        String a = new String("a");
+        List<List<String>> delivered = new ArrayList<>();
+
+        projector.submit(Arrays.asList(a), delivered::add);
+        worker.drain();
+        ui.drain();
+        projector.submit(Arrays.asList(a, new String("b")), delivered::add);
+        worker.drain();
+        ui.drain();
+
+        assertEquals(Arrays.asList("a", "b"), mapped);
+        assertSame(delivered.get(0).get(0), delivered.get(1).get(0));
+    }
+
+    @Test
+    public void invalidateAll_mapsTheSameInstancesAgain() {
+        String a = new String("a");
+        List<List<String>> delivered = new ArrayList<>();
+
+        projector.submit(Arrays.asList(a), delivered::add);
+        worker.drain();
+        ui.drain();
+        projector.invalidateAll();
+        projector.submit(Arrays.asList(a), delivered::add);
+        worker.drain();
+        ui.drain();
+
+        assertEquals(Arrays.asList("a", "a"), mapped);
+        assertNotSame(delivered.get(0).get(0), delivered.get(1).get(0));
+    }
+
+    @Test
+    public void cancel_dropsPendingDelivery() {
+        List<List<String>> delivered = new ArrayList<>();
+
+        projector.submit(Arrays.asList("a"), delivered::add);
+        worker.drain();
+        projector.cancel();
+        ui.drain();
+
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void submit_deliversUnmodifiableRows() {
+        List<List<String>> delivered = new ArrayList<>();
+        projector.submit(Arrays.asList("a"), delivered::add);
+        worker.drain();
+        ui.drain();
+
+        delivered.get(0).add("x");
+    }
+}
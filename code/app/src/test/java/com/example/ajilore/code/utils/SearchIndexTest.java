@@ -0,0 +1,167 @@
+package com.example.ajilore.code.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for trigram and facet lookups in {@link SearchIndex}.
+ */
+public class SearchIndexTest {
+
+    private static final class Row {
+        final String name;
+        final String email;
+        final String role;
+
+        Row(String name, String email, String role) {
+            this.name = name;
+            this.email = email;
+            this.role = role;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final SearchIndex.Fields<Row> FIELDS = new SearchIndex.Fields<Row>() {
+        @Override
+        public String[] text(Row row) {
+            return new String[]{row.name, row.email};
+        }
+
+        @Override
+        public String facet(Row row, String facet) {
+            return row.role;
+        }
+    };
+
+    private static final Map<String, String> NO_FACETS = Collections.emptyMap();
+
+    private static SearchIndex<Row> index(Row... rows) {
+        SearchIndex<Row> index = new SearchIndex<>(FIELDS, "role");
+        index.addAll(Arrays.asList(rows));
+        return index;
+    }
+
+    private static Map<String, String> role(String value) {
+        Map<String, String> facets = new HashMap<>();
+        facets.put("role", value);
+        return facets;
+    }
+
+    private static final Row ADA = new Row("Ada Lovelace", "ada@example.com", "Organizer");
+    private static final Row ALAN = new Row("Alan Turing", "alan@example.com", "Entrant");
+    private static final Row GRACE = new Row("Grace Hopper", "grace@navy.mil", "Entrant");
+
+    @Test
+    public void query_matchesSubstringOfAnyFieldIgnoringCase() {
+        SearchIndex<Row> index = index(ADA, ALAN, GRACE);
+
+        assertEquals(Collections.singletonList(GRACE), index.query("HOPP", NO_FACETS));
+        assertEquals(Collections.singletonList(GRACE), index.query("navy.m", NO_FACETS));
+        assertEquals(Arrays.asList(ADA, ALAN), index.query("example", NO_FACETS));
+        assertTrue(index.query("hopper grace", NO_FACETS).isEmpty());
+    }
+
+    @Test
+    public void query_doesNotMatchAcrossTwoFields() {
+        SearchIndex<Row> index = index(ADA);
+
+        assertTrue(index.query("laceada", NO_FACETS).isEmpty());
+        assertTrue(index.query("lovelace ada", NO_FACETS).isEmpty());
+    }
+
+    @Test
+    public void query_blankReturnsEverythingInOrder() {
+        SearchIndex<Row> index = index(GRACE, ADA, ALAN);
+
+        assertEquals(Arrays.asList(GRACE, ADA, ALAN), index.query("  ", NO_FACETS));
+        assertEquals(Arrays.asList(GRACE, ADA, ALAN), index.query(null, NO_FACETS));
+    }
+
+    @Test
+    public void query_shortTextFallsBackToScan() {
+        SearchIndex<Row> index = index(ADA, ALAN, GRACE);
+
+        assertEquals(Arrays.asList(ADA, ALAN), index.query("LA", NO_FACETS));
+        assertEquals(Arrays.asList(ADA, ALAN, GRACE), index.query("a", NO_FACETS));
+    }
+
+    @Test
+    public void query_intersectsFacetWithText() {
+        SearchIndex<Row> index = index(ADA, ALAN, GRACE);
+
+        assertEquals(Arrays.asList(ALAN, GRACE), index.query("", role("entrant")));
+        assertEquals(Collections.singletonList(ALAN), index.query("example", role("ENTRANT")));
+        assertEquals(Collections.singletonList(ALAN), index.query("al", role("entrant")));
+        assertTrue(index.query("", role("admin")).isEmpty());
+        assertEquals(Arrays.asList(ADA, ALAN, GRACE), index.query("", role(null)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void query_unknownFacetThrows() {
+        Map<String, String> facets = new HashMap<>();
+        facets.put("status", "open");
+        index(ADA).query("", facets);
+    }
+
+    @Test
+    public void addAll_appendsToExistingIndex() {
+        SearchIndex<Row> index = index(ADA);
+        Row ali = new Row("Ali Lovelace", "ali@example.com", "Entrant");
+
+        index.addAll(Collections.singletonList(ali));
+
+        assertEquals(2, index.size());
+        assertEquals(Arrays.asList(ADA, ali), index.query("lovelace", NO_FACETS));
+        assertEquals(Collections.singletonList(ali), index.query("lovelace", role("entrant")));
+    }
+
+    @Test
+    public void replaceAll_dropsPreviousItems() {
+        SearchIndex<Row> index = index(ADA, ALAN);
+
+        index.replaceAll(Collections.singletonList(GRACE));
+
+        assertEquals(1, index.size());
+        assertTrue(index.query("lovelace", NO_FACETS).isEmpty());
+        assertTrue(index.query("", role("organizer")).isEmpty());
+        assertEquals(Collections.singletonList(GRACE), index.query("grace", role("entrant")));
+    }
+
+    @Test
+    public void query_agreesWithScanOnLargeList() {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            rows.add(new Row("Entrant " + i, "user" + (i * 7919 % 50_000) + "@example.com",
+                    i % 3 == 0 ? "Organizer" : "Entrant"));
+        }
+        SearchIndex<Row> index = new SearchIndex<>(FIELDS, "role");
+        index.addAll(rows);
+
+        List<Row> expected = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.role.equals("Organizer") && (row.name.toLowerCase().contains("t 123")
+                    || row.email.contains("t 123"))) {
+                expected.add(row);
+            }
+        }
+        assertEquals(expected, index.query("T 123", role("organizer")));
+
+        expected.clear();
+        for (Row row : rows) {
+            if (row.email.contains("user4242")) expected.add(row);
+        }
+        assertEquals(expected, index.query("USER4242", NO_FACETS));
+    }
+}
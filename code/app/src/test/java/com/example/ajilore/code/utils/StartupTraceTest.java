@@ -0,0 +1,43 @@
+package com.example.ajilore.code.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link StartupTrace}.
+ */
+public class StartupTraceTest {
+
+    @Test
+    public void mark_recordsTimeSinceOrigin_firstMarkWins() {
+        StartupTrace trace = new StartupTrace(1_000);
+
+        assertTrue(trace.mark("onCreate", 1_180));
+        assertTrue(trace.mark("firstFrame", 1_520));
+        assertFalse(trace.mark("firstFrame", 2_000));
+
+        assertEquals(180, trace.elapsed("onCreate"));
+        assertEquals(520, trace.elapsed("firstFrame"));
+        assertEquals(-1, trace.elapsed("route"));
+    }
+
+    @Test
+    public void summary_listsMarksInOrderReached() {
+        StartupTrace trace = new StartupTrace(500);
+        assertEquals("", trace.summary());
+
+        trace.mark("onCreate", 600);
+        trace.mark("route", 650);
+        trace.mark("firstFrame", 900);
+
+        assertEquals("onCreate=100ms route=150ms firstFrame=400ms", trace.summary());
+    }
+
+    @Test
+    public void mark_beforeOriginClampsToZero() {
+        StartupTrace trace = new StartupTrace(1_000);
+        trace.mark("early", 900);
+        assertEquals(0, trace.elapsed("early"));
+    }
+}
@@ -0,0 +1,54 @@
+// JMH microbenchmarks for the app's Android-free hot paths.
+// Run with: ./gradlew :benchmarks:jmh   (results in build/results/jmh/results.json)
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// An Android application module cannot be a JVM dependency, so the benchmarked classes are
+// compiled straight from :app's sources. Only Android-free files may be listed here; a file
+// that pulls in an Android or Firebase class fails this module's build.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/example/ajilore/code/services/LotterySampler.java",
+                "com/example/ajilore/code/data/Broadcast.java",
+                "com/example/ajilore/code/data/CatalogEvent.java",
+                "com/example/ajilore/code/data/CatalogIndex.java",
+                "com/example/ajilore/code/data/DocumentStore.java",
+                "com/example/ajilore/code/data/EventFilterQuery.java",
+                "com/example/ajilore/code/data/InboxEntry.java",
+                "com/example/ajilore/code/utils/SearchIndex.java",
+                "com/example/ajilore/code/ui/events/data/Entrant.java",
+                "com/example/ajilore/code/ui/events/data/EntrantCsv.java",
+                "com/example/ajilore/code/ui/events/list/EventRow.java",
+                "com/example/ajilore/code/ui/events/list/EventRowOrder.java",
+            )
+        }
+    }
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    implementation(libs.androidx.annotation)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    // e.g. ./gradlew :benchmarks:jmh -PjmhInclude=Lottery
+    providers.gradleProperty("jmhInclude").orNull?.let { includes.add(it) }
+}
@@ -0,0 +1,76 @@
+package com.example.ajilore.code.benchmarks;
+
+import com.example.ajilore.code.data.Broadcast;
+import com.example.ajilore.code.data.InboxEntry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recipient selection for {@code EventNotifier.notifyAudience}: which waiting-list entries
+ * an audience reaches ({@link Broadcast#reaches(String, String, String)}), and turning a
+ * reader's pulled broadcasts into inbox items ({@link Broadcast#resolve}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AudienceBenchmark {
+
+    /** Waiting-list entries, and broadcasts in the reader's events. */
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private String[][] entries;
+    private List<Broadcast> broadcasts;
+    private Map<String, Broadcast.Membership> memberships;
+
+    @Setup
+    public void setUp() {
+        entries = Rows.entries(rows);
+
+        Random r = new Random(5);
+        int events = Math.max(1, rows / 10);
+        broadcasts = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String eventId = "event-" + r.nextInt(events);
+            broadcasts.add(new Broadcast("org_events/" + eventId + "/broadcasts/b" + i, "b" + i, eventId,
+                    Rows.AUDIENCES[r.nextInt(Rows.AUDIENCES.length)], "Message " + i, Rows.NOW - i * 1000L));
+        }
+        memberships = new HashMap<>();
+        for (int e = 0; e < events; e += 2) {
+            String[] entry = entries[e % entries.length];
+            memberships.put("event-" + e, new Broadcast.Membership(entry[0], entry[1], Rows.NOW - Rows.DAY));
+        }
+    }
+
+    /** Audience sizes for all four audiences in one pass over the waiting list each. */
+    @Benchmark
+    public int selectRecipients() {
+        int reached = 0;
+        for (String audience : Rows.AUDIENCES) {
+            for (String[] entry : entries) {
+                if (Broadcast.reaches(audience, entry[0], entry[1])) reached++;
+            }
+        }
+        return reached;
+    }
+
+    @Benchmark
+    public List<InboxEntry> resolveInbox() {
+        return Broadcast.resolve(broadcasts, memberships, Collections.emptyMap());
+    }
+}
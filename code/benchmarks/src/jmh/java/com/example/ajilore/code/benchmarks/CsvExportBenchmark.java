@@ -0,0 +1,41 @@
+package com.example.ajilore.code.benchmarks;
+
+import com.example.ajilore.code.ui.events.data.Entrant;
+import com.example.ajilore.code.ui.events.data.EntrantCsv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code WaitingListFragment.exportAcceptedToCsv}: building the accepted-entrants CSV
+ * ({@link EntrantCsv}) from a waiting list where about a quarter accepted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CsvExportBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private List<Entrant> entrants;
+
+    @Setup
+    public void setUp() {
+        entrants = Rows.entrants(rows);
+    }
+
+    @Benchmark
+    public String acceptedCsv() {
+        return EntrantCsv.accepted(entrants);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.ajilore.code.benchmarks;
+
+import com.example.ajilore.code.data.CatalogEvent;
+import com.example.ajilore.code.data.CatalogIndex;
+import com.example.ajilore.code.data.EventFilterQuery;
+import com.example.ajilore.code.ui.events.list.EventRow;
+import com.example.ajilore.code.ui.events.list.EventRowOrder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The entrant events feed: ordering rows by status ({@link EventRowOrder}, with the old
+ * comparator sort as a baseline), and the client-side part of a filtered catalog query
+ * ({@link EventFilterQuery#matchesResidual} plus the feed sort).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventFeedBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private List<EventRow> feed;
+    private List<CatalogEvent> catalog;
+    private EventFilterQuery openNow;
+
+    @Setup
+    public void setUp() {
+        feed = Rows.eventRows(rows);
+        catalog = Rows.catalog(rows);
+        openNow = EventFilterQuery.of(null, null, null, EventFilterQuery.AVAILABILITY_OPEN, Rows.NOW);
+    }
+
+    @Benchmark
+    public List<EventRow> orderByStatus() {
+        return EventRowOrder.visibleByStatus(feed);
+    }
+
+    /** The ordering as EventsFragment did it before: filter, then sort re-ranking both sides. */
+    @Benchmark
+    public List<EventRow> orderByStatusComparatorBaseline() {
+        List<EventRow> out = new ArrayList<>();
+        for (EventRow row : feed) {
+            if (!row.flagged) out.add(row);
+        }
+        Collections.sort(out, (a, b) -> Integer.compare(
+                EventRowOrder.statusRank(a.status), EventRowOrder.statusRank(b.status)));
+        return out;
+    }
+
+    @Benchmark
+    public List<CatalogEvent> filterCatalog() {
+        List<CatalogEvent> out = new ArrayList<>();
+        for (CatalogEvent e : catalog) {
+            if (!e.isFlagged() && openNow.matchesResidual(e)) out.add(e);
+        }
+        Collections.sort(out, CatalogIndex.BY_STARTS_AT);
+        return out;
+    }
+}
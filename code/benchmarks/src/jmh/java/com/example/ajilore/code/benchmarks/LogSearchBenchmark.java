@@ -0,0 +1,109 @@
+package com.example.ajilore.code.benchmarks;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.ajilore.code.utils.SearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code AdminLogsAdapter.filter}: indexing notification logs and querying them by text and
+ * audience with {@link SearchIndex}.
+ *
+ * The adapter indexes {@code NotificationLog}, which holds a Firebase timestamp, so the
+ * logs here are a plain row with the same indexed fields: message and event id as text,
+ * audience as the facet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LogSearchBenchmark {
+
+    static final class LogRow {
+        final String message;
+        final String eventId;
+        final String audience;
+
+        LogRow(String message, String eventId, String audience) {
+            this.message = message;
+            this.eventId = eventId;
+            this.audience = audience;
+        }
+    }
+
+    static final String FACET_AUDIENCE = "audience";
+
+    /** Same fields as {@code AdminLogsAdapter.FIELDS}. */
+    static final SearchIndex.Fields<LogRow> FIELDS = new SearchIndex.Fields<LogRow>() {
+        @NonNull
+        @Override
+        public String[] text(@NonNull LogRow log) {
+            return new String[]{log.message, log.eventId};
+        }
+
+        @Nullable
+        @Override
+        public String facet(@NonNull LogRow log, @NonNull String facet) {
+            return log.audience;
+        }
+    };
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private List<LogRow> logs;
+    private SearchIndex<LogRow> index;
+    private Map<String, String> waiting;
+    private Map<String, String> anyAudience;
+
+    @Setup
+    public void setUp() {
+        Random r = new Random(6);
+        logs = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            logs.add(new LogRow(Rows.sentence(r, 8), "event-" + r.nextInt(Math.max(1, rows / 20)),
+                    Rows.AUDIENCES[r.nextInt(Rows.AUDIENCES.length)]));
+        }
+        index = new SearchIndex<>(FIELDS, FACET_AUDIENCE);
+        index.replaceAll(logs);
+        waiting = Collections.singletonMap(FACET_AUDIENCE, "waiting");
+        anyAudience = Collections.singletonMap(FACET_AUDIENCE, null);
+    }
+
+    @Benchmark
+    public SearchIndex<LogRow> buildIndex() {
+        SearchIndex<LogRow> fresh = new SearchIndex<>(FIELDS, FACET_AUDIENCE);
+        fresh.replaceAll(logs);
+        return fresh;
+    }
+
+    @Benchmark
+    public List<LogRow> textAndAudience() {
+        return index.query("jazz night", waiting);
+    }
+
+    @Benchmark
+    public List<LogRow> rareText() {
+        return index.query("event-7", anyAudience);
+    }
+
+    @Benchmark
+    public List<LogRow> audienceOnly() {
+        return index.query("", waiting);
+    }
+}
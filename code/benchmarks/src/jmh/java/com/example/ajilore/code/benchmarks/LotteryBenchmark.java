@@ -0,0 +1,56 @@
+package com.example.ajilore.code.benchmarks;
+
+import com.example.ajilore.code.services.LotterySampler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Winner sampling for a lottery draw ({@link LotterySampler}), drawing a tenth of the
+ * waiting pool, against shuffling the whole pool.
+ *
+ * The pool is reordered in place by every call; any order is still a valid pool, so it
+ * is not reset between invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LotteryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private List<String> pool;
+    private Random random;
+    private int winners;
+
+    @Setup
+    public void setUp() {
+        pool = Rows.ids(rows);
+        random = new Random(42);
+        winners = rows / 10;
+    }
+
+    @Benchmark
+    public String partialShuffle() {
+        int picked = LotterySampler.sampleToFront(pool, winners, random);
+        return pool.get(picked - 1);
+    }
+
+    @Benchmark
+    public String fullShuffleBaseline() {
+        Collections.shuffle(pool, random);
+        return pool.get(winners - 1);
+    }
+}
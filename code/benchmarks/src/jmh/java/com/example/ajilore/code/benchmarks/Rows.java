@@ -0,0 +1,103 @@
+package com.example.ajilore.code.benchmarks;
+
+import com.example.ajilore.code.data.CatalogEvent;
+import com.example.ajilore.code.ui.events.data.Entrant;
+import com.example.ajilore.code.ui.events.list.EventRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rows
+ *
+ * Purpose: Seeded test data for the benchmarks, shaped like production lists: mixed event
+ * statuses with a few flagged events, waiting lists where a minority accepted, and names
+ * that sometimes need CSV escaping. The same seed gives the same rows on every run.
+ */
+final class Rows {
+
+    static final String[] EVENT_STATUSES = {"Open", "Open", "Upcoming", "published", "Closed", null};
+    static final String[] TYPES = {"Music", "Sports", "Food", "Art", "Tech", "Outdoors"};
+    static final String[] AUDIENCES = {"waiting", "chosen", "selected", "cancelled"};
+    static final String[] WORDS = {"jazz", "night", "market", "swim", "lessons", "robotics",
+            "pottery", "trail", "run", "concert", "reminder", "invite", "update", "venue"};
+
+    static final long DAY = 86_400_000L;
+    /** Fixed "now" so time-based filters select the same rows on every run. */
+    static final long NOW = 1_760_000_000_000L;
+
+    private Rows() {
+    }
+
+    static List<String> ids(int n) {
+        List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add("user-" + i);
+        return out;
+    }
+
+    static List<EventRow> eventRows(int n) {
+        Random r = new Random(1);
+        List<EventRow> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String status = EVENT_STATUSES[r.nextInt(EVENT_STATUSES.length)];
+            boolean flagged = r.nextInt(50) == 0;
+            out.add(new EventRow("event-" + i, "Event " + i, "Edmonton", "Nov 27, 2025",
+                    0, null, status, "27", "November", flagged));
+        }
+        return out;
+    }
+
+    static List<CatalogEvent> catalog(int n) {
+        Random r = new Random(2);
+        List<CatalogEvent> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long opens = NOW + (r.nextInt(60) - 30) * DAY;
+            long closes = opens + (1 + r.nextInt(14)) * DAY;
+            long starts = closes + r.nextInt(30) * DAY;
+            out.add(new CatalogEvent("event-" + i, "Event " + i, "Edmonton",
+                    TYPES[r.nextInt(TYPES.length)], r.nextInt(50) == 0 ? "flagged" : "open",
+                    null, "50", starts, opens, closes, opens - DAY, NOW));
+        }
+        return out;
+    }
+
+    /** Waiting-list entries as {status, responded} pairs. */
+    static String[][] entries(int n) {
+        Random r = new Random(3);
+        String[][] out = new String[n][];
+        for (int i = 0; i < n; i++) {
+            int roll = r.nextInt(10);
+            if (roll < 6) {
+                out[i] = new String[]{"waiting", null};
+            } else if (roll < 8) {
+                out[i] = new String[]{"chosen", r.nextBoolean() ? "pending" : "accepted"};
+            } else if (roll < 9) {
+                out[i] = new String[]{"chosen", "declined"};
+            } else {
+                out[i] = new String[]{r.nextBoolean() ? "selected" : "cancelled", null};
+            }
+        }
+        return out;
+    }
+
+    static List<Entrant> entrants(int n) {
+        Random r = new Random(4);
+        List<Entrant> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String name = i % 20 == 0 ? "Sam \"The Hammer\" " + i : "Entrant Name " + i;
+            String status = r.nextInt(4) == 0 ? "Accepted" : (r.nextBoolean() ? "Pending" : "Declined");
+            out.add(new Entrant("uid-" + Long.toHexString(r.nextLong()), name, status, null));
+        }
+        return out;
+    }
+
+    static String sentence(Random r, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[r.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -6,59 +6,176 @@ const admin = require('firebase-admin');
 admin.initializeApp();
 const db = admin.firestore();
 
+/** Events written per batch by the status jobs. */
+const STATUS_BATCH_SIZE = 200;
+
+/** gRPC status of a create() that found the document already there. */
+const ALREADY_EXISTS = 6;
+
+/** gRPC status of an update() that found no document. */
+const NOT_FOUND = 5;
+
 /**
- * Scheduled function that runs every hour to update event statuses
+ * Stored status at a time: 'closed' once the registration window has ended, else 'open'.
+ * Must match EventStatusEngine on the Android side.
  */
-exports.updateEventStatuses = onSchedule({
-  schedule: 'every 1 hours',
-  timeZone: 'America/Edmonton',
-}, async (event) => {
-  console.log('Running scheduled event status update...');
+function statusAt(data, nowMillis) {
+  if (data.regOpens && data.regCloses && nowMillis > data.regCloses.toMillis()) {
+    return 'closed';
+  }
+  return 'open';
+}
 
-  try {
-    const now = admin.firestore.Timestamp.now();
-    const eventsRef = db.collection('org_events');
-    const snapshot = await eventsRef.get();
+/**
+ * When the stored status will next change, or null if it never will. Kept on each event
+ * as nextStatusAt, which makes the events collection a queue ordered by transition time:
+ * the status jobs read only the events that are due, not the whole catalog.
+ */
+function nextStatusAt(data, nowMillis) {
+  if (data.status === 'flagged' || !data.regOpens || !data.regCloses) {
+    return null;
+  }
+  const closes = data.regCloses.toMillis();
+  return nowMillis <= closes ? admin.firestore.Timestamp.fromMillis(closes + 1) : null;
+}
+
+/** True when two optional Timestamps are the same instant. */
+function sameTime(a, b) {
+  if (!a || !b) {
+    return !a && !b;
+  }
+  return a.toMillis() === b.toMillis();
+}
 
-    let updateCount = 0;
-    const batch = db.batch();
+/**
+ * Applies every transition that is due by `now`, STATUS_BATCH_SIZE events at a time.
+ * Each handled event gets its following nextStatusAt (or loses the field), so it leaves
+ * the due range and the loop ends.
+ *
+ * @return {Promise<number>} events whose status changed
+ */
+async function runDueTransitions(now) {
+  const nowMillis = now.toMillis();
+  let updated = 0;
+  for (;;) {
+    const due = await db.collection('org_events')
+        .where('nextStatusAt', '<=', now)
+        .orderBy('nextStatusAt')
+        .limit(STATUS_BATCH_SIZE)
+        .get();
+    if (due.empty) {
+      break;
+    }
 
-    snapshot.forEach((doc) => {
+    const batch = db.batch();
+    due.forEach((doc) => {
       const data = doc.data();
-
-      if (data.status === 'flagged') {
-        return;
+      const next = nextStatusAt(data, nowMillis);
+      const update = {
+        nextStatusAt: next || admin.firestore.FieldValue.delete(),
+        updatedAt: admin.firestore.FieldValue.serverTimestamp(),
+      };
+      const status = statusAt(data, nowMillis);
+      if (data.status !== 'flagged' && data.status !== status) {
+        console.log(`Updating ${doc.id}: ${data.status} -> ${status}`);
+        update.status = status;
+        updated++;
       }
+      batch.update(doc.ref, update);
+    });
+    await batch.commit();
 
-      const regOpens = data.regOpens;
-      const regCloses = data.regCloses;
-
-      let newStatus = null;
-
-      if (regOpens && regCloses) {
-        if (now.toMillis() > regCloses.toMillis()) {
-          newStatus = 'closed';
-        } else {
-          newStatus = 'open';
-        }
-      } else {
-        newStatus = 'open';
-      }
+    if (due.size < STATUS_BATCH_SIZE) {
+      break;
+    }
+  }
+  return updated;
+}
 
-      if (data.status !== newStatus) {
-        console.log(`Updating ${doc.id}: ${data.status} -> ${newStatus}`);
-        batch.update(doc.ref, {status: newStatus});
-        updateCount++;
+/**
+ * Re-evaluates every event once: status, nextStatusAt and the typeKey backfill. Only
+ * needed for events written before nextStatusAt existed; afterwards onEventWrite keeps
+ * the field current and the due-only jobs are enough.
+ *
+ * @return {Promise<number>} events updated
+ */
+async function backfillAllStatuses(now) {
+  const nowMillis = now.toMillis();
+  const snapshot = await db.collection('org_events').get();
+
+  const updates = [];
+  snapshot.forEach((doc) => {
+    const data = doc.data();
+    const update = {};
+
+    if (data.status !== 'flagged') {
+      const status = statusAt(data, nowMillis);
+      if (data.status !== status) {
+        update.status = status;
       }
-    });
+    }
+    const next = nextStatusAt(data, nowMillis);
+    if (!sameTime(data.nextStatusAt, next)) {
+      update.nextStatusAt = next || admin.firestore.FieldValue.delete();
+    }
+    const typeKey = typeKeyOf(data.type);
+    if ((data.typeKey || null) !== typeKey) {
+      update.typeKey = typeKey;
+    }
+    if (Object.keys(update).length > 0) {
+      update.updatedAt = admin.firestore.FieldValue.serverTimestamp();
+      updates.push([doc.ref, update]);
+    }
+  });
 
-    if (updateCount > 0) {
-      await batch.commit();
-      console.log(`Updated ${updateCount} event(s)`);
-    } else {
-      console.log('No events needed status updates');
+  for (let i = 0; i < updates.length; i += STATUS_BATCH_SIZE) {
+    const batch = db.batch();
+    for (const [ref, update] of updates.slice(i, i + STATUS_BATCH_SIZE)) {
+      batch.update(ref, update);
     }
+    await batch.commit();
+  }
+  return updates.length;
+}
 
+/** Written once backfillAllStatuses has run; until then the scheduler runs it. */
+const STATUS_BACKFILL_MARKER = 'function_state/status_backfill';
+
+/**
+ * Runs backfillAllStatuses once, so events written before nextStatusAt and typeKey
+ * existed get them without anyone calling manualUpdateStatuses. Later runs cost one read.
+ *
+ * @return {Promise<number>} events updated, 0 once the marker exists
+ */
+async function backfillStatusesOnce(now) {
+  const marker = db.doc(STATUS_BACKFILL_MARKER);
+  if ((await marker.get()).exists) {
+    return 0;
+  }
+  const updated = await backfillAllStatuses(now);
+  await marker.set({completedAt: admin.firestore.FieldValue.serverTimestamp(), updated});
+  return updated;
+}
+
+/**
+ * Scheduled function that applies the event status transitions that are due. It reads
+ * only due events, so it can run often without its cost growing with the catalog. The
+ * first run after a deploy also backfills events that predate the queue.
+ */
+exports.updateEventStatuses = onSchedule({
+  schedule: 'every 10 minutes',
+  timeZone: 'America/Edmonton',
+}, async (event) => {
+  try {
+    const now = admin.firestore.Timestamp.now();
+    const backfilled = await backfillStatusesOnce(now);
+    if (backfilled > 0) {
+      console.log(`Backfilled ${backfilled} event(s)`);
+    }
+    const updated = await runDueTransitions(now);
+    if (updated > 0) {
+      console.log(`Updated ${updated} event(s)`);
+    }
     return null;
   } catch (error) {
     console.error('Error updating event statuses:', error);
@@ -67,99 +184,716 @@ exports.updateEventStatuses = onSchedule({
 });
 
 /**
- * Triggered when an event is created or modified
+ * Lower-cased event type, stored as typeKey so the app's category filter can use whereIn.
+ */
+function typeKeyOf(type) {
+  const key = typeof type === 'string' ? type.trim().toLowerCase() : '';
+  return key || null;
+}
+
+/**
+ * True when this update set updatedAt itself (a status job or the stamp below), so it
+ * must not be stamped again. A create is always stamped: a client-set updatedAt comes
+ * from the device clock and could sit below the catalogs' high-water marks.
+ */
+function setsUpdatedAt(before, data) {
+  if (!before.exists || !data.updatedAt) {
+    return false;
+  }
+  const previous = before.data().updatedAt;
+  return !previous || !previous.isEqual(data.updatedAt);
+}
+
+/**
+ * Triggered when an event is created, modified or deleted.
+ *
+ * Stamps updatedAt on every change so the app's local event catalog can sync with an
+ * updatedAt high-water mark, and leaves a tombstone for deletions so catalogs that were
+ * offline at the time still drop the event.
  */
 exports.onEventWrite = onDocumentWritten('org_events/{eventId}', async (event) => {
   const after = event.data.after;
   const before = event.data.before;
 
   if (!after.exists) {
-    return null;
+    return db.collection('org_events_tombstones').doc(event.params.eventId)
+        .set({deletedAt: admin.firestore.FieldValue.serverTimestamp()});
+  }
+
+  if (!before.exists) {
+    // A new event has an empty waiting list, so its counts start at zero without a recount.
+    await after.ref.collection('stats').doc('waiting_list').create(emptyStats())
+        .catch((error) => {
+          if (error.code !== ALREADY_EXISTS) {
+            throw error;
+          }
+        });
   }
 
   const data = after.data();
+  const update = {};
 
-  if (data.status === 'flagged') {
-    return null;
+  if (!setsUpdatedAt(before, data)) {
+    update.updatedAt = admin.firestore.FieldValue.serverTimestamp();
   }
 
-  const now = admin.firestore.Timestamp.now();
-  const regOpens = data.regOpens;
-  const regCloses = data.regCloses;
-
-  let newStatus = null;
+  const typeKey = typeKeyOf(data.type);
+  if ((data.typeKey || null) !== typeKey) {
+    update.typeKey = typeKey;
+  }
 
-  if (regOpens && regCloses) {
-    if (now.toMillis() > regCloses.toMillis()) {
-      newStatus = 'closed';
-    } else {
-      newStatus = 'open';
+  const nowMillis = Date.now();
+  if (data.status !== 'flagged') {
+    const newStatus = statusAt(data, nowMillis);
+    if (data.status !== newStatus &&
+        (!before.exists || before.data().status === data.status)) {
+      console.log(`Auto-updating event ${event.params.eventId}: ${data.status} -> ${newStatus}`);
+      update.status = newStatus;
     }
-  } else {
-    newStatus = 'open';
   }
 
-  if (data.status !== newStatus &&
-      (!before.exists || before.data().status === data.status)) {
-    console.log(`Auto-updating event ${event.params.eventId}: ${data.status} -> ${newStatus}`);
-    return after.ref.update({status: newStatus});
+  const next = nextStatusAt(data, nowMillis);
+  if (!sameTime(data.nextStatusAt, next)) {
+    update.nextStatusAt = next || admin.firestore.FieldValue.delete();
   }
 
-  return null;
+  if (Object.keys(update).length === 0) {
+    return null;
+  }
+  return after.ref.update(update);
 });
 
+/** How long a deletion tombstone is kept. EventCatalog resyncs before this runs out. */
+const TOMBSTONE_TTL_MS = 30 * 24 * 60 * 60 * 1000;
+
+/**
+ * Scheduled function that deletes tombstones older than TOMBSTONE_TTL_MS, so the
+ * collection the catalogs listen to stays small.
+ */
+exports.pruneEventTombstones = onSchedule({
+  schedule: 'every 24 hours',
+  timeZone: 'America/Edmonton',
+}, async (event) => {
+  try {
+    const cutoff = admin.firestore.Timestamp.fromMillis(Date.now() - TOMBSTONE_TTL_MS);
+    const stale = await db.collection('org_events_tombstones')
+        .where('deletedAt', '<', cutoff).get();
+    const writer = db.bulkWriter();
+    stale.forEach((doc) => writer.delete(doc.ref));
+    await writer.close();
+    if (stale.size > 0) {
+      console.log(`Pruned ${stale.size} event tombstone(s)`);
+    }
+    return null;
+  } catch (error) {
+    console.error('Error pruning event tombstones:', error);
+    return null;
+  }
+});
+
+/**
+ * Devices allowed to run admin-only callables. Must match
+ * AdminAuthManager.AUTHORIZED_DEVICE_IDS on the Android side.
+ */
+const ADMIN_DEVICE_IDS = new Set([
+  '0da496796da0ac39',
+  '0b5f61e7b8ce395e',
+  '282bb7ff4beb39dc',
+  'd46fd6b7513064fc',
+]);
+
+/**
+ * Throws unless the call is signed in with the account that owns userId. The app keys
+ * users by device id rather than by auth uid, so the first signed-in caller for a device
+ * id is recorded in device_owners/{userId} and later calls must come from that account.
+ */
+async function requireOwner(request, userId) {
+  if (!request.auth) {
+    throw new HttpsError('unauthenticated', 'Sign in first');
+  }
+  const uid = request.auth.uid;
+  if (userId === uid) {
+    return;
+  }
+  const ref = db.collection('device_owners').doc(userId);
+  try {
+    await ref.create({uid, createdAt: admin.firestore.FieldValue.serverTimestamp()});
+    return;
+  } catch (error) {
+    if (error.code !== ALREADY_EXISTS) {
+      throw error;
+    }
+  }
+  if ((await ref.get()).get('uid') !== uid) {
+    throw new HttpsError('permission-denied', 'Not signed in as this user');
+  }
+}
+
+/**
+ * Throws unless the call comes from an admin device ({deviceId} in the request data),
+ * signed in as its owner, the way AdminAuthManager gates the admin screens.
+ */
+async function requireAdmin(request) {
+  const deviceId = request.data && request.data.deviceId;
+  if (!request.auth) {
+    throw new HttpsError('unauthenticated', 'Sign in first');
+  }
+  if (!ADMIN_DEVICE_IDS.has(deviceId)) {
+    throw new HttpsError('permission-denied', 'Admins only');
+  }
+  await requireOwner(request, deviceId);
+}
+
 /**
- * Manual trigger from Android app
+ * Manual trigger from Android app. Applies the transitions that are due; pass
+ * {full: true} to re-evaluate every event again, which only admins may do. The scheduler
+ * already does that once after nextStatusAt is deployed.
  */
 exports.manualUpdateStatuses = onCall(async (request) => {
-  console.log('Manual status update triggered');
+  const full = !!(request.data && request.data.full);
+  if (full) {
+    await requireAdmin(request);
+  }
+  console.log(`Manual status update triggered${full ? ' (full)' : ''}`);
 
   try {
     const now = admin.firestore.Timestamp.now();
-    const eventsRef = db.collection('org_events');
-    const snapshot = await eventsRef.get();
+    const updateCount = full ? await backfillAllStatuses(now) : await runDueTransitions(now);
 
-    let updateCount = 0;
-    const batch = db.batch();
+    return {
+      success: true,
+      message: `Updated ${updateCount} event(s)`,
+    };
+  } catch (error) {
+    console.error('Error in manual update:', error);
+    throw new HttpsError('internal', error.message);
+  }
+});
 
-    snapshot.forEach((doc) => {
-      const eventData = doc.data();
+/**
+ * Which waiting-list counters one entry contributes to.
+ * Must match EventStats / EventStatsRepository on the Android side.
+ */
+function statsBuckets(data) {
+  const buckets = {total: 0, active: 0, waiting: 0, chosen: 0, accepted: 0, declined: 0};
+  if (!data) {
+    return buckets;
+  }
+  const status = (data.status || '').toLowerCase();
+  const responded = (data.responded || '').toLowerCase();
 
-      if (eventData.status === 'flagged') {
-        return;
-      }
+  buckets.total = 1;
+  buckets.active = (status !== 'cancelled' && responded !== 'declined') ? 1 : 0;
+  buckets.waiting = status === 'waiting' ? 1 : 0;
+  buckets.chosen = status === 'chosen' ? 1 : 0;
+  buckets.accepted = responded === 'accepted' ? 1 : 0;
+  buckets.declined = responded === 'declined' ? 1 : 0;
+  return buckets;
+}
 
-      const regOpens = eventData.regOpens;
-      const regCloses = eventData.regCloses;
+/** How long a handled trigger event id is remembered for retries (ms). */
+const APPLIED_EVENT_TTL_MS = 7 * 24 * 60 * 60 * 1000;
 
-      let newStatus = null;
+/**
+ * Commits `fill`'s writes together with a marker for this trigger event, so a retried
+ * delivery of the same event is a no-op instead of applying its increments twice.
+ * function_events/{id} has a TTL policy on expireAt.
+ *
+ * @return {Promise<boolean>} false when the event had already been applied
+ */
+async function applyOnce(event, fill) {
+  const batch = db.batch();
+  batch.create(db.collection('function_events').doc(event.id), {
+    expireAt: admin.firestore.Timestamp.fromMillis(Date.now() + APPLIED_EVENT_TTL_MS),
+  });
+  fill(batch);
+  try {
+    await batch.commit();
+    return true;
+  } catch (error) {
+    if (error.code === ALREADY_EXISTS) {
+      console.log(`Skipping duplicate delivery of ${event.id}`);
+      return false;
+    }
+    throw error;
+  }
+}
 
-      if (regOpens && regCloses) {
-        if (now.toMillis() > regCloses.toMillis()) {
-          newStatus = 'closed';
-        } else {
-          newStatus = 'open';
-        }
-      } else {
-        newStatus = 'open';
+/** Stats document of an event with every counter at zero, written when the event is created. */
+function emptyStats() {
+  return {
+    total: 0, active: 0, waiting: 0, chosen: 0, accepted: 0, declined: 0,
+    updatedAt: admin.firestore.FieldValue.serverTimestamp(),
+  };
+}
+
+/**
+ * Full recount of an event's waiting list with count() aggregations.
+ * Used once for events created before the stats document existed.
+ */
+async function recountWaitingList(listRef) {
+  const {Filter} = require('firebase-admin/firestore');
+  const count = async (query) => (await query.count().get()).data().count;
+
+  const [total, inactive, waiting, chosen, accepted, declined] = await Promise.all([
+    count(listRef),
+    count(listRef.where(Filter.or(
+        Filter.where('status', '==', 'cancelled'),
+        Filter.where('responded', '==', 'declined')))),
+    count(listRef.where('status', '==', 'waiting')),
+    count(listRef.where('status', '==', 'chosen')),
+    count(listRef.where('responded', '==', 'accepted')),
+    count(listRef.where('responded', '==', 'declined')),
+  ]);
+
+  return {total, active: Math.max(0, total - inactive), waiting, chosen, accepted, declined};
+}
+
+/**
+ * Creates an event's stats document from a recount if it does not exist yet.
+ *
+ * @return {Promise<object|null>} the counts written, or null if the document already existed
+ */
+async function seedStats(eventRef) {
+  const statsRef = eventRef.collection('stats').doc('waiting_list');
+  if ((await statsRef.get()).exists) {
+    return null;
+  }
+  const counts = await recountWaitingList(eventRef.collection('waiting_list'));
+  try {
+    await statsRef.create({...counts, updatedAt: admin.firestore.FieldValue.serverTimestamp()});
+    return counts;
+  } catch (error) {
+    if (error.code === ALREADY_EXISTS) {
+      return null;
+    }
+    throw error;
+  }
+}
+
+/** Geohash length of the density cells in org_events/{eventId}/stats/geo (about 1.2 km x 0.6 km). */
+const GEO_CELL_PRECISION = 6;
+const GEOHASH_PATTERN = /^[0-9b-hjkmnp-z]+$/;
+
+/**
+ * Density cell an entry is counted in, or null when it has no usable geohash.
+ * Must match GeoDensity / EntrantGeoRepository on the Android side.
+ */
+function geoCell(data) {
+  const hash = data && typeof data.geohash === 'string' ? data.geohash : '';
+  if (hash.length < GEO_CELL_PRECISION || !GEOHASH_PATTERN.test(hash)) {
+    return null;
+  }
+  return hash.slice(0, GEO_CELL_PRECISION);
+}
+
+/**
+ * Full recount of an event's density cells, reading only the geohash field.
+ * Used for events whose geo document does not exist yet.
+ */
+async function recountGeoCells(listRef) {
+  const snap = await listRef.where('geohash', '>', '').select('geohash').get();
+  const cells = {};
+  snap.forEach((doc) => {
+    const cell = geoCell(doc.data());
+    if (cell) {
+      cells[cell] = (cells[cell] || 0) + 1;
+    }
+  });
+  const total = Object.values(cells).reduce((sum, n) => sum + n, 0);
+  return {precision: GEO_CELL_PRECISION, total, cells};
+}
+
+/**
+ * Creates an event's geo document from a recount if it does not exist yet.
+ *
+ * @return {Promise<object|null>} the counts written, or null if the document already existed
+ */
+async function seedGeo(eventRef) {
+  const geoRef = eventRef.collection('stats').doc('geo');
+  if ((await geoRef.get()).exists) {
+    return null;
+  }
+  const counts = await recountGeoCells(eventRef.collection('waiting_list'));
+  try {
+    await geoRef.create({...counts, updatedAt: admin.firestore.FieldValue.serverTimestamp()});
+    return counts;
+  } catch (error) {
+    if (error.code === ALREADY_EXISTS) {
+      return null;
+    }
+    throw error;
+  }
+}
+
+/**
+ * Keeps org_events/{eventId}/stats/waiting_list (counts per status) and
+ * org_events/{eventId}/stats/geo (entrants per geohash cell) in step with the waiting
+ * list, so clients can show counts and density with a single document read each.
+ *
+ * Both are plain FieldValue.increment writes, so concurrent joins never contend on a read
+ * of either document, and the trigger's event id is recorded in the same batch so a
+ * retried delivery does not count twice. A cell that empties stays in the geo document
+ * at 0; GeoDensity leaves such cells out.
+ */
+exports.onWaitingListWrite = onDocumentWritten('org_events/{eventId}/waiting_list/{userId}', async (event) => {
+  const before = event.data.before.exists ? event.data.before.data() : null;
+  const after = event.data.after.exists ? event.data.after.data() : null;
+
+  const oldBuckets = statsBuckets(before);
+  const newBuckets = statsBuckets(after);
+
+  const update = {};
+  for (const key of Object.keys(newBuckets)) {
+    const delta = newBuckets[key] - oldBuckets[key];
+    if (delta !== 0) {
+      update[key] = admin.firestore.FieldValue.increment(delta);
+    }
+  }
+
+  const oldCell = geoCell(before);
+  const newCell = geoCell(after);
+  const geoUpdate = {};
+  if (oldCell !== newCell) {
+    if (oldCell) {
+      geoUpdate[`cells.${oldCell}`] = admin.firestore.FieldValue.increment(-1);
+    }
+    if (newCell) {
+      geoUpdate[`cells.${newCell}`] = admin.firestore.FieldValue.increment(1);
+    }
+    const total = (newCell ? 1 : 0) - (oldCell ? 1 : 0);
+    if (total !== 0) {
+      geoUpdate.total = admin.firestore.FieldValue.increment(total);
+    }
+  }
+
+  const countsChanged = Object.keys(update).length > 0;
+  const cellsChanged = Object.keys(geoUpdate).length > 0;
+  if (!countsChanged && !cellsChanged) {
+    return null;
+  }
+
+  // Events from before a document existed: its recount already sees this write.
+  const eventRef = db.collection('org_events').doc(event.params.eventId);
+  const [statsSeeded, geoSeeded] = await Promise.all([
+    countsChanged ? seedStats(eventRef) : null,
+    cellsChanged ? seedGeo(eventRef) : null,
+  ]);
+  const writeCounts = countsChanged && !statsSeeded;
+  const writeCells = cellsChanged && !geoSeeded;
+  if (!writeCounts && !writeCells) {
+    return null;
+  }
+
+  const now = admin.firestore.FieldValue.serverTimestamp();
+  return applyOnce(event, (batch) => {
+    if (writeCounts) {
+      batch.set(eventRef.collection('stats').doc('waiting_list'), {...update, updatedAt: now}, {merge: true});
+    }
+    if (writeCells) {
+      batch.update(eventRef.collection('stats').doc('geo'), {...geoUpdate, updatedAt: now});
+    }
+  });
+});
+
+/**
+ * Called by the app when an event has no stats document yet, instead of running one
+ * count() aggregation per counter on the device. Creates the document from one recount.
+ */
+exports.recountWaitingListStats = onCall(async (request) => {
+  const eventId = request.data && request.data.eventId;
+  if (typeof eventId !== 'string' || !eventId) {
+    throw new HttpsError('invalid-argument', 'eventId is required');
+  }
+  const eventRef = db.collection('org_events').doc(eventId);
+  const seeded = await seedStats(eventRef);
+  if (seeded) {
+    return seeded;
+  }
+  const stats = await eventRef.collection('stats').doc('waiting_list').get();
+  const data = stats.data() || {};
+  delete data.updatedAt;
+  return data;
+});
+
+// Broadcasts (org_events/{eventId}/broadcasts) have no trigger on purpose: each reader's
+// inbox matches the audience against their own waiting-list entry, so a send costs the
+// sender's one batch and no function writes, however large the audience.
+// OperationBudgetTest.BROADCAST_SERVER_WRITES records that budget; a trigger that writes
+// per broadcast or per recipient must raise it there.
+
+/** Whether an inbox item counts as unread. Must match InboxEntry.unreadCount. */
+function isUnread(data) {
+  return !!data && data.read !== true && data.archived !== true;
+}
+
+/**
+ * The user's count of unread personal notices, which the app's inbox badge adds to the
+ * unread broadcasts it matches itself. Must match InboxEntry.unreadCounterPath.
+ */
+function unreadCounterRef(userId) {
+  return db.collection('users').doc(userId).collection('counters').doc('inbox');
+}
+
+/**
+ * Adds delta to a user's unread counter once per trigger event. Counters are created only
+ * by recountInboxUnread, whose count already includes every earlier change, so a user
+ * without one is skipped rather than given a partial count.
+ */
+async function bumpUnread(event, userId, delta) {
+  if (delta === 0) {
+    return false;
+  }
+  try {
+    return await applyOnce(event, (batch) => batch.update(unreadCounterRef(userId), {
+      unread: admin.firestore.FieldValue.increment(delta),
+      updatedAt: admin.firestore.FieldValue.serverTimestamp(),
+    }));
+  } catch (error) {
+    if (error.code === NOT_FOUND) {
+      return false;
+    }
+    throw error;
+  }
+}
+
+/**
+ * Stamps recipientId on users/{userId}/registrations/{eventId}/inbox/{inboxId} documents
+ * that were written without it, so the app's collectionGroup('inbox') feed finds them,
+ * and keeps the user's unread counter in step as notices are added, read, archived or
+ * deleted.
+ */
+exports.onUserInboxWrite = onDocumentWritten('users/{userId}/registrations/{eventId}/inbox/{inboxId}', async (event) => {
+  const userId = event.params.userId;
+  const before = event.data.before.exists ? event.data.before.data() : null;
+  const after = event.data.after.exists ? event.data.after.data() : null;
+
+  await bumpUnread(event, userId, (isUnread(after) ? 1 : 0) - (isUnread(before) ? 1 : 0));
+  if (!after || after.recipientId === userId) {
+    return null;
+  }
+  return event.data.after.ref.update({recipientId: userId});
+});
+
+/**
+ * Counts a user's unread personal notices and creates their counter if it does not exist
+ * yet. Called by the app, signed in as that user, when the badge finds no counter.
+ * Broadcasts are not counted here: their audience is matched on the device, which adds
+ * them to the badge itself.
+ */
+exports.recountInboxUnread = onCall(async (request) => {
+  const userId = request.data && request.data.userId;
+  if (typeof userId !== 'string' || !userId) {
+    throw new HttpsError('invalid-argument', 'userId is required');
+  }
+  await requireOwner(request, userId);
+  const ref = unreadCounterRef(userId);
+  const existing = await ref.get();
+  if (existing.exists) {
+    return {unread: existing.get('unread') || 0};
+  }
+
+  const notices = await db.collectionGroup('inbox')
+      .where('recipientId', '==', userId)
+      .select('read', 'archived')
+      .get();
+  let unread = 0;
+  notices.forEach((doc) => {
+    if (isUnread(doc.data())) {
+      unread++;
+    }
+  });
+
+  try {
+    await ref.create({unread, updatedAt: admin.firestore.FieldValue.serverTimestamp()});
+    return {unread};
+  } catch (error) {
+    if (error.code === ALREADY_EXISTS) {
+      return {unread: (await ref.get()).get('unread') || 0};
+    }
+    throw error;
+  }
+});
+
+/**
+ * One-off backfill of recipientId for inbox documents written before the inbox feed.
+ * Pass {userId} to backfill one user, which that user may do, or nothing to backfill
+ * everyone, which only admins may do.
+ */
+exports.backfillInboxRecipients = onCall(async (request) => {
+  const userId = request.data && request.data.userId;
+  if (userId !== undefined && (typeof userId !== 'string' || !userId)) {
+    throw new HttpsError('invalid-argument', 'userId must be a non-empty string');
+  }
+  if (userId) {
+    await requireOwner(request, userId);
+  } else {
+    await requireAdmin(request);
+  }
+
+  try {
+    const users = userId ?
+      [db.collection('users').doc(userId)] :
+      await db.collection('users').listDocuments();
+
+    const writer = db.bulkWriter();
+    let updateCount = 0;
+
+    for (const userRef of users) {
+      const registrations = await userRef.collection('registrations').listDocuments();
+      for (const regRef of registrations) {
+        const inbox = await regRef.collection('inbox').get();
+        inbox.forEach((doc) => {
+          if (doc.get('recipientId') !== userRef.id) {
+            writer.update(doc.ref, {recipientId: userRef.id});
+            updateCount++;
+          }
+        });
       }
+    }
+
+    await writer.close();
+    return {
+      success: true,
+      message: `Updated ${updateCount} inbox item(s)`,
+    };
+  } catch (error) {
+    console.error('Error in inbox backfill:', error);
+    throw new HttpsError('internal', error.message);
+  }
+});
 
-      if (eventData.status !== newStatus) {
-        batch.update(doc.ref, {status: newStatus});
-        updateCount++;
+/**
+ * Keeps images/{type}_{ownerId} (the admin gallery index) in step with its owner:
+ * drops the entry when the owner is deleted or its image is cleared, adds an entry
+ * for images written by clients that do not index them, and follows title changes.
+ * Uploads from the app write the entry themselves with the real size and upload time.
+ */
+async function syncImageIndex(type, ownerId, before, after, urlField, titleField) {
+  const ref = db.collection('images').doc(`${type}_${ownerId}`);
+  const hasImage = (data) => {
+    const url = data ? data[urlField] : null;
+    return typeof url === 'string' && url !== '' && url !== '""';
+  };
+
+  if (!hasImage(after)) {
+    return hasImage(before) ? ref.delete() : null;
+  }
+
+  const url = after[urlField];
+  const title = after[titleField] || '';
+  if (hasImage(before) && before[urlField] === url) {
+    // Same image: most owner writes touch other fields, so skip the index read.
+    if ((before[titleField] || '') === title) {
+      return null;
+    }
+    return ref.update({title}).catch((error) => {
+      if (error.code !== NOT_FOUND) {
+        throw error;
       }
     });
+  }
+  const entry = await ref.get();
+  if (!entry.exists || entry.get('url') !== url) {
+    const data = {
+      url,
+      ownerId,
+      type,
+      title,
+      bytes: 0,
+      uploadedAt: admin.firestore.FieldValue.serverTimestamp(),
+    };
+    if (entry.exists) {
+      return ref.set(data);
+    }
+    // create() fails if the uploader indexed it meanwhile; its entry has the real size.
+    return ref.create(data).catch((error) => {
+      if (error.code !== ALREADY_EXISTS) {
+        throw error;
+      }
+    });
+  }
+  if (entry.get('title') !== title) {
+    return ref.update({title});
+  }
+  return null;
+}
 
-    if (updateCount > 0) {
-      await batch.commit();
+exports.syncEventImage = onDocumentWritten('org_events/{eventId}', async (event) => {
+  const before = event.data.before.exists ? event.data.before.data() : null;
+  const after = event.data.after.exists ? event.data.after.data() : null;
+  return syncImageIndex('event', event.params.eventId, before, after, 'posterUrl', 'title');
+});
+
+exports.syncProfileImage = onDocumentWritten('users/{userId}', async (event) => {
+  const before = event.data.before.exists ? event.data.before.data() : null;
+  const after = event.data.after.exists ? event.data.after.data() : null;
+  return syncImageIndex('profile', event.params.userId, before, after, 'profilepicture', 'name');
+});
+
+/** Index entries read per getAll() by the backfill. */
+const BACKFILL_READ_CHUNK = 300;
+
+/**
+ * One-off backfill of the images index for posters and profile pictures saved before it
+ * existed. Event posters take the event's createdAt as their upload time. Only fields an
+ * entry is missing are written, so real sizes and upload times from the app are kept.
+ * Admins only.
+ */
+exports.backfillImageIndex = onCall(async (request) => {
+  await requireAdmin(request);
+  try {
+    const candidates = [];
+    const add = (type, doc, url, title, uploadedAt) => {
+      if (typeof url !== 'string' || url === '' || url === '""') {
+        return;
+      }
+      candidates.push({
+        ref: db.collection('images').doc(`${type}_${doc.id}`),
+        data: {
+          url,
+          ownerId: doc.id,
+          type,
+          title: title || '',
+          bytes: 0,
+          uploadedAt: uploadedAt || admin.firestore.FieldValue.serverTimestamp(),
+        },
+      });
+    };
+
+    const events = await db.collection('org_events').where('posterUrl', '>', '').get();
+    events.forEach((doc) => add('event', doc, doc.get('posterUrl'), doc.get('title'), doc.get('createdAt')));
+
+    const users = await db.collection('users').where('profilepicture', '>', '').get();
+    users.forEach((doc) => add('profile', doc, doc.get('profilepicture'), doc.get('name'), null));
+
+    const writer = db.bulkWriter();
+    let indexed = 0;
+    for (let i = 0; i < candidates.length; i += BACKFILL_READ_CHUNK) {
+      const chunk = candidates.slice(i, i + BACKFILL_READ_CHUNK);
+      const entries = await db.getAll(...chunk.map((c) => c.ref));
+      entries.forEach((entry, j) => {
+        const existing = entry.exists ? entry.data() : {};
+        const missing = {};
+        for (const [field, value] of Object.entries(chunk[j].data)) {
+          if (existing[field] === undefined) {
+            missing[field] = value;
+          }
+        }
+        if (Object.keys(missing).length > 0) {
+          writer.set(chunk[j].ref, missing, {merge: true});
+          indexed++;
+        }
+      });
     }
 
+    await writer.close();
     return {
       success: true,
-      message: `Updated ${updateCount} event(s)`,
+      message: `Indexed ${indexed} image(s)`,
     };
   } catch (error) {
-    console.error('Error in manual update:', error);
+    console.error('Error in image index backfill:', error);
     throw new HttpsError('internal', error.message);
   }
-});
\ No newline at end of file
+});
@@ -22,5 +22,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "code"
 include(":app")
+include(":benchmarks")
 
 